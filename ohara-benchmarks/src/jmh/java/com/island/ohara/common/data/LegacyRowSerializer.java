@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * A copy of the stream-based version-0 encoder which was replaced by {@link RowSerializer}. It is
+ * kept in benchmarks only to compare the throughput and allocation with the current encoder.
+ */
+
+final class LegacyRowSerializer {
+
+  static byte[] to(Row row) {
+    try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+      output.write(0);
+      toV0(output, row);
+      output.flush();
+      return output.toByteArray();
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void toV0(ByteArrayOutputStream output, Row row) throws IOException {
+    output.write(Serializer.INT.to(row.cells().size()));
+    row.cells().stream()
+        .forEach(
+            c -> {
+              Cell<Object> cell = (Cell<Object>) c;
+              try {
+                byte[] nameBytes = Serializer.STRING.to(cell.name());
+                final byte[] valueBytes;
+                DataType type = DataType.from(cell.value());
+                switch (type) {
+                  case BYTES:
+                    valueBytes = Serializer.BYTES.to((byte[]) cell.value());
+                    break;
+                  case BOOLEAN:
+                    valueBytes = Serializer.BOOLEAN.to((boolean) cell.value());
+                    break;
+                  case BYTE:
+                    valueBytes = Serializer.BYTE.to((byte) cell.value());
+                    break;
+                  case SHORT:
+                    valueBytes = Serializer.SHORT.to((short) cell.value());
+                    break;
+                  case INT:
+                    valueBytes = Serializer.INT.to((int) cell.value());
+                    break;
+                  case LONG:
+                    valueBytes = Serializer.LONG.to((long) cell.value());
+                    break;
+                  case FLOAT:
+                    valueBytes = Serializer.FLOAT.to((float) cell.value());
+                    break;
+                  case DOUBLE:
+                    valueBytes = Serializer.DOUBLE.to((double) cell.value());
+                    break;
+                  case STRING:
+                    valueBytes = Serializer.STRING.to((String) cell.value());
+                    break;
+                  case ROW:
+                    valueBytes = to((Row) cell.value());
+                    break;
+                  case OBJECT:
+                    valueBytes = Serializer.OBJECT.to(cell.value());
+                    break;
+                  default:
+                    throw new UnsupportedClassVersionError(type.getClass().getName());
+                }
+                output.write(Serializer.SHORT.to((short) nameBytes.length));
+                output.write(nameBytes);
+                output.write(Serializer.SHORT.to(type.order));
+                output.write(Serializer.SHORT.to((short) valueBytes.length));
+                output.write(valueBytes);
+              } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+              }
+            });
+    output.write(Serializer.SHORT.to((short) row.tags().size()));
+    row.tags()
+        .forEach(
+            tag -> {
+              try {
+                byte[] tagBytes = Serializer.STRING.to(tag);
+                output.write(Serializer.SHORT.to((short) tagBytes.length));
+                output.write(tagBytes);
+              } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+              }
+            });
+  }
+
+  private LegacyRowSerializer() {}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The hot paths of {@link Row} and {@link Cell}: encoding, decoding, name lookup, creation (with
+ * duplicate checking) and the hash code of bytes cell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RowBenchmark {
+
+  @Param({"10", "40"})
+  public int numberOfCells;
+
+  private Cell<?>[] cells;
+  private Row row;
+  private byte[] bytes;
+  private String lastName;
+  private Cell<byte[]> bytesCell;
+
+  @Setup
+  public void setup() {
+    cells =
+        IntStream.range(0, numberOfCells)
+            .mapToObj(
+                i -> {
+                  String name = "column_" + i;
+                  switch (i % 4) {
+                    case 0:
+                      return Cell.of(name, (long) i);
+                    case 1:
+                      return Cell.of(name, (double) i);
+                    case 2:
+                      return Cell.of(name, "value_" + i);
+                    default:
+                      return Cell.of(name, i % 2 == 0);
+                  }
+                })
+            .toArray(Cell[]::new);
+    row = Row.of(cells);
+    bytes = Serializer.ROW.to(row);
+    lastName = "column_" + (numberOfCells - 1);
+    bytesCell = Cell.of("bytes", new byte[numberOfCells * 10]);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return Serializer.ROW.to(row);
+  }
+
+  @Benchmark
+  public Row deserialize() {
+    return Serializer.ROW.from(bytes);
+  }
+
+  @Benchmark
+  public Cell<?> lazyDeserializeAndGetCell() {
+    return Serializer.LAZY_ROW.from(bytes).cell(lastName);
+  }
+
+  @Benchmark
+  public Cell<?> cellByName() {
+    return row.cell(lastName);
+  }
+
+  @Benchmark
+  public Row create() {
+    return Row.of(cells);
+  }
+
+  @Benchmark
+  public int hashCodeOfBytesCell() {
+    return bytesCell.hashCode();
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compare the pre-sized encoder of {@link Serializer#ROW} with the legacy stream-based encoder.
+ * Both of them produce the same version-0 bytes.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RowSerializerBenchmark {
+
+  @Param({"10", "40"})
+  public int numberOfCells;
+
+  private Row row;
+
+  @Setup
+  public void setup() {
+    row =
+        Row.of(
+            IntStream.range(0, numberOfCells)
+                .mapToObj(
+                    i -> {
+                      String name = "column_" + i;
+                      switch (i % 4) {
+                        case 0:
+                          return Cell.of(name, (long) i);
+                        case 1:
+                          return Cell.of(name, (double) i);
+                        case 2:
+                          return Cell.of(name, "value_" + i);
+                        default:
+                          return Cell.of(name, i % 2 == 0);
+                      }
+                    })
+                .toArray(Cell[]::new));
+    if (!Arrays.equals(LegacyRowSerializer.to(row), Serializer.ROW.to(row)))
+      throw new IllegalStateException("the encoders produce different bytes");
+  }
+
+  @Benchmark
+  public byte[] legacy() {
+    return LegacyRowSerializer.to(row);
+  }
+
+  @Benchmark
+  public byte[] presized() {
+    return Serializer.ROW.to(row);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf;
+
+import com.island.ohara.common.data.Column;
+import com.island.ohara.common.data.ColumnarRow;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.RowSchema;
+import com.island.ohara.common.data.Serializer;
+import com.island.ohara.common.util.CommonUtils;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.MemoryRecordsBuilder;
+import org.apache.kafka.common.record.TimestampType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import scala.collection.JavaConverters;
+
+/**
+ * Compare the size of row format (version 0 and version 1) stored by broker. The rows are generated
+ * by the {@link package$#DEFAULT_SCHEMA()} of perf connector, and they are written to the record
+ * batch of kafka (the format stored by broker) as the key of record. The value of record is null,
+ * which is same to the source connector. The size is reported by the aux counter "bytesPerRecord".
+ * Noted: jmh sums the EVENTS counter of all iterations in the summary so please read the value of
+ * each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RowFormatBenchmark {
+
+  @Param({"0", "1"})
+  public int version;
+
+  @Param({"NONE", "LZ4"})
+  public String compression;
+
+  private Serializer<Row> serializer;
+  private CompressionType compressionType;
+  private Row row;
+
+  @Setup
+  public void setup() {
+    serializer = version == 0 ? Serializer.ROW : Serializer.COMPACT_ROW;
+    compressionType = CompressionType.forName(compression.toLowerCase());
+    List<Column> columns =
+        JavaConverters.seqAsJavaListConverter(package$.MODULE$.DEFAULT_SCHEMA()).asJava();
+    // the perf source fills the string columns by current time
+    RowSchema schema = RowSchema.of(columns);
+    ColumnarRow.Builder builder = schema.rowBuilder();
+    for (int index = 0; index != schema.size(); ++index)
+      builder.set(index, String.valueOf(CommonUtils.current()));
+    row = builder.build();
+    if (!row.equals(Serializer.ROW.from(serializer.to(row))))
+      throw new IllegalStateException("the serializer produces incorrect bytes");
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class BatchSize {
+    /** the size of record batch divided by the number of records */
+    public double bytesPerRecord;
+  }
+
+  /** write a batch of rows (same to the batch of perf source) to the record batch of kafka. */
+  @Benchmark
+  public MemoryRecords batch(BatchSize size) {
+    int numberOfRecords = package$.MODULE$.DEFAULT_BATCH();
+    MemoryRecordsBuilder builder =
+        MemoryRecords.builder(
+            ByteBuffer.allocate(1024), compressionType, TimestampType.CREATE_TIME, 0L);
+    long timestamp = CommonUtils.current();
+    for (int index = 0; index != numberOfRecords; ++index)
+      builder.append(timestamp, serializer.to(row), null);
+    MemoryRecords records = builder.build();
+    size.bytesPerRecord = (double) records.sizeInBytes() / numberOfRecords;
+    return records;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The mapping from kafka records to ohara records done by {@link Consumer}. The kafka records are
+ * created in memory so no broker is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConsumerBenchmark {
+
+  @Param({"500"})
+  public int numberOfRecords;
+
+  private Consumer.Batch<Row, byte[]> batch;
+
+  @Setup
+  public void setup() {
+    List<ConsumerRecord<byte[], byte[]>> records =
+        IntStream.range(0, numberOfRecords)
+            .mapToObj(
+                i ->
+                    new ConsumerRecord<byte[], byte[]>(
+                        "topic",
+                        0,
+                        i,
+                        Serializer.ROW.to(
+                            Row.of(
+                                Cell.of("a", i), Cell.of("b", "value_" + i), Cell.of("c", 1.0D))),
+                        null))
+            .collect(Collectors.toList());
+    batch =
+        new Consumer.Batch<>(
+            new ConsumerRecords<>(
+                Collections.singletonMap(new TopicPartition("topic", 0), records)),
+            Serializer.ROW);
+  }
+
+  /** the records are copied to a list. It is what {@link Consumer#poll(Duration)} does. */
+  @Benchmark
+  public List<Consumer.Record<Row, byte[]>> toRecords() {
+    return batch.toList();
+  }
+
+  /**
+   * the records are converted one by one. It is what the reader of {@link
+   * Consumer#pollBatch(Duration)} does.
+   */
+  @Benchmark
+  public void iterate(Blackhole blackhole) {
+    for (Consumer.Record<Row, byte[]> record : batch) blackhole.consume(record);
+  }
+}
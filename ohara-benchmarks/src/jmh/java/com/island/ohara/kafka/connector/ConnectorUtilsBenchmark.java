@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector;
+
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** The size accounting of {@link RowSourceTask} and {@link RowSinkTask}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConnectorUtilsBenchmark {
+
+  @Param({"10", "40"})
+  public int numberOfCells;
+
+  private Row row;
+  private SourceRecord record;
+
+  @Setup
+  public void setup() {
+    row =
+        Row.of(
+            IntStream.range(0, numberOfCells)
+                .mapToObj(i -> i % 2 == 0 ? Cell.of("c" + i, i) : Cell.of("c" + i, "v" + i))
+                .toArray(Cell[]::new));
+    record =
+        new SourceRecord(
+            null,
+            null,
+            "topic",
+            null,
+            Schema.BYTES_SCHEMA,
+            Serializer.ROW.to(row),
+            Schema.BYTES_SCHEMA,
+            null);
+  }
+
+  @Benchmark
+  public long sizeOfRow() {
+    return ConnectorUtils.sizeOf(row);
+  }
+
+  @Benchmark
+  public long sizeOfRecord() {
+    return ConnectorUtils.sizeOf(record);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.text.csv;
+
+import com.island.ohara.common.data.Column;
+import com.island.ohara.common.data.DataType;
+import com.island.ohara.kafka.connector.RowSourceRecord;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Convert the in-memory csv file to records by {@link CsvSourceConverter#poll()}. Half of fields
+ * are quoted and contain comma. The typed variant parses the unquoted fields to int.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CsvSourceConverterBenchmark {
+
+  @Param({"10", "40", "200"})
+  public int numberOfColumns;
+
+  @Param({"1000"})
+  public int numberOfLines;
+
+  private byte[] csv;
+  private List<Column> schema;
+
+  @Setup
+  public void setup() {
+    String header =
+        IntStream.range(0, numberOfColumns).mapToObj(i -> "c" + i).collect(Collectors.joining(","));
+    String lines =
+        IntStream.range(0, numberOfLines)
+            .mapToObj(
+                line ->
+                    IntStream.range(0, numberOfColumns)
+                        .mapToObj(i -> i % 2 == 0 ? String.valueOf(line * i) : "\"v," + i + "\"")
+                        .collect(Collectors.joining(",")))
+            .collect(Collectors.joining("\n"));
+    csv = (header + "\n" + lines).getBytes(StandardCharsets.UTF_8);
+    schema =
+        IntStream.range(0, numberOfColumns)
+            .mapToObj(
+                i ->
+                    Column.builder()
+                        .name("c" + i)
+                        .dataType(i % 2 == 0 ? DataType.INT : DataType.STRING)
+                        .order(i)
+                        .build())
+            .collect(Collectors.toList());
+    if (poll().size() != numberOfLines || pollWithSchema().size() != numberOfLines)
+      throw new IllegalStateException("the number of parsed lines is wrong");
+  }
+
+  /** the converter is stateful so each invocation reads the file by a new converter. */
+  private CsvSourceConverter converter(List<Column> schema) {
+    return new CsvSourceConverter.Builder()
+        .path("/benchmark.csv")
+        .topics(Collections.singletonList("topic"))
+        .offsetCache(new CsvOffsetCache())
+        .input(() -> new ByteArrayInputStream(csv))
+        .charset(StandardCharsets.UTF_8)
+        .batchSize(numberOfLines)
+        .schema(schema)
+        .build();
+  }
+
+  @Benchmark
+  public List<RowSourceRecord> poll() {
+    try (CsvSourceConverter converter = converter(Collections.emptyList())) {
+      return converter.poll();
+    }
+  }
+
+  @Benchmark
+  public List<RowSourceRecord> pollWithSchema() {
+    try (CsvSourceConverter converter = converter(schema)) {
+      return converter.poll();
+    }
+  }
+}
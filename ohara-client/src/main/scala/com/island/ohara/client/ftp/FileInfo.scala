@@ -0,0 +1,26 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.client.ftp
+
+/**
+  * the metadata of file listed by ftp server.
+  * @param name file name
+  * @param size file size in bytes
+  * @param lastModified the last modified time in milliseconds. It is -1 if the ftp server doesn't return it. NOTED: the
+  *                     precision depends on the ftp server. Some servers return the time in minutes.
+  */
+case class FileInfo(name: String, size: Long, lastModified: Long)
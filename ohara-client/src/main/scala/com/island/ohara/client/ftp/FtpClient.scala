@@ -20,7 +20,8 @@ import java.io._
 import java.nio.charset.{Charset, StandardCharsets}
 import java.nio.file.Files
 import java.util.Objects
-import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.{LinkedBlockingDeque, Semaphore, TimeUnit}
 
 import com.island.ohara.common.annotations.Optional
 import com.island.ohara.common.util.{CommonUtils, Releasable}
@@ -28,15 +29,25 @@ import com.typesafe.scalalogging.Logger
 import org.apache.commons.net.ftp.{FTP, FTPClient}
 
 import scala.concurrent.duration._
+import scala.util.Try
 
 /**
   * A general interface from ftp file system.
   * NOTED: FtpClient doesn't extend ReleaseOnce since it is a "retryable" class which do close-and-then-reconnect
   * internally. Hence, FtpClient MAY close itself many times and re-build the connection.
+  * NOTED: the FtpClient created by builder keeps a pool of connections. Each command checks out a connection, and the
+  * opened stream holds its connection until it is closed. Hence, the FtpClient can be shared by threads.
   */
 trait FtpClient extends Releasable {
   def listFileNames(dir: String): Seq[String]
 
+  /**
+    * list the files with their size and last modified time. It costs the same as listFileNames.
+    * @param dir folder
+    * @return files under the folder
+    */
+  def listFiles(dir: String): Seq[FileInfo]
+
   /**
     * open an input stream from a existent file. If file doesn't exist, an IllegalArgumentException will be thrown.
     * @param path file path
@@ -112,7 +123,11 @@ trait FtpClient extends Releasable {
     finally reader.close()
   }
 
-  def upload(path: String, file: File): Unit = upload(path, Files.readAllBytes(file.toPath))
+  def upload(path: String, file: File): Unit = {
+    val input = Files.newInputStream(file.toPath)
+    try upload(path, input)
+    finally input.close()
+  }
 
   def upload(path: String, data: Array[Byte]): Unit = {
     val output = create(path)
@@ -120,16 +135,46 @@ trait FtpClient extends Releasable {
     finally output.close()
   }
 
+  /**
+    * copy all bytes from the input stream to a new file. The input stream is not closed.
+    * @param path file path
+    * @param input data source
+    * @return the number of copied bytes
+    */
+  def upload(path: String, input: InputStream): Long = {
+    val output = create(path)
+    try FtpClient.copy(input, output)
+    finally output.close()
+  }
+
   def download(path: String): Array[Byte] = {
+    val output = new ByteArrayOutputStream()
+    download(path, output)
+    output.toByteArray
+  }
+
+  /**
+    * copy the file to the output stream. The output stream is not closed.
+    * @param path file path
+    * @param output data sink
+    * @return the number of copied bytes
+    */
+  def download(path: String, output: OutputStream): Long = {
     val input = open(path)
-    try {
-      val output = new ByteArrayOutputStream()
-      try {
-        val buf = new Array[Byte](128)
-        Iterator.continually(input.read(buf)).takeWhile(_ > 0).foreach(output.write(buf, 0, _))
-        output.toByteArray
-      } finally output.close()
-    } finally input.close()
+    try FtpClient.copy(input, output)
+    finally input.close()
+  }
+
+  /**
+    * copy the file to local file. The local file is overwritten if it exists.
+    * @param path file path
+    * @param file local file
+    * @return the number of copied bytes
+    */
+  def download(path: String, file: File): Long = {
+    val output = Files.newOutputStream(file.toPath)
+    try download(path, output)
+    finally output.close()
   }
 
   /**
@@ -169,6 +214,22 @@ trait FtpClient extends Releasable {
 
 object FtpClient {
   private[this] val LOG = Logger(classOf[FtpClient])
+
+  /**
+    * the size of buffer used by data connection and copy.
+    */
+  private[ftp] val BUFFER_SIZE: Int = 64 * 1024
+
+  private[ftp] def copy(input: InputStream, output: OutputStream): Long = {
+    val buf = new Array[Byte](BUFFER_SIZE)
+    var count = 0L
+    Iterator.continually(input.read(buf)).takeWhile(_ != -1).foreach { size =>
+      output.write(buf, 0, size)
+      count += size
+    }
+    count
+  }
+
   def builder(): Builder = new Builder
 
   class Builder private[FtpClient] extends com.island.ohara.common.Builder[FtpClient] {
@@ -182,6 +243,9 @@ object FtpClient {
     private[this] var password: String = _
     private[this] var retryTimeout: Duration = 0 second
     private[this] var retryBackoff: Duration = 1 second
+    private[this] var poolSize: Int = 1
+    private[this] var keepAlive: Duration = 30 seconds
+    private[this] var checkoutTimeout: Duration = 30 seconds
 
     /**
       * ftp server's hostname
@@ -248,6 +312,42 @@ object FtpClient {
       this
     }
 
+    /**
+      * the max number of connections opened by client. A command or an opened stream holds a connection until it is
+      * done, and it waits for an available connection (see checkoutTimeout) if all connections are in use.
+      * @param poolSize pool size
+      * @return this builder
+      */
+    @Optional("default value is 1")
+    def poolSize(poolSize: Int): Builder = {
+      this.poolSize = CommonUtils.requirePositiveInt(poolSize)
+      this
+    }
+
+    /**
+      * the idle connection is checked by NOOP before it is reused if it has been idle longer than this interval. The
+      * interval is also used to send NOOP on control connection during file transfers.
+      * @param keepAlive keep-alive interval
+      * @return this builder
+      */
+    @Optional("default value is 30 seconds")
+    def keepAlive(keepAlive: Duration): Builder = {
+      this.keepAlive = Objects.requireNonNull(keepAlive)
+      this
+    }
+
+    /**
+      * the max time to wait for an available connection. An IllegalStateException is thrown if all connections are
+      * still in use after the timeout.
+      * @param checkoutTimeout checkout timeout
+      * @return this builder
+      */
+    @Optional("default value is 30 seconds")
+    def checkoutTimeout(checkoutTimeout: Duration): Builder = {
+      this.checkoutTimeout = Objects.requireNonNull(checkoutTimeout)
+      this
+    }
+
     override def build: FtpClient = {
 
       new FtpClient {
@@ -260,17 +360,130 @@ object FtpClient {
           CommonUtils.requireNonEmpty(Builder.this.password, () => "password can't be null or empty")
         private[this] val retryTimeout = Objects.requireNonNull(Builder.this.retryTimeout)
         private[this] val retryBackoff = Objects.requireNonNull(Builder.this.retryBackoff)
-        private[this] var _client: FtpClient = _
-        private[this] def client(): FtpClient = {
-          if (_client == null)
-            _client = new FtpClientImpl(
-              hostname = hostname,
-              port = port,
-              user = user,
-              password = password
-            )
-          _client
+        private[this] val keepAlive = Objects.requireNonNull(Builder.this.keepAlive)
+        private[this] val checkoutTimeout = Objects.requireNonNull(Builder.this.checkoutTimeout)
+        private[this] val poolSize = CommonUtils.requirePositiveInt(Builder.this.poolSize)
+
+        /**
+          * the idle connections. The latest returned connection is reused first.
+          */
+        private[this] val idle = new LinkedBlockingDeque[FtpClientImpl](poolSize)
+
+        /**
+          * a permit is held by each checked-out connection so the number of connections never exceeds the pool size.
+          */
+        private[this] val permits = new Semaphore(poolSize)
+        @volatile private[this] var closed = false
+
+        private[this] def borrow(): FtpClientImpl = {
+          if (closed) throw new IllegalStateException("the ftp client is closed")
+          if (!permits.tryAcquire(checkoutTimeout.toMillis, TimeUnit.MILLISECONDS))
+            throw new IllegalStateException(s"all $poolSize connections are still in use after $checkoutTimeout")
+          try Iterator
+            .continually(idle.pollFirst())
+            .takeWhile(_ != null)
+            .find(client =>
+              client.healthy() || {
+                Releasable.close(client)
+                false
+            })
+            .getOrElse(
+              new FtpClientImpl(
+                hostname = hostname,
+                port = port,
+                user = user,
+                password = password,
+                keepAlive = keepAlive
+              ))
+          catch {
+            case e: Throwable =>
+              permits.release()
+              throw e
+          }
+        }
+
+        /**
+          * return the connection to pool. The connection is closed if the pool is full or closed.
+          */
+        private[this] def giveBack(client: FtpClientImpl): Unit = {
+          if (closed || !idle.offerFirst(client)) Releasable.close(client)
+          permits.release()
+        }
+
+        /**
+          * the broken connection is closed rather than returned to pool.
+          */
+        private[this] def discard(client: FtpClientImpl, e: Throwable): Nothing = {
+          Releasable.close(client)
+          permits.release()
+          throw e
+        }
+
+        /**
+          * check out a connection to run the command.
+          */
+        private[this] def execute[T](function: FtpClient => T): T = {
+          val client = borrow()
+          val result =
+            try function(client)
+            catch {
+              case e: Throwable => discard(client, e)
+            }
+          giveBack(client)
+          result
         }
+
+        /**
+          * check out a connection for the stream. The connection is returned when the stream is closed.
+          */
+        private[this] def input(function: FtpClient => InputStream): InputStream = {
+          val client = borrow()
+          val input =
+            try function(client)
+            catch {
+              case e: Throwable => discard(client, e)
+            }
+          new InputStream {
+            private[this] val released = new AtomicBoolean(false)
+            override def read(): Int = input.read()
+            override def read(b: Array[Byte], off: Int, len: Int): Int = input.read(b, off, len)
+            override def available(): Int = input.available()
+            override def skip(n: Long): Long = input.skip(n)
+            override def close(): Unit = if (released.compareAndSet(false, true)) {
+              try input.close()
+              catch {
+                case e: Throwable => discard(client, e)
+              }
+              giveBack(client)
+            }
+          }
+        }
+
+        /**
+          * check out a connection for the stream. The connection is returned when the stream is closed.
+          */
+        private[this] def output(function: FtpClient => OutputStream): OutputStream = {
+          val client = borrow()
+          val output =
+            try function(client)
+            catch {
+              case e: Throwable => discard(client, e)
+            }
+          new OutputStream {
+            private[this] val released = new AtomicBoolean(false)
+            override def write(b: Int): Unit = output.write(b)
+            override def write(b: Array[Byte], off: Int, len: Int): Unit = output.write(b, off, len)
+            override def flush(): Unit = output.flush()
+            override def close(): Unit = if (released.compareAndSet(false, true)) {
+              try output.close()
+              catch {
+                case e: Throwable => discard(client, e)
+              }
+              giveBack(client)
+            }
+          }
+        }
+
         private[this] def retry[T](function: () => T): T = {
           var lastException: Throwable = null
           val endTime = CommonUtils.current() + retryTimeout.toMillis
@@ -280,35 +493,55 @@ object FtpClient {
               case e: Throwable =>
                 LOG.info(s"failed to execute ftp command. timeout of retry: $retryTimeout. backoff:$retryBackoff", e)
                 lastException = e
-                TimeUnit.MILLISECONDS.sleep(retryBackoff.toMillis)
+                // don't wait if there is no time to retry
+                if (endTime >= CommonUtils.current()) TimeUnit.MILLISECONDS.sleep(retryBackoff.toMillis)
             }
           } while (endTime >= CommonUtils.current())
-          Releasable.close(_client)
-          _client = null
           throw new IllegalArgumentException("still fail...", lastException)
         }
-        override def listFileNames(dir: String): Seq[String] = retry(() => client().listFileNames(dir))
-        override def open(path: String): InputStream = retry(() => client().open(path))
-        override def create(path: String): OutputStream = retry(() => client().create(path))
-        override def append(path: String): OutputStream = retry(() => client().append(path))
-        override def moveFile(from: String, to: String): Unit = retry(() => client().moveFile(from, to))
-        override def mkdir(path: String): Unit = retry(() => client().mkdir(path))
-        override def delete(path: String): Unit = retry(() => client().delete(path))
-        override def tmpFolder(): String = client().tmpFolder()
-        override def exist(path: String): Boolean = retry(() => client().exist(path))
-        override def fileType(path: String): FileType = retry(() => client().fileType(path))
-        override def status(): String = retry(() => client().status())
-        override def workingFolder(): String = retry(() => client().workingFolder())
-        override def close(): Unit = client().close()
+        override def listFileNames(dir: String): Seq[String] = retry(() => execute(_.listFileNames(dir)))
+        override def listFiles(dir: String): Seq[FileInfo] = retry(() => execute(_.listFiles(dir)))
+        override def open(path: String): InputStream = retry(() => input(_.open(path)))
+        override def create(path: String): OutputStream = retry(() => output(_.create(path)))
+        override def append(path: String): OutputStream = retry(() => output(_.append(path)))
+        override def moveFile(from: String, to: String): Unit = retry(() => execute(_.moveFile(from, to)))
+        override def mkdir(path: String): Unit = retry(() => execute(_.mkdir(path)))
+        override def delete(path: String): Unit = retry(() => execute(_.delete(path)))
+        override def tmpFolder(): String = execute(_.tmpFolder())
+        override def exist(path: String): Boolean = retry(() => execute(_.exist(path)))
+        override def fileType(path: String): FileType = retry(() => execute(_.fileType(path)))
+        override def status(): String = retry(() => execute(_.status()))
+        override def workingFolder(): String = retry(() => execute(_.workingFolder()))
+        override def close(): Unit = {
+          closed = true
+          Iterator.continually(idle.pollFirst()).takeWhile(_ != null).foreach(Releasable.close)
+        }
       }
     }
 
-    private[this] class FtpClientImpl(hostname: String, port: Int, user: String, password: String) extends FtpClient {
+    private[this] class FtpClientImpl(hostname: String, port: Int, user: String, password: String, keepAlive: Duration)
+        extends FtpClient {
       private[this] var _client: FTPClient = _
-
-      private[this] def connectIfNeeded(): FTPClient = if (connected) _client
-      else {
-        if (_client == null) _client = new FTPClient
+      private[this] var lastUsed: Long = CommonUtils.current()
+
+      /**
+        * @return true if the connection is recently used or it passes the NOOP
+        */
+      def healthy(): Boolean = connected && (CommonUtils.current() - lastUsed < keepAlive.toMillis || Try {
+        val result = _client.sendNoOp()
+        lastUsed = CommonUtils.current()
+        result
+      }.getOrElse(false))
+
+      private[this] def connectIfNeeded(): FTPClient = if (connected) {
+        lastUsed = CommonUtils.current()
+        _client
+      } else {
+        if (_client == null) {
+          _client = new FTPClient
+          _client.setBufferSize(FtpClient.BUFFER_SIZE)
+          _client.setControlKeepAliveTimeout(keepAlive.toSeconds)
+        }
         _client.connect(hostname, port)
         _client.enterLocalPassiveMode()
         if (!_client.login(user, password))
@@ -320,6 +553,12 @@ object FtpClient {
 
       override def listFileNames(dir: String): Seq[String] = connectIfNeeded().listFiles(dir).map(_.getName).toSeq
 
+      override def listFiles(dir: String): Seq[FileInfo] = connectIfNeeded()
+        .listFiles(dir)
+        .map(file =>
+          FileInfo(file.getName, file.getSize, Option(file.getTimestamp).map(_.getTimeInMillis).getOrElse(-1L)))
+        .toSeq
+
       override def open(path: String): InputStream = {
         val client = connectIfNeeded()
         client.setFileType(FTP.BINARY_FILE_TYPE)
@@ -16,14 +16,18 @@
 
 package com.island.ohara.client.ftp
 
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
 import java.nio.charset.Charset
+import java.nio.file.Files
 
 import com.island.ohara.common.rule.MediumTest
-import com.island.ohara.common.util.{ByteUtils, Releasable}
+import com.island.ohara.common.util.{ByteUtils, CommonUtils, Releasable}
 import com.island.ohara.testing.service.FtpServer
 import org.junit.{After, Before, Test}
 import org.scalatest.Matchers
 
+import scala.concurrent.duration._
+
 class TestFtpClient extends MediumTest with Matchers {
 
   private[this] val server = FtpServer.local()
@@ -56,6 +60,16 @@ class TestFtpClient extends MediumTest with Matchers {
     after - before shouldBe 1
   }
 
+  @Test
+  def testListFiles(): Unit = {
+    if (client.exist(tmpPath())) client.delete(tmpPath())
+    client.attach(tmpPath(), "message")
+    val file = client.listFiles(client.tmpFolder()).find(_.name == methodName).get
+    // "message" + line separator
+    file.size should be > "message".length.toLong
+    file.lastModified should not be -1
+  }
+
   @Test
   def testReadWrite(): Unit = {
     val content = "abcdefg--------1235"
@@ -165,6 +179,86 @@ class TestFtpClient extends MediumTest with Matchers {
     client.delete(path)
   }
 
+  @Test
+  def testDownloadToStream(): Unit = {
+    // bigger than the buffer
+    val bytes = (0 until FtpClient.BUFFER_SIZE * 2 + 10).map(_.toByte).toArray
+    if (client.exist(tmpPath())) client.delete(tmpPath())
+    client.upload(tmpPath(), new ByteArrayInputStream(bytes)) shouldBe bytes.length
+    val output = new ByteArrayOutputStream()
+    client.download(tmpPath(), output) shouldBe bytes.length
+    output.toByteArray shouldBe bytes
+  }
+
+  @Test
+  def testDownloadToFile(): Unit = {
+    val bytes = (0 until 100).map(_.toByte).toArray
+    if (client.exist(tmpPath())) client.delete(tmpPath())
+    client.upload(tmpPath(), bytes)
+    val file = CommonUtils.createTempFile(methodName)
+    try {
+      client.download(tmpPath(), file) shouldBe bytes.length
+      Files.readAllBytes(file.toPath) shouldBe bytes
+    } finally file.delete()
+  }
+
+  private[this] def pooledClient(poolSize: Int, checkoutTimeout: Duration = 30 seconds): FtpClient = FtpClient
+    .builder()
+    .user(server.user)
+    .password(server.password)
+    .hostname(server.hostname)
+    .port(server.port)
+    .poolSize(poolSize)
+    .checkoutTimeout(checkoutTimeout)
+    .build()
+
+  @Test
+  def testOverlapCommandsAndStreams(): Unit = {
+    val paths = (0 until 3).map(index => s"${tmpPath()}-$index")
+    paths.foreach(path => {
+      if (client.exist(path)) client.delete(path)
+      client.attach(path, path)
+    })
+    val pooled = pooledClient(paths.size + 1)
+    try {
+      // each opened stream holds its own connection so the other commands are not blocked
+      val inputs = paths.map(pooled.open)
+      try {
+        pooled.listFileNames(client.tmpFolder()).count(name => paths.exists(_.endsWith(name))) shouldBe paths.size
+        inputs.foreach(_.read() should not be -1)
+      } finally inputs.foreach(_.close())
+      paths.foreach(path => pooled.readLines(path) shouldBe Array(path))
+    } finally pooled.close()
+  }
+
+  @Test
+  def testPoolSizeBoundsConnections(): Unit = {
+    val path = tmpPath()
+    if (client.exist(path)) client.delete(path)
+    client.attach(path, path)
+    val pooled = pooledClient(1, 1 second)
+    try {
+      val input = pooled.open(path)
+      try an[IllegalArgumentException] should be thrownBy pooled.workingFolder()
+      finally input.close()
+      // the connection is available after the stream is closed
+      pooled.readLines(path) shouldBe Array(path)
+    } finally pooled.close()
+  }
+
+  @Test
+  def testReuseConnection(): Unit = {
+    val pooled = pooledClient(2)
+    try {
+      // the connection is returned to pool after the stream is closed
+      (0 until 10).foreach(_ => {
+        pooled.create(s"${tmpPath()}-${CommonUtils.randomString(5)}").close()
+        pooled.workingFolder()
+      })
+    } finally pooled.close()
+    an[Throwable] should be thrownBy pooled.workingFolder()
+  }
+
   @After
   def tearDown(): Unit = {
     Releasable.close(client)
@@ -126,4 +126,24 @@ class TestFtpClientBuilder extends SmallTest with Matchers {
   def nullRetryBackoff(): Unit = {
     an[NullPointerException] should be thrownBy FtpClient.builder().retryBackoff(null)
   }
+
+  @Test
+  def zeroPoolSize(): Unit = {
+    an[IllegalArgumentException] should be thrownBy FtpClient.builder().poolSize(0)
+  }
+
+  @Test
+  def negativePoolSize(): Unit = {
+    an[IllegalArgumentException] should be thrownBy FtpClient.builder().poolSize(-1)
+  }
+
+  @Test
+  def nullKeepAlive(): Unit = {
+    an[NullPointerException] should be thrownBy FtpClient.builder().keepAlive(null)
+  }
+
+  @Test
+  def nullCheckoutTimeout(): Unit = {
+    an[NullPointerException] should be thrownBy FtpClient.builder().checkoutTimeout(null)
+  }
 }
@@ -39,6 +39,9 @@ class TestIllegalFtpClient extends MediumTest with Matchers {
   @Test
   def testList(): Unit = an[Throwable] should be thrownBy client.listFileNames("/")
 
+  @Test
+  def testListFiles(): Unit = an[Throwable] should be thrownBy client.listFiles("/")
+
   @Test
   def testExist(): Unit = an[Throwable] should be thrownBy client.exist("/")
 
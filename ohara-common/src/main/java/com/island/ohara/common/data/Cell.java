@@ -35,6 +35,15 @@ public interface Cell<T> {
   /** @return value from cell */
   T value();
 
+  /**
+   * create a cell for any value. Noted: the primitive value passed to this method is boxed. Use the
+   * primitive variants (for example, {@link #of(String, int)}) to avoid the boxing.
+   *
+   * @param name cell name
+   * @param value cell value
+   * @param <T> value type
+   * @return cell
+   */
   static <T> Cell<T> of(String name, T value) {
     Objects.requireNonNull(name);
     Objects.requireNonNull(value);
@@ -71,6 +80,8 @@ public interface Cell<T> {
       @Override
       public boolean equals(Object obj) {
         if (obj == this) return true;
+        // let the primitive cell compare the value without boxing
+        if (obj instanceof PrimitiveCell) return obj.equals(this);
         if (obj instanceof Cell) {
           Cell<?> that = (Cell<?>) obj;
           // java can't do deep comparison for byte array...
@@ -83,4 +94,44 @@ public interface Cell<T> {
       }
     };
   }
+
+  static BooleanCell of(String name, boolean value) {
+    return new BooleanCell(name, value);
+  }
+
+  static ByteCell of(String name, byte value) {
+    return new ByteCell(name, value);
+  }
+
+  static ShortCell of(String name, short value) {
+    return new ShortCell(name, value);
+  }
+
+  static IntCell of(String name, int value) {
+    return new IntCell(name, value);
+  }
+
+  static LongCell of(String name, long value) {
+    return new LongCell(name, value);
+  }
+
+  static FloatCell of(String name, float value) {
+    return new FloatCell(name, value);
+  }
+
+  static DoubleCell of(String name, double value) {
+    return new DoubleCell(name, value);
+  }
+
+  /**
+   * char is not a primitive type of ohara so it is stored as a {@link Character} object. This
+   * method prevents the char from being widened to int by overload resolution.
+   *
+   * @param name cell name
+   * @param value char value
+   * @return cell
+   */
+  static Cell<Character> of(String name, char value) {
+    return of(name, Character.valueOf(value));
+  }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * The default implementation of {@link Row} created by {@link Row#of(List, Cell[])}. The names are
+ * resolved by the interned {@link RowNames} so {@link #cell(String)} is a table lookup, and the
+ * rows having the same names share the table and the {@link #names()} list. The types of cells are
+ * resolved only when the row is serialized by the compact format. The hash code is computed on
+ * first call and then cached.
+ */
+final class CellRow implements Row {
+  private final Cell<?>[] cells;
+  private final List<Cell<?>> cellList;
+  private final List<String> tags;
+  private final RowNames names;
+
+  /** the row is immutable so the racy initialization is safe. Zero means "not computed". */
+  private int hash = 0;
+
+  CellRow(List<String> tags, Cell<?>[] cells) {
+    this.cells = cells.clone();
+    String[] names = new String[this.cells.length];
+    for (int index = 0; index != names.length; ++index)
+      names[index] = Objects.requireNonNull(this.cells[index]).name();
+    this.names = RowNames.of(names);
+    this.cellList = Collections.unmodifiableList(Arrays.asList(this.cells));
+    this.tags = Collections.unmodifiableList(Arrays.asList(tags.toArray(new String[0])));
+  }
+
+  RowNames rowNames() {
+    return names;
+  }
+
+  @Override
+  public List<String> names() {
+    return names.names();
+  }
+
+  @Override
+  public Cell<?> cell(int index) {
+    if (index < 0 || index >= cells.length)
+      throw new NoSuchElementException("no cell exists with index:" + index);
+    return cells[index];
+  }
+
+  @Override
+  public Cell<?> cell(String name) {
+    int index = names.indexOf(name);
+    if (index < 0) throw new NoSuchElementException("no cell exists with name:" + name);
+    return cells[index];
+  }
+
+  @Override
+  public List<Cell<?>> cells() {
+    return cellList;
+  }
+
+  @Override
+  public List<String> tags() {
+    return tags;
+  }
+
+  @Override
+  public int size() {
+    return cells.length;
+  }
+
+  @Override
+  public boolean equals(Row that, boolean includeTags) {
+    // the rows sharing the same names can be compared cell-by-cell
+    if (that instanceof CellRow && ((CellRow) that).names == names) {
+      CellRow other = (CellRow) that;
+      if (includeTags && !tags.equals(other.tags)) return Row.super.equals(that, true);
+      for (int index = 0; index != cells.length; ++index)
+        if (!cells[index].equals(other.cells[index])) return false;
+      return true;
+    }
+    return Row.super.equals(that, includeTags);
+  }
+
+  @Override
+  public int hashCode() {
+    int current = hash;
+    if (current == 0) {
+      IntBinaryOperator accumulate = (result, value) -> result * 31 + value;
+      int cellHash = 1;
+      for (Cell<?> cell : cells) cellHash = accumulate.applyAsInt(cellHash, Objects.hashCode(cell));
+      current = 31 * cellHash + tags.stream().mapToInt(Objects::hashCode).reduce(1, accumulate);
+      hash = current;
+    }
+    return current;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (obj instanceof Row) return equals((Row) obj, true);
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "cells:" + cellList + ", tags:" + tags;
+  }
+}
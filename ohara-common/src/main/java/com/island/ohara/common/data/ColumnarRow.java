@@ -0,0 +1,324 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.util.ByteUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A {@link Row} storing the values in arrays rather than cells. The primitive values are kept in a
+ * long array (see {@link PrimitiveCell} for the representation) so they are never boxed, and the
+ * names and types are shared by all rows having the same {@link RowSchema}. The cells are created
+ * on demand. Use the typed getters (for example, {@link #getLong(int)}) to read the value directly.
+ */
+public final class ColumnarRow implements Row {
+  private final RowSchema schema;
+  private final long[] primitives;
+  private final Object[] objects;
+  private final List<String> tags;
+
+  private ColumnarRow(RowSchema schema, long[] primitives, Object[] objects, List<String> tags) {
+    this.schema = schema;
+    this.primitives = primitives;
+    this.objects = objects;
+    this.tags = tags;
+  }
+
+  /** @return the schema of this row */
+  public RowSchema schema() {
+    return schema;
+  }
+
+  private long bits(int index, DataType type) {
+    if (schema.type(index) != type)
+      throw new IllegalArgumentException(
+          "the type of "
+              + schema.name(index)
+              + " is "
+              + schema.type(index)
+              + " rather than "
+              + type);
+    return primitives[schema.slot(index)];
+  }
+
+  public boolean getBoolean(int index) {
+    return bits(index, DataType.BOOLEAN) != 0;
+  }
+
+  public byte getByte(int index) {
+    return (byte) bits(index, DataType.BYTE);
+  }
+
+  public short getShort(int index) {
+    return (short) bits(index, DataType.SHORT);
+  }
+
+  public int getInt(int index) {
+    return (int) bits(index, DataType.INT);
+  }
+
+  public long getLong(int index) {
+    return bits(index, DataType.LONG);
+  }
+
+  public float getFloat(int index) {
+    return Float.intBitsToFloat((int) bits(index, DataType.FLOAT));
+  }
+
+  public double getDouble(int index) {
+    return Double.longBitsToDouble(bits(index, DataType.DOUBLE));
+  }
+
+  /**
+   * @param index cell index
+   * @return the value. Noted: the primitive value is boxed
+   */
+  public Object get(int index) {
+    return cell(index).value();
+  }
+
+  /** @return the bits of primitive value. It is used by serializer */
+  long bits(int index) {
+    return primitives[schema.slot(index)];
+  }
+
+  /** @return the non-primitive value. It is used by serializer */
+  Object object(int index) {
+    return objects[schema.slot(index)];
+  }
+
+  @Override
+  public List<String> names() {
+    return schema.names();
+  }
+
+  @Override
+  public Cell<?> cell(int index) {
+    if (index < 0 || index >= schema.size())
+      throw new NoSuchElementException("no cell exists with index:" + index);
+    DataType type = schema.type(index);
+    if (PrimitiveCell.isPrimitive(type))
+      return PrimitiveCell.of(schema.name(index), type, bits(index));
+    return Cell.of(schema.name(index), object(index));
+  }
+
+  @Override
+  public Cell<?> cell(String name) {
+    int index = schema.indexOf(name);
+    if (index < 0) throw new NoSuchElementException("no cell exists with name:" + name);
+    return cell(index);
+  }
+
+  @Override
+  public List<Cell<?>> cells() {
+    List<Cell<?>> cells = new ArrayList<>(schema.size());
+    for (int index = 0; index != schema.size(); ++index) cells.add(cell(index));
+    return Collections.unmodifiableList(cells);
+  }
+
+  @Override
+  public List<String> tags() {
+    return tags;
+  }
+
+  @Override
+  public int size() {
+    return schema.size();
+  }
+
+  @Override
+  public int hashCode() {
+    IntBinaryOperator accumulate = (hash, current) -> hash * 31 + current;
+    int cellHash = 1;
+    for (int index = 0; index != schema.size(); ++index)
+      cellHash = accumulate.applyAsInt(cellHash, cell(index).hashCode());
+    return 31 * cellHash + tags.stream().mapToInt(Objects::hashCode).reduce(1, accumulate);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (obj instanceof ColumnarRow && ((ColumnarRow) obj).schema == schema) {
+      ColumnarRow that = (ColumnarRow) obj;
+      // the schema is interned so the rows having same schema can be compared by arrays
+      if (!Arrays.equals(primitives, that.primitives)) return false;
+      for (int index = 0; index != objects.length; ++index) {
+        Object value = objects[index];
+        Object thatValue = that.objects[index];
+        if (value instanceof byte[] && thatValue instanceof byte[]) {
+          if (!ByteUtils.equals((byte[]) value, (byte[]) thatValue)) return false;
+        } else if (!value.equals(thatValue)) return false;
+      }
+      return tags.stream().allMatch(that.tags::contains);
+    }
+    if (obj instanceof Row) return equals((Row) obj, true);
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "cells:" + cells() + ", tags:" + tags;
+  }
+
+  /**
+   * The builder of {@link ColumnarRow}. All cells must be assigned before building the row. The
+   * builder is reusable, and the assigned values are kept after building the row.
+   */
+  public static final class Builder {
+    private final RowSchema schema;
+    private final long[] primitives;
+    private final Object[] objects;
+    private final boolean[] assigned;
+    private List<String> tags = Collections.emptyList();
+
+    Builder(RowSchema schema) {
+      this.schema = Objects.requireNonNull(schema);
+      this.primitives = new long[schema.numberOfPrimitives()];
+      this.objects = new Object[schema.numberOfObjects()];
+      this.assigned = new boolean[schema.size()];
+    }
+
+    Builder setBits(int index, DataType type, long bits) {
+      if (schema.type(index) != type)
+        throw new IllegalArgumentException(
+            "the type of "
+                + schema.name(index)
+                + " is "
+                + schema.type(index)
+                + " rather than "
+                + type);
+      primitives[schema.slot(index)] = bits;
+      assigned[index] = true;
+      return this;
+    }
+
+    public Builder setBoolean(int index, boolean value) {
+      return setBits(index, DataType.BOOLEAN, value ? 1 : 0);
+    }
+
+    public Builder setByte(int index, byte value) {
+      return setBits(index, DataType.BYTE, value);
+    }
+
+    public Builder setShort(int index, short value) {
+      return setBits(index, DataType.SHORT, value);
+    }
+
+    public Builder setInt(int index, int value) {
+      return setBits(index, DataType.INT, value);
+    }
+
+    public Builder setLong(int index, long value) {
+      return setBits(index, DataType.LONG, value);
+    }
+
+    public Builder setFloat(int index, float value) {
+      return setBits(index, DataType.FLOAT, Float.floatToIntBits(value));
+    }
+
+    public Builder setDouble(int index, double value) {
+      return setBits(index, DataType.DOUBLE, Double.doubleToLongBits(value));
+    }
+
+    /**
+     * set the value by object. The primitive value is unboxed. Noted: the column of {@link
+     * DataType#OBJECT} accepts any value, and the value is serialized according to its actual type.
+     *
+     * @param index cell index
+     * @param value value
+     * @return this builder
+     */
+    public Builder set(int index, Object value) {
+      Objects.requireNonNull(value);
+      DataType type = schema.type(index);
+      switch (type) {
+        case BOOLEAN:
+          return setBoolean(index, (Boolean) checkType(index, Boolean.class, value));
+        case BYTE:
+          return setByte(index, (Byte) checkType(index, Byte.class, value));
+        case SHORT:
+          return setShort(index, (Short) checkType(index, Short.class, value));
+        case INT:
+          return setInt(index, (Integer) checkType(index, Integer.class, value));
+        case LONG:
+          return setLong(index, (Long) checkType(index, Long.class, value));
+        case FLOAT:
+          return setFloat(index, (Float) checkType(index, Float.class, value));
+        case DOUBLE:
+          return setDouble(index, (Double) checkType(index, Double.class, value));
+        case BYTES:
+          checkType(index, byte[].class, value);
+          break;
+        case STRING:
+          checkType(index, String.class, value);
+          break;
+        case ROW:
+          checkType(index, Row.class, value);
+          break;
+        default:
+          break;
+      }
+      objects[schema.slot(index)] = value;
+      assigned[index] = true;
+      return this;
+    }
+
+    private Object checkType(int index, Class<?> clz, Object value) {
+      if (!clz.isInstance(value))
+        throw new IllegalArgumentException(
+            "the type of "
+                + schema.name(index)
+                + " is "
+                + schema.type(index)
+                + " but the value is "
+                + value.getClass().getName());
+      return value;
+    }
+
+    /**
+     * set the value by cell name.
+     *
+     * @param name cell name
+     * @param value value
+     * @return this builder
+     */
+    public Builder set(String name, Object value) {
+      int index = schema.indexOf(name);
+      if (index < 0) throw new NoSuchElementException("no cell exists with name:" + name);
+      return set(index, value);
+    }
+
+    public Builder tags(List<String> tags) {
+      this.tags = Collections.unmodifiableList(new ArrayList<>(tags));
+      return this;
+    }
+
+    public ColumnarRow build() {
+      for (int index = 0; index != assigned.length; ++index)
+        if (!assigned[index])
+          throw new IllegalStateException(
+              "the value of " + schema.name(index) + " is not assigned");
+      return new ColumnarRow(schema, primitives.clone(), objects.clone(), tags);
+    }
+  }
+}
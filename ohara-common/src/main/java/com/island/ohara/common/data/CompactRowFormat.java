@@ -0,0 +1,364 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.annotations.Nullable;
+import com.island.ohara.common.util.ByteUtils;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The compact format (version 1) of {@link Row}. The names and types are written once in front of
+ * the values rather than per cell, the primitive values have no length, and all lengths are
+ * variable-length int (see {@link ByteUtils#putVarInt(byte[], int, int)}). The row carries its own
+ * schema so it can be read by any process.
+ *
+ * <p>version 1: version (1 byte) | schema size (varint) | schema | value | value | ... | tag count
+ * (varint) | tag length (varint) | tag bytes | ...
+ *
+ * <p>schema: cell count (varint) | name length (varint) | name | type (varint) | ...
+ *
+ * <p>The value is decided by the type of column. boolean/byte/short/int/long/float/double: fixed
+ * size (same to version 0). string/bytes: length (varint) | bytes. row: length (varint) | compact
+ * row. object: value type (varint) | length (varint) | value. The type of object column is kept
+ * since the value of object column can be any type.
+ *
+ * <p>The row which is not a {@link ColumnarRow} is converted to {@link ColumnarRow} before writing,
+ * and the schema is generated by the names and value types of cells.
+ */
+final class CompactRowFormat {
+
+  /**
+   * serialize the row by version 1.
+   *
+   * @param row row
+   * @return serialized row
+   */
+  static byte[] to(Row row) {
+    ColumnarRow columnarRow = toColumnar(row);
+    // the java serialization is expensive so we keep the serialized OBJECT values to reuse them
+    List<byte[]> objects = new ArrayList<>(0);
+    Writer writer = new Writer(new byte[sizeOf(columnarRow, objects)], objects);
+    writer.write(columnarRow);
+    return writer.bytes;
+  }
+
+  /**
+   * compute the size of row serialized by version 1.
+   *
+   * @param row row
+   * @return the size of serialized row
+   */
+  static int sizeOf(Row row) {
+    return sizeOf(toColumnar(row), null);
+  }
+
+  /**
+   * convert the row (and the nested rows) to {@link ColumnarRow}. The primitive cells are not
+   * boxed.
+   */
+  static ColumnarRow toColumnar(Row row) {
+    if (row instanceof ColumnarRow && isColumnar((ColumnarRow) row)) return (ColumnarRow) row;
+    List<Cell<?>> cells = row.cells();
+    DataType[] types = new DataType[cells.size()];
+    for (int index = 0; index != types.length; ++index) types[index] = typeOf(cells.get(index));
+    RowSchema schema;
+    // the names of CellRow are resolved already
+    if (row instanceof CellRow) schema = RowSchema.of(((CellRow) row).rowNames(), types);
+    else {
+      String[] names = new String[cells.size()];
+      for (int index = 0; index != names.length; ++index) names[index] = cells.get(index).name();
+      schema = RowSchema.of(names, types);
+    }
+    ColumnarRow.Builder builder = schema.rowBuilder();
+    for (int index = 0; index != cells.size(); ++index) {
+      Cell<?> cell = cells.get(index);
+      if (cell instanceof PrimitiveCell) {
+        PrimitiveCell<?> primitiveCell = (PrimitiveCell<?>) cell;
+        builder.setBits(index, primitiveCell.dataType(), primitiveCell.bits());
+      } else if (cell.value() instanceof Row) builder.set(index, toColumnar((Row) cell.value()));
+      else builder.set(index, cell.value());
+    }
+    return builder.tags(row.tags()).build();
+  }
+
+  /**
+   * @param cell cell
+   * @return the type of primitive cell or the type of value. The value which is not supported by
+   *     {@link DataType#from(Object)} is treated as {@link DataType#OBJECT}, and it fails when it
+   *     is serialized.
+   */
+  static DataType typeOf(Cell<?> cell) {
+    if (cell instanceof PrimitiveCell) return ((PrimitiveCell<?>) cell).dataType();
+    return cell.value() instanceof Serializable || cell.value() instanceof Row
+        ? DataType.from(cell.value())
+        : DataType.OBJECT;
+  }
+
+  /** @return true if all nested rows are {@link ColumnarRow} */
+  private static boolean isColumnar(ColumnarRow row) {
+    RowSchema schema = row.schema();
+    for (int index = 0; index != schema.size(); ++index) {
+      if (PrimitiveCell.isPrimitive(schema.type(index))) continue;
+      Object value = row.object(index);
+      if (value instanceof Row
+          && !(value instanceof ColumnarRow && isColumnar((ColumnarRow) value))) return false;
+    }
+    return true;
+  }
+
+  private static int sizeOf(ColumnarRow row, @Nullable List<byte[]> objects) {
+    RowSchema schema = row.schema();
+    // version + schema
+    int size =
+        ByteUtils.SIZE_OF_BYTE
+            + ByteUtils.sizeOfVarInt(schema.encodedSize())
+            + schema.encodedSize();
+    for (int index = 0; index != schema.size(); ++index) {
+      DataType type = schema.type(index);
+      if (PrimitiveCell.isPrimitive(type)) size += PrimitiveCell.sizeOf(type);
+      else {
+        Object value = row.object(index);
+        if (type == DataType.OBJECT) {
+          DataType actualType = DataType.from(value);
+          size +=
+              ByteUtils.sizeOfVarInt(actualType.order) + sizeOfValue(actualType, value, objects);
+        } else size += sizeOfValue(type, value, objects);
+      }
+    }
+    List<String> tags = row.tags();
+    size += ByteUtils.sizeOfVarInt(tags.size());
+    for (int index = 0; index != tags.size(); ++index) size += sizeOfString(tags.get(index));
+    return size;
+  }
+
+  private static int sizeOfString(String value) {
+    int size = ByteUtils.sizeOfString(value);
+    return ByteUtils.sizeOfVarInt(size) + size;
+  }
+
+  /** @return length (varint) + value */
+  private static int sizeOfValue(DataType type, Object value, @Nullable List<byte[]> objects) {
+    int size;
+    switch (type) {
+      case BYTES:
+        size = ((byte[]) value).length;
+        break;
+      case STRING:
+        size = ByteUtils.sizeOfString((String) value);
+        break;
+      case ROW:
+        size = sizeOf((ColumnarRow) value, objects);
+        break;
+      case OBJECT:
+        byte[] bytes = Serializer.OBJECT.to(value);
+        if (objects != null) objects.add(bytes);
+        size = bytes.length;
+        break;
+      default:
+        // the primitive value in object column
+        size = PrimitiveCell.sizeOf(type);
+        break;
+    }
+    return ByteUtils.sizeOfVarInt(size) + size;
+  }
+
+  /**
+   * write the row to the pre-sized array. The order of traversal must be same to {@link
+   * #sizeOf(ColumnarRow, List)} since the serialized OBJECT values are consumed in order.
+   */
+  private static final class Writer {
+    private final byte[] bytes;
+    private final List<byte[]> objects;
+    private int offset = 0;
+    private int objectIndex = 0;
+
+    private Writer(byte[] bytes, List<byte[]> objects) {
+      this.bytes = bytes;
+      this.objects = objects;
+    }
+
+    private void write(ColumnarRow row) {
+      RowSchema schema = row.schema();
+      bytes[offset++] = RowSerializer.VERSION_1;
+      offset = ByteUtils.putVarInt(bytes, offset, schema.encodedSize());
+      offset = schema.encode(bytes, offset);
+      for (int index = 0; index != schema.size(); ++index) {
+        DataType type = schema.type(index);
+        if (PrimitiveCell.isPrimitive(type))
+          offset = RowSerializer.putBits(bytes, offset, type, row.bits(index));
+        else {
+          Object value = row.object(index);
+          if (type == DataType.OBJECT) {
+            DataType actualType = DataType.from(value);
+            offset = ByteUtils.putVarInt(bytes, offset, actualType.order);
+            writeValue(actualType, value);
+          } else writeValue(type, value);
+        }
+      }
+      List<String> tags = row.tags();
+      offset = ByteUtils.putVarInt(bytes, offset, tags.size());
+      for (int index = 0; index != tags.size(); ++index) {
+        String tag = tags.get(index);
+        offset = ByteUtils.putVarInt(bytes, offset, ByteUtils.sizeOfString(tag));
+        offset = ByteUtils.putString(bytes, offset, tag);
+      }
+    }
+
+    private void writeValue(DataType type, Object value) {
+      switch (type) {
+        case BYTES:
+          byte[] bs = (byte[]) value;
+          offset = ByteUtils.putVarInt(bytes, offset, bs.length);
+          System.arraycopy(bs, 0, bytes, offset, bs.length);
+          offset += bs.length;
+          break;
+        case STRING:
+          String string = (String) value;
+          offset = ByteUtils.putVarInt(bytes, offset, ByteUtils.sizeOfString(string));
+          offset = ByteUtils.putString(bytes, offset, string);
+          break;
+        case ROW:
+          // noted: the size of nested row is computed again. It is ok since nested row is rare.
+          ColumnarRow row = (ColumnarRow) value;
+          offset = ByteUtils.putVarInt(bytes, offset, sizeOf(row, null));
+          write(row);
+          break;
+        case OBJECT:
+          byte[] object = objects.get(objectIndex++);
+          offset = ByteUtils.putVarInt(bytes, offset, object.length);
+          System.arraycopy(object, 0, bytes, offset, object.length);
+          offset += object.length;
+          break;
+        default:
+          // the primitive value in object column
+          offset = ByteUtils.putVarInt(bytes, offset, PrimitiveCell.sizeOf(type));
+          offset = RowSerializer.putBits(bytes, offset, type, toBits(type, value));
+          break;
+      }
+    }
+  }
+
+  private static long toBits(DataType type, Object value) {
+    switch (type) {
+      case BOOLEAN:
+        return (boolean) value ? 1 : 0;
+      case BYTE:
+        return (byte) value;
+      case SHORT:
+        return (short) value;
+      case INT:
+        return (int) value;
+      case LONG:
+        return (long) value;
+      case FLOAT:
+        return Float.floatToIntBits((float) value);
+      case DOUBLE:
+        return Double.doubleToLongBits((double) value);
+      default:
+        throw new IllegalArgumentException(type + " is not primitive type");
+    }
+  }
+
+  /**
+   * deserialize the row of version 1.
+   *
+   * @param bytes serialized data
+   * @param offset the position of version byte
+   * @param length the size of serialized row
+   * @return row
+   */
+  static ColumnarRow read(byte[] bytes, int offset, int length) {
+    return new Reader(bytes, offset + length).read(offset);
+  }
+
+  private static final class Reader {
+    private final byte[] bytes;
+    private final int end;
+    private int position;
+
+    private Reader(byte[] bytes, int end) {
+      this.bytes = bytes;
+      this.end = end;
+    }
+
+    private ColumnarRow read(int offset) {
+      position = offset;
+      require(ByteUtils.SIZE_OF_BYTE);
+      int version = bytes[position++];
+      if (version != RowSerializer.VERSION_1)
+        throw new IllegalStateException("Unsupported version:" + version);
+      int schemaSize = readVarInt();
+      require(schemaSize);
+      RowSchema schema = RowSchema.read(bytes, position, schemaSize);
+      position += schemaSize;
+      ColumnarRow.Builder builder = schema.rowBuilder();
+      for (int index = 0; index != schema.size(); ++index) {
+        DataType type = schema.type(index);
+        if (PrimitiveCell.isPrimitive(type)) {
+          require(PrimitiveCell.sizeOf(type));
+          builder.setBits(index, type, RowSerializer.readBits(type, bytes, position));
+          position += PrimitiveCell.sizeOf(type);
+        } else if (type == DataType.OBJECT)
+          builder.set(index, readValue(DataType.of((short) readVarInt())));
+        else builder.set(index, readValue(type));
+      }
+      int tagCount = readVarInt();
+      List<String> tags = new ArrayList<>(tagCount);
+      for (int index = 0; index != tagCount; ++index) {
+        int tagSize = readVarInt();
+        require(tagSize);
+        tags.add(ByteUtils.toString(bytes, position, tagSize));
+        position += tagSize;
+      }
+      return builder.tags(tags).build();
+    }
+
+    private Object readValue(DataType type) {
+      int size = readVarInt();
+      require(size);
+      int start = position;
+      position += size;
+      switch (type) {
+        case BYTES:
+          return Arrays.copyOfRange(bytes, start, start + size);
+        case STRING:
+          return ByteUtils.toString(bytes, start, size);
+        case ROW:
+          return new Reader(bytes, start + size).read(start);
+        default:
+          return RowSerializer.readValue(type, bytes, start, size, false);
+      }
+    }
+
+    private int readVarInt() {
+      require(ByteUtils.SIZE_OF_BYTE);
+      int value = ByteUtils.toVarInt(bytes, position);
+      position += ByteUtils.sizeOfVarInt(value);
+      if (position > end) throw new IllegalStateException("the varint is out of range");
+      return value;
+    }
+
+    private void require(int size) {
+      RowSerializer.checkRemaining(position, end, size);
+    }
+  }
+
+  private CompactRowFormat() {}
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.util.ByteUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A read-only view of serialized row (version 0). Nothing is decoded when this object is created.
+ * The offsets of cells are indexed on first access, and the value of cell is decoded only when the
+ * cell is requested. The nested rows are views of the same bytes also. Noted: the bytes must not be
+ * changed after creating this view.
+ *
+ * <p>Serializing this row by {@link Serializer#ROW} copies the backed bytes directly.
+ */
+final class LazyRow implements Row {
+  private final byte[] bytes;
+  private final int offset;
+  private final int length;
+
+  /**
+   * the index is immutable and all fields are final so the racy initialization is safe. The worst
+   * case is that the index is built many times.
+   */
+  private Index index = null;
+
+  private List<String> tags = null;
+
+  /**
+   * @param bytes serialized row
+   * @param offset the position of version byte
+   * @param length the size of serialized row
+   */
+  LazyRow(byte[] bytes, int offset, int length) {
+    this.bytes = Objects.requireNonNull(bytes);
+    if (offset < 0 || length <= 0 || offset + length > bytes.length)
+      throw new IllegalArgumentException(
+          "illegal range. offset:" + offset + " length:" + length + " size:" + bytes.length);
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /** @return the size of serialized row */
+  int serializedSize() {
+    return length;
+  }
+
+  /**
+   * copy the serialized row to the buffer.
+   *
+   * @param buffer target buffer
+   * @param position start position of buffer
+   * @return the position next to the copied bytes
+   */
+  int copyTo(byte[] buffer, int position) {
+    System.arraycopy(bytes, offset, buffer, position, length);
+    return position + length;
+  }
+
+  private static final class Index {
+    private final RowNames names;
+    private final DataType[] types;
+    private final int[] valueOffsets;
+    private final int[] valueLengths;
+    private final int tagOffset;
+    private final Cell<?>[] cells;
+
+    private Index(
+        String[] names, DataType[] types, int[] valueOffsets, int[] valueLengths, int tagOffset) {
+      this.names = RowNames.of(names);
+      this.types = types;
+      this.valueOffsets = valueOffsets;
+      this.valueLengths = valueLengths;
+      this.tagOffset = tagOffset;
+      this.cells = new Cell<?>[names.length];
+    }
+  }
+
+  private Index index() {
+    Index current = index;
+    if (current == null) {
+      current = buildIndex();
+      index = current;
+    }
+    return current;
+  }
+
+  private Index buildIndex() {
+    int end = offset + length;
+    int position = offset;
+    int version = bytes[position++];
+    if (version != 0) throw new IllegalArgumentException("Unsupported version:" + version);
+    int cellCount = RowSerializer.readInt(bytes, position, end);
+    position += ByteUtils.SIZE_OF_INT;
+    if (cellCount < 0)
+      throw new IllegalStateException("the number from cell should be bigger than zero");
+    String[] names = new String[cellCount];
+    DataType[] types = new DataType[cellCount];
+    int[] valueOffsets = new int[cellCount];
+    int[] valueLengths = new int[cellCount];
+    for (int index = 0; index != cellCount; ++index) {
+      int nameSize = RowSerializer.readSize(bytes, position, end);
+      position += ByteUtils.SIZE_OF_SHORT;
+      names[index] = ByteUtils.toString(bytes, position, nameSize);
+      position += nameSize;
+      types[index] = DataType.of(RowSerializer.readShort(bytes, position, end));
+      position += ByteUtils.SIZE_OF_SHORT;
+      int valueSize = RowSerializer.readSize(bytes, position, end);
+      position += ByteUtils.SIZE_OF_SHORT;
+      valueOffsets[index] = position;
+      valueLengths[index] = valueSize;
+      position += valueSize;
+    }
+    if (position > end)
+      throw new IllegalStateException("required " + (position - offset) + " but actual " + length);
+    return new Index(names, types, valueOffsets, valueLengths, position);
+  }
+
+  @Override
+  public List<String> names() {
+    return index().names.names();
+  }
+
+  @Override
+  public Cell<?> cell(int index) {
+    Index current = index();
+    if (index < 0 || index >= current.cells.length)
+      throw new NoSuchElementException("no cell exists with index:" + index);
+    Cell<?> cell = current.cells[index];
+    if (cell == null) {
+      cell =
+          RowSerializer.readCell(
+              current.names.name(index),
+              current.types[index],
+              bytes,
+              current.valueOffsets[index],
+              current.valueLengths[index],
+              true);
+      current.cells[index] = cell;
+    }
+    return cell;
+  }
+
+  @Override
+  public Cell<?> cell(String name) {
+    int index = index().names.indexOf(name);
+    if (index < 0) throw new NoSuchElementException("no cell exists with name:" + name);
+    return cell(index);
+  }
+
+  @Override
+  public List<Cell<?>> cells() {
+    int size = size();
+    List<Cell<?>> cells = new ArrayList<>(size);
+    for (int index = 0; index != size; ++index) cells.add(cell(index));
+    return Collections.unmodifiableList(cells);
+  }
+
+  @Override
+  public int size() {
+    return index().names.size();
+  }
+
+  @Override
+  public List<String> tags() {
+    List<String> current = tags;
+    if (current == null) {
+      int end = offset + length;
+      int position = index().tagOffset;
+      int tagCount = RowSerializer.readShort(bytes, position, end);
+      position += ByteUtils.SIZE_OF_SHORT;
+      if (tagCount < 0)
+        throw new IllegalStateException("the number from tag should be bigger than zero");
+      List<String> values = new ArrayList<>(tagCount);
+      for (int index = 0; index != tagCount; ++index) {
+        int tagSize = RowSerializer.readSize(bytes, position, end);
+        position += ByteUtils.SIZE_OF_SHORT;
+        values.add(ByteUtils.toString(bytes, position, tagSize));
+        position += tagSize;
+      }
+      current = Collections.unmodifiableList(values);
+      tags = current;
+    }
+    return current;
+  }
+
+  @Override
+  public int hashCode() {
+    IntBinaryOperator accumulate = (hash, current) -> hash * 31 + current;
+    return 31 * cells().stream().mapToInt(Objects::hashCode).reduce(1, accumulate)
+        + tags().stream().mapToInt(Objects::hashCode).reduce(1, accumulate);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (obj instanceof LazyRow) {
+      LazyRow that = (LazyRow) obj;
+      // the same bytes must be the same row
+      if (length == that.length
+          && ByteUtils.compare(bytes, offset, length, that.bytes, that.offset, that.length) == 0)
+        return true;
+    }
+    if (obj instanceof Row) return equals((Row) obj, true);
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "cells:" + cells() + ", tags:" + tags();
+  }
+}
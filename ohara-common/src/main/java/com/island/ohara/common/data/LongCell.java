@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+/** a cell carrying a long value. Use {@link #getLong()} to get the value without boxing. */
+public final class LongCell extends PrimitiveCell<Long> {
+  private final long value;
+
+  LongCell(String name, long value) {
+    super(name);
+    this.value = value;
+  }
+
+  /** @return the long value */
+  public long getLong() {
+    return value;
+  }
+
+  @Override
+  public Long value() {
+    return value;
+  }
+
+  @Override
+  DataType dataType() {
+    return DataType.LONG;
+  }
+
+  @Override
+  long bits() {
+    return value;
+  }
+
+  @Override
+  int valueHashCode() {
+    return Long.hashCode(value);
+  }
+
+  @Override
+  String valueString() {
+    return String.valueOf(value);
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import java.util.Objects;
+
+/**
+ * The base class of cells which keep the value in primitive type. The subclasses offer the typed
+ * getter (for example, {@link IntCell#getInt()}) so the value is NOT boxed unless {@link #value()}
+ * is called. The hashCode and equals are compatible with the cells created by {@link
+ * Cell#of(String, Object)} so both kinds of cells can be mixed in a {@link Row}.
+ *
+ * <p>The value is also represented by "bits" (a long) which is shared by {@link ColumnarRow} and
+ * the serializer. boolean: 1 or 0; byte/short/int/long: the value; float: {@link
+ * Float#floatToIntBits(float)}; double: {@link Double#doubleToLongBits(double)}
+ *
+ * @param <T> the boxed type
+ */
+abstract class PrimitiveCell<T> implements Cell<T> {
+  private final String name;
+
+  PrimitiveCell(String name) {
+    this.name = Objects.requireNonNull(name);
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  /** @return the type of value */
+  abstract DataType dataType();
+
+  /** @return the bits of value */
+  abstract long bits();
+
+  /** @return the hash of boxed value. The value is not boxed. */
+  abstract int valueHashCode();
+
+  /** @return the string of value. The value is not boxed. */
+  abstract String valueString();
+
+  /**
+   * @param type data type
+   * @return true if the value of data type can be stored by primitive cell
+   */
+  static boolean isPrimitive(DataType type) {
+    switch (type) {
+      case BOOLEAN:
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @param type primitive type
+   * @return the size of serialized value
+   */
+  static int sizeOf(DataType type) {
+    switch (type) {
+      case BOOLEAN:
+      case BYTE:
+        return 1;
+      case SHORT:
+        return 2;
+      case INT:
+      case FLOAT:
+        return 4;
+      case LONG:
+      case DOUBLE:
+        return 8;
+      default:
+        throw new IllegalArgumentException(type + " is not primitive type");
+    }
+  }
+
+  /**
+   * create the primitive cell by the bits.
+   *
+   * @param name cell name
+   * @param type primitive type
+   * @param bits the bits of value
+   * @return primitive cell
+   */
+  static PrimitiveCell<?> of(String name, DataType type, long bits) {
+    switch (type) {
+      case BOOLEAN:
+        return new BooleanCell(name, bits != 0);
+      case BYTE:
+        return new ByteCell(name, (byte) bits);
+      case SHORT:
+        return new ShortCell(name, (short) bits);
+      case INT:
+        return new IntCell(name, (int) bits);
+      case LONG:
+        return new LongCell(name, bits);
+      case FLOAT:
+        return new FloatCell(name, Float.intBitsToFloat((int) bits));
+      case DOUBLE:
+        return new DoubleCell(name, Double.longBitsToDouble(bits));
+      default:
+        throw new IllegalArgumentException(type + " is not primitive type");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return name + "/" + valueString();
+  }
+
+  @Override
+  public int hashCode() {
+    return name.hashCode() * 31 + valueHashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (obj instanceof PrimitiveCell) {
+      PrimitiveCell<?> that = (PrimitiveCell<?>) obj;
+      return dataType() == that.dataType() && bits() == that.bits() && name.equals(that.name);
+    }
+    if (obj instanceof Cell) {
+      Cell<?> that = (Cell<?>) obj;
+      // the value of normal cell is boxed already
+      return name.equals(that.name()) && value().equals(that.value());
+    }
+    return false;
+  }
+}
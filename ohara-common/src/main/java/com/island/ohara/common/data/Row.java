@@ -16,15 +16,9 @@
 
 package com.island.ohara.common.data;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Objects;
-import java.util.function.IntBinaryOperator;
-import java.util.stream.Collectors;
 
 /**
  * a collection from {@link Cell}. Also, {@link Row} can carry variable tags which can be used to
@@ -95,63 +89,14 @@ public interface Row extends Iterable<Cell<?>> {
     return of(Collections.emptyList(), cells);
   }
 
+  /**
+   * create a row. The names of cells must be unique.
+   *
+   * @param tags tags
+   * @param cells cells
+   * @return row
+   */
   static Row of(List<String> tags, Cell<?>... cells) {
-    List<String> tagsCopy = new ArrayList<>(tags);
-    List<Cell<?>> cellsCopy = Arrays.asList(cells);
-    // check duplicate names
-    int numberOfNames = cellsCopy.stream().map(Cell::name).collect(Collectors.toSet()).size();
-    if (numberOfNames != cellsCopy.size())
-      throw new IllegalArgumentException("Row can't accept duplicate cell name");
-    return new Row() {
-
-      @Override
-      public List<String> names() {
-        return cellsCopy.stream().map(Cell::name).collect(Collectors.toList());
-      }
-
-      @Override
-      public Cell<?> cell(int index) {
-        Cell<?> cell = cellsCopy.get(index);
-        if (cell == null) throw new NoSuchElementException("no cell exists with index:" + index);
-        return cell;
-      }
-
-      @Override
-      public Cell<?> cell(String name) {
-        return cellsCopy.stream()
-            .filter(c -> c.name().equals(name))
-            .findFirst()
-            .orElseThrow(() -> new NoSuchElementException("no cell exists with name:" + name));
-      }
-
-      @Override
-      public List<Cell<?>> cells() {
-        return Collections.unmodifiableList(cellsCopy);
-      }
-
-      @Override
-      public List<String> tags() {
-        return Collections.unmodifiableList(tagsCopy);
-      }
-
-      @Override
-      public int hashCode() {
-        IntBinaryOperator accumulate = (hash, current) -> hash * 31 + current;
-        return 31 * cells().stream().mapToInt(Objects::hashCode).reduce(1, accumulate)
-            + tags.stream().mapToInt(Objects::hashCode).reduce(1, accumulate);
-      }
-
-      @Override
-      public boolean equals(Object obj) {
-        if (obj == this) return true;
-        if (obj instanceof Row) return equals((Row) obj, true);
-        return false;
-      }
-
-      @Override
-      public String toString() {
-        return "cells:" + cells() + ", tags:" + tags;
-      }
-    };
+    return new CellRow(tags, cells);
   }
 }
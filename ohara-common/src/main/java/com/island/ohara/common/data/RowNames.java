@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.annotations.VisibleForTesting;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cell names of a row and the name-to-index table. It is interned by names so the rows having
+ * same names share the same table and the same {@link #names()} list. The interner is bounded since
+ * the names may be generated dynamically; the names created after the interner is full are not
+ * shared, and building them is as cheap as checking the duplicate names by a hash set.
+ */
+final class RowNames {
+  private static final int MAX_NUMBER_OF_INTERNED = 10000;
+  private static final ConcurrentHashMap<Key, RowNames> INTERNED = new ConcurrentHashMap<>();
+
+  private static final class Key {
+    private final String[] names;
+    private final int hash;
+
+    private Key(String[] names) {
+      this.names = names;
+      this.hash = Arrays.hashCode(names);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key && Arrays.equals(names, ((Key) obj).names);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * @param names cell names. Noted: the array is kept by the returned object so it must not be
+   *     changed
+   * @return the interned names
+   * @throws IllegalArgumentException if there are duplicate names
+   */
+  static RowNames of(String[] names) {
+    Key key = new Key(names);
+    RowNames current = INTERNED.get(key);
+    if (current != null) return current;
+    current = new RowNames(names);
+    if (INTERNED.size() >= MAX_NUMBER_OF_INTERNED) return current;
+    RowNames previous = INTERNED.putIfAbsent(key, current);
+    return previous != null ? previous : current;
+  }
+
+  /** drop all interned names. It is used to simulate a new process. */
+  @VisibleForTesting
+  static void clearInterned() {
+    INTERNED.clear();
+  }
+
+  private final String[] array;
+  private final List<String> names;
+  private final Map<String, Integer> indexes;
+
+  private RowNames(String[] names) {
+    this.array = names;
+    this.names = Collections.unmodifiableList(Arrays.asList(names));
+    this.indexes = new HashMap<>(names.length * 2);
+    for (int index = 0; index != names.length; ++index)
+      if (indexes.put(Objects.requireNonNull(names[index]), index) != null)
+        throw new IllegalArgumentException("Row can't accept duplicate cell name");
+  }
+
+  /** @return the names. Noted: the array is shared so it must not be changed */
+  String[] array() {
+    return array;
+  }
+
+  List<String> names() {
+    return names;
+  }
+
+  int size() {
+    return array.length;
+  }
+
+  String name(int index) {
+    return array[index];
+  }
+
+  /**
+   * @param name cell name
+   * @return the index of cell or -1 if there is no such cell
+   */
+  int indexOf(String name) {
+    Integer index = indexes.get(name);
+    return index == null ? -1 : index;
+  }
+}
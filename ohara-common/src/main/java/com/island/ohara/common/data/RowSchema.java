@@ -0,0 +1,368 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.annotations.VisibleForTesting;
+import com.island.ohara.common.util.ByteUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The names and types of a row. The schema is interned so the rows having same names and types
+ * share the same schema object, and the names (and the name-to-index table) are shared with other
+ * rows having same names (see {@link RowNames}). The interner is bounded since the names may be
+ * generated dynamically; the schemas created after the interner is full are not shared. The schema
+ * also decides where the value of {@link ColumnarRow} is stored: the primitive values are stored in
+ * a long array and the others are stored in an object array.
+ *
+ * <p>The compact row format ({@link Serializer#COMPACT_ROW}) writes the encoded names and types so
+ * the row can be read without any prior state. The reader looks up the interned schema by the
+ * encoded bytes so the names are decoded only for the new schema. The encoded bytes are created on
+ * first use.
+ */
+public final class RowSchema {
+  private static final int MAX_NUMBER_OF_INTERNED = 10000;
+  /** names and types -> schema */
+  private static final ConcurrentHashMap<Key, RowSchema> SCHEMAS = new ConcurrentHashMap<>();
+  /** encoded names and types -> schema. It is a shortcut of reading encoded schema */
+  private static final ConcurrentHashMap<Encoded, RowSchema> ENCODED = new ConcurrentHashMap<>();
+
+  private static final class Key {
+    private final String[] names;
+    private final DataType[] types;
+    private final int hash;
+
+    private Key(String[] names, DataType[] types) {
+      this.names = names;
+      this.types = types;
+      this.hash = 31 * Arrays.hashCode(names) + Arrays.hashCode(types);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Key) {
+        Key that = (Key) obj;
+        return Arrays.equals(names, that.names) && Arrays.equals(types, that.types);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * a range of encoded schema. The probe refers to the input bytes, and the stored key is a copy.
+   */
+  private static final class Encoded {
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private final int hash;
+
+    private Encoded(byte[] bytes, int offset, int length) {
+      this.bytes = bytes;
+      this.offset = offset;
+      this.length = length;
+      int h = 1;
+      for (int index = offset; index != offset + length; ++index) h = 31 * h + bytes[index];
+      this.hash = h;
+    }
+
+    private Encoded copy() {
+      return new Encoded(Arrays.copyOfRange(bytes, offset, offset + length), 0, length);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Encoded) {
+        Encoded that = (Encoded) obj;
+        return ByteUtils.compare(bytes, offset, length, that.bytes, that.offset, that.length) == 0;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * @param columns columns. The cells are ordered by {@link Column#order()} and named by {@link
+   *     Column#newName()}
+   * @return schema
+   */
+  public static RowSchema of(List<Column> columns) {
+    List<Column> sorted = new ArrayList<>(columns);
+    sorted.sort(Comparator.comparingInt(Column::order));
+    return of(
+        sorted.stream().map(Column::newName).collect(Collectors.toList()),
+        sorted.stream().map(Column::dataType).collect(Collectors.toList()));
+  }
+
+  /**
+   * @param names cell names
+   * @param types cell types
+   * @return schema
+   */
+  public static RowSchema of(List<String> names, List<DataType> types) {
+    return of(names.toArray(new String[0]), types.toArray(new DataType[0]));
+  }
+
+  /**
+   * @param names cell names. Noted: the array is kept by the returned object so it must not be
+   *     changed
+   * @param types cell types. Noted: the array is kept by the returned object so it must not be
+   *     changed
+   * @return the interned schema
+   * @throws IllegalArgumentException if there are duplicate names
+   */
+  static RowSchema of(String[] names, DataType[] types) {
+    return of(null, names, types);
+  }
+
+  /**
+   * @param names the names of row. It is used to skip the name-to-index table of new schema
+   * @param types cell types. Noted: the array is kept by the returned object so it must not be
+   *     changed
+   * @return the interned schema
+   */
+  static RowSchema of(RowNames names, DataType[] types) {
+    return of(names, names.array(), types);
+  }
+
+  private static RowSchema of(RowNames rowNames, String[] names, DataType[] types) {
+    Key key = new Key(names, types);
+    RowSchema current = SCHEMAS.get(key);
+    if (current != null) return current;
+    current = new RowSchema(rowNames == null ? RowNames.of(names) : rowNames, types);
+    if (SCHEMAS.size() >= MAX_NUMBER_OF_INTERNED) return current;
+    RowSchema previous = SCHEMAS.putIfAbsent(key, current);
+    return previous != null ? previous : current;
+  }
+
+  /**
+   * read the schema encoded by {@link #encode(byte[], int)}. The interned schema is returned if the
+   * encoded bytes are matched, so the names are decoded only for the new schema.
+   *
+   * @param bytes data
+   * @param offset the start of encoded schema
+   * @param length the size of encoded schema
+   * @return schema
+   * @throws IllegalStateException if the encoded schema is broken
+   */
+  static RowSchema read(byte[] bytes, int offset, int length) {
+    Encoded probe = new Encoded(bytes, offset, length);
+    RowSchema schema = ENCODED.get(probe);
+    if (schema != null) return schema;
+    int end = offset + length;
+    int position = offset;
+    int count = readVarInt(bytes, position, end);
+    position += ByteUtils.sizeOfVarInt(count);
+    if (count < 0 || count > length)
+      throw new IllegalStateException("the number of cells:" + count + " is out of range");
+    String[] names = new String[count];
+    DataType[] types = new DataType[count];
+    for (int index = 0; index != count; ++index) {
+      int nameSize = readVarInt(bytes, position, end);
+      position += ByteUtils.sizeOfVarInt(nameSize);
+      RowSerializer.checkRemaining(position, end, nameSize);
+      names[index] = ByteUtils.toString(bytes, position, nameSize);
+      position += nameSize;
+      int type = readVarInt(bytes, position, end);
+      position += ByteUtils.sizeOfVarInt(type);
+      types[index] = DataType.of((short) type);
+    }
+    if (position != end)
+      throw new IllegalStateException(
+          "the encoded schema has " + (end - position) + " extra bytes");
+    schema = of(names, types);
+    // only the interned schema is cached so the cache is bounded also
+    if (SCHEMAS.get(new Key(names, types)) == schema && ENCODED.size() < MAX_NUMBER_OF_INTERNED)
+      ENCODED.putIfAbsent(probe.copy(), schema);
+    return schema;
+  }
+
+  /** drop all interned schemas. It is used to simulate a new process. */
+  @VisibleForTesting
+  static void clearInterned() {
+    SCHEMAS.clear();
+    ENCODED.clear();
+    RowNames.clearInterned();
+  }
+
+  private static int readVarInt(byte[] bytes, int position, int end) {
+    RowSerializer.checkRemaining(position, end, ByteUtils.SIZE_OF_BYTE);
+    int value = ByteUtils.toVarInt(bytes, position);
+    if (position + ByteUtils.sizeOfVarInt(value) > end)
+      throw new IllegalStateException("the varint is out of range");
+    return value;
+  }
+
+  private final RowNames names;
+  private final List<DataType> types;
+  /** the index of long array or object array */
+  private final int[] slots;
+  /** the size of UTF-8 name. It is used by serializer */
+  private final int[] nameSizes;
+
+  private final int numberOfPrimitives;
+  private final int numberOfObjects;
+  /** the names and types encoded for compact row format. It is created on first use */
+  private volatile byte[] encoded = null;
+
+  private RowSchema(RowNames names, DataType[] types) {
+    if (names.size() != types.length)
+      throw new IllegalArgumentException(
+          "the number of names:" + names.size() + " is not equal with types:" + types.length);
+    this.names = names;
+    this.types = Collections.unmodifiableList(Arrays.asList(types));
+    this.slots = new int[types.length];
+    this.nameSizes = new int[types.length];
+    int primitives = 0;
+    int objects = 0;
+    for (int index = 0; index != types.length; ++index) {
+      DataType type = Objects.requireNonNull(types[index]);
+      slots[index] = PrimitiveCell.isPrimitive(type) ? primitives++ : objects++;
+      nameSizes[index] = ByteUtils.sizeOfString(names.name(index));
+    }
+    this.numberOfPrimitives = primitives;
+    this.numberOfObjects = objects;
+  }
+
+  /** @return the names and types encoded for compact row format */
+  private byte[] encoded() {
+    byte[] current = encoded;
+    if (current == null) {
+      // count (varint) | name length (varint) | name | type (varint) | ...
+      int size = ByteUtils.sizeOfVarInt(size());
+      for (int index = 0; index != size(); ++index)
+        size +=
+            ByteUtils.sizeOfVarInt(nameSizes[index])
+                + nameSizes[index]
+                + ByteUtils.sizeOfVarInt(type(index).order);
+      current = new byte[size];
+      int offset = ByteUtils.putVarInt(current, 0, size());
+      for (int index = 0; index != size(); ++index) {
+        offset = ByteUtils.putVarInt(current, offset, nameSizes[index]);
+        offset = ByteUtils.putString(current, offset, name(index));
+        offset = ByteUtils.putVarInt(current, offset, type(index).order);
+      }
+      encoded = current;
+    }
+    return current;
+  }
+
+  /** @return cell names */
+  public List<String> names() {
+    return names.names();
+  }
+
+  /** @return cell types */
+  public List<DataType> types() {
+    return types;
+  }
+
+  /** @return the number of cells */
+  public int size() {
+    return names.size();
+  }
+
+  public String name(int index) {
+    return names.name(index);
+  }
+
+  public DataType type(int index) {
+    return types.get(index);
+  }
+
+  /**
+   * @param name cell name
+   * @return the index of cell or -1 if there is no such cell
+   */
+  public int indexOf(String name) {
+    return names.indexOf(name);
+  }
+
+  /** @return a builder to create {@link ColumnarRow} with this schema */
+  public ColumnarRow.Builder rowBuilder() {
+    return new ColumnarRow.Builder(this);
+  }
+
+  /** @return the size of encoded names and types */
+  int encodedSize() {
+    return encoded().length;
+  }
+
+  /**
+   * copy the encoded names and types to the buffer.
+   *
+   * @param buffer target buffer
+   * @param offset start position of buffer
+   * @return the position next to the copied bytes
+   */
+  int encode(byte[] buffer, int offset) {
+    byte[] current = encoded();
+    System.arraycopy(current, 0, buffer, offset, current.length);
+    return offset + current.length;
+  }
+
+  int slot(int index) {
+    return slots[index];
+  }
+
+  int nameSize(int index) {
+    return nameSizes[index];
+  }
+
+  int numberOfPrimitives() {
+    return numberOfPrimitives;
+  }
+
+  int numberOfObjects() {
+    return numberOfObjects;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (obj instanceof RowSchema) {
+      RowSchema that = (RowSchema) obj;
+      return names().equals(that.names()) && types.equals(that.types);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * names().hashCode() + types.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "names:" + names() + ", types:" + types;
+  }
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.annotations.Nullable;
+import com.island.ohara.common.util.ByteUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The serializer of {@link Row}. The encoder computes the exact size of serialized row before
+ * writing anything so all cells are written to a single array without any temporary buffer.
+ *
+ * <p>version 0: cell count from row (4 bytes) | cell name length (2 bytes) | cell name | cell value
+ * type (2 byte) | cell value length (2 bytes) | cell value | ... | tag count (2 bytes) | tag length
+ * (2 bytes) | tag bytes | ...
+ *
+ * <p>The decoder can either decode all cells eagerly or return a lazy view ({@link LazyRow}) backed
+ * by the serialized bytes.
+ *
+ * <p>The primitive values carried by {@link PrimitiveCell} and {@link ColumnarRow} are written and
+ * read without boxing, and the eager decoder creates {@link PrimitiveCell} for primitive values.
+ *
+ * <p>version 1: see {@link CompactRowFormat}. The decoder reads both versions.
+ */
+final class RowSerializer implements Serializer<Row> {
+  static final byte VERSION_0 = 0;
+  static final byte VERSION_1 = 1;
+
+  private final boolean lazy;
+  private final byte version;
+
+  /**
+   * @param lazy true if the deserialized row should be a view of serialized bytes. Only version 0
+   *     supports the lazy view.
+   * @param version the version used to serialize the row
+   */
+  RowSerializer(boolean lazy, byte version) {
+    if (version != VERSION_0 && version != VERSION_1)
+      throw new IllegalArgumentException("Unsupported version:" + version);
+    this.lazy = lazy;
+    this.version = version;
+  }
+
+  @Override
+  public byte[] to(Row row) {
+    if (version == VERSION_1) return CompactRowFormat.to(row);
+    // the unmodified bytes are copied directly
+    if (row instanceof LazyRow) {
+      LazyRow lazyRow = (LazyRow) row;
+      byte[] bytes = new byte[lazyRow.serializedSize()];
+      lazyRow.copyTo(bytes, 0);
+      return bytes;
+    }
+    // the java serialization is expensive so we keep the serialized OBJECT values to reuse them
+    List<byte[]> objects = new ArrayList<>(0);
+    Writer writer = new Writer(new byte[sizeOf(row, objects)], objects);
+    writer.write(row);
+    return writer.bytes;
+  }
+
+  /**
+   * compute the size of serialized row without allocating the serialized bytes. Noted: the OBJECT
+   * values are still serialized by java serialization since there is no other way to get the size.
+   *
+   * @param row row
+   * @return the size of serialized row
+   */
+  @Override
+  public int sizeOf(Row row) {
+    if (version == VERSION_1) return CompactRowFormat.sizeOf(row);
+    return sizeOf(row, null);
+  }
+
+  /**
+   * compute the size of serialized row.
+   *
+   * @param row row
+   * @param objects used to keep the serialized OBJECT values. It is ignored if it is null
+   * @return the size of serialized row
+   */
+  private static int sizeOf(Row row, @Nullable List<byte[]> objects) {
+    if (row instanceof LazyRow) return ((LazyRow) row).serializedSize();
+    if (row instanceof ColumnarRow) return sizeOf((ColumnarRow) row, objects);
+    // version + cell count + tag count
+    int size = ByteUtils.SIZE_OF_BYTE + ByteUtils.SIZE_OF_INT + ByteUtils.SIZE_OF_SHORT;
+    List<Cell<?>> cells = row.cells();
+    for (int index = 0; index != cells.size(); ++index) {
+      Cell<?> cell = cells.get(index);
+      int valueSize =
+          cell instanceof PrimitiveCell
+              ? PrimitiveCell.sizeOf(((PrimitiveCell<?>) cell).dataType())
+              : sizeOfValue(cell.value(), objects);
+      size += sizeOfCell(ByteUtils.sizeOfString(cell.name()), valueSize);
+    }
+    return size + sizeOfTags(row.tags());
+  }
+
+  private static int sizeOf(ColumnarRow row, @Nullable List<byte[]> objects) {
+    RowSchema schema = row.schema();
+    // version + cell count + tag count
+    int size = ByteUtils.SIZE_OF_BYTE + ByteUtils.SIZE_OF_INT + ByteUtils.SIZE_OF_SHORT;
+    for (int index = 0; index != schema.size(); ++index) {
+      DataType type = schema.type(index);
+      int valueSize =
+          PrimitiveCell.isPrimitive(type)
+              ? PrimitiveCell.sizeOf(type)
+              : sizeOfValue(row.object(index), objects);
+      size += sizeOfCell(schema.nameSize(index), valueSize);
+    }
+    return size + sizeOfTags(row.tags());
+  }
+
+  /** @return name length + name + value type + value length + value */
+  private static int sizeOfCell(int nameSize, int valueSize) {
+    return ByteUtils.SIZE_OF_SHORT
+        + checkSize("name", nameSize)
+        + ByteUtils.SIZE_OF_SHORT
+        + ByteUtils.SIZE_OF_SHORT
+        + checkSize("value", valueSize);
+  }
+
+  private static int sizeOfTags(List<String> tags) {
+    int size = 0;
+    for (int index = 0; index != tags.size(); ++index)
+      size += ByteUtils.SIZE_OF_SHORT + checkSize("tag", ByteUtils.sizeOfString(tags.get(index)));
+    return size;
+  }
+
+  private static int sizeOfValue(Object value, @Nullable List<byte[]> objects) {
+    DataType type = DataType.from(value);
+    switch (type) {
+      case BYTES:
+        return ((byte[]) value).length;
+      case BOOLEAN:
+        return ByteUtils.SIZE_OF_BOOLEAN;
+      case BYTE:
+        return ByteUtils.SIZE_OF_BYTE;
+      case SHORT:
+        return ByteUtils.SIZE_OF_SHORT;
+      case INT:
+        return ByteUtils.SIZE_OF_INT;
+      case LONG:
+        return ByteUtils.SIZE_OF_LONG;
+      case FLOAT:
+        return ByteUtils.SIZE_OF_FLOAT;
+      case DOUBLE:
+        return ByteUtils.SIZE_OF_DOUBLE;
+      case STRING:
+        return ByteUtils.sizeOfString((String) value);
+      case ROW:
+        return sizeOf((Row) value, objects);
+      case OBJECT:
+        byte[] bytes = OBJECT.to(value);
+        if (objects != null) objects.add(bytes);
+        return bytes.length;
+      default:
+        throw new UnsupportedClassVersionError(type.getClass().getName());
+    }
+  }
+
+  private static int checkSize(String item, int size) {
+    if (size > Short.MAX_VALUE)
+      throw new IllegalArgumentException(
+          "the max size from " + item + " is " + Short.MAX_VALUE + " current:" + size);
+    return size;
+  }
+
+  /**
+   * write the row to the pre-sized array. The order of traversal must be same to {@link
+   * #sizeOf(Row, List)} since the serialized OBJECT values are consumed in order.
+   */
+  private static final class Writer {
+    private final byte[] bytes;
+    private final List<byte[]> objects;
+    private int offset = 0;
+    private int objectIndex = 0;
+
+    private Writer(byte[] bytes, List<byte[]> objects) {
+      this.bytes = bytes;
+      this.objects = objects;
+    }
+
+    private void write(Row row) {
+      if (row instanceof LazyRow) {
+        offset = ((LazyRow) row).copyTo(bytes, offset);
+        return;
+      }
+      if (row instanceof ColumnarRow) {
+        write((ColumnarRow) row);
+        return;
+      }
+      bytes[offset++] = VERSION_0;
+      List<Cell<?>> cells = row.cells();
+      offset = ByteUtils.putInt(bytes, offset, cells.size());
+      for (int index = 0; index != cells.size(); ++index) {
+        Cell<?> cell = cells.get(index);
+        writeString(cell.name());
+        if (cell instanceof PrimitiveCell) {
+          PrimitiveCell<?> primitiveCell = (PrimitiveCell<?>) cell;
+          writePrimitive(primitiveCell.dataType(), primitiveCell.bits());
+        } else writeValue(cell.value());
+      }
+      writeTags(row.tags());
+    }
+
+    private void write(ColumnarRow row) {
+      RowSchema schema = row.schema();
+      bytes[offset++] = VERSION_0;
+      offset = ByteUtils.putInt(bytes, offset, schema.size());
+      for (int index = 0; index != schema.size(); ++index) {
+        writeString(schema.name(index));
+        DataType type = schema.type(index);
+        if (PrimitiveCell.isPrimitive(type)) writePrimitive(type, row.bits(index));
+        else writeValue(row.object(index));
+      }
+      writeTags(row.tags());
+    }
+
+    private void writeTags(List<String> tags) {
+      // noted: the (int) length is converted to short type.
+      offset = ByteUtils.putShort(bytes, offset, (short) tags.size());
+      for (int index = 0; index != tags.size(); ++index) writeString(tags.get(index));
+    }
+
+    /** write the length (2 bytes) and then the UTF-8 bytes of string. */
+    private void writeString(String value) {
+      int start = offset + ByteUtils.SIZE_OF_SHORT;
+      offset = ByteUtils.putString(bytes, start, value);
+      // noted: the (int) length is converted to short type.
+      ByteUtils.putShort(bytes, start - ByteUtils.SIZE_OF_SHORT, (short) (offset - start));
+    }
+
+    /** write the type (2 bytes), the length (2 bytes) and then the bits of primitive value. */
+    private void writePrimitive(DataType type, long bits) {
+      offset = ByteUtils.putShort(bytes, offset, type.order);
+      offset = ByteUtils.putShort(bytes, offset, (short) PrimitiveCell.sizeOf(type));
+      offset = putBits(bytes, offset, type, bits);
+    }
+
+    /** write the type (2 bytes), the length (2 bytes) and then the value. */
+    private void writeValue(Object value) {
+      DataType type = DataType.from(value);
+      offset = ByteUtils.putShort(bytes, offset, type.order);
+      int start = offset + ByteUtils.SIZE_OF_SHORT;
+      offset = start;
+      switch (type) {
+        case BYTES:
+          byte[] bs = (byte[]) value;
+          System.arraycopy(bs, 0, bytes, offset, bs.length);
+          offset += bs.length;
+          break;
+        case BOOLEAN:
+          bytes[offset++] = (boolean) value ? (byte) -1 : (byte) 0;
+          break;
+        case BYTE:
+          bytes[offset++] = (byte) value;
+          break;
+        case SHORT:
+          offset = ByteUtils.putShort(bytes, offset, (short) value);
+          break;
+        case INT:
+          offset = ByteUtils.putInt(bytes, offset, (int) value);
+          break;
+        case LONG:
+          offset = ByteUtils.putLong(bytes, offset, (long) value);
+          break;
+        case FLOAT:
+          offset = ByteUtils.putInt(bytes, offset, Float.floatToIntBits((float) value));
+          break;
+        case DOUBLE:
+          offset = ByteUtils.putLong(bytes, offset, Double.doubleToLongBits((double) value));
+          break;
+        case STRING:
+          offset = ByteUtils.putString(bytes, offset, (String) value);
+          break;
+        case ROW:
+          write((Row) value);
+          break;
+        case OBJECT:
+          byte[] object = objects.get(objectIndex++);
+          System.arraycopy(object, 0, bytes, offset, object.length);
+          offset += object.length;
+          break;
+        default:
+          throw new UnsupportedClassVersionError(type.getClass().getName());
+      }
+      // noted: the (int) length is converted to short type.
+      ByteUtils.putShort(bytes, start - ByteUtils.SIZE_OF_SHORT, (short) (offset - start));
+    }
+  }
+
+  /**
+   * write the bits of primitive value. The size of written bytes is {@link
+   * PrimitiveCell#sizeOf(DataType)}.
+   *
+   * @return the position next to the written value
+   */
+  static int putBits(byte[] bytes, int offset, DataType type, long bits) {
+    switch (type) {
+      case BOOLEAN:
+        bytes[offset] = bits != 0 ? (byte) -1 : (byte) 0;
+        return offset + ByteUtils.SIZE_OF_BOOLEAN;
+      case BYTE:
+        bytes[offset] = (byte) bits;
+        return offset + ByteUtils.SIZE_OF_BYTE;
+      case SHORT:
+        return ByteUtils.putShort(bytes, offset, (short) bits);
+      case INT:
+      case FLOAT:
+        return ByteUtils.putInt(bytes, offset, (int) bits);
+      case LONG:
+      case DOUBLE:
+        return ByteUtils.putLong(bytes, offset, bits);
+      default:
+        throw new IllegalArgumentException(type + " is not primitive type");
+    }
+  }
+
+  /** read the bits of primitive value. It is the reverse of {@link #putBits}. */
+  static long readBits(DataType type, byte[] bytes, int offset) {
+    switch (type) {
+      case BOOLEAN:
+        return bytes[offset] != (byte) 0 ? 1 : 0;
+      case BYTE:
+        return bytes[offset];
+      case SHORT:
+        return ByteUtils.toShort(bytes, offset);
+      case INT:
+      case FLOAT:
+        return ByteUtils.toInt(bytes, offset);
+      case LONG:
+      case DOUBLE:
+        return ByteUtils.toLong(bytes, offset);
+      default:
+        throw new IllegalArgumentException(type + " is not primitive type");
+    }
+  }
+
+  @Override
+  public Row from(byte[] bytes) {
+    return from(bytes, 0, bytes.length);
+  }
+
+  /**
+   * deserialize the row from a part of bytes.
+   *
+   * @param bytes serialized data
+   * @param offset the position of version byte
+   * @param length the size of serialized row
+   * @return row
+   */
+  Row from(byte[] bytes, int offset, int length) {
+    try {
+      if (length <= 0) throw new IllegalStateException("the serialized row is empty");
+      int version = bytes[offset];
+      switch (version) {
+        case VERSION_0:
+          return lazy ? new LazyRow(bytes, offset, length) : readRow(bytes, offset, length);
+        case VERSION_1:
+          return CompactRowFormat.read(bytes, offset, length);
+        default:
+          throw new UnsupportedOperationException("Unsupported version:" + version);
+      }
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private static Row readRow(byte[] bytes, int offset, int length) {
+    int end = offset + length;
+    // skip the version
+    int position = offset + ByteUtils.SIZE_OF_BYTE;
+    int cellCount = readInt(bytes, position, end);
+    position += ByteUtils.SIZE_OF_INT;
+    if (cellCount < 0)
+      throw new IllegalStateException("the number from cell should be bigger than zero");
+    Cell<?>[] cells = new Cell<?>[cellCount];
+    for (int index = 0; index != cellCount; ++index) {
+      int nameSize = readSize(bytes, position, end);
+      position += ByteUtils.SIZE_OF_SHORT;
+      String name = ByteUtils.toString(bytes, position, nameSize);
+      position += nameSize;
+      DataType type = DataType.of(readShort(bytes, position, end));
+      position += ByteUtils.SIZE_OF_SHORT;
+      int valueSize = readSize(bytes, position, end);
+      position += ByteUtils.SIZE_OF_SHORT;
+      cells[index] = readCell(name, type, bytes, position, valueSize, false);
+      position += valueSize;
+    }
+    int tagCount = readShort(bytes, position, end);
+    position += ByteUtils.SIZE_OF_SHORT;
+    if (tagCount < 0)
+      throw new IllegalStateException("the number from tag should be bigger than zero");
+    List<String> tags = new ArrayList<>(tagCount);
+    for (int index = 0; index != tagCount; ++index) {
+      int tagSize = readSize(bytes, position, end);
+      position += ByteUtils.SIZE_OF_SHORT;
+      tags.add(ByteUtils.toString(bytes, position, tagSize));
+      position += tagSize;
+    }
+    return Row.of(tags, cells);
+  }
+
+  /**
+   * decode the cell. The primitive value is decoded to {@link PrimitiveCell}.
+   *
+   * @param name cell name
+   * @param type value type
+   * @param bytes serialized data
+   * @param offset start position of value
+   * @param length size of value
+   * @param lazy true if the nested row should be a view of bytes
+   * @return cell
+   */
+  static Cell<?> readCell(
+      String name, DataType type, byte[] bytes, int offset, int length, boolean lazy) {
+    if (!PrimitiveCell.isPrimitive(type))
+      return Cell.of(name, readValue(type, bytes, offset, length, lazy));
+    checkLength(type, PrimitiveCell.sizeOf(type), length);
+    return PrimitiveCell.of(name, type, readBits(type, bytes, offset));
+  }
+
+  /**
+   * decode the value of cell.
+   *
+   * @param type value type
+   * @param bytes serialized data
+   * @param offset start position of value
+   * @param length size of value
+   * @param lazy true if the nested row should be a view of bytes
+   * @return value
+   */
+  static Object readValue(DataType type, byte[] bytes, int offset, int length, boolean lazy) {
+    switch (type) {
+      case BYTES:
+        return Arrays.copyOfRange(bytes, offset, offset + length);
+      case BOOLEAN:
+        checkLength(type, ByteUtils.SIZE_OF_BOOLEAN, length);
+        return bytes[offset] != (byte) 0;
+      case BYTE:
+        checkLength(type, ByteUtils.SIZE_OF_BYTE, length);
+        return bytes[offset];
+      case SHORT:
+        checkLength(type, ByteUtils.SIZE_OF_SHORT, length);
+        return ByteUtils.toShort(bytes, offset);
+      case INT:
+        checkLength(type, ByteUtils.SIZE_OF_INT, length);
+        return ByteUtils.toInt(bytes, offset);
+      case LONG:
+        checkLength(type, ByteUtils.SIZE_OF_LONG, length);
+        return ByteUtils.toLong(bytes, offset);
+      case FLOAT:
+        checkLength(type, ByteUtils.SIZE_OF_FLOAT, length);
+        return ByteUtils.toFloat(bytes, offset);
+      case DOUBLE:
+        checkLength(type, ByteUtils.SIZE_OF_DOUBLE, length);
+        return ByteUtils.toDouble(bytes, offset);
+      case STRING:
+        return ByteUtils.toString(bytes, offset, length);
+      case ROW:
+        if (lazy) return new LazyRow(bytes, offset, length);
+        else return readRow(bytes, offset, length);
+      case OBJECT:
+        return OBJECT.from(Arrays.copyOfRange(bytes, offset, offset + length));
+      default:
+        throw new UnsupportedClassVersionError(type.getClass().getName());
+    }
+  }
+
+  private static void checkLength(DataType type, int expected, int actual) {
+    if (expected != actual)
+      throw new IllegalStateException(
+          "the size of " + type + " should be " + expected + " but actual " + actual);
+  }
+
+  static void checkRemaining(int position, int end, int required) {
+    if (position + required > end)
+      throw new IllegalStateException(
+          "required " + required + " but actual " + (end - position) + " bytes");
+  }
+
+  static int readInt(byte[] bytes, int position, int end) {
+    checkRemaining(position, end, ByteUtils.SIZE_OF_INT);
+    return ByteUtils.toInt(bytes, position);
+  }
+
+  static short readShort(byte[] bytes, int position, int end) {
+    checkRemaining(position, end, ByteUtils.SIZE_OF_SHORT);
+    return ByteUtils.toShort(bytes, position);
+  }
+
+  /** read the size (2 bytes) and then check whether there are enough bytes after the size. */
+  static int readSize(byte[] bytes, int position, int end) {
+    int size = readShort(bytes, position, end);
+    if (size < 0) throw new IllegalStateException(size + " should be bigger than zero");
+    checkRemaining(position + ByteUtils.SIZE_OF_SHORT, end, size);
+    return size;
+  }
+}
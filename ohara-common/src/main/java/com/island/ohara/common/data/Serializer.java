@@ -18,10 +18,6 @@ package com.island.ohara.common.data;
 
 import com.island.ohara.common.util.ByteUtils;
 import java.io.*;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import org.apache.commons.lang3.ArrayUtils;
 
 /**
  * Used to convert a T object to V NOTED: the impl should not be an inner/anonymous class since
@@ -48,6 +44,17 @@ public interface Serializer<T> {
    */
   T from(byte[] bytes);
 
+  /**
+   * compute the size of serialized object. The default implementation serializes the object so the
+   * serializer which is able to compute the size without serialization should override it.
+   *
+   * @param obj object
+   * @return the size of serialized object
+   */
+  default int sizeOf(T obj) {
+    return to(obj).length;
+  }
+
   Serializer<byte[]> BYTES =
       new Serializer<byte[]>() {
         @Override
@@ -165,232 +172,25 @@ public interface Serializer<T> {
         }
       };
 
-  Serializer<Row> ROW =
-      new Serializer<Row>() {
-        @Override
-        public byte[] to(Row row) {
-          try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
-            output.write(0);
-            toV0(output, row);
-            output.flush();
-            return output.toByteArray();
-          } catch (Exception e) {
-            throw new IllegalArgumentException(e);
-          }
-        }
-
-        /**
-         * cell count from row (4 bytes) cell name length (2 bytes) | cell name | cell value type (2
-         * byte) | cell value length (2 bytes) | cell value cell name length (2 bytes) | cell name |
-         * cell value type (2 byte) | cell value length (2 bytes) | cell value tag count (2 bytes)
-         * tag length (2 bytes) | tag bytes tag length (2 bytes) | tag bytes
-         *
-         * @param row row
-         * @param output output
-         */
-        @SuppressWarnings("unchecked")
-        private void toV0(ByteArrayOutputStream output, Row row) throws IOException {
-          output.write(INT.to(row.cells().size()));
-          row.cells().stream()
-              .forEach(
-                  c -> {
-                    // we have got to cast Cell<?> to Cell<object>. Otherwise, we can't obey CAP#1
-                    Cell<Object> cell = (Cell<Object>) c;
-                    try {
-                      byte[] nameBytes = STRING.to(cell.name());
-                      final byte[] valueBytes;
-                      DataType type = DataType.from(cell.value());
-                      switch (type) {
-                        case BYTES:
-                          valueBytes = BYTES.to((byte[]) cell.value());
-                          break;
-                        case BOOLEAN:
-                          valueBytes = BOOLEAN.to((boolean) cell.value());
-                          break;
-                        case BYTE:
-                          valueBytes = BYTE.to((byte) cell.value());
-                          break;
-                        case SHORT:
-                          valueBytes = SHORT.to((short) cell.value());
-                          break;
-                        case INT:
-                          valueBytes = INT.to((int) cell.value());
-                          break;
-                        case LONG:
-                          valueBytes = LONG.to((long) cell.value());
-                          break;
-                        case FLOAT:
-                          valueBytes = FLOAT.to((float) cell.value());
-                          break;
-                        case DOUBLE:
-                          valueBytes = DOUBLE.to((double) cell.value());
-                          break;
-                        case STRING:
-                          valueBytes = STRING.to((String) cell.value());
-                          break;
-                        case ROW:
-                          valueBytes = ROW.to((Row) cell.value());
-                          break;
-                        case OBJECT:
-                          valueBytes = OBJECT.to(cell.value());
-                          break;
-                        default:
-                          throw new UnsupportedClassVersionError(type.getClass().getName());
-                      }
-                      if (nameBytes.length > Short.MAX_VALUE)
-                        throw new IllegalArgumentException(
-                            "the max size from name is "
-                                + Short.MAX_VALUE
-                                + " current:"
-                                + nameBytes.length);
-                      if (valueBytes.length > Short.MAX_VALUE)
-                        throw new IllegalArgumentException(
-                            "the max size from value is "
-                                + Short.MAX_VALUE
-                                + " current:"
-                                + valueBytes.length);
-                      // noted: the (int) length is converted to short type.
-                      output.write(SHORT.to((short) nameBytes.length));
-                      output.write(nameBytes);
-                      output.write(SHORT.to(type.order));
-                      // noted: the (int) length is converted to short type.
-                      output.write(SHORT.to((short) valueBytes.length));
-                      output.write(valueBytes);
-                    } catch (IOException e) {
-                      throw new IllegalArgumentException(e);
-                    }
-                  });
+  Serializer<Row> ROW = new RowSerializer(false, RowSerializer.VERSION_0);
 
-          // process tag
-          // noted: the (int) length is converted to short type.
-          output.write(SHORT.to((short) row.tags().size()));
-          row.tags()
-              .forEach(
-                  tag -> {
-                    try {
-                      byte[] tagBytes = STRING.to(tag);
-                      if (tagBytes.length > Short.MAX_VALUE)
-                        throw new IllegalArgumentException(
-                            "the max size from tag is "
-                                + Short.MAX_VALUE
-                                + " current:"
-                                + tagBytes.length);
-                      // noted: the (int) length is converted to short type.
-                      output.write(SHORT.to((short) tagBytes.length));
-                      output.write(tagBytes);
-                    } catch (IOException e) {
-                      throw new IllegalArgumentException(e);
-                    }
-                  });
-        }
-
-        @Override
-        public Row from(byte[] bytes) {
-          try (InputStream input = new ByteArrayInputStream(bytes)) {
-            int version = input.read();
-            switch (version) {
-              case 0:
-                return fromV0(input);
-              default:
-                throw new UnsupportedOperationException("Unsupported version:" + version);
-            }
-          } catch (Exception e) {
-            throw new IllegalArgumentException(e);
-          }
-        }
-
-        private byte[] forceRead(InputStream input, int len) {
-          if (len == 0) return ArrayUtils.EMPTY_BYTE_ARRAY;
-          else if (len < 0) throw new IllegalStateException(len + " should be bigger than zero");
-          else {
-            int remaining = len;
-            byte[] buf = new byte[len];
-            while (remaining != 0) {
-              try {
-                int rval = input.read(buf, buf.length - remaining, remaining);
-                if (rval < 0)
-                  throw new IllegalStateException(
-                      "required " + len + " but actual " + (len - remaining) + " bytes");
-                if (rval > remaining)
-                  throw new IllegalStateException(
-                      "ask " + remaining + " bytes but actual " + rval + " bytes");
-                remaining -= rval;
-              } catch (Throwable e) {
-                throw new IllegalStateException(e);
-              }
-            }
-            return buf;
-          }
-        }
+  /**
+   * Same to {@link #ROW} except for the deserialized row. The row returned by this serializer is a
+   * view of the serialized bytes, and the cell is decoded only when it is requested. It is useful
+   * to the process which reads only a few cells of row (for example, filter or route). Noted: the
+   * deserialized row holds the input bytes so the bytes must not be changed. The compact rows
+   * (version 1) are decoded eagerly.
+   */
+  Serializer<Row> LAZY_ROW = new RowSerializer(true, RowSerializer.VERSION_0);
 
-        private Row fromV0(InputStream input) {
-          int cellCount = INT.from(forceRead(input, ByteUtils.SIZE_OF_INT));
-          if (cellCount < 0)
-            throw new IllegalStateException("the number from cell should be bigger than zero");
-          Cell<?>[] cells =
-              IntStream.range(0, cellCount)
-                  .mapToObj(
-                      i -> {
-                        int nameSize = SHORT.from(forceRead(input, ByteUtils.SIZE_OF_SHORT));
-                        String name = STRING.from(forceRead(input, nameSize));
-                        DataType type =
-                            DataType.of(SHORT.from(forceRead(input, ByteUtils.SIZE_OF_SHORT)));
-                        final Cell<?> cell;
-                        short valueSize = SHORT.from(forceRead(input, ByteUtils.SIZE_OF_SHORT));
-                        switch (type) {
-                          case BYTES:
-                            cell = Cell.of(name, BYTES.from(forceRead(input, valueSize)));
-                            break;
-                          case BOOLEAN:
-                            cell = Cell.of(name, BOOLEAN.from(forceRead(input, valueSize)));
-                            break;
-                          case BYTE:
-                            cell = Cell.of(name, BYTE.from(forceRead(input, valueSize)));
-                            break;
-                          case SHORT:
-                            cell = Cell.of(name, SHORT.from(forceRead(input, valueSize)));
-                            break;
-                          case INT:
-                            cell = Cell.of(name, INT.from(forceRead(input, valueSize)));
-                            break;
-                          case LONG:
-                            cell = Cell.of(name, LONG.from(forceRead(input, valueSize)));
-                            break;
-                          case FLOAT:
-                            cell = Cell.of(name, FLOAT.from(forceRead(input, valueSize)));
-                            break;
-                          case DOUBLE:
-                            cell = Cell.of(name, DOUBLE.from(forceRead(input, valueSize)));
-                            break;
-                          case STRING:
-                            cell = Cell.of(name, STRING.from(forceRead(input, valueSize)));
-                            break;
-                          case ROW:
-                            cell = Cell.of(name, ROW.from(forceRead(input, valueSize)));
-                            break;
-                          case OBJECT:
-                            cell = Cell.of(name, OBJECT.from(forceRead(input, valueSize)));
-                            break;
-                          default:
-                            throw new UnsupportedClassVersionError(type.getClass().getName());
-                        }
-                        return cell;
-                      })
-                  .toArray(Cell[]::new);
-          int tagCount = SHORT.from(forceRead(input, ByteUtils.SIZE_OF_SHORT));
-          if (tagCount < 0)
-            throw new IllegalStateException("the number from tag should be bigger than zero");
-          List<String> tag =
-              IntStream.range(0, tagCount)
-                  .mapToObj(
-                      i ->
-                          STRING.from(
-                              forceRead(
-                                  input, SHORT.from(forceRead(input, ByteUtils.SIZE_OF_SHORT)))))
-                  .collect(Collectors.toList());
-          return Row.of(tag, cells);
-        }
-      };
+  /**
+   * Serialize the row by the compact format (version 1). The names and types are written once in
+   * front of the values, the lengths are variable-length int and the type tags are dropped if the
+   * schema has fixed them. The row carries its schema so it can be read without any prior state.
+   * The deserialized row is a {@link ColumnarRow}. {@link #ROW} and {@link #LAZY_ROW} are able to
+   * read both formats.
+   */
+  Serializer<Row> COMPACT_ROW = new RowSerializer(false, RowSerializer.VERSION_1);
 
   Serializer<Object> OBJECT =
       new Serializer<Object>() {
@@ -45,6 +45,21 @@ public final class ByteUtils {
     return new byte[] {(byte) (value >>> 8), (byte) (value)};
   }
 
+  /**
+   * write the short value to the specified position of bytes.
+   *
+   * @param bytes target bytes
+   * @param offset start position
+   * @param value short value
+   * @return the position next to the written value
+   */
+  public static int putShort(byte[] bytes, int offset, short value) {
+    checkSize(bytes, offset, SIZE_OF_SHORT);
+    bytes[offset] = (byte) (value >>> 8);
+    bytes[offset + 1] = (byte) value;
+    return offset + SIZE_OF_SHORT;
+  }
+
   public static short toShort(byte[] bytes) {
     return toShort(bytes, 0);
   }
@@ -66,6 +81,23 @@ public final class ByteUtils {
     };
   }
 
+  /**
+   * write the int value to the specified position of bytes.
+   *
+   * @param bytes target bytes
+   * @param offset start position
+   * @param value int value
+   * @return the position next to the written value
+   */
+  public static int putInt(byte[] bytes, int offset, int value) {
+    checkSize(bytes, offset, SIZE_OF_INT);
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+    return offset + SIZE_OF_INT;
+  }
+
   public static int toInt(byte[] bytes) {
     return toInt(bytes, 0);
   }
@@ -84,6 +116,61 @@ public final class ByteUtils {
     return value;
   }
 
+  // -------------[varint]------------- //
+  /**
+   * compute the size of unsigned variable-length int. Each byte carries 7 bits and the highest bit
+   * indicates whether there is more bytes.
+   *
+   * @param value non-negative int value
+   * @return the number of bytes (1 ~ 5)
+   */
+  public static int sizeOfVarInt(int value) {
+    if (value < 0) throw new IllegalArgumentException("varint can't be negative:" + value);
+    int size = 1;
+    while ((value >>>= 7) != 0) ++size;
+    return size;
+  }
+
+  /**
+   * write the non-negative int value as variable-length int.
+   *
+   * @param bytes target bytes
+   * @param offset start position
+   * @param value non-negative int value
+   * @return the position next to the written value
+   */
+  public static int putVarInt(byte[] bytes, int offset, int value) {
+    checkSize(bytes, offset, sizeOfVarInt(value));
+    while ((value & ~0x7F) != 0) {
+      bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    bytes[offset++] = (byte) value;
+    return offset;
+  }
+
+  /**
+   * read the variable-length int. Use {@link #sizeOfVarInt(int)} to compute the number of read
+   * bytes.
+   *
+   * @param bytes source bytes
+   * @param offset start position
+   * @return int value
+   */
+  public static int toVarInt(byte[] bytes, int offset) {
+    int value = 0;
+    for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+      checkSize(bytes, offset, SIZE_OF_BYTE);
+      byte b = bytes[offset++];
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) throw new IllegalArgumentException("varint can't be negative:" + value);
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("the varint is too long");
+  }
+
   // -------------[long]------------- //
   public static byte[] toBytes(long value) {
     return new byte[] {
@@ -98,6 +185,27 @@ public final class ByteUtils {
     };
   }
 
+  /**
+   * write the long value to the specified position of bytes.
+   *
+   * @param bytes target bytes
+   * @param offset start position
+   * @param value long value
+   * @return the position next to the written value
+   */
+  public static int putLong(byte[] bytes, int offset, long value) {
+    checkSize(bytes, offset, SIZE_OF_LONG);
+    bytes[offset] = (byte) (value >>> 56);
+    bytes[offset + 1] = (byte) (value >>> 48);
+    bytes[offset + 2] = (byte) (value >>> 40);
+    bytes[offset + 3] = (byte) (value >>> 32);
+    bytes[offset + 4] = (byte) (value >>> 24);
+    bytes[offset + 5] = (byte) (value >>> 16);
+    bytes[offset + 6] = (byte) (value >>> 8);
+    bytes[offset + 7] = (byte) value;
+    return offset + SIZE_OF_LONG;
+  }
+
   public static long toLong(byte[] bytes) {
     return toLong(bytes, 0);
   }
@@ -155,6 +263,72 @@ public final class ByteUtils {
     return value.getBytes(StandardCharsets.UTF_8);
   }
 
+  /**
+   * count the number of bytes of the UTF-8 encoded string. The result is equal to
+   * toBytes(value).length but this method doesn't allocate any array.
+   *
+   * @param value string
+   * @return size of UTF-8 encoded string
+   */
+  public static int sizeOfString(String value) {
+    int size = 0;
+    int length = value.length();
+    for (int index = 0; index != length; ++index) {
+      char c = value.charAt(index);
+      if (c < 0x80) size += 1;
+      else if (c < 0x800) size += 2;
+      else if (Character.isHighSurrogate(c)
+          && index + 1 < length
+          && Character.isLowSurrogate(value.charAt(index + 1))) {
+        size += 4;
+        ++index;
+      } else if (Character.isSurrogate(c)) {
+        // the malformed surrogate is replaced by '?' (see String#getBytes)
+        size += 1;
+      } else size += 3;
+    }
+    return size;
+  }
+
+  /**
+   * write the UTF-8 encoded string to the specified position of bytes. The written bytes are equal
+   * to toBytes(value) but this method doesn't allocate any array.
+   *
+   * @param bytes target bytes
+   * @param offset start position
+   * @param value string
+   * @return the position next to the written value
+   */
+  public static int putString(byte[] bytes, int offset, String value) {
+    int length = value.length();
+    checkSize(bytes, offset, length);
+    int position = offset;
+    for (int index = 0; index != length; ++index) {
+      char c = value.charAt(index);
+      if (c < 0x80) bytes[position++] = (byte) c;
+      else if (c < 0x800) {
+        bytes[position++] = (byte) (0xC0 | (c >> 6));
+        bytes[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+          && index + 1 < length
+          && Character.isLowSurrogate(value.charAt(index + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++index));
+        bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+        bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        // the malformed surrogate is replaced by '?' (see String#getBytes)
+        bytes[position++] = (byte) '?';
+      } else {
+        bytes[position++] = (byte) (0xE0 | (c >> 12));
+        bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        bytes[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return position;
+  }
+
   public static String toString(byte[] bytes) {
     return toString(bytes, 0, bytes.length);
   }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.rule.SmallTest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestColumnarRow extends SmallTest {
+  private final RowSchema schema =
+      RowSchema.of(
+          Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k"),
+          Arrays.asList(
+              DataType.BOOLEAN,
+              DataType.BYTE,
+              DataType.SHORT,
+              DataType.INT,
+              DataType.LONG,
+              DataType.FLOAT,
+              DataType.DOUBLE,
+              DataType.STRING,
+              DataType.BYTES,
+              DataType.ROW,
+              DataType.OBJECT));
+
+  private ColumnarRow.Builder fill(ColumnarRow.Builder builder) {
+    return builder
+        .setBoolean(0, true)
+        .setByte(1, (byte) 1)
+        .setShort(2, (short) 2)
+        .setInt(3, 3)
+        .setLong(4, 4L)
+        .setFloat(5, 5F)
+        .setDouble(6, 6D)
+        .set(7, "7")
+        .set(8, new byte[] {8})
+        .set(9, Row.of(Cell.of("nested", 9)))
+        .set(10, 10L)
+        .tags(Collections.singletonList("tag"));
+  }
+
+  private final Row expected =
+      Row.of(
+          Collections.singletonList("tag"),
+          Cell.of("a", true),
+          Cell.of("b", (byte) 1),
+          Cell.of("c", (short) 2),
+          Cell.of("d", 3),
+          Cell.of("e", 4L),
+          Cell.of("f", 5F),
+          Cell.of("g", 6D),
+          Cell.of("h", "7"),
+          Cell.of("i", new byte[] {8}),
+          Cell.of("j", Row.of(Cell.of("nested", 9))),
+          Cell.of("k", 10L));
+
+  @Test
+  public void testInternedSchema() {
+    Assert.assertSame(
+        schema,
+        RowSchema.of(
+            Arrays.asList(schema.names().toArray(new String[0])),
+            Arrays.asList(schema.types().toArray(new DataType[0]))));
+    Assert.assertEquals(3, schema.indexOf("d"));
+    Assert.assertEquals(-1, schema.indexOf("zzz"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateName() {
+    RowSchema.of(Arrays.asList("a", "a"), Arrays.asList(DataType.INT, DataType.INT));
+  }
+
+  @Test
+  public void testGetter() {
+    ColumnarRow row = fill(schema.rowBuilder()).build();
+    Assert.assertTrue(row.getBoolean(0));
+    Assert.assertEquals(1, row.getByte(1));
+    Assert.assertEquals(2, row.getShort(2));
+    Assert.assertEquals(3, row.getInt(3));
+    Assert.assertEquals(4L, row.getLong(4));
+    Assert.assertEquals(5F, row.getFloat(5), 0);
+    Assert.assertEquals(6D, row.getDouble(6), 0);
+    Assert.assertEquals("7", row.get(7));
+    Assert.assertEquals(Cell.of("d", 3), row.cell("d"));
+    Assert.assertTrue(row.cell("d") instanceof IntCell);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongGetter() {
+    fill(schema.rowBuilder()).build().getLong(3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongSetter() {
+    schema.rowBuilder().setLong(3, 1L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongObject() {
+    schema.rowBuilder().set(7, 1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUnassignedValue() {
+    schema.rowBuilder().setBoolean(0, true).build();
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNonexistentName() {
+    fill(schema.rowBuilder()).build().cell("zzz");
+  }
+
+  @Test
+  public void testEquals() {
+    ColumnarRow row = fill(schema.rowBuilder()).build();
+    Assert.assertEquals(expected, row);
+    Assert.assertEquals(row, expected);
+    Assert.assertEquals(expected.hashCode(), row.hashCode());
+    Assert.assertEquals(expected.names(), row.names());
+    Assert.assertEquals(row, fill(schema.rowBuilder()).build());
+    Assert.assertNotEquals(row, fill(schema.rowBuilder()).setInt(3, 100).build());
+  }
+
+  @Test
+  public void testReuseBuilder() {
+    ColumnarRow.Builder builder = fill(schema.rowBuilder());
+    ColumnarRow row = builder.build();
+    ColumnarRow row2 = builder.setInt(3, 100).build();
+    Assert.assertEquals(3, row.getInt(3));
+    Assert.assertEquals(100, row2.getInt(3));
+  }
+
+  @Test
+  public void testSerialize() {
+    ColumnarRow row = fill(schema.rowBuilder()).build();
+    byte[] bytes = Serializer.ROW.to(row);
+    Assert.assertArrayEquals(Serializer.ROW.to(expected), bytes);
+    Assert.assertEquals(expected, Serializer.ROW.from(bytes));
+    // nested columnar row
+    Row nested = Row.of(Cell.of("row", row));
+    Assert.assertArrayEquals(
+        Serializer.ROW.to(Row.of(Cell.of("row", expected))), Serializer.ROW.to(nested));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.rule.SmallTest;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestLazyRow extends SmallTest {
+  private final Row row =
+      Row.of(
+          Arrays.asList("tag", "tag2"),
+          Cell.of("a", "aaa"),
+          Cell.of("b", 123),
+          Cell.of("c", new byte[] {1, 2, 3}),
+          Cell.of("d", Row.of(Cell.of("e", 10L))));
+
+  @Test
+  public void testDeserialize() {
+    Row lazyRow = Serializer.LAZY_ROW.from(Serializer.ROW.to(row));
+    Assert.assertTrue(lazyRow instanceof LazyRow);
+    Assert.assertEquals(row, lazyRow);
+    Assert.assertEquals(lazyRow, row);
+    Assert.assertEquals(row.hashCode(), lazyRow.hashCode());
+    Assert.assertEquals(row.names(), lazyRow.names());
+    Assert.assertEquals(row.tags(), lazyRow.tags());
+    Assert.assertEquals(row.size(), lazyRow.size());
+    Assert.assertEquals(row.cells(), lazyRow.cells());
+  }
+
+  @Test
+  public void testCell() {
+    Row lazyRow = Serializer.LAZY_ROW.from(Serializer.ROW.to(row));
+    Assert.assertEquals(Cell.of("b", 123), lazyRow.cell("b"));
+    Assert.assertEquals(Cell.of("a", "aaa"), lazyRow.cell(0));
+    Assert.assertSame(lazyRow.cell(1), lazyRow.cell("b"));
+    Assert.assertEquals(Cell.of("c", new byte[] {1, 2, 3}), lazyRow.cell("c"));
+  }
+
+  @Test
+  public void testNestedRow() {
+    Row lazyRow = Serializer.LAZY_ROW.from(Serializer.ROW.to(row));
+    Row nested = (Row) lazyRow.cell("d").value();
+    Assert.assertTrue(nested instanceof LazyRow);
+    Assert.assertEquals(Row.of(Cell.of("e", 10L)), nested);
+  }
+
+  @Test
+  public void testSerializeAgain() {
+    byte[] bytes = Serializer.ROW.to(row);
+    Row lazyRow = Serializer.LAZY_ROW.from(bytes);
+    Assert.assertArrayEquals(bytes, Serializer.ROW.to(lazyRow));
+    // the lazy row is used as a cell of another row
+    Row composed = Row.of(Cell.of("lazy", lazyRow), Cell.of("b", 1));
+    Row expected = Row.of(Cell.of("lazy", row), Cell.of("b", 1));
+    Assert.assertArrayEquals(Serializer.ROW.to(expected), Serializer.ROW.to(composed));
+    Assert.assertEquals(expected, Serializer.ROW.from(Serializer.ROW.to(composed)));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNonexistentName() {
+    Serializer.LAZY_ROW.from(Serializer.ROW.to(row)).cell("zzz");
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNonexistentIndex() {
+    Serializer.LAZY_ROW.from(Serializer.ROW.to(row)).cell(100);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedVersion() {
+    byte[] bytes = Serializer.ROW.to(row);
+    bytes[0] = 100;
+    Serializer.LAZY_ROW.from(bytes);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBrokenBytes() {
+    byte[] bytes = Serializer.ROW.to(row);
+    Serializer.LAZY_ROW.from(Arrays.copyOf(bytes, bytes.length / 2)).cells();
+  }
+}
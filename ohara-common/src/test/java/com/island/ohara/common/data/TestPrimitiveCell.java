@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.common.data;
+
+import com.island.ohara.common.rule.SmallTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestPrimitiveCell extends SmallTest {
+
+  @Test
+  public void testTypedCell() {
+    Assert.assertTrue(Cell.of("a", true) instanceof BooleanCell);
+    Assert.assertTrue(Cell.of("a", (byte) 1) instanceof ByteCell);
+    Assert.assertTrue(Cell.of("a", (short) 1) instanceof ShortCell);
+    Assert.assertTrue(Cell.of("a", 1) instanceof IntCell);
+    Assert.assertTrue(Cell.of("a", 1L) instanceof LongCell);
+    Assert.assertTrue(Cell.of("a", 1F) instanceof FloatCell);
+    Assert.assertTrue(Cell.of("a", 1D) instanceof DoubleCell);
+    // the boxed value goes to normal cell
+    Assert.assertFalse(Cell.of("a", Integer.valueOf(1)) instanceof PrimitiveCell);
+    // char is not widened to int
+    Assert.assertEquals(Character.class, Cell.of("a", 'c').value().getClass());
+  }
+
+  @Test
+  public void testGetter() {
+    Assert.assertTrue(Cell.of("a", true).getBoolean());
+    Assert.assertEquals(1, Cell.of("a", (byte) 1).getByte());
+    Assert.assertEquals(2, Cell.of("a", (short) 2).getShort());
+    Assert.assertEquals(3, Cell.of("a", 3).getInt());
+    Assert.assertEquals(4L, Cell.of("a", 4L).getLong());
+    Assert.assertEquals(5F, Cell.of("a", 5F).getFloat(), 0);
+    Assert.assertEquals(6D, Cell.of("a", 6D).getDouble(), 0);
+    Assert.assertEquals(Integer.valueOf(3), Cell.of("a", 3).value());
+  }
+
+  private static void assertCompatible(Cell<?> primitive, Cell<?> boxed) {
+    Assert.assertTrue(primitive instanceof PrimitiveCell);
+    Assert.assertFalse(boxed instanceof PrimitiveCell);
+    Assert.assertEquals(primitive, boxed);
+    Assert.assertEquals(boxed, primitive);
+    Assert.assertEquals(boxed.hashCode(), primitive.hashCode());
+    Assert.assertEquals(boxed.toString(), primitive.toString());
+  }
+
+  @Test
+  public void testCompatibleWithBoxedCell() {
+    assertCompatible(Cell.of("a", false), Cell.of("a", Boolean.FALSE));
+    assertCompatible(Cell.of("a", (byte) -1), Cell.of("a", Byte.valueOf((byte) -1)));
+    assertCompatible(Cell.of("a", (short) -2), Cell.of("a", Short.valueOf((short) -2)));
+    assertCompatible(Cell.of("a", -3), Cell.of("a", Integer.valueOf(-3)));
+    assertCompatible(Cell.of("a", Long.MIN_VALUE), Cell.of("a", Long.valueOf(Long.MIN_VALUE)));
+    assertCompatible(Cell.of("a", Float.NaN), Cell.of("a", Float.valueOf(Float.NaN)));
+    assertCompatible(Cell.of("a", -0.5D), Cell.of("a", Double.valueOf(-0.5D)));
+  }
+
+  @Test
+  public void testNotEquals() {
+    Assert.assertNotEquals(Cell.of("a", 1), Cell.of("a", 1L));
+    Assert.assertNotEquals(Cell.of("a", 1), Cell.of("b", 1));
+    Assert.assertNotEquals(Cell.of("a", 1), Cell.of("a", 2));
+    Assert.assertNotEquals(Cell.of("a", 0F), Cell.of("a", -0F));
+    Assert.assertNotEquals(Cell.of("a", 1), Cell.of("a", "1"));
+    Assert.assertNotEquals(Cell.of("a", "1"), Cell.of("a", 1));
+  }
+
+  @Test
+  public void testSerialize() {
+    Row row =
+        Row.of(
+            Cell.of("a", true),
+            Cell.of("b", (byte) 1),
+            Cell.of("c", (short) 2),
+            Cell.of("d", 3),
+            Cell.of("e", 4L),
+            Cell.of("f", 5F),
+            Cell.of("g", 6D));
+    Row boxed =
+        Row.of(
+            Cell.of("a", Boolean.TRUE),
+            Cell.of("b", Byte.valueOf((byte) 1)),
+            Cell.of("c", Short.valueOf((short) 2)),
+            Cell.of("d", Integer.valueOf(3)),
+            Cell.of("e", Long.valueOf(4L)),
+            Cell.of("f", Float.valueOf(5F)),
+            Cell.of("g", Double.valueOf(6D)));
+    byte[] bytes = Serializer.ROW.to(row);
+    Assert.assertArrayEquals(Serializer.ROW.to(boxed), bytes);
+    Row copy = Serializer.ROW.from(bytes);
+    Assert.assertEquals(boxed, copy);
+    copy.cells().forEach(cell -> Assert.assertTrue(cell instanceof PrimitiveCell));
+    Serializer.LAZY_ROW
+        .from(bytes)
+        .cells()
+        .forEach(cell -> Assert.assertTrue(cell instanceof PrimitiveCell));
+  }
+}
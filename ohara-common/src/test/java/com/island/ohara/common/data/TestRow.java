@@ -19,6 +19,8 @@ package com.island.ohara.common.data;
 import com.island.ohara.common.rule.SmallTest;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -77,4 +79,63 @@ public class TestRow extends SmallTest {
     Assert.assertEquals(row, row2);
     Assert.assertEquals(row2, row);
   }
+
+  @Test
+  public void testSharedNames() {
+    Row row = Row.of(Cell.of("aa", "aa"), Cell.of("b", 123));
+    Row row2 = Row.of(Cell.of("aa", "bb"), Cell.of("b", 456));
+    Assert.assertSame(row.names(), row2.names());
+    Assert.assertSame(row.names(), row.names());
+    Assert.assertEquals(Arrays.asList("aa", "b"), row.names());
+    // the names are shared by the rows having different types
+    Assert.assertSame(row.names(), Row.of(Cell.of("aa", 1L), Cell.of("b", new byte[0])).names());
+    Assert.assertSame(row.names(), CompactRowFormat.toColumnar(row).names());
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNonexistentName() {
+    Row.of(Cell.of("aa", "aa")).cell("b");
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNonexistentIndex() {
+    Row.of(Cell.of("aa", "aa")).cell(1);
+  }
+
+  @Test
+  public void testCellByName() {
+    Cell<?>[] cells =
+        IntStream.range(0, 100).mapToObj(i -> Cell.of("c" + i, i)).toArray(Cell[]::new);
+    Row row = Row.of(cells);
+    IntStream.range(0, 100).forEach(i -> Assert.assertSame(cells[i], row.cell("c" + i)));
+  }
+
+  @Test
+  public void testCellsAreCopied() {
+    Cell<?>[] cells = new Cell<?>[] {Cell.of("aa", "aa")};
+    Row row = Row.of(cells);
+    cells[0] = Cell.of("b", 123);
+    Assert.assertEquals(Cell.of("aa", "aa"), row.cell(0));
+  }
+
+  @Test
+  public void testEqualsInDifferentOrder() {
+    Row row = Row.of(Arrays.asList("t0", "t1"), Cell.of("aa", "aa"), Cell.of("b", 123));
+    Row row2 = Row.of(Arrays.asList("t1", "t0"), Cell.of("b", 123), Cell.of("aa", "aa"));
+    Assert.assertEquals(row, row2);
+    Assert.assertEquals(row2, row);
+    Assert.assertNotEquals(row, Row.of(Arrays.asList("t0", "t1"), Cell.of("aa", "aa")));
+    Assert.assertNotEquals(
+        row, Row.of(Arrays.asList("t0", "t1"), Cell.of("aa", "aa"), Cell.of("b", 1234)));
+  }
+
+  @Test
+  public void testHashCode() {
+    Row row = Row.of(Arrays.asList("tag", "tag2"), Cell.of("aa", "aa"), Cell.of("b", 123));
+    Row row2 = Row.of(Arrays.asList("tag", "tag2"), Cell.of("aa", "aa"), Cell.of("b", 123));
+    Assert.assertEquals(row.hashCode(), row2.hashCode());
+    Assert.assertEquals(row.hashCode(), row.hashCode());
+    Assert.assertEquals(
+        row.hashCode(), Serializer.LAZY_ROW.from(Serializer.ROW.to(row)).hashCode());
+  }
 }
@@ -17,8 +17,13 @@
 package com.island.ohara.common.data;
 
 import com.island.ohara.common.rule.SmallTest;
+import com.island.ohara.common.util.ByteUtils;
+import com.island.ohara.common.util.CommonUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
@@ -91,4 +96,173 @@ public class TestSerializer extends SmallTest {
             Row.of(Cell.of("abc", Row.of(Cell.of("abc", "aaa")))));
     data.forEach(v -> Assert.assertEquals(v, Serializer.ROW.from(Serializer.ROW.to(v))));
   }
+
+  @Test
+  public void testRowWithAllTypes() {
+    Row row =
+        Row.of(
+            Arrays.asList("tag", "標籤"),
+            Cell.of("bytes", new byte[] {1, 2, 3}),
+            Cell.of("boolean", true),
+            Cell.of("byte", (byte) 10),
+            Cell.of("short", (short) 100),
+            Cell.of("int", 1000),
+            Cell.of("long", 10000L),
+            Cell.of("float", 10.5F),
+            Cell.of("double", 100.5D),
+            Cell.of("string", "中文\uD83D\uDE00"),
+            Cell.of("row", Row.of(Cell.of("nested", Row.of(Cell.of("a", "b"))))),
+            Cell.of("object", new Date(1000)));
+    Assert.assertEquals(row, Serializer.ROW.from(Serializer.ROW.to(row)));
+  }
+
+  @Test
+  public void testVersion0Format() throws IOException {
+    Row row = Row.of(Collections.singletonList("t"), Cell.of("a", 1), Cell.of("b", "c"));
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    // version
+    expected.write(0);
+    // cell count
+    expected.write(ByteUtils.toBytes(2));
+    // name length, name, type, value length, value
+    expected.write(ByteUtils.toBytes((short) 1));
+    expected.write(ByteUtils.toBytes("a"));
+    expected.write(ByteUtils.toBytes(DataType.INT.order));
+    expected.write(ByteUtils.toBytes((short) ByteUtils.SIZE_OF_INT));
+    expected.write(ByteUtils.toBytes(1));
+    expected.write(ByteUtils.toBytes((short) 1));
+    expected.write(ByteUtils.toBytes("b"));
+    expected.write(ByteUtils.toBytes(DataType.STRING.order));
+    expected.write(ByteUtils.toBytes((short) 1));
+    expected.write(ByteUtils.toBytes("c"));
+    // tag count, tag length, tag
+    expected.write(ByteUtils.toBytes((short) 1));
+    expected.write(ByteUtils.toBytes((short) 1));
+    expected.write(ByteUtils.toBytes("t"));
+    Assert.assertArrayEquals(expected.toByteArray(), Serializer.ROW.to(row));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooLargeValue() {
+    Serializer.ROW.to(Row.of(Cell.of("a", new byte[Short.MAX_VALUE + 1])));
+  }
+
+  @Test
+  public void testCompactRowWithAllTypes() {
+    Row row =
+        Row.of(
+            Arrays.asList("tag", "標籤"),
+            Cell.of("bytes", new byte[] {1, 2, 3}),
+            Cell.of("boolean", true),
+            Cell.of("byte", (byte) 10),
+            Cell.of("short", (short) 100),
+            Cell.of("int", 1000),
+            Cell.of("long", 10000L),
+            Cell.of("float", 10.5F),
+            Cell.of("double", 100.5D),
+            Cell.of("string", "中文\uD83D\uDE00"),
+            Cell.of("row", Row.of(Cell.of("nested", Row.of(Cell.of("a", "b"))))),
+            Cell.of("object", new Date(1000)));
+    byte[] bytes = Serializer.COMPACT_ROW.to(row);
+    Assert.assertTrue(bytes.length < Serializer.ROW.to(row).length);
+    Row copy = Serializer.COMPACT_ROW.from(bytes);
+    Assert.assertTrue(copy instanceof ColumnarRow);
+    Assert.assertEquals(row, copy);
+    // all serializers are able to read version 1
+    Assert.assertEquals(row, Serializer.ROW.from(bytes));
+    Assert.assertEquals(row, Serializer.LAZY_ROW.from(bytes));
+    // the deserialized row can be serialized by version 0
+    Assert.assertArrayEquals(Serializer.ROW.to(row), Serializer.ROW.to(copy));
+    Assert.assertArrayEquals(bytes, Serializer.COMPACT_ROW.to(copy));
+  }
+
+  @Test
+  public void testVersion1Format() throws IOException {
+    Row row = Row.of(Collections.singletonList("t"), Cell.of("a", 1), Cell.of("b", "c"));
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    // version
+    expected.write(1);
+    // schema size (varint), cell count (varint), name length (varint), name, type (varint)
+    expected.write(7);
+    expected.write(2);
+    expected.write(1);
+    expected.write(ByteUtils.toBytes("a"));
+    expected.write(DataType.INT.order);
+    expected.write(1);
+    expected.write(ByteUtils.toBytes("b"));
+    expected.write(DataType.STRING.order);
+    // int value
+    expected.write(ByteUtils.toBytes(1));
+    // string length (varint), value
+    expected.write(1);
+    expected.write(ByteUtils.toBytes("c"));
+    // tag count (varint), tag length (varint), tag
+    expected.write(1);
+    expected.write(1);
+    expected.write(ByteUtils.toBytes("t"));
+    Assert.assertArrayEquals(expected.toByteArray(), Serializer.COMPACT_ROW.to(row));
+  }
+
+  @Test
+  public void testObjectColumnInCompactRow() {
+    RowSchema schema =
+        RowSchema.of(Arrays.asList("a", "b"), Arrays.asList(DataType.OBJECT, DataType.OBJECT));
+    Row row = schema.rowBuilder().set(0, 100L).set(1, Row.of(Cell.of("c", "d"))).build();
+    Row copy = Serializer.COMPACT_ROW.from(Serializer.COMPACT_ROW.to(row));
+    Assert.assertEquals(row, copy);
+    Assert.assertEquals(Cell.of("a", 100L), copy.cell("a"));
+  }
+
+  @Test
+  public void testReadCompactRowWithoutInternedSchema() {
+    Row row =
+        Row.of(Cell.of(CommonUtils.randomString(), 1), Cell.of(CommonUtils.randomString(), "c"));
+    byte[] bytes = Serializer.COMPACT_ROW.to(row);
+    // the reader in another process has never seen the schema
+    RowSchema.clearInterned();
+    Assert.assertEquals(row, Serializer.COMPACT_ROW.from(bytes));
+    Assert.assertEquals(row, Serializer.ROW.from(bytes));
+    Assert.assertEquals(row, Serializer.LAZY_ROW.from(bytes));
+    // the decoded schema is interned so the next row reuses it
+    Assert.assertSame(
+        ((ColumnarRow) Serializer.COMPACT_ROW.from(bytes)).schema(),
+        ((ColumnarRow) Serializer.COMPACT_ROW.from(bytes)).schema());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBrokenSchema() {
+    byte[] bytes = Serializer.COMPACT_ROW.to(Row.of(Cell.of("a", 1)));
+    // the cell count follows the version byte and the schema size
+    bytes[2] = 5;
+    Serializer.ROW.from(bytes);
+  }
+
+  @Test
+  public void testSizeOfRow() {
+    Row row =
+        Row.of(
+            Arrays.asList("tag", "標籤"),
+            Cell.of("bytes", new byte[] {1, 2, 3}),
+            Cell.of("boolean", true),
+            Cell.of("int", 1000),
+            Cell.of("double", 100.5D),
+            Cell.of("string", "中文\uD83D\uDE00"),
+            Cell.of("row", Row.of(Cell.of("nested", Row.of(Cell.of("a", "b"))))),
+            Cell.of("object", new Date(1000)));
+    Row columnarRow = CompactRowFormat.toColumnar(row);
+    Row lazyRow = Serializer.LAZY_ROW.from(Serializer.ROW.to(row));
+    Arrays.asList(row, columnarRow, lazyRow, Row.EMPTY)
+        .forEach(
+            r -> {
+              Assert.assertEquals(Serializer.ROW.to(r).length, Serializer.ROW.sizeOf(r));
+              Assert.assertEquals(
+                  Serializer.COMPACT_ROW.to(r).length, Serializer.COMPACT_ROW.sizeOf(r));
+            });
+  }
+
+  @Test
+  public void testDefaultSizeOf() {
+    Assert.assertEquals(ByteUtils.SIZE_OF_INT, Serializer.INT.sizeOf(10));
+    Assert.assertEquals(3, Serializer.STRING.sizeOf("abc"));
+  }
 }
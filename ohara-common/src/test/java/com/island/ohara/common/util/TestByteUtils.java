@@ -174,4 +174,67 @@ public class TestByteUtils extends SmallTest {
     Assert.assertTrue(ByteUtils.compare(lhs, rhs) < 0);
     Assert.assertTrue(ByteUtils.BYTES_COMPARATOR.compare(lhs, rhs) < 0);
   }
+
+  @Test
+  public void testPutPrimitives() {
+    byte[] bytes =
+        new byte[ByteUtils.SIZE_OF_SHORT + ByteUtils.SIZE_OF_INT + ByteUtils.SIZE_OF_LONG];
+    int offset = ByteUtils.putShort(bytes, 0, (short) -10);
+    offset = ByteUtils.putInt(bytes, offset, Integer.MIN_VALUE);
+    offset = ByteUtils.putLong(bytes, offset, Long.MAX_VALUE);
+    Assert.assertEquals(bytes.length, offset);
+    Assert.assertEquals((short) -10, ByteUtils.toShort(bytes, 0));
+    Assert.assertEquals(Integer.MIN_VALUE, ByteUtils.toInt(bytes, ByteUtils.SIZE_OF_SHORT));
+    Assert.assertEquals(
+        Long.MAX_VALUE, ByteUtils.toLong(bytes, ByteUtils.SIZE_OF_SHORT + ByteUtils.SIZE_OF_INT));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPutOutOfRange() {
+    ByteUtils.putInt(new byte[3], 0, 10);
+  }
+
+  @Test
+  public void testPutString() {
+    List<String> data =
+        Arrays.asList(
+            "",
+            "abc",
+            "\u00e9\u00e8",
+            "中文",
+            "\uD83D\uDE00",
+            // malformed surrogates
+            "\uD83Dabc",
+            "abc\uDE00",
+            "\uDE00\uD83D");
+    data.forEach(
+        v -> {
+          byte[] expected = ByteUtils.toBytes(v);
+          Assert.assertEquals(expected.length, ByteUtils.sizeOfString(v));
+          byte[] bytes = new byte[expected.length + 2];
+          Assert.assertEquals(expected.length + 1, ByteUtils.putString(bytes, 1, v));
+          Assert.assertTrue(
+              ByteUtils.compare(expected, 0, expected.length, bytes, 1, expected.length) == 0);
+        });
+  }
+
+  @Test
+  public void testVarInt() {
+    Arrays.asList(0, 1, 127, 128, 16383, 16384, (int) Short.MAX_VALUE, Integer.MAX_VALUE)
+        .forEach(
+            v -> {
+              int size = ByteUtils.sizeOfVarInt(v);
+              byte[] bytes = new byte[size + 1];
+              Assert.assertEquals(size + 1, ByteUtils.putVarInt(bytes, 1, v));
+              Assert.assertEquals(v.intValue(), ByteUtils.toVarInt(bytes, 1));
+            });
+    Assert.assertEquals(1, ByteUtils.sizeOfVarInt(127));
+    Assert.assertEquals(2, ByteUtils.sizeOfVarInt(128));
+    Assert.assertEquals(5, ByteUtils.sizeOfVarInt(Integer.MAX_VALUE));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeVarInt() {
+    ByteUtils.sizeOfVarInt(-1);
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.ftp
+
+import java.time.Duration
+
+import com.island.ohara.client.ftp.FileInfo
+import com.island.ohara.common.util.CommonUtils
+
+/**
+  * Cache the listing of input folder. The folder is listed again only if the refresh interval is elapsed, and the new
+  * listing is compared with the previous one. A file is returned only if both of its size and last modified time are
+  * unchanged since the previous listing so the files still being uploaded are skipped. The cached files are kept
+  * between polls, and a handled file should be removed from the cache.
+  * NOTED: this class is not thread-safe.
+  * @param list list the files in input folder. The names of files are full paths
+  * @param interval the min interval between two listings
+  */
+private[ftp] class FileListCache(list: () => Seq[FileInfo], interval: Duration) {
+  private[this] var lastRefresh: Long = -1
+  private[this] var snapshots: Map[String, FileInfo] = Map.empty
+  private[this] var files: Seq[String] = Seq.empty
+
+  /**
+    * @return the stable files. The folder is listed if the cache is expired
+    */
+  def get(): Seq[String] = {
+    if (lastRefresh < 0 || CommonUtils.current() - lastRefresh >= interval.toMillis) refresh()
+    files
+  }
+
+  /**
+    * remove the file from cache. The file has to be observed twice again if it comes back.
+    * @param path file path
+    */
+  def remove(path: String): Unit = {
+    files = files.filterNot(_ == path)
+    snapshots = snapshots - path
+  }
+
+  private[this] def refresh(): Unit = {
+    val current = list()
+    files = current.filter(file => snapshots.get(file.name).contains(file)).map(_.name)
+    snapshots = current.map(file => file.name -> file).toMap
+    lastRefresh = CommonUtils.current()
+  }
+}
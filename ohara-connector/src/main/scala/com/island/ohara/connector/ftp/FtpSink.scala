@@ -80,6 +80,22 @@ class FtpSink extends RowSinkConnector {
       .valueType(SettingDefinition.Type.BOOLEAN)
       .key(FTP_NEED_HEADER)
       .build(),
+    SettingDefinition
+      .builder()
+      .displayName("roll size")
+      .documentation("the output file is rolled over to a new file if its size (in bytes) is bigger than this value")
+      .valueType(SettingDefinition.Type.LONG)
+      .key(FTP_ROLL_SIZE)
+      .optional()
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("roll interval")
+      .documentation("the output file is rolled over to a new file if it is older than this value")
+      .valueType(SettingDefinition.Type.DURATION)
+      .key(FTP_ROLL_INTERVAL)
+      .optional()
+      .build(),
     SettingDefinition
       .builder()
       .displayName("csv file encode")
@@ -15,81 +15,179 @@
  */
 
 package com.island.ohara.connector.ftp
-import java.io.{BufferedWriter, OutputStreamWriter}
+import java.io.{BufferedWriter, OutputStream, OutputStreamWriter, Writer}
+import java.nio.file.Paths
 import java.util
 
 import com.island.ohara.client.ftp.FtpClient
-import com.island.ohara.common.data.Column
-import com.island.ohara.common.util.Releasable
+import com.island.ohara.common.data.{Column, Row, Serializer}
+import com.island.ohara.common.util.{CommonUtils, Releasable}
 import com.island.ohara.connector.ftp.FtpSinkTask._
 import com.island.ohara.kafka.connector._
 import com.typesafe.scalalogging.Logger
 
 import scala.collection.JavaConverters._
 
+/**
+  * Write the rows to a csv file on ftp server. The output stream is kept open across batches, and it is closed by
+  * _preCommit so the committed offsets cover only the data which has been transferred to ftp server completely. If
+  * it fails to write data, the following batches are skipped and _preCommit throws exception so the offsets are
+  * rewound to the last committed offsets.
+  *
+  * The output file is renamed to "file name.timestamp" (rolled over) if it is bigger than FTP_ROLL_SIZE or it is
+  * older than FTP_ROLL_INTERVAL. The file is not rolled over if both settings are absent.
+  */
 class FtpSinkTask extends RowSinkTask {
-  private[this] var settings: TaskSetting = _
   private[this] var props: FtpSinkTaskProps = _
   private[this] var ftpClient: FtpClient = _
   private[this] var schema: Seq[Column] = _
+  private[this] var rollSize: Long = _
+  private[this] var rollInterval: Long = _
+
+  private[this] var projection: RowProjection = _
+
+  /**
+    * the writer of output file. It is null if there is no pending data.
+    */
+  private[this] var writer: Writer = _
+
+  /**
+    * the size of output file. It is -1 if the output file is not checked yet.
+    */
+  private[this] var fileSize: Long = -1
+  private[this] var fileExists: Boolean = false
+  private[this] var fileCreated: Long = -1
+  private[this] var failure: Throwable = _
 
   override protected def _start(settings: TaskSetting): Unit = {
-    this.settings = settings
     this.props = FtpSinkTaskProps(settings)
-    this.schema = settings.columns.asScala
+    this.schema = settings.columns.asScala.sortBy(_.order)
+    this.projection = RowProjection.of(schema.asJava)
+    this.rollSize = settings.longOption(FTP_ROLL_SIZE).orElse(Long.MaxValue)
+    this.rollInterval = settings.durationOption(FTP_ROLL_INTERVAL).map[Long](_.toMillis).orElse(Long.MaxValue)
     this.ftpClient =
       FtpClient.builder().hostname(props.hostname).port(props.port).user(props.user).password(props.password).build()
   }
 
   override protected def _stop(): Unit = {
+    Releasable.close(writer)
     Releasable.close(ftpClient)
   }
 
-  override protected def _put(records: util.List[RowSinkRecord]): Unit = try {
-    val result = records.asScala
-    // process only matched column name
-      .filter(record => schema.map(_.name).forall(name => record.row.cells().asScala.exists(_.name == name)))
-      // to line
-      .map(record => {
-        (record,
-         record.row
-           .cells()
-           .asScala
-           // pass if there is no columns
-           .filter(c => schema.isEmpty || schema.exists(_.name == c.name))
-           //
-           .zipWithIndex
-           .map {
-             case (c, index) =>
-               (if (schema.isEmpty) index else schema.find(_.name == c.name).get.order, c.value)
-           }
-           .sortBy(_._1)
-           .map(_._2.toString)
-           .mkString(","))
-      })
+  /**
+    * the projection is decoded by index so it is unnecessary to decode all cells.
+    */
+  override protected def _rowSerializer(): Serializer[Row] = Serializer.LAZY_ROW
+
+  override protected def _put(records: util.List[RowSinkRecord]): Unit = if (failure == null) try {
+    if (fileExists && CommonUtils.current() - fileCreated >= rollInterval) roll()
+    records.asScala.foreach { record =>
+      val line = toLine(record.row)
       // NOTED: we don't want to write an "empty" line
-      .filter(_._2.nonEmpty)
-    if (result.nonEmpty) {
-      val needHeader = props.needHeader && !ftpClient.exist(props.outputFolder)
-      val writer = new BufferedWriter(
-        new OutputStreamWriter(if (ftpClient.exist(props.outputFolder)) ftpClient.append(props.outputFolder)
-                               else ftpClient.create(props.outputFolder),
-                               props.encode))
-      if (needHeader) {
-        val header =
-          if (schema.nonEmpty) schema.sortBy(_.order).map(_.newName).mkString(",")
-          else result.head._1.row.cells().asScala.map(_.name).mkString(",")
-        writer.append(header)
-        writer.newLine()
+      if (line.nonEmpty) {
+        // NOTED: the size excludes the data buffered by writer
+        if (fileExists && fileSize >= rollSize) roll()
+        if (writer == null) open(record.row)
+        writer.write(line)
+        writer.write(System.lineSeparator())
       }
-      try result.foreach {
-        case (r, line) =>
-          writer.append(line)
-          writer.newLine()
-      } finally writer.close()
     }
   } catch {
-    case e: Throwable => LOG.error("failed to parse records", e)
+    case e: Throwable =>
+      LOG.error("failed to write records", e)
+      failure = e
+      Releasable.close(writer)
+      writer = null
+      // the output file is checked again since we don't know how much data is written
+      fileSize = -1
+  }
+
+  override protected def _preCommit(
+    offsets: util.Map[TopicPartition, TopicOffset]): util.Map[TopicPartition, TopicOffset] = {
+    if (failure != null) {
+      val e = failure
+      failure = null
+      throw new IllegalStateException("failed to write records so the offsets are not committed", e)
+    }
+    // completing the transfer is the only way to make sure the ftp server has received all data
+    if (writer != null)
+      try writer.close()
+      finally writer = null
+    offsets
+  }
+
+  /**
+    * @param row row
+    * @return the line of row. It is empty if the row lacks some columns
+    */
+  private[this] def toLine(row: Row): String =
+    if (!projection.complete(row)) ""
+    else {
+      val indexes = projection.indexes(row)
+      val builder = new StringBuilder
+      indexes.indices.foreach { index =>
+        if (index != 0) builder.append(',')
+        builder.append(row.cell(indexes(index)).value)
+      }
+      builder.toString
+    }
+
+  private[this] def open(row: Row): Unit = {
+    if (fileSize < 0) {
+      // the task may be restarted so the output file may exist
+      // the output path having no parent is relative to the working folder
+      val file = ftpClient
+        .listFiles(Option(Paths.get(props.outputFolder).getParent).map(_.toString).getOrElse(ftpClient.workingFolder()))
+        .find(_.name == CommonUtils.name(props.outputFolder))
+      fileExists = file.isDefined
+      fileSize = file.map(_.size).getOrElse(0L)
+      fileCreated = CommonUtils.current()
+    }
+    val needHeader = props.needHeader && !fileExists
+    val append = fileExists
+    fileExists = true
+    writer = new BufferedWriter(
+      new OutputStreamWriter(
+        new OutputStream {
+          // the data connection is opened when the buffered data is flushed so the file is never seen empty
+          private[this] var output: OutputStream = _
+          private[this] def stream(): OutputStream = {
+            if (output == null)
+              output = if (append) ftpClient.append(props.outputFolder) else ftpClient.create(props.outputFolder)
+            output
+          }
+          override def write(b: Int): Unit = {
+            stream().write(b)
+            fileSize += 1
+          }
+          override def write(b: Array[Byte], off: Int, len: Int): Unit = {
+            stream().write(b, off, len)
+            fileSize += len
+          }
+          override def flush(): Unit = if (output != null) output.flush()
+          override def close(): Unit = if (output != null) output.close()
+        },
+        props.encode
+      ))
+    if (needHeader) {
+      writer.write(
+        if (schema.nonEmpty) schema.map(_.newName).mkString(",")
+        else row.names().asScala.mkString(","))
+      writer.write(System.lineSeparator())
+    }
+  }
+
+  /**
+    * complete current file and then rename it. The next record is written to a new file.
+    */
+  private[this] def roll(): Unit = {
+    if (writer != null)
+      try writer.close()
+      finally writer = null
+    ftpClient.moveFile(props.outputFolder, s"${props.outputFolder}.${CommonUtils.current()}")
+    fileExists = false
+    fileSize = 0
+    fileCreated = CommonUtils.current()
   }
 }
 
@@ -21,6 +21,8 @@ import java.util
 import com.island.ohara.client.ftp.FtpClient
 import com.island.ohara.common.data.Column
 import com.island.ohara.kafka.connector.json.SettingDefinition
+import com.island.ohara.kafka.connector.text.TextSourceTask
+import com.island.ohara.kafka.connector.text.csv.CsvSourceConverter
 import com.island.ohara.kafka.connector.{ConnectorVersion, RowSourceConnector, RowSourceTask, TaskSetting}
 import org.slf4j.{Logger, LoggerFactory}
 
@@ -108,6 +110,31 @@ class FtpSource extends RowSourceConnector {
       .key(FTP_ENCODE)
       .optional(FTP_ENCODE_DEFAULT)
       .build(),
+    SettingDefinition
+      .builder()
+      .displayName("csv batch size")
+      .documentation("the max number of lines converted by each poll. The file is read forward by batches")
+      .valueType(SettingDefinition.Type.INT)
+      .key(CsvSourceConverter.CSV_BATCH_SIZE_KEY)
+      .optional(CsvSourceConverter.CSV_BATCH_SIZE_DEFAULT.toString)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("list interval")
+      .documentation("the min interval between two listings of input folder. A file is processed only if its size " +
+        "and modified time are unchanged between two listings")
+      .valueType(SettingDefinition.Type.DURATION)
+      .key(FTP_LIST_INTERVAL)
+      .optional(FTP_LIST_INTERVAL_DEFAULT.toString)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("reader count")
+      .documentation("the number of files read concurrently by each task. The files are claimed by tasks dynamically")
+      .valueType(SettingDefinition.Type.INT)
+      .key(TextSourceTask.TEXT_READER_COUNT_KEY)
+      .optional(TextSourceTask.TEXT_READER_COUNT_DEFAULT.toString)
+      .build(),
     SettingDefinition
       .builder()
       .displayName("hostname of ftp server")
@@ -16,7 +16,7 @@
 
 package com.island.ohara.connector.ftp
 
-import java.io.InputStreamReader
+import java.io.InputStream
 import java.nio.charset.Charset
 import java.util.Collections
 import java.util
@@ -29,11 +29,19 @@ import com.island.ohara.kafka.connector.text.{TextFileSystem, TextSourceConverte
 import TextSourceConverterFactory.TextType
 
 import scala.collection.JavaConverters._
+import scala.util.Try
 
 /**
   * Move files from FTP server to Kafka topics. The file format must be csv file, and element in same line must be separated
-  * by comma. The offset is (path, line index). It means each line is stored as a "message" in connector topic. For example:
+  * by comma. The offset is (path, line index, byte position). It means each line is stored as a "message" in connector topic. For example:
   * a file having 100 lines has 100 message in connector topic. If the file is processed correctly, the TestFtpSource
+  *
+  * The tasks share all files in the input folder. A task claims a file by creating the lock folder (file name +
+  * FTP_LOCK_SUFFIX) which contains a file named by the task id. The lock folder is prepared under a temporary name and
+  * then renamed to the lock folder, and the rename fails if the lock folder exists. Hence, only one task can claim the
+  * file. The lock is removed after the file is handled or the task is stopped. The lock of task which is removed by
+  * reducing the number of tasks is taken over by other tasks. The ftp client keeps a connection for each reader and
+  * one for the other commands so the opened files don't block the listing and moving.
   */
 class FtpSourceTask extends TextSourceTask {
 
@@ -42,27 +50,103 @@ class FtpSourceTask extends TextSourceTask {
 
   override def getFileSystem(config: TaskSetting): TextFileSystem = new TextFileSystem {
     private[this] val props: FtpSourceTaskProps = FtpSourceTaskProps(config)
-    private[this] val ftpClient: FtpClient =
-      FtpClient.builder().hostname(props.hostname).port(props.port).user(props.user).password(props.password).build()
+    private[this] val encode: Charset = Charset.forName(props.encode)
+    private[this] val ftpClient: FtpClient = FtpClient
+      .builder()
+      .hostname(props.hostname)
+      .port(props.port)
+      .user(props.user)
+      .password(props.password)
+      .poolSize(
+        config.intOption(TextSourceTask.TEXT_READER_COUNT_KEY).orElse(TextSourceTask.TEXT_READER_COUNT_DEFAULT) + 1)
+      .build()
+    // the id is stable after restarting so the restarted task can resume the claimed files
+    private[this] lazy val owner: String = FtpSourceTask.owner(config.name, props.hash)
+    private[this] val listInterval = config.durationOption(FTP_LIST_INTERVAL).orElse(FTP_LIST_INTERVAL_DEFAULT)
+
+    /**
+      * the files claimed by other tasks. They are not claimed again until the list interval is elapsed.
+      */
+    private[this] var claimedByOthers: Map[String, Long] = Map.empty
 
     if (props.inputFolder.isEmpty)
       throw new IllegalArgumentException(s"invalid input:${props.inputFolder.mkString(",")}")
 
-    override def listInputFiles(): util.Collection[String] = try ftpClient
-      .listFileNames(props.inputFolder)
-      .map(CommonUtils.path(props.inputFolder, _))
-      .filter(_.hashCode % props.total == props.hash)
-      .asJava
+    private[this] val cache = new FileListCache(
+      () =>
+        ftpClient
+          .listFiles(props.inputFolder)
+          // the temporary lock folders are skipped also
+          .filterNot(_.name.contains(FTP_LOCK_SUFFIX))
+          .map(file => file.copy(name = CommonUtils.path(props.inputFolder, file.name))),
+      listInterval
+    )
+
+    override def listInputFiles(): util.Collection[String] = try cache.get().asJava
     catch {
       case e: Throwable =>
         LOG.error(s"failed to list ${props.inputFolder}", e)
         Collections.emptyList()
     }
 
-    override def createReader(path: String): InputStreamReader =
-      new InputStreamReader(ftpClient.open(path), Charset.forName(props.encode))
+    override def createInputStream(path: String): InputStream = ftpClient.open(path)
+
+    override def claim(path: String): Boolean = {
+      val now = CommonUtils.current()
+      claimedByOthers = claimedByOthers.filter(_._2 > now)
+      !claimedByOthers.contains(path) && {
+        val claimed = try lock(path)
+        catch {
+          case e: Throwable =>
+            LOG.debug(s"failed to claim $path", e)
+            false
+        }
+        if (!claimed) claimedByOthers += (path -> (now + listInterval.toMillis))
+        claimed
+      }
+    }
+
+    /**
+      * create the lock folder by renaming a temporary folder so it is atomic. If the lock exists already, it is
+      * claimed by this task only if the owner is this task (restarted) or a removed task.
+      */
+    private[this] def lock(path: String): Boolean = {
+      val lock = path + FTP_LOCK_SUFFIX
+      val tmp = s"$lock.${CommonUtils.randomString(10)}"
+      ftpClient.mkdir(tmp)
+      val renamed = try {
+        ftpClient.upload(CommonUtils.path(tmp, owner), Array.emptyByteArray)
+        Try(ftpClient.moveFile(tmp, lock)).isSuccess
+      } finally if (ftpClient.exist(tmp)) {
+        Try(ftpClient.delete(CommonUtils.path(tmp, owner)))
+        Try(ftpClient.delete(tmp))
+      }
+      renamed || {
+        val owners = ftpClient.listFileNames(lock)
+        // the empty lock is left by a failed release. It is removed so the next claim can succeed
+        if (owners.isEmpty) Try(ftpClient.delete(lock))
+        owners.exists { current =>
+          current == owner || (FtpSourceTask.isRemoved(current, config.name, props.total) && Try(
+            ftpClient.moveFile(CommonUtils.path(lock, current), CommonUtils.path(lock, owner))).isSuccess)
+        }
+      }
+    }
+
+    override def release(path: String): Unit = try {
+      val lock = path + FTP_LOCK_SUFFIX
+      if (ftpClient.exist(lock) && ftpClient.listFileNames(lock).contains(owner)) {
+        ftpClient.delete(CommonUtils.path(lock, owner))
+        // the empty lock may be removed by other tasks already
+        Try(ftpClient.delete(lock))
+      }
+    } catch {
+      case e: Throwable => LOG.error(s"failed to release $path", e)
+    }
+
+    override def charset(): Charset = encode
 
     override def handleErrorFile(path: String): Unit = try {
+      cache.remove(path)
       val outputPath = CommonUtils.replaceParent(props.errorFolder, path)
       if (ftpClient.exist(outputPath)) {
         val newPath = outputPath + s".${CommonUtils.uuid()}"
@@ -73,7 +157,8 @@ class FtpSourceTask extends TextSourceTask {
       case e: Throwable => LOG.error(s"failed to move $path to ${props.errorFolder}", e)
     }
 
-    override def handleCompletedFile(path: String): Unit =
+    override def handleCompletedFile(path: String): Unit = {
+      cache.remove(path)
       props.completedFolder
         .map(folder =>
           () => {
@@ -93,9 +178,29 @@ class FtpSourceTask extends TextSourceTask {
         })
         .getOrElse(() => ftpClient.delete(path))
         .apply()
+    }
 
     override def close(): Unit = {
       Releasable.close(ftpClient)
     }
   }
 }
+
+object FtpSourceTask {
+
+  /**
+    * @param name connector name
+    * @param index task index
+    * @return the id of task used by the lock
+    */
+  private[ftp] def owner(name: String, index: Int): String = s"$name-$index"
+
+  /**
+    * @param owner the owner of lock
+    * @param name connector name
+    * @param total the number of tasks
+    * @return true if the owner is a task of this connector and the task is removed by reducing the number of tasks
+    */
+  private[ftp] def isRemoved(owner: String, name: String, total: Int): Boolean =
+    owner.startsWith(s"$name-") && Try(owner.substring(name.length + 1).toInt).toOption.exists(_ >= total)
+}
@@ -30,4 +30,9 @@ package object ftp {
   val FTP_ENCODE = "ftp.encode"
   val FTP_ENCODE_DEFAULT = "UTF-8"
   val FTP_NEED_HEADER = "ftp.needHeader"
+  val FTP_ROLL_SIZE = "ftp.roll.size"
+  val FTP_ROLL_INTERVAL = "ftp.roll.interval"
+  val FTP_LOCK_SUFFIX = ".ohara.lock"
+  val FTP_LIST_INTERVAL = "ftp.list.interval"
+  val FTP_LIST_INTERVAL_DEFAULT: java.time.Duration = java.time.Duration.ofSeconds(3)
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.hdfs
+
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicLong, AtomicReference}
+import java.util.concurrent.{ArrayBlockingQueue, Executors, ThreadFactory, TimeUnit}
+
+import com.island.ohara.common.data.Column
+import com.island.ohara.common.util.{CommonUtils, Releasable}
+import com.island.ohara.kafka.connector.RowSinkRecord
+import com.typesafe.scalalogging.Logger
+
+/**
+  * Run the TopicPartitionWriter on a dedicated thread. The records are passed by a bounded buffer so the slow partition
+  * blocks the caller rather than eating the memory. The commit (close, rename) is executed by the dedicated thread also
+  * so it doesn't stall other partitions.
+  * Noted: the writer must be opened before passing to this class.
+  * @param writer partition writer
+  * @param schema columns
+  * @param bufferSize max number of records buffered in memory
+  */
+private[hdfs] class AsyncTopicPartitionWriter(writer: TopicPartitionWriter, schema: Seq[Column], bufferSize: Int)
+    extends Releasable {
+  private[this] lazy val logger = Logger(getClass.getName)
+  private[this] val queue = new ArrayBlockingQueue[RowSinkRecord](CommonUtils.requirePositiveInt(bufferSize))
+  private[this] val closed = new AtomicBoolean(false)
+  private[this] val failure = new AtomicReference[Throwable]()
+
+  /**
+    * the next kafka offset after the last committed data file. -1 means nothing is committed.
+    */
+  private[this] val committedOffset = new AtomicLong(-1)
+  private[this] val executor = {
+    val exec = Executors.newSingleThreadExecutor(new ThreadFactory {
+      override def newThread(r: Runnable): Thread = {
+        val thread = new Thread(r, s"hdfs-writer-${writer.dataDir}")
+        thread.setDaemon(true)
+        thread
+      }
+    })
+    exec.execute(() => {
+      var lastOffset: Long = -1
+      try while (!closed.get()) {
+        val record = queue.poll(pollTimeout(), TimeUnit.MILLISECONDS)
+        if (record != null) {
+          writer.write(schema, record)
+          lastOffset = record.offset
+        }
+        // check the rotation on each loop. Otherwise, the steady records never trigger the time-based commit
+        if (writer.processLineCount > 0) writer.writer()
+        // processLineCount is reset by commit so all written records are in the data dir
+        if (writer.processLineCount == 0 && lastOffset >= 0) committedOffset.set(lastOffset + 1)
+      } catch {
+        // the thread is interrupted by close and the uncommitted data is dropped
+        case e: Throwable if closed.get() => logger.debug(s"${writer.dataDir} is closed", e)
+        case e: Throwable =>
+          logger.error(s"failed to write ${writer.dataDir}", e)
+          failure.set(e)
+      }
+    })
+    exec
+  }
+
+  /**
+    * @return the time to wait for next record. It is bounded by the remaining time of rotation
+    */
+  private[this] def pollTimeout(): Long =
+    if (writer.startTimeMS > 0)
+      Math.max(0,
+               Math.min(AsyncTopicPartitionWriter.POLL_TIMEOUT_MS,
+                        writer.rotateInterval - (CommonUtils.current() - writer.startTimeMS)))
+    else AsyncTopicPartitionWriter.POLL_TIMEOUT_MS
+
+  /**
+    * add record to the buffer. It is blocked if the buffer is full.
+    * @param record record
+    */
+  def put(record: RowSinkRecord): Unit = {
+    while (!queue.offer(record, AsyncTopicPartitionWriter.POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) checkState()
+    checkState()
+  }
+
+  /**
+    * @return the next kafka offset after the last committed data file, or None if nothing is committed
+    */
+  def offset(): Option[Long] = {
+    checkState()
+    Some(committedOffset.get()).filter(_ >= 0)
+  }
+
+  private[this] def checkState(): Unit = {
+    val e = failure.get()
+    if (e != null) throw new IllegalStateException(s"failed to write ${writer.dataDir}", e)
+    if (closed.get()) throw new IllegalStateException(s"the writer of ${writer.dataDir} is closed")
+  }
+
+  /**
+    * stop the thread and drop the records which are not committed. They will be re-consumed by next open.
+    * Noted: the running commit may be interrupted. It is fine since the commit manifest is able to recover it.
+    * Noted: the writer is not closed if the thread is still running after timeout since the thread may be writing the
+    * tmp files. The leftover tmp files are cleaned by next open.
+    */
+  override def close(): Unit = if (closed.compareAndSet(false, true)) {
+    executor.shutdownNow()
+    queue.clear()
+    val timeout = AsyncTopicPartitionWriter.CLOSE_TIMEOUT_SECONDS
+    if (executor.awaitTermination(timeout, TimeUnit.SECONDS)) writer.close()
+    else logger.error(s"the writer of ${writer.dataDir} is still running after $timeout seconds")
+  }
+}
+
+private object AsyncTopicPartitionWriter {
+  private val POLL_TIMEOUT_MS: Long = 500
+  private val CLOSE_TIMEOUT_SECONDS: Long = 30
+}
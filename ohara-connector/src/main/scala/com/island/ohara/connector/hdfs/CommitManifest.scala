@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.hdfs
+
+import java.io.{BufferedReader, InputStreamReader}
+import java.nio.charset.StandardCharsets
+
+import com.island.ohara.connector.hdfs.storage.Storage
+import com.typesafe.scalalogging.Logger
+
+/**
+  * A small file which records the name of the latest data file committed to a partition. It saves us from listing the
+  * data dir to find the stop offset. The name is recorded BEFORE the temp file is renamed so the recovery is able to
+  * tell whether the rename was completed.
+  * 1) the recorded file exists => the stop offset of recorded file is the next offset
+  * 2) the recorded file doesn't exist => the rename was not completed so the start offset of recorded file is the next
+  * offset
+  * 3) the manifest is absent or broken => fall back to list the data dir
+  * Noted: the data file name carries both start and stop offset so one record is enough to recover the offset.
+  * @param storage storage
+  * @param path manifest path
+  * @param dataDir data dir of partition
+  */
+private[hdfs] class CommitManifest(storage: Storage, val path: String, dataDir: String) {
+  private[this] lazy val logger = Logger(getClass.getName)
+
+  /**
+    * Find the offset of next data file. The manifest is read only once so it should be called by open.
+    * @return the stop offset of last committed data file
+    */
+  def recover(): Long = read() match {
+    case Some(fileName) =>
+      if (storage.exist(s"$dataDir/$fileName")) FileUtils.getStopOffset(Iterator(fileName))
+      else {
+        logger.info(s"$fileName is recorded but not committed")
+        FileUtils.getStartOffset(fileName)
+      }
+    case None =>
+      // the partition is written by the older version or the manifest is broken by crash
+      FileUtils.getStopOffset(storage.list(dataDir).map(FileUtils.fileName).filter(FileUtils.checkFileNameFormat))
+  }
+
+  /**
+    * record the name of data file which is going to be committed.
+    * @param fileName data file name
+    */
+  def write(fileName: String): Unit = {
+    val output = storage.open(path, true)
+    try output.write(s"$fileName\n".getBytes(StandardCharsets.UTF_8))
+    finally output.close()
+  }
+
+  private[this] def read(): Option[String] =
+    if (!storage.exist(path)) None
+    else {
+      val reader = new BufferedReader(new InputStreamReader(storage.read(path), StandardCharsets.UTF_8))
+      try Option(reader.readLine()).map(_.trim).filter(FileUtils.checkFileNameFormat)
+      finally reader.close()
+    }
+}
+
+object CommitManifest {
+
+  /**
+    * the folder, which is under the topic folder, of manifests. The prefix "_" makes hadoop tools skip it.
+    */
+  val DIR_NAME: String = "_commit"
+}
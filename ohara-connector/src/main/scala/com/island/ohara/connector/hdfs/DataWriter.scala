@@ -17,6 +17,7 @@
 package com.island.ohara.connector.hdfs
 
 import com.island.ohara.common.data.Column
+import com.island.ohara.common.util.Releasable
 import com.island.ohara.connector.hdfs.creator.StorageCreator
 import com.island.ohara.connector.hdfs.storage.Storage
 import com.island.ohara.kafka.connector.{RowSinkContext, RowSinkRecord, TopicPartition}
@@ -40,24 +41,34 @@ class DataWriter(config: HDFSSinkConnectorConfig, context: RowSinkContext, schem
 
   val topicPartitionWriters = new mutable.HashMap[TopicPartition, TopicPartitionWriter]()
 
+  /**
+    * the partition writers running on dedicated threads. It is used only if parallel write is enabled.
+    */
+  val asyncPartitionWriters = new mutable.HashMap[TopicPartition, AsyncTopicPartitionWriter]()
+
   /**
     * Get the TopicPartition and added to TopicPartitionWriter collection
     * @param partitions
     */
   def createPartitionDataWriters(partitions: Seq[TopicPartition]): Unit = {
     partitions.foreach(partition => {
-      topicPartitionWriters.put(partition, new TopicPartitionWriter(config, context, partition, storage))
+      val writer = new TopicPartitionWriter(config, context, partition, storage)
+      topicPartitionWriters.put(partition, writer)
+      //Check folder and recover partition offset
+      writer.open()
+      if (config.parallelWrite)
+        asyncPartitionWriters.put(partition,
+                                  new AsyncTopicPartitionWriter(writer, schema, config.dataBufferCount.toInt))
     })
-
-    //Check folder and recover partition offset
-    topicPartitionWriters.values.foreach(_.open())
   }
 
   /**
     * Get topic data
     * @param records
     */
-  def write(records: Seq[RowSinkRecord]): Unit = {
+  def write(records: Seq[RowSinkRecord]): Unit = if (config.parallelWrite)
+    records.foreach(record => asyncPartitionWriters(new TopicPartition(record.topicName, record.partition)).put(record))
+  else {
     records.foreach(record => {
       val topicName: String = record.topicName
       val partition: Int = record.partition
@@ -70,6 +81,14 @@ class DataWriter(config: HDFSSinkConnectorConfig, context: RowSinkContext, schem
       topicPartitionWriters.values.foreach(_.writer())
   }
 
+  /**
+    * the offsets of committed data files. The partition having no committed file is excluded.
+    * It is available only if parallel write is enabled.
+    * @return the next kafka offset after the last committed file of each partition
+    */
+  def committedOffsets(): Map[TopicPartition, Long] =
+    asyncPartitionWriters.flatMap { case (partition, writer) => writer.offset().map(partition -> _) }.toMap
+
   /**
     * close task
     * @param partitions
@@ -77,7 +96,11 @@ class DataWriter(config: HDFSSinkConnectorConfig, context: RowSinkContext, schem
   def removePartitionWriters(partitions: Seq[TopicPartition]): Unit = {
     partitions.foreach(partition => {
       val oharaTopicPartition: TopicPartition = new TopicPartition(partition.topicName, partition.partition)
-      topicPartitionWriters(oharaTopicPartition).close()
+      //the async writer closes the partition writer after its thread is stopped
+      asyncPartitionWriters.remove(oharaTopicPartition) match {
+        case Some(writer) => writer.close()
+        case None         => topicPartitionWriters(oharaTopicPartition).close()
+      }
       topicPartitionWriters.remove(oharaTopicPartition)
     })
   }
@@ -86,6 +109,8 @@ class DataWriter(config: HDFSSinkConnectorConfig, context: RowSinkContext, schem
     * Stop task and close FileSystem object
     */
   override def close(): Unit = {
+    asyncPartitionWriters.values.foreach(Releasable.close)
+    asyncPartitionWriters.clear()
     createStorage.close()
   }
 }
@@ -23,21 +23,27 @@ import org.apache.commons.io.FilenameUtils
   */
 object FileUtils {
   val FILENAME_ENDSWITH = ".csv"
+  val PARQUET_FILENAME_ENDSWITH = ".parquet"
   val FILENAME_SEPARATOR: String = "-"
   val COMMITTED_FILENAME_PATTERN: String = s"[a-zA-Z0-9]*$FILENAME_SEPARATOR[0-9]{9}$FILENAME_SEPARATOR[0-9]{9}\\..*"
+  val START_OFFSET_INDEX: Int = 1
   val STOP_OFFSET_INDEX
     : Int = 2 //Index from stop CAN'T be changed in the future since the change to index cause us fail to handle the older offset files.
 
   /**
     * Combine the file name
     * format is:
-    * ${prefix name}-${start offset}-${stop offset}.csv
+    * ${prefix name}-${start offset}-${stop offset}${extension}
     * @param prefixName
     * @param startOffset
     * @param stopOffset
+    * @param extension the file extension. default is .csv
     * @return
     */
-  def offsetFileName(prefixName: String, startOffset: Long, stopOffset: Long): String = {
+  def offsetFileName(prefixName: String,
+                     startOffset: Long,
+                     stopOffset: Long,
+                     extension: String = FILENAME_ENDSWITH): String = {
     val pattern: String = "%09d"
     val appendFileName: StringBuilder = new StringBuilder()
     appendFileName.append(prefixName)
@@ -45,7 +51,7 @@ object FileUtils {
     appendFileName.append(pattern.format(startOffset))
     appendFileName.append(FILENAME_SEPARATOR)
     appendFileName.append(pattern.format(stopOffset))
-    appendFileName.append(FILENAME_ENDSWITH)
+    appendFileName.append(extension)
 
     val fileName = appendFileName.toString
     if (checkFileNameFormat(fileName))
@@ -64,7 +70,9 @@ object FileUtils {
       fileNames
         .map(fileName => {
           if (checkFileNameFormat(fileName)) {
-            fileName.split(FILENAME_SEPARATOR)(STOP_OFFSET_INDEX).replace(FILENAME_ENDSWITH, "").toLong
+            // the extension is removed so the files in different formats share the offsets
+            val stopOffset = fileName.split(FILENAME_SEPARATOR)(STOP_OFFSET_INDEX)
+            stopOffset.substring(0, stopOffset.indexOf('.')).toLong
           } else {
             throw new IllegalArgumentException(s"$fileName does not match $COMMITTED_FILENAME_PATTERN pattern")
           }
@@ -74,6 +82,16 @@ object FileUtils {
       0
   }
 
+  /**
+    * Get start offset of the file name
+    * @param fileName file name
+    * @return start offset
+    */
+  def getStartOffset(fileName: String): Long = {
+    if (checkFileNameFormat(fileName)) fileName.split(FILENAME_SEPARATOR)(START_OFFSET_INDEX).toLong
+    else throw new IllegalArgumentException(s"$fileName does not match $COMMITTED_FILENAME_PATTERN pattern")
+  }
+
   /**
     * Validation file name format
     * @param fileName
@@ -109,14 +109,55 @@ class HDFSSinkConnector extends RowSinkConnector {
       .optional(HDFSSinkConnectorConfig.DATAFILE_ENCODE_DEFAULT)
       .key(DATAFILE_ENCODE)
       .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Data File format")
+      .documentation("File format for write to HDFS file. It can be csv or parquet")
+      .valueType(SettingDefinition.Type.STRING)
+      .optional(HDFSSinkConnectorConfig.DATAFILE_FORMAT_DEFAULT)
+      .key(DATAFILE_FORMAT)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Parquet compression")
+      .documentation("Compression codec of parquet file. It can be uncompressed, snappy or gzip")
+      .valueType(SettingDefinition.Type.STRING)
+      .optional(HDFSSinkConnectorConfig.PARQUET_COMPRESSION_DEFAULT)
+      .key(PARQUET_COMPRESSION)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Parquet row group size")
+      .documentation("the size (in bytes) of row group buffered in memory before it is written to parquet file")
+      .valueType(SettingDefinition.Type.INT)
+      .optional(HDFSSinkConnectorConfig.PARQUET_ROW_GROUP_SIZE_DEFAULT.toString)
+      .key(PARQUET_ROW_GROUP_SIZE)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Parquet page size")
+      .documentation("the size (in bytes) of page in parquet file")
+      .valueType(SettingDefinition.Type.INT)
+      .optional(HDFSSinkConnectorConfig.PARQUET_PAGE_SIZE_DEFAULT.toString)
+      .key(PARQUET_PAGE_SIZE)
+      .build(),
     SettingDefinition
       .builder()
       .displayName("Data Buffer size")
-      .documentation("the size of buffer")
+      .documentation("the size of buffer. It is the max number of records buffered by each partition in parallel write")
       .valueType(SettingDefinition.Type.LONG)
       .optional(HDFSSinkConnectorConfig.DATA_BUFFER_COUNT_DEFAULT.toString)
       .key(DATA_BUFFER_COUNT)
       .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Parallel write")
+      .documentation(
+        "true if each partition is written by a dedicated thread. Only the offsets of committed files are committed")
+      .valueType(SettingDefinition.Type.BOOLEAN)
+      .optional(HDFSSinkConnectorConfig.PARALLEL_WRITE_DEFAULT.toString)
+      .key(PARALLEL_WRITE)
+      .build(),
     SettingDefinition
       .builder()
       .displayName("storage class")
@@ -16,9 +16,12 @@
 
 package com.island.ohara.connector.hdfs
 
+import com.island.ohara.common.util.CommonUtils
 import com.island.ohara.connector.hdfs.creator.HDFSStorageCreator
 import com.island.ohara.kafka.connector.TaskSetting
 import org.apache.hadoop.conf.Configuration
+import org.apache.parquet.hadoop.ParquetWriter
+import org.apache.parquet.hadoop.metadata.CompressionCodecName
 
 case class HDFSSinkConnectorConfig(hdfsURL: String,
                                    flushLineCount: Int,
@@ -29,7 +32,12 @@ case class HDFSSinkConnectorConfig(hdfsURL: String,
                                    dataFileNeedHeader: Boolean,
                                    dataBufferCount: Long,
                                    hdfsStorageCreateClass: String,
-                                   dataFileEncode: String) {
+                                   dataFileEncode: String,
+                                   dataFileFormat: String,
+                                   parquetCompression: String,
+                                   parquetRowGroupSize: Int,
+                                   parquetPageSize: Int,
+                                   parallelWrite: Boolean) {
   def toMap: Map[String, String] = Map(
     HDFS_URL -> hdfsURL,
     FLUSH_LINE_COUNT -> flushLineCount.toString,
@@ -39,7 +47,12 @@ case class HDFSSinkConnectorConfig(hdfsURL: String,
     DATAFILE_PREFIX_NAME -> dataFilePrefixName,
     DATAFILE_NEEDHEADER -> dataFileNeedHeader.toString,
     DATA_BUFFER_COUNT -> dataBufferCount.toString,
-    HDFS_STORAGE_CREATOR_CLASS -> hdfsStorageCreateClass
+    HDFS_STORAGE_CREATOR_CLASS -> hdfsStorageCreateClass,
+    DATAFILE_FORMAT -> dataFileFormat,
+    PARQUET_COMPRESSION -> parquetCompression,
+    PARQUET_ROW_GROUP_SIZE -> parquetRowGroupSize.toString,
+    PARQUET_PAGE_SIZE -> parquetPageSize.toString,
+    PARALLEL_WRITE -> parallelWrite.toString
   )
 
   def hadoopConfiguration(): Configuration = {
@@ -59,6 +72,13 @@ object HDFSSinkConnectorConfig {
   private[hdfs] val DATA_BUFFER_COUNT_DEFAULT: Long = 100
   private[hdfs] val HDFS_STORAGE_CREATOR_CLASS_DEFAULT: String = classOf[HDFSStorageCreator].getName
   private[hdfs] val DATAFILE_ENCODE_DEFAULT = "UTF-8"
+  private[hdfs] val DATAFILE_FORMAT_CSV = "csv"
+  private[hdfs] val DATAFILE_FORMAT_PARQUET = "parquet"
+  private[hdfs] val DATAFILE_FORMAT_DEFAULT = DATAFILE_FORMAT_CSV
+  private[hdfs] val PARQUET_COMPRESSION_DEFAULT = "snappy"
+  private[hdfs] val PARQUET_ROW_GROUP_SIZE_DEFAULT: Int = ParquetWriter.DEFAULT_BLOCK_SIZE
+  private[hdfs] val PARQUET_PAGE_SIZE_DEFAULT: Int = ParquetWriter.DEFAULT_PAGE_SIZE
+  private[hdfs] val PARALLEL_WRITE_DEFAULT: Boolean = false
 
   def apply(settings: TaskSetting): HDFSSinkConnectorConfig = {
     val prefixFileName: String = settings.stringOption(DATAFILE_PREFIX_NAME).orElse(DATAFILE_PREFIX_NAME_DEFAULT)
@@ -71,6 +91,18 @@ object HDFSSinkConnectorConfig {
     if (tmpDir == dataDir)
       throw new IllegalArgumentException("The tmpDir path same as dataDir path, Please input different path.")
 
+    val dataFileFormat: String = settings.stringOption(DATAFILE_FORMAT).orElse(DATAFILE_FORMAT_DEFAULT).toLowerCase
+    if (dataFileFormat != DATAFILE_FORMAT_CSV && dataFileFormat != DATAFILE_FORMAT_PARQUET)
+      throw new IllegalArgumentException(
+        s"The $DATAFILE_FORMAT value only $DATAFILE_FORMAT_CSV or $DATAFILE_FORMAT_PARQUET, actual:$dataFileFormat")
+
+    // fail fast if the codec is unknown
+    val parquetCompression: String =
+      CompressionCodecName
+        .fromConf(settings.stringOption(PARQUET_COMPRESSION).orElse(PARQUET_COMPRESSION_DEFAULT))
+        .name()
+        .toLowerCase
+
     HDFSSinkConnectorConfig(
       hdfsURL = settings.stringValue(HDFS_URL),
       flushLineCount = settings.intOption(FLUSH_LINE_COUNT).orElse(FLUSH_LINE_COUNT_DEFAULT),
@@ -82,7 +114,14 @@ object HDFSSinkConnectorConfig {
       dataBufferCount = settings.longOption(DATA_BUFFER_COUNT).orElse(DATA_BUFFER_COUNT_DEFAULT),
       hdfsStorageCreateClass =
         settings.stringOption(HDFS_STORAGE_CREATOR_CLASS).orElse(HDFS_STORAGE_CREATOR_CLASS_DEFAULT),
-      dataFileEncode = settings.stringOption(DATAFILE_ENCODE).orElse(DATAFILE_ENCODE_DEFAULT)
+      dataFileEncode = settings.stringOption(DATAFILE_ENCODE).orElse(DATAFILE_ENCODE_DEFAULT),
+      dataFileFormat = dataFileFormat,
+      parquetCompression = parquetCompression,
+      parquetRowGroupSize = CommonUtils.requirePositiveInt(
+        settings.intOption(PARQUET_ROW_GROUP_SIZE).orElse(PARQUET_ROW_GROUP_SIZE_DEFAULT)),
+      parquetPageSize =
+        CommonUtils.requirePositiveInt(settings.intOption(PARQUET_PAGE_SIZE).orElse(PARQUET_PAGE_SIZE_DEFAULT)),
+      parallelWrite = settings.booleanOption(PARALLEL_WRITE).orElse(PARALLEL_WRITE_DEFAULT)
     )
   }
 }
@@ -42,7 +42,14 @@ class HDFSSinkTask extends RowSinkTask {
     offsets: util.Map[TopicPartition, TopicOffset]): util.Map[TopicPartition, TopicOffset] = {
     logger.debug("running flush function.")
     offsets.asScala.foreach { case (p, o) => logger.debug(s"[${p.topicName}-${p.partition}] offset: ${o.offset}") }
-    offsets
+    //The records buffered by parallel writers are not in hdfs yet so we commit only the offsets of committed files
+    if (hdfsSinkConnectorConfig.parallelWrite)
+      hdfsWriter
+        .committedOffsets()
+        .filter { case (p, _) => offsets.containsKey(p) }
+        .map { case (p, offset) => p -> new TopicOffset(offsets.get(p).metadata, offset) }
+        .asJava
+    else offsets
   }
 
   override protected def _close(partitions: util.List[TopicPartition]): Unit = {
@@ -64,10 +71,13 @@ class HDFSSinkTask extends RowSinkTask {
   }
 
   override protected def _put(records: util.List[RowSinkRecord]): Unit =
-    try {
-      hdfsWriter.write(records.asScala)
-    } catch {
-      case e: Throwable => logger.error("failed to write to HDFS", e)
-    }
+    //the failure of parallel writer fails the task. The uncommitted data is recovered by next open
+    if (hdfsSinkConnectorConfig.parallelWrite) hdfsWriter.write(records.asScala)
+    else
+      try {
+        hdfsWriter.write(records.asScala)
+      } catch {
+        case e: Throwable => logger.error("failed to write to HDFS", e)
+      }
 
 }
@@ -18,6 +18,7 @@ package com.island.ohara.connector.hdfs
 
 import com.island.ohara.common.data.Column
 import com.island.ohara.common.util.CommonUtils
+import com.island.ohara.connector.hdfs.parquet.ParquetRecordWriterOutput
 import com.island.ohara.connector.hdfs.storage.Storage
 import com.island.ohara.connector.hdfs.text.{CSVRecordWriterOutput, RecordWriterOutput}
 import com.island.ohara.kafka.connector.{RowSinkContext, RowSinkRecord, TopicPartition}
@@ -46,10 +47,25 @@ class TopicPartitionWriter(config: HDFSSinkConnectorConfig,
   val flushLineCount: Int = config.flushLineCount
   val rotateInterval: Long = config.rotateIntervalMS
   val dataFileNeedHeader: Boolean = config.dataFileNeedHeader
+  val fileExtension: String =
+    if (config.dataFileFormat == HDFSSinkConnectorConfig.DATAFILE_FORMAT_PARQUET) FileUtils.PARQUET_FILENAME_ENDSWITH
+    else FileUtils.FILENAME_ENDSWITH
   var startTimeMS: Long = 0
   var processLineCount: Int = 0
 
+  /**
+    * the stop offset of last committed data file. It is recovered by open and then moved by commit.
+    */
+  var committedOffset: Long = 0
+  val manifest: CommitManifest = new CommitManifest(
+    storage,
+    s"${config.dataDir}/${partition.topicName}/${CommitManifest.DIR_NAME}/$partitionName",
+    dataDir)
+
   def open(): Unit = {
+    //The temp files left by the previous crash are not committed so they are dropped. The data will be re-consumed
+    if (storage.exist(tmpDir)) storage.delete(tmpDir, true)
+
     //If tmp dir not exists to create tmp dir
     createTmpDirIfNotExists(s"$tmpDir")
 
@@ -95,9 +111,12 @@ class TopicPartitionWriter(config: HDFSSinkConnectorConfig,
     */
   def openTempFile(processLineCount: Int): Unit = {
     if (processLineCount == 0) {
-      val tmpFilePath = s"$tmpDir/${CommonUtils.current()}${FileUtils.FILENAME_ENDSWITH}"
+      val tmpFilePath = s"$tmpDir/${CommonUtils.current()}$fileExtension"
       logger.info(s"create temp file path: $tmpFilePath")
-      recordWriterOutput = new CSVRecordWriterOutput(config, storage, tmpFilePath)
+      recordWriterOutput =
+        if (config.dataFileFormat == HDFSSinkConnectorConfig.DATAFILE_FORMAT_PARQUET)
+          new ParquetRecordWriterOutput(config, storage, tmpFilePath)
+        else new CSVRecordWriterOutput(config, storage, tmpFilePath)
       this.tmpFilePath = tmpFilePath
     }
   }
@@ -109,7 +128,11 @@ class TopicPartitionWriter(config: HDFSSinkConnectorConfig,
   def commitFile(recordWriterProvider: RecordWriterOutput, tmpFilePath: String): Unit = {
     logger.info(s"running commit file tmpFileName: $tmpFilePath")
     recordWriterProvider.close()
-    commit(tmpFilePath, flushFilePath(storage.list(s"$dataDir").map(filePath => FileUtils.fileName(filePath)), dataDir))
+    val filePath = flushFilePath(committedOffset, dataDir)
+    //the file is recorded before rename so the recovery can tell whether the rename is done
+    manifest.write(FileUtils.fileName(filePath))
+    commit(tmpFilePath, filePath)
+    committedOffset = FileUtils.getStopOffset(Iterator(FileUtils.fileName(filePath)))
   }
 
   def close(): Unit = {
@@ -117,9 +140,10 @@ class TopicPartitionWriter(config: HDFSSinkConnectorConfig,
       storage.delete(tmpDir, true)
   }
 
-  def flushFilePath(fileList: Iterator[String], dataDir: String): String = {
-    val startOffset: Long = FileUtils.getStopOffset(fileList)
+  def flushFilePath(fileList: Iterator[String], dataDir: String): String =
+    flushFilePath(FileUtils.getStopOffset(fileList), dataDir)
 
+  def flushFilePath(startOffset: Long, dataDir: String): String = {
     //if flush size = 10
     //first  commit startOffset=0  and endOffset=10
     //second commit startOffset=10 and endOffset=20
@@ -128,7 +152,7 @@ class TopicPartitionWriter(config: HDFSSinkConnectorConfig,
     var stopOffset: Long = startOffset
     if (processLineCount > 0) stopOffset = stopOffset + processLineCount
 
-    val fileName = s"$dataDir/${FileUtils.offsetFileName(filePrefixName, startOffset, stopOffset)}"
+    val fileName = s"$dataDir/${FileUtils.offsetFileName(filePrefixName, startOffset, stopOffset, fileExtension)}"
     logger.info(s"flush file path is: $fileName")
     fileName
   }
@@ -162,11 +186,10 @@ class TopicPartitionWriter(config: HDFSSinkConnectorConfig,
     */
   private def recoveryOffset(): Unit = {
     logger.info("recovery offset")
-    val previousStopOffset: Long =
-      FileUtils.getStopOffset(storage.list(s"$dataDir").map(filePath => FileUtils.fileName(filePath)))
+    committedOffset = manifest.recover()
 
     //Move kafka topic partition offset to not commit to data dir position for HDFSSink connector fault or connect worker fault
-    context.offset(partition, previousStopOffset)
+    context.offset(partition, committedOffset)
   }
 
   private def runningCommitFile(): Unit = {
@@ -28,4 +28,9 @@ package object hdfs {
   val DATA_BUFFER_COUNT: String = "data.buffer.size"
   val HDFS_STORAGE_CREATOR_CLASS: String = "hdfs.storage.creator.class"
   val DATAFILE_ENCODE = "datafile.encode"
+  val DATAFILE_FORMAT = "datafile.format"
+  val PARQUET_COMPRESSION = "parquet.compression"
+  val PARQUET_ROW_GROUP_SIZE = "parquet.row.group.size"
+  val PARQUET_PAGE_SIZE = "parquet.page.size"
+  val PARALLEL_WRITE = "parallel.write"
 }
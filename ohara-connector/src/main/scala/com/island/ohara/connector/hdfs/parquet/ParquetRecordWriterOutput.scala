@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.hdfs.parquet
+
+import com.island.ohara.common.data.{Column, Row}
+import com.island.ohara.connector.hdfs.HDFSSinkConnectorConfig
+import com.island.ohara.connector.hdfs.storage.Storage
+import com.island.ohara.connector.hdfs.text.RecordWriterOutput
+import com.typesafe.scalalogging.Logger
+import org.apache.hadoop.conf.Configuration
+import org.apache.parquet.hadoop.ParquetWriter
+import org.apache.parquet.hadoop.api.WriteSupport
+import org.apache.parquet.hadoop.metadata.CompressionCodecName
+import org.apache.parquet.io.OutputFile
+
+/**
+  * Data write to temp file for parquet file format. The ohara types are written to native parquet types so the
+  * downstream jobs can read the columns without parsing text. The parquet schema is built from the connector schema,
+  * or it is inferred from the first row if the connector has no schema. The header flag is ignored since the schema
+  * is stored in the parquet footer.
+  * @param config connector config
+  * @param storage storage
+  * @param filePath file path
+  */
+class ParquetRecordWriterOutput(config: HDFSSinkConnectorConfig, storage: Storage, filePath: String)
+    extends RecordWriterOutput {
+  private[this] lazy val logger = Logger(getClass.getName)
+  private[this] var writeSupport: RowWriteSupport = _
+  private[this] var writer: ParquetWriter[Row] = _
+
+  override def write(isHeader: Boolean, schema: Seq[Column], row: Row): Unit = {
+    if (writeSupport == null)
+      writeSupport = new RowWriteSupport(if (schema.isEmpty) RowWriteSupport.columns(row) else schema.sortBy(_.order))
+    // NOTED: we don't want to write an "empty" record
+    if (writeSupport.project(row).exists(_ >= 0)) {
+      if (writer == null) {
+        logger.info("open temp file")
+        writer = new ParquetRecordWriterOutput.Builder(new StorageOutputFile(storage, filePath), writeSupport)
+          .withConf(config.hadoopConfiguration())
+          .withCompressionCodec(CompressionCodecName.fromConf(config.parquetCompression))
+          .withRowGroupSize(config.parquetRowGroupSize)
+          .withPageSize(config.parquetPageSize)
+          .build()
+      }
+      writer.write(row)
+    }
+  }
+
+  /**
+    * close the parquet writer. NOTED: the error is not swallowed since the file is broken if it fails to write footer.
+    */
+  override def close(): Unit = if (writer != null) {
+    logger.info("close temp file")
+    writer.close()
+  }
+}
+
+object ParquetRecordWriterOutput {
+  private class Builder(file: OutputFile, writeSupport: RowWriteSupport)
+      extends ParquetWriter.Builder[Row, Builder](file) {
+    override def self(): Builder = this
+
+    override def getWriteSupport(conf: Configuration): WriteSupport[Row] = writeSupport
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.hdfs.parquet
+
+import java.util
+
+import com.island.ohara.common.data.{Column, DataType, Row}
+import com.island.ohara.kafka.connector.RowProjection
+import org.apache.hadoop.conf.Configuration
+import org.apache.parquet.hadoop.api.WriteSupport
+import org.apache.parquet.hadoop.api.WriteSupport.WriteContext
+import org.apache.parquet.io.api.{Binary, RecordConsumer}
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName
+import org.apache.parquet.schema.{MessageType, OriginalType, Type, Types}
+
+import scala.collection.JavaConverters._
+
+/**
+  * Convert the row to parquet record. The cells are written to native parquet types, and the function used to write
+  * each column is resolved once from the schema. The cells absent from row are written as null.
+  * @param columns the columns to write. The order of columns is the order of parquet fields
+  */
+private[parquet] class RowWriteSupport(columns: Seq[Column]) extends WriteSupport[Row] {
+  private[this] val fieldNames: Array[String] = columns.map(_.newName).toArray
+  private[this] val writers: Array[(RecordConsumer, Any) => Unit] =
+    columns.map(column => RowWriteSupport.writer(column.dataType)).toArray
+  private[this] val projection: RowProjection = RowProjection.of(columns.asJava)
+  private[this] var consumer: RecordConsumer = _
+
+  val schema: MessageType = Types.buildMessage().addFields(columns.map(RowWriteSupport.toType): _*).named("row")
+
+  override def init(configuration: Configuration): WriteContext =
+    new WriteContext(schema, new util.HashMap[String, String]())
+
+  override def prepareForWrite(recordConsumer: RecordConsumer): Unit = consumer = recordConsumer
+
+  /**
+    * @param row row
+    * @return the index of cell for each column. -1 means the cell is absent
+    */
+  def project(row: Row): Array[Int] = projection.indexes(row)
+
+  override def write(row: Row): Unit = {
+    val indexes = project(row)
+    consumer.startMessage()
+    var index = 0
+    while (index < indexes.length) {
+      if (indexes(index) >= 0) {
+        consumer.startField(fieldNames(index), index)
+        writers(index)(consumer, row.cell(indexes(index)).value)
+        consumer.endField(fieldNames(index), index)
+      }
+      index += 1
+    }
+    consumer.endMessage()
+  }
+}
+
+private[parquet] object RowWriteSupport {
+
+  /**
+    * infer the columns from row. It is used when the connector has no schema.
+    * @param row row
+    * @return columns
+    */
+  def columns(row: Row): Seq[Column] = row.cells().asScala.zipWithIndex.map {
+    case (cell, index) => Column.builder().name(cell.name).dataType(DataType.from(cell.value)).order(index).build()
+  }
+
+  private def toType(column: Column): Type = column.dataType match {
+    case DataType.BOOLEAN => Types.optional(PrimitiveTypeName.BOOLEAN).named(column.newName)
+    case DataType.BYTE    => Types.optional(PrimitiveTypeName.INT32).as(OriginalType.INT_8).named(column.newName)
+    case DataType.SHORT   => Types.optional(PrimitiveTypeName.INT32).as(OriginalType.INT_16).named(column.newName)
+    case DataType.INT     => Types.optional(PrimitiveTypeName.INT32).named(column.newName)
+    case DataType.LONG    => Types.optional(PrimitiveTypeName.INT64).named(column.newName)
+    case DataType.FLOAT   => Types.optional(PrimitiveTypeName.FLOAT).named(column.newName)
+    case DataType.DOUBLE  => Types.optional(PrimitiveTypeName.DOUBLE).named(column.newName)
+    case DataType.STRING  => Types.optional(PrimitiveTypeName.BINARY).as(OriginalType.UTF8).named(column.newName)
+    case DataType.BYTES   => Types.optional(PrimitiveTypeName.BINARY).named(column.newName)
+    case _ =>
+      throw new IllegalArgumentException(s"parquet output does not support ${column.dataType} (column:${column.name})")
+  }
+
+  private def writer(dataType: DataType): (RecordConsumer, Any) => Unit = dataType match {
+    case DataType.BOOLEAN =>
+      (consumer, value) =>
+        consumer.addBoolean(value.asInstanceOf[Boolean])
+    case DataType.BYTE | DataType.SHORT | DataType.INT =>
+      (consumer, value) =>
+        consumer.addInteger(value.asInstanceOf[Number].intValue())
+    case DataType.LONG =>
+      (consumer, value) =>
+        consumer.addLong(value.asInstanceOf[Number].longValue())
+    case DataType.FLOAT =>
+      (consumer, value) =>
+        consumer.addFloat(value.asInstanceOf[Number].floatValue())
+    case DataType.DOUBLE =>
+      (consumer, value) =>
+        consumer.addDouble(value.asInstanceOf[Number].doubleValue())
+    case DataType.STRING =>
+      (consumer, value) =>
+        consumer.addBinary(Binary.fromString(value.toString))
+    case DataType.BYTES =>
+      (consumer, value) =>
+        consumer.addBinary(Binary.fromConstantByteArray(value.asInstanceOf[Array[Byte]]))
+    case _ => throw new IllegalArgumentException(s"parquet output does not support $dataType")
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.hdfs.parquet
+
+import java.io.OutputStream
+
+import com.island.ohara.connector.hdfs.storage.Storage
+import org.apache.parquet.io.{OutputFile, PositionOutputStream}
+
+/**
+  * Parquet file backed by storage so the parquet writer doesn't need to access the hadoop file system directly.
+  * @param storage storage
+  * @param path file path
+  */
+private[parquet] class StorageOutputFile(storage: Storage, path: String) extends OutputFile {
+
+  override def create(blockSizeHint: Long): PositionOutputStream = stream(storage.open(path, false))
+
+  override def createOrOverwrite(blockSizeHint: Long): PositionOutputStream = stream(storage.open(path, true))
+
+  override def supportsBlockSize(): Boolean = false
+
+  override def defaultBlockSize(): Long = 0
+
+  private[this] def stream(output: OutputStream): PositionOutputStream = new PositionOutputStream {
+    private[this] var position: Long = 0
+
+    override def getPos: Long = position
+
+    override def write(b: Int): Unit = {
+      output.write(b)
+      position += 1
+    }
+
+    override def write(b: Array[Byte], off: Int, len: Int): Unit = {
+      output.write(b, off, len)
+      position += len
+    }
+
+    override def flush(): Unit = output.flush()
+
+    override def close(): Unit = output.close()
+  }
+}
@@ -16,7 +16,7 @@
 
 package com.island.ohara.connector.hdfs.storage
 
-import java.io.OutputStream
+import java.io.{InputStream, OutputStream}
 
 import com.typesafe.scalalogging.Logger
 import org.apache.hadoop.fs.{FileSystem, Path, RemoteIterator}
@@ -62,6 +62,19 @@ class HDFSStorage(fileSystem: FileSystem) extends Storage {
     fileSystem.append(new Path(filePathAndName))
   }
 
+  /**
+    * Open the file InputStream
+    *
+    * The InputStream returned by this method should be closed manually.
+    * Storage won't manage the stream for users.
+    *
+    * @param filePathAndName
+    * @return
+    */
+  override def read(filePathAndName: String): InputStream = {
+    fileSystem.open(new Path(filePathAndName))
+  }
+
   /**
     * Create the file OutputStream
     *
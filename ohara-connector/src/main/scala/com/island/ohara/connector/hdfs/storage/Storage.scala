@@ -16,7 +16,7 @@
 
 package com.island.ohara.connector.hdfs.storage
 
-import java.io.OutputStream
+import java.io.{InputStream, OutputStream}
 
 import com.island.ohara.common.util.Releasable
 
@@ -39,6 +39,17 @@ abstract class Storage extends Releasable {
     */
   def append(filePathAndName: String): OutputStream
 
+  /**
+    * Open the file InputStream
+    *
+    * The InputStream returned by this method should be closed manually.
+    * Storage won't manage the stream for users.
+    *
+    * @param filePathAndName
+    * @return
+    */
+  def read(filePathAndName: String): InputStream
+
   /**
     * Create the file OutputStream
     *
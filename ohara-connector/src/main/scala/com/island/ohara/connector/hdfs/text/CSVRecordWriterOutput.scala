@@ -22,6 +22,7 @@ import com.island.ohara.common.data.{Column, DataType, Row}
 import com.island.ohara.common.util.Releasable
 import com.island.ohara.connector.hdfs.HDFSSinkConnectorConfig
 import com.island.ohara.connector.hdfs.storage.Storage
+import com.island.ohara.kafka.connector.RowProjection
 import com.typesafe.scalalogging.Logger
 
 import scala.collection.JavaConverters._
@@ -34,6 +35,9 @@ class CSVRecordWriterOutput(hdfsSinkConnectorConfig: HDFSSinkConnectorConfig, st
     extends RecordWriterOutput {
   private[this] lazy val logger = Logger(getClass.getName)
   private[this] var writer: BufferedWriter = _
+  private[this] var schema: Seq[Column] = _
+  private[this] var sortedSchema: Seq[Column] = _
+  private[this] var projection: RowProjection = _
   val encode = hdfsSinkConnectorConfig.dataFileEncode
 
   /**
@@ -41,23 +45,13 @@ class CSVRecordWriterOutput(hdfsSinkConnectorConfig: HDFSSinkConnectorConfig, st
     * @param row
     */
   override def write(isHeader: Boolean, schema: Seq[Column], row: Row): Unit = {
+    val columns = sorted(schema)
     val newSchema: Seq[Column] =
       if (schema.isEmpty)
         row.cells().asScala.map(r => Column.builder().name(r.name).dataType(DataType.OBJECT).order(0).build())
-      else schema
-    val line: String = newSchema
-      .sortBy(_.order)
-      .map(n => (n, row.cells().asScala.filter(r => n.name == r.name)))
-      .flatMap({
-        case (n, cell) =>
-          n.dataType match {
-            case DataType.BYTES =>
-              throw new RuntimeException(s"hdfs sink connector not support ${n.dataType} type")
-            case _ => cell
-          }
-      })
-      .map(x => x.value)
-      .mkString(",")
+      else columns
+    // the absent cells are skipped
+    val line: String = projection.indexes(row).filter(_ >= 0).map(index => row.cell(index).value).mkString(",")
 
     if (this.writer == null && line.nonEmpty) {
       logger.info("open temp file")
@@ -71,6 +65,18 @@ class CSVRecordWriterOutput(hdfsSinkConnectorConfig: HDFSSinkConnectorConfig, st
     }
   }
 
+  private[this] def sorted(schema: Seq[Column]): Seq[Column] = {
+    if (!(schema eq this.schema)) {
+      schema.find(_.dataType == DataType.BYTES).foreach { column =>
+        throw new RuntimeException(s"hdfs sink connector not support ${column.dataType} type")
+      }
+      this.schema = schema
+      this.sortedSchema = schema.sortBy(_.order)
+      this.projection = RowProjection.of(sortedSchema.asJava)
+    }
+    sortedSchema
+  }
+
   /**
     * close OutputStream object
     */
@@ -22,42 +22,60 @@ import com.island.ohara.client.configurator.v0.QueryApi.RdbColumn
 import com.island.ohara.connector.jdbc.util.DateTimeUtils
 
 class RDBDataTypeConverter {
-  def converterValue(resultSet: ResultSet, column: RdbColumn): Object = {
+  def converterValue(resultSet: ResultSet, column: RdbColumn): Object =
+    valueReader(column)(resultSet, resultSet.findColumn(column.name))
+
+  /**
+    * resolve the getter of column. The type is matched only once, and the value is got by column index. It is used to
+    * read many rows from the same query.
+    * @param column column
+    * @return a function reading the value from the index of result set
+    */
+  def valueReader(column: RdbColumn): (ResultSet, Int) => Object = {
     val columnName = column.name
     val typeName = column.dataType
 
-    // the type name from postgresql is lower case...
     import RDBDataTypeConverter._
     typeName.toUpperCase match {
       case RDB_TYPE_BOOLEAN =>
-        java.lang.Boolean.valueOf(resultSet.getBoolean(columnName))
+        (resultSet, index) =>
+          java.lang.Boolean.valueOf(resultSet.getBoolean(index))
 
       case RDB_TYPE_BIT =>
-        java.lang.Byte.valueOf(resultSet.getByte(columnName))
+        (resultSet, index) =>
+          java.lang.Byte.valueOf(resultSet.getByte(index))
 
       case RDB_TYPE_INTEGER | RDB_TYPE_INTEGER_2 =>
-        java.lang.Integer.valueOf(resultSet.getInt(columnName))
+        (resultSet, index) =>
+          java.lang.Integer.valueOf(resultSet.getInt(index))
 
       case RDB_TYPE_BIGINT =>
-        java.lang.Long.valueOf(resultSet.getLong(columnName))
+        (resultSet, index) =>
+          java.lang.Long.valueOf(resultSet.getLong(index))
 
       case RDB_TYPE_FLOAT =>
-        java.lang.Float.valueOf(resultSet.getFloat(columnName))
+        (resultSet, index) =>
+          java.lang.Float.valueOf(resultSet.getFloat(index))
 
       case RDB_TYPE_DOUBLE =>
-        java.lang.Double.valueOf(resultSet.getDouble(columnName))
+        (resultSet, index) =>
+          java.lang.Double.valueOf(resultSet.getDouble(index))
 
       case RDB_TYPE_CHAR | RDB_TYPE_VARCHAR | RDB_TYPE_LONGVARCHAR =>
-        resultSet.getString(columnName)
+        (resultSet, index) =>
+          resultSet.getString(index)
 
       case RDB_TYPE_TIMESTAMP =>
-        resultSet.getTimestamp(columnName, DateTimeUtils.CALENDAR)
+        (resultSet, index) =>
+          resultSet.getTimestamp(index, DateTimeUtils.CALENDAR)
 
       case RDB_TYPE_DATE =>
-        resultSet.getDate(columnName, DateTimeUtils.CALENDAR)
+        (resultSet, index) =>
+          resultSet.getDate(index, DateTimeUtils.CALENDAR)
 
       case RDB_TYPE_TIME =>
-        resultSet.getTime(columnName, DateTimeUtils.CALENDAR)
+        (resultSet, index) =>
+          resultSet.getTime(index, DateTimeUtils.CALENDAR)
 
       case _ =>
         throw new RuntimeException(s"Data type '$typeName' not support on column '$columnName'.")
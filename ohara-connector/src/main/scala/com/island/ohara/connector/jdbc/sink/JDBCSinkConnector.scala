@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc.sink
+
+import java.util
+
+import com.island.ohara.client.database.DatabaseClient
+import com.island.ohara.kafka.connector._
+import com.island.ohara.kafka.connector.json.SettingDefinition
+
+import scala.collection.JavaConverters._
+
+/**
+  * This class for JDBC Sink connector plugin. It writes the rows to a database table by batched INSERT/UPSERT.
+  */
+class JDBCSinkConnector extends RowSinkConnector {
+
+  private[this] var settings: TaskSetting = _
+
+  override protected def _start(settings: TaskSetting): Unit = {
+    this.settings = settings
+    val config = JDBCSinkConnectorConfig(settings)
+    val client = DatabaseClient.builder.url(config.dbURL).user(config.dbUserName).password(config.dbPassword).build
+    try {
+      val tables = client.tableQuery.tableName(config.dbTableName).execute()
+      if (tables.isEmpty) throw new NoSuchElementException(s"${config.dbTableName} table is not found.")
+      if (config.writeMode == WRITE_MODE_UPSERT && !tables.head.columns.exists(_.pk))
+        throw new IllegalArgumentException(s"${config.dbTableName} has no primary keys so it can't be upserted")
+    } finally client.close()
+  }
+
+  override protected def _stop(): Unit = {
+    // do nothing
+  }
+
+  override protected def _taskClass(): Class[_ <: RowSinkTask] = classOf[JDBCSinkTask]
+
+  override protected def _taskSettings(maxTasks: Int): util.List[TaskSetting] = Seq.fill(maxTasks)(settings).asJava
+
+  override protected def _version: ConnectorVersion = ConnectorVersion.DEFAULT
+
+  override protected def _definitions(): util.List[SettingDefinition] = Seq(
+    SettingDefinition
+      .builder()
+      .displayName("jdbc url")
+      .documentation("Connection database url")
+      .valueType(SettingDefinition.Type.STRING)
+      .key(DB_URL)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("user name")
+      .documentation("Connection database user name")
+      .valueType(SettingDefinition.Type.STRING)
+      .key(DB_USERNAME)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("password")
+      .documentation("Connection database user password")
+      .valueType(SettingDefinition.Type.PASSWORD)
+      .key(DB_PASSWORD)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("table name")
+      .documentation("write to database table from topic")
+      .valueType(SettingDefinition.Type.JDBC_TABLE)
+      .key(DB_TABLENAME)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("write mode")
+      .documentation(
+        s"$WRITE_MODE_INSERT or $WRITE_MODE_UPSERT. The $WRITE_MODE_UPSERT mode updates the rows having the same " +
+          "primary keys. It is supported by mysql and postgresql")
+      .valueType(SettingDefinition.Type.STRING)
+      .key(WRITE_MODE)
+      .optional(WRITE_MODE_DEFAULT)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("batch size")
+      .documentation("the number of rows sent to database in one batch")
+      .valueType(SettingDefinition.Type.INT)
+      .key(BATCH_SIZE)
+      .optional(BATCH_SIZE_DEFAULT.toString)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("postgresql copy")
+      .documentation(s"use COPY to load rows if the database is postgresql. It works with $WRITE_MODE_INSERT mode only")
+      .valueType(SettingDefinition.Type.BOOLEAN)
+      .key(POSTGRESQL_COPY)
+      .optional(POSTGRESQL_COPY_DEFAULT.toString)
+      .build()
+  ).asJava
+}
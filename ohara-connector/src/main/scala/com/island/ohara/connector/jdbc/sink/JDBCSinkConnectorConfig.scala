@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc.sink
+
+import com.island.ohara.common.util.CommonUtils
+import com.island.ohara.kafka.connector.TaskSetting
+
+case class JDBCSinkConnectorConfig(dbURL: String,
+                                   dbUserName: String,
+                                   dbPassword: String,
+                                   dbTableName: String,
+                                   writeMode: String,
+                                   batchSize: Int,
+                                   postgresqlCopy: Boolean) {
+  def toMap: Map[String, String] = Map(
+    DB_URL -> dbURL,
+    DB_USERNAME -> dbUserName,
+    DB_PASSWORD -> dbPassword,
+    DB_TABLENAME -> dbTableName,
+    WRITE_MODE -> writeMode,
+    BATCH_SIZE -> batchSize.toString,
+    POSTGRESQL_COPY -> postgresqlCopy.toString
+  )
+}
+
+object JDBCSinkConnectorConfig {
+  def apply(settings: TaskSetting): JDBCSinkConnectorConfig = JDBCSinkConnectorConfig(
+    dbURL = settings.stringValue(DB_URL),
+    dbUserName = settings.stringValue(DB_USERNAME),
+    dbPassword = settings.stringValue(DB_PASSWORD),
+    dbTableName = settings.stringValue(DB_TABLENAME),
+    writeMode = settings.stringOption(WRITE_MODE).orElse(WRITE_MODE_DEFAULT).toLowerCase match {
+      case mode @ (WRITE_MODE_INSERT | WRITE_MODE_UPSERT) => mode
+      case mode =>
+        throw new IllegalArgumentException(s"unsupported write mode:$mode")
+    },
+    batchSize = CommonUtils.requirePositiveInt(settings.intOption(BATCH_SIZE).orElse(BATCH_SIZE_DEFAULT)),
+    postgresqlCopy = settings.booleanOption(POSTGRESQL_COPY).orElse(POSTGRESQL_COPY_DEFAULT)
+  )
+}
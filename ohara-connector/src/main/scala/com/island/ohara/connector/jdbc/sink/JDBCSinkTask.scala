@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc.sink
+
+import java.io.StringReader
+import java.sql.PreparedStatement
+import java.util
+
+import com.island.ohara.client.database.DatabaseClient
+import com.island.ohara.common.data.{Column, Row, Serializer}
+import com.island.ohara.common.util.Releasable
+import com.island.ohara.connector.jdbc.sink.JDBCSinkTask._
+import com.island.ohara.kafka.connector._
+import com.typesafe.scalalogging.Logger
+import org.postgresql.PGConnection
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/**
+  * Write the rows to a database table. The rows are sent by the batches of prepared INSERT/UPSERT statement, or by
+  * COPY if the database is postgresql and POSTGRESQL_COPY is enabled. The transaction is committed by _preCommit so
+  * the committed offsets cover only the rows which have been committed to database. If it fails to write data, the
+  * transaction is rolled back, the following batches are skipped and _preCommit throws exception so the offsets are
+  * rewound to the last committed offsets.
+  *
+  * The schema column "name" is the cell name of row, and "newName" is the column name of table. If the schema is
+  * empty, all cells are written to the columns having the same names. The rows lacking some columns are skipped.
+  */
+class JDBCSinkTask extends RowSinkTask {
+  private[this] var config: JDBCSinkConnectorConfig = _
+  private[this] var client: DatabaseClient = _
+  private[this] var schema: Seq[Column] = _
+  private[this] var keyColumnNames: Seq[String] = _
+  private[this] var dialect: String = _
+  private[this] var copy: Boolean = _
+
+  /**
+    * the prepared statements keyed by the table columns they write.
+    */
+  private[this] val statements = new mutable.HashMap[Seq[String], PreparedStatement]
+
+  private[this] var projection: RowProjection = _
+
+  /**
+    * the table columns of schema. It is unused if the schema is empty.
+    */
+  private[this] var schemaColumnNames: Seq[String] = _
+
+  /**
+    * the table columns of pending rows. It is null if there is no pending rows.
+    */
+  private[this] var pendingColumnNames: Seq[String] = _
+  private[this] var pendingCount: Int = 0
+
+  /**
+    * the csv lines sent by COPY.
+    */
+  private[this] val copyBuffer = new StringBuilder
+  private[this] var failure: Throwable = _
+
+  override protected def _start(settings: TaskSetting): Unit = {
+    this.config = JDBCSinkConnectorConfig(settings)
+    this.schema = settings.columns.asScala.sortBy(_.order)
+    this.projection = RowProjection.of(schema.asJava)
+    this.schemaColumnNames = schema.map(_.newName)
+    this.client = DatabaseClient.builder.url(config.dbURL).user(config.dbUserName).password(config.dbPassword).build
+    client.connection.setAutoCommit(false)
+    val tables = client.tableQuery.tableName(config.dbTableName).execute()
+    if (tables.isEmpty) throw new NoSuchElementException(s"${config.dbTableName} table is not found.")
+    this.keyColumnNames = tables.head.columns.filter(_.pk).map(_.name)
+    this.dialect = client.databaseType.toLowerCase
+    if (config.writeMode == WRITE_MODE_UPSERT) {
+      if (keyColumnNames.isEmpty)
+        throw new IllegalArgumentException(s"${config.dbTableName} has no primary keys so it can't be upserted")
+      if (dialect != MYSQL && dialect != POSTGRESQL)
+        throw new IllegalArgumentException(s"$WRITE_MODE_UPSERT is unsupported by $dialect")
+    }
+    this.copy = config.postgresqlCopy && config.writeMode == WRITE_MODE_INSERT &&
+      client.connection.isWrapperFor(classOf[PGConnection])
+    if (config.postgresqlCopy && !copy)
+      LOG.warn(s"COPY is disabled since the database is $dialect and the write mode is ${config.writeMode}")
+  }
+
+  override protected def _stop(): Unit = {
+    statements.values.foreach(Releasable.close)
+    statements.clear()
+    // the uncommitted rows are discarded
+    if (client != null)
+      try client.connection.rollback()
+      catch {
+        case e: Throwable => LOG.error("failed to rollback", e)
+      }
+    Releasable.close(client)
+  }
+
+  /**
+    * the projection is decoded by index so it is unnecessary to decode all cells.
+    */
+  override protected def _rowSerializer(): Serializer[Row] = Serializer.LAZY_ROW
+
+  override protected def _put(records: util.List[RowSinkRecord]): Unit = if (failure == null) try {
+    records.asScala.foreach(record => write(record.row))
+  } catch {
+    case e: Throwable =>
+      LOG.error("failed to write records", e)
+      failure = e
+      discard()
+  }
+
+  override protected def _preCommit(
+    offsets: util.Map[TopicPartition, TopicOffset]): util.Map[TopicPartition, TopicOffset] = {
+    if (failure != null) {
+      val e = failure
+      failure = null
+      throw new IllegalStateException("failed to write records so the offsets are not committed", e)
+    }
+    try {
+      flush()
+      client.connection.commit()
+    } catch {
+      case e: Throwable =>
+        discard()
+        throw new IllegalStateException("failed to commit records so the offsets are not committed", e)
+    }
+    offsets
+  }
+
+  private[this] def write(row: Row): Unit = {
+    if (projection.complete(row)) {
+      val indexes = projection.indexes(row)
+      val columnNames = if (schema.isEmpty) row.names().asScala else schemaColumnNames
+      // the statement is changed so the pending rows must be sent first
+      if (pendingColumnNames != null && pendingColumnNames != columnNames) flush()
+      pendingColumnNames = columnNames
+      if (copy) {
+        indexes.indices.foreach { index =>
+          if (index != 0) copyBuffer.append(',')
+          appendCsv(copyBuffer, row.cell(indexes(index)).value)
+        }
+        copyBuffer.append('\n')
+      } else {
+        val statement = statements.getOrElseUpdate(columnNames, client.connection.prepareStatement(sql(columnNames)))
+        indexes.indices.foreach(index => statement.setObject(index + 1, row.cell(indexes(index)).value))
+        statement.addBatch()
+      }
+      pendingCount += 1
+      if (pendingCount >= config.batchSize) flush()
+    }
+  }
+
+  private[this] def sql(columnNames: Seq[String]): String = config.writeMode match {
+    case WRITE_MODE_UPSERT => upsertSql(dialect, config.dbTableName, columnNames, keyColumnNames)
+    case _                 => insertSql(config.dbTableName, columnNames)
+  }
+
+  /**
+    * send the pending rows to database. The rows are not committed.
+    */
+  private[this] def flush(): Unit = if (pendingColumnNames != null) {
+    if (copy) {
+      client.connection
+        .unwrap(classOf[PGConnection])
+        .getCopyAPI
+        .copyIn(copySql(config.dbTableName, pendingColumnNames), new StringReader(copyBuffer.toString))
+      copyBuffer.setLength(0)
+    } else statements(pendingColumnNames).executeBatch()
+    pendingColumnNames = null
+    pendingCount = 0
+  }
+
+  /**
+    * discard the pending rows and the uncommitted rows.
+    */
+  private[this] def discard(): Unit = {
+    copyBuffer.setLength(0)
+    pendingColumnNames = null
+    pendingCount = 0
+    try {
+      statements.values.foreach(_.clearBatch())
+      client.connection.rollback()
+    } catch {
+      case e: Throwable => LOG.error("failed to rollback", e)
+    }
+  }
+}
+
+object JDBCSinkTask {
+  val LOG: Logger = Logger(classOf[JDBCSinkTask])
+  private[sink] val MYSQL: String = "mysql"
+  private[sink] val POSTGRESQL: String = "postgresql"
+
+  private[this] def quote(name: String): String = "\"" + name + "\""
+
+  private[sink] def insertSql(tableName: String, columnNames: Seq[String]): String =
+    s"INSERT INTO ${quote(tableName)} (${columnNames.map(quote).mkString(", ")}) VALUES (" +
+      columnNames.map(_ => "?").mkString(", ") + ")"
+
+  /**
+    * generate the INSERT which updates the row having the same keys. The syntax depends on database.
+    */
+  private[sink] def upsertSql(dialect: String,
+                              tableName: String,
+                              columnNames: Seq[String],
+                              keyColumnNames: Seq[String]): String = {
+    // the keys are updated if there is no other column since the update clause can't be empty
+    val updatedColumnNames =
+      Some(columnNames.filterNot(keyColumnNames.contains)).filter(_.nonEmpty).getOrElse(keyColumnNames)
+    dialect match {
+      case MYSQL =>
+        insertSql(tableName, columnNames) + " ON DUPLICATE KEY UPDATE " +
+          updatedColumnNames.map(name => s"${quote(name)} = VALUES(${quote(name)})").mkString(", ")
+      case POSTGRESQL =>
+        insertSql(tableName, columnNames) + s" ON CONFLICT (${keyColumnNames.map(quote).mkString(", ")})" +
+          " DO UPDATE SET " + updatedColumnNames.map(name => s"${quote(name)} = EXCLUDED.${quote(name)}").mkString(", ")
+      case _ => throw new IllegalArgumentException(s"$WRITE_MODE_UPSERT is unsupported by $dialect")
+    }
+  }
+
+  private[sink] def copySql(tableName: String, columnNames: Seq[String]): String =
+    s"COPY ${quote(tableName)} (${columnNames.map(quote).mkString(", ")}) FROM STDIN WITH CSV"
+
+  /**
+    * append the value as a csv field. The null is an unquoted empty field, and the other values are quoted. The bytes
+    * are written in the hex format of bytea.
+    */
+  private[sink] def appendCsv(builder: StringBuilder, value: Any): Unit = value match {
+    case null => ()
+    case bytes: Array[Byte] =>
+      builder.append("\"\\x")
+      bytes.foreach { b =>
+        builder.append(Character.forDigit((b >> 4) & 0xF, 16))
+        builder.append(Character.forDigit(b & 0xF, 16))
+      }
+      builder.append('"')
+    case _ =>
+      builder.append('"')
+      value.toString.foreach { c =>
+        if (c == '"') builder.append('"')
+        builder.append(c)
+      }
+      builder.append('"')
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc
+
+package object sink {
+  val DB_URL: String = "sink.db.url"
+  val DB_USERNAME: String = "sink.db.username"
+  val DB_PASSWORD: String = "sink.db.password"
+  val DB_TABLENAME: String = "sink.table.name"
+  val WRITE_MODE: String = "sink.write.mode"
+  val WRITE_MODE_INSERT: String = "insert"
+  // the rows having the same primary keys are updated
+  val WRITE_MODE_UPSERT: String = "upsert"
+  val WRITE_MODE_DEFAULT: String = WRITE_MODE_INSERT
+  val BATCH_SIZE: String = "sink.batch.size"
+  val BATCH_SIZE_DEFAULT: Int = 1000
+  // use COPY to load rows if the database is postgresql
+  val POSTGRESQL_COPY: String = "sink.postgresql.copy"
+  val POSTGRESQL_COPY_DEFAULT: Boolean = false
+}
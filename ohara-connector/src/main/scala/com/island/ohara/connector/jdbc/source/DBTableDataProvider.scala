@@ -24,60 +24,203 @@ import com.island.ohara.client.database.DatabaseClient
 import com.island.ohara.common.util.{Releasable, ReleaseOnce}
 import com.island.ohara.connector.jdbc.util.DateTimeUtils
 
+import scala.collection.mutable
+
 /**
   * Connection to database and query data
   *
+  * The statements and the table metadata are cached so the poll doesn't touch the metadata of database.
   */
 class DBTableDataProvider(url: String, userName: String, password: String) extends ReleaseOnce {
   private[this] val client: DatabaseClient = DatabaseClient.builder.url(url).user(userName).password(password).build
+  private[this] val columnsCache = new mutable.HashMap[String, Seq[RdbColumn]]
+  private[this] val statements = new mutable.HashMap[String, PreparedStatement]
+  private[this] lazy val dbProduct: String = client.connection.getMetaData.getDatabaseProductName
 
-  def executeQuery(tableName: String, timeStampColumnName: String, tsOffset: Timestamp): QueryResultIterator = {
-    val columnNames = columns(tableName)
+  /**
+    * Query the rows after the offset (timestamp, keys). The rows are ordered by timestamp and keys so the rows having
+    * the same timestamp are paged by keys. If there is no key offset, all rows after the timestamp are returned.
+    * Noted: the returned iterator reuses the cached statement so it must be closed before next query.
+    * @param tableName table name
+    * @param timeStampColumnName timestamp column
+    * @param keyColumnNames key columns used to page the rows having the same timestamp
+    * @param tsOffset timestamp offset
+    * @param keyOffsets the key values of last row. Empty if there is no key offset
+    * @param fetchSize the number of rows fetched in one round trip
+    * @param maxRows the max number of rows. zero means no limit
+    * @param partition the partition column and the range of it. None means the whole table
+    * @return query result
+    */
+  def executeQuery(tableName: String,
+                   timeStampColumnName: String,
+                   keyColumnNames: Seq[String],
+                   tsOffset: Timestamp,
+                   keyOffsets: Seq[Any],
+                   fetchSize: Int,
+                   maxRows: Int,
+                   partition: Option[(String, PartitionRange)] = None): QueryResultIterator = {
+    if (keyOffsets.nonEmpty && keyOffsets.size != keyColumnNames.size)
+      throw new IllegalArgumentException(s"the key offsets:$keyOffsets don't match the keys:$keyColumnNames")
     val sql =
-      s"""SELECT * FROM \"$tableName\" WHERE \"$timeStampColumnName\" > ? and \"$timeStampColumnName\" < ? ORDER BY \"$timeStampColumnName\""""
+      DBTableDataProvider.querySql(tableName, timeStampColumnName, keyColumnNames, keyOffsets.nonEmpty, partition)
+    val preparedStatement = statements.getOrElseUpdate(sql, client.connection.prepareStatement(sql))
+    preparedStatement.setFetchSize(fetchSize)
+    preparedStatement.setMaxRows(maxRows)
+    var index = 1
+    preparedStatement.setTimestamp(index, tsOffset, DateTimeUtils.CALENDAR)
+    index += 1
+    if (keyOffsets.nonEmpty) {
+      preparedStatement.setTimestamp(index, tsOffset, DateTimeUtils.CALENDAR)
+      index += 1
+      // (k0 > ? OR (k0 = ? AND (k1 > ? OR ...)))
+      keyOffsets.zipWithIndex.foreach {
+        case (value, i) =>
+          preparedStatement.setObject(index, value)
+          index += 1
+          if (i != keyOffsets.size - 1) {
+            preparedStatement.setObject(index, value)
+            index += 1
+          }
+      }
+    }
+    preparedStatement.setTimestamp(index, dbCurrentTime(DateTimeUtils.CALENDAR), DateTimeUtils.CALENDAR)
+    index += 1
+    partition.foreach {
+      case (columnName, range) =>
+        val isTimestamp = isTimestampColumn(tableName, columnName)
+        (range.lowerBound.toSeq ++ range.upperBound.toSeq).foreach { bound =>
+          if (isTimestamp) preparedStatement.setTimestamp(index, new Timestamp(bound), DateTimeUtils.CALENDAR)
+          else preparedStatement.setLong(index, bound)
+          index += 1
+        }
+    }
+    new QueryResultIterator(preparedStatement, columns(tableName), false)
+  }
 
-    val preparedStatement: PreparedStatement = client.connection.prepareStatement(sql)
+  /**
+    * sample the min and max value of partition column. The timestamp is converted to epoch millis.
+    * @param tableName table name
+    * @param columnName partition column. It must be timestamp or integer column
+    * @return (min, max) or None if the table is empty
+    */
+  def columnRange(tableName: String, columnName: String): Option[(Long, Long)] = {
+    val isTimestamp = isTimestampColumn(tableName, columnName)
+    val stmt = client.connection.createStatement()
+    try {
+      val rs = stmt.executeQuery(s"""SELECT MIN(\"$columnName\"), MAX(\"$columnName\") FROM \"$tableName\"""")
+      try if (!rs.next()) None
+      else if (isTimestamp) {
+        val min = rs.getTimestamp(1, DateTimeUtils.CALENDAR)
+        val max = rs.getTimestamp(2, DateTimeUtils.CALENDAR)
+        if (min == null || max == null) None else Some((min.getTime, max.getTime))
+      } else {
+        val min = rs.getLong(1)
+        if (rs.wasNull()) None else Some((min, rs.getLong(2)))
+      } finally rs.close()
+    } finally stmt.close()
+  }
 
-    val currentTimestamp: Timestamp = dbCurrentTime(DateTimeUtils.CALENDAR)
-    preparedStatement.setTimestamp(1, tsOffset, DateTimeUtils.CALENDAR)
-    preparedStatement.setTimestamp(2, currentTimestamp, DateTimeUtils.CALENDAR)
-    new QueryResultIterator(preparedStatement, columnNames)
+  /**
+    * @return true if the column is a timestamp column. false if it is an integer column
+    */
+  private[this] def isTimestampColumn(tableName: String, columnName: String): Boolean = {
+    import com.island.ohara.connector.jdbc.datatype.RDBDataTypeConverter._
+    val column = columns(tableName)
+      .find(_.name == columnName)
+      .getOrElse(throw new NoSuchElementException(s"$columnName is not in $tableName"))
+    column.dataType.toUpperCase match {
+      case RDB_TYPE_TIMESTAMP                                      => true
+      case RDB_TYPE_INTEGER | RDB_TYPE_INTEGER_2 | RDB_TYPE_BIGINT => false
+      case _ =>
+        throw new IllegalArgumentException(
+          s"the partition column must be timestamp or integer column. actual:${column.dataType}")
+    }
   }
 
-  def columns(tableName: String): Seq[RdbColumn] = {
+  /**
+    * check the partition column. It throws exception if the column is absent or its type is not supported.
+    */
+  def checkPartitionColumn(tableName: String, columnName: String): Unit = isTimestampColumn(tableName, columnName)
+
+  def columns(tableName: String): Seq[RdbColumn] = columnsCache.getOrElseUpdate(tableName, {
     val rdbTables: Seq[RdbTable] = client.tableQuery.tableName(tableName).execute()
     rdbTables.head.columns
+  })
+
+  /**
+    * the primary keys, excluding the timestamp column, used to page the rows having the same timestamp. The keys
+    * must be stored by kafka offsets so only the integer and string keys are supported. Otherwise, an empty seq is
+    * returned.
+    * @param tableName table name
+    * @param timeStampColumnName timestamp column
+    * @return key columns or empty if the keys are unsupported
+    */
+  def keyColumns(tableName: String, timeStampColumnName: String): Seq[RdbColumn] = {
+    val keys = columns(tableName).filter(_.pk).filter(_.name != timeStampColumnName)
+    if (keys.forall(c => DBTableDataProvider.KEY_TYPES.contains(c.dataType.toUpperCase))) keys else Seq.empty
   }
 
   def isTableExists(tableName: String): Boolean = client.tableQuery.tableName(tableName).execute().nonEmpty
 
   def dbCurrentTime(cal: Calendar): Timestamp = {
-    val dbProduct: String = client.connection.getMetaData.getDatabaseProductName
     import DBTableDataProvider._
     val query = dbProduct.toLowerCase match {
       case ORACLE_DB_NAME => "SELECT CURRENT_TIMESTAMP FROM dual"
       case _              => "SELECT CURRENT_TIMESTAMP;"
     }
-    val stmt = client.connection.createStatement()
-    try {
-      val rs = stmt.executeQuery(query)
-      try if (rs.next()) rs.getTimestamp(1, cal)
-      else
-        throw new RuntimeException(
-          s"Unable to get current time from DB using query $query on database $dbProduct"
-        )
-      finally rs.close()
-    } finally stmt.close()
+    val stmt = statements.getOrElseUpdate(query, client.connection.prepareStatement(query))
+    val rs = stmt.executeQuery()
+    try if (rs.next()) rs.getTimestamp(1, cal)
+    else
+      throw new RuntimeException(
+        s"Unable to get current time from DB using query $query on database $dbProduct"
+      )
+    finally rs.close()
   }
 
   /**
     * Do what you want to do when calling closing.
     */
   override def doClose(): Unit = {
+    statements.values.foreach(Releasable.close)
+    statements.clear()
     Releasable.close(client)
   }
 }
 
 object DBTableDataProvider {
   val ORACLE_DB_NAME = "oracle"
+
+  import com.island.ohara.connector.jdbc.datatype.RDBDataTypeConverter._
+  private[source] val KEY_TYPES: Set[String] =
+    Set(RDB_TYPE_INTEGER, RDB_TYPE_INTEGER_2, RDB_TYPE_BIGINT, RDB_TYPE_CHAR, RDB_TYPE_VARCHAR, RDB_TYPE_LONGVARCHAR)
+
+  /**
+    * generate the keyset query. The parameters are timestamp offset, [timestamp offset, key offsets...], current
+    * timestamp and [lower bound, upper bound].
+    */
+  private[source] def querySql(tableName: String,
+                               timeStampColumnName: String,
+                               keyColumnNames: Seq[String],
+                               hasKeyOffsets: Boolean,
+                               partition: Option[(String, PartitionRange)] = None): String = {
+    def quote(name: String): String = "\"" + name + "\""
+    val ts = quote(timeStampColumnName)
+    // (k0 > ? OR (k0 = ? AND (k1 > ? OR (k1 = ? AND k2 > ?))))
+    def keyCondition(keys: Seq[String]): String =
+      if (keys.size == 1) s"${quote(keys.head)} > ?"
+      else s"(${quote(keys.head)} > ? OR (${quote(keys.head)} = ? AND ${keyCondition(keys.tail)}))"
+    val offsetCondition =
+      if (hasKeyOffsets) s"($ts > ? OR ($ts = ? AND ${keyCondition(keyColumnNames)}))"
+      else s"$ts > ?"
+    val rangeCondition = partition
+      .map {
+        case (columnName, range) =>
+          range.lowerBound.map(_ => s" AND ${quote(columnName)} >= ?").getOrElse("") +
+            range.upperBound.map(_ => s" AND ${quote(columnName)} < ?").getOrElse("")
+      }
+      .getOrElse("")
+    val orderBy = (timeStampColumnName +: keyColumnNames).map(quote).mkString(", ")
+    s"SELECT * FROM ${quote(tableName)} WHERE $offsetCondition AND $ts < ?$rangeCondition ORDER BY $orderBy"
+  }
 }
@@ -53,6 +53,7 @@ class JDBCSourceConnector extends RowSourceConnector {
       if (!dbTableDataProvider.isTableExists(tableName))
         throw new NoSuchElementException(s"$tableName table is not found.")
 
+      jdbcSourceConnectorConfig.partitionColumnName.foreach(dbTableDataProvider.checkPartitionColumn(tableName, _))
     } finally dbTableDataProvider.close()
   }
 
@@ -71,8 +72,23 @@ class JDBCSourceConnector extends RowSourceConnector {
     * @return a seq from settings
     */
   override protected def _taskSettings(maxTasks: Int): java.util.List[TaskSetting] = {
-    //TODO
-    Seq(settings).asJava
+    val config = JDBCSourceConnectorConfig(settings)
+    config.partitionColumnName
+      .filter(_ => maxTasks > 1)
+      .flatMap { columnName =>
+        val dbTableDataProvider = new DBTableDataProvider(config.dbURL, config.dbUserName, config.dbPassword)
+        try dbTableDataProvider.columnRange(config.dbTableName, columnName)
+        finally dbTableDataProvider.close()
+      }
+      .map {
+        case (min, max) =>
+          val ranges = PartitionRange.split(min, max, maxTasks)
+          JDBCSourceConnector.LOG.info(s"split ${config.dbTableName} into ${ranges.size} ranges: $ranges")
+          val bounds = ranges.flatMap(_.upperBound)
+          ranges.indices.map(index => settings.append(PartitionRanges(bounds, index).toMap.asJava))
+      }
+      .getOrElse(Seq(settings))
+      .asJava
   }
 
   /**
@@ -152,6 +168,33 @@ class JDBCSourceConnector extends RowSourceConnector {
       .documentation("Use a timestamp column to detect new and modified rows")
       .valueType(SettingDefinition.Type.STRING)
       .key(TIMESTAMP_COLUMN_NAME)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("fetch size")
+      .documentation("the number of rows fetched from database in one round trip")
+      .valueType(SettingDefinition.Type.INT)
+      .key(FETCH_SIZE)
+      .optional(FETCH_SIZE_DEFAULT.toString)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("max rows per poll")
+      .documentation("the max number of rows converted to records in one poll")
+      .valueType(SettingDefinition.Type.INT)
+      .key(MAX_ROWS_PER_POLL)
+      .optional(MAX_ROWS_PER_POLL_DEFAULT.toString)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("partition column name")
+      .documentation(
+        "the timestamp or integer column used to split the table into ranges across tasks. Noted: the ranges are " +
+          "kept by the offsets so they are not changed after the table grows. Changing the number of tasks re-reads " +
+          "the table")
+      .valueType(SettingDefinition.Type.STRING)
+      .key(PARTITION_COLUMN_NAME)
+      .optional()
       .build()
   ).asJava
 
@@ -29,17 +29,89 @@ case class JDBCSourceConnectorConfig(dbURL: String,
                                      dbCatalogPattern: Option[String],
                                      dbSchemaPattern: Option[String],
                                      mode: String,
-                                     timestampColumnName: String) {
+                                     timestampColumnName: String,
+                                     fetchSize: Int,
+                                     maxRowsPerPoll: Int,
+                                     partitionColumnName: Option[String],
+                                     partitionRanges: Option[PartitionRanges]) {
   def toMap: Map[String, String] = Map(
     DB_URL -> dbURL,
     DB_USERNAME -> dbUserName,
     DB_PASSWORD -> dbPassword,
     DB_TABLENAME -> dbTableName,
     MODE -> mode,
-    TIMESTAMP_COLUMN_NAME -> timestampColumnName
+    TIMESTAMP_COLUMN_NAME -> timestampColumnName,
+    FETCH_SIZE -> fetchSize.toString,
+    MAX_ROWS_PER_POLL -> maxRowsPerPoll.toString
   ) ++ dbCatalogPattern.map(s => Map(DB_CATALOG_PATTERN -> s)).getOrElse(Map.empty) ++ dbSchemaPattern
     .map(s => Map(DB_SCHEMA_PATTERN -> s))
-    .getOrElse(Map.empty)
+    .getOrElse(Map.empty) ++ partitionColumnName.map(s => Map(PARTITION_COLUMN_NAME -> s)).getOrElse(Map.empty) ++
+    partitionRanges.map(_.toMap).getOrElse(Map.empty)
+
+  /**
+    * @return the range assigned to this task, or None if the table is not split
+    */
+  def partitionRange: Option[PartitionRange] = partitionRanges.map(_.range)
+}
+
+/**
+  * the range of partition column assigned to a task. The absent bound means the range is open on that side.
+  * @param lowerBound inclusive lower bound
+  * @param upperBound exclusive upper bound
+  */
+case class PartitionRange(lowerBound: Option[Long], upperBound: Option[Long])
+
+object PartitionRange {
+
+  /**
+    * split [min, max] to disjoint ranges. The first range has no lower bound and the last range has no upper bound so
+    * the rows out of [min, max] are still covered.
+    * @param min min value
+    * @param max max value
+    * @param count max number of ranges
+    * @return ranges. the size is smaller than count if there are not enough values
+    */
+  def split(min: Long, max: Long, count: Int): Seq[PartitionRange] = {
+    if (max < min) throw new IllegalArgumentException(s"max:$max is smaller than min:$min")
+    val width = BigInt(max) - BigInt(min) + 1
+    val bounds = (1 until CommonUtils.requirePositiveInt(count))
+      .map(i => (BigInt(min) + width * i / count).toLong)
+      // the bound equal to min generates an empty range
+      .filter(_ > min)
+      .distinct
+    val lowers = None +: bounds.map(Some(_))
+    val uppers = bounds.map(Some(_)) :+ None
+    lowers.zip(uppers).map { case (lower, upper) => PartitionRange(lower, upper) }
+  }
+}
+
+/**
+  * the ranges split from the partition column and the index of range assigned to a task. The ranges are
+  * [-inf, bounds(0)), [bounds(0), bounds(1)), ..., [bounds(n - 1), +inf).
+  * @param bounds the inner bounds in ascending order
+  * @param index the index of range assigned to task
+  */
+case class PartitionRanges(bounds: Seq[Long], index: Int) {
+  if (index < 0 || index > bounds.size)
+    throw new IllegalArgumentException(s"index:$index is out of ${bounds.size + 1} ranges")
+
+  /**
+    * @return the number of ranges
+    */
+  def size: Int = bounds.size + 1
+
+  def range: PartitionRange =
+    PartitionRange(if (index == 0) None else Some(bounds(index - 1)),
+                   if (index == bounds.size) None else Some(bounds(index)))
+
+  def toMap: Map[String, String] =
+    Map(PARTITION_BOUNDS -> PartitionRanges.toString(bounds), PARTITION_INDEX -> index.toString)
+}
+
+object PartitionRanges {
+  def toString(bounds: Seq[Long]): String = bounds.mkString(",")
+
+  def parse(bounds: String): Seq[Long] = bounds.split(",").filter(_.nonEmpty).map(_.toLong).toSeq
 }
 
 object JDBCSourceConnectorConfig {
@@ -52,7 +124,14 @@ object JDBCSourceConnectorConfig {
       dbCatalogPattern = Option(settings.stringOption(DB_CATALOG_PATTERN).orElse(null)).filterNot(CommonUtils.isEmpty),
       dbSchemaPattern = Option(settings.stringOption(DB_SCHEMA_PATTERN).orElse(null)).filterNot(CommonUtils.isEmpty),
       mode = settings.stringOption(MODE).orElse(MODE_DEFAULT),
-      timestampColumnName = settings.stringValue(TIMESTAMP_COLUMN_NAME)
+      timestampColumnName = settings.stringValue(TIMESTAMP_COLUMN_NAME),
+      fetchSize = CommonUtils.requirePositiveInt(settings.intOption(FETCH_SIZE).orElse(FETCH_SIZE_DEFAULT)),
+      maxRowsPerPoll =
+        CommonUtils.requirePositiveInt(settings.intOption(MAX_ROWS_PER_POLL).orElse(MAX_ROWS_PER_POLL_DEFAULT)),
+      partitionColumnName =
+        Option(settings.stringOption(PARTITION_COLUMN_NAME).orElse(null)).filterNot(CommonUtils.isEmpty),
+      partitionRanges = Option(settings.intOption(PARTITION_INDEX).orElse(null)).map(index =>
+        PartitionRanges(PartitionRanges.parse(settings.stringOption(PARTITION_BOUNDS).orElse("")), index))
     )
   }
 }
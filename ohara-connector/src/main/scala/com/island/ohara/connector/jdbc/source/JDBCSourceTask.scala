@@ -17,9 +17,8 @@
 package com.island.ohara.connector.jdbc.source
 import java.sql.Timestamp
 
-import com.island.ohara.common.data.{Cell, Column, DataType, Row}
+import com.island.ohara.common.data.Column
 import com.island.ohara.common.util.{Releasable, VersionUtils}
-import com.island.ohara.connector.jdbc.util.ColumnInfo
 import com.island.ohara.kafka.connector._
 import com.typesafe.scalalogging.Logger
 
@@ -35,6 +34,21 @@ class JDBCSourceTask extends RowSourceTask {
   private[this] var topics: Seq[String] = _
   private[this] var offsets: Offsets = _
 
+  /**
+    * the keys used to page the rows having the same timestamp. Empty if the table has no proper primary keys.
+    */
+  private[this] var keyColumnNames: Seq[String] = _
+
+  /**
+    * the source partition of this task. It carries the index of range if the table is split across tasks.
+    */
+  private[this] var sourcePartition: Map[String, _] = _
+
+  /**
+    * the ranges read by tasks. They are persisted in the offsets so the ranges are not changed after the table grows.
+    */
+  private[this] var partitionRanges: Option[PartitionRanges] = _
+
   /**
     * Start the Task. This should handle any configuration parsing and one-time setup from the task.
     *
@@ -52,7 +66,20 @@ class JDBCSourceTask extends RowSourceTask {
 
     schema = settings.columns.asScala
     topics = settings.topicNames().asScala
-    offsets = new Offsets(rowContext, tableName)
+    keyColumnNames =
+      dbTableDataProvider.keyColumns(tableName, jdbcSourceConnectorConfig.timestampColumnName).map(_.name)
+    sourcePartition = JDBCSourceTask.partition(tableName, jdbcSourceConnectorConfig.partitionRanges)
+    offsets = new Offsets(rowContext, tableName, sourcePartition, keyColumnNames)
+    partitionRanges = jdbcSourceConnectorConfig.partitionRanges.map { ranges =>
+      // the ranges computed by connector are changed by the new rows. Hence, the ranges persisted by any task are
+      // preferred so all tasks keep reading the same disjoint ranges.
+      val persisted = (ranges.index +: (0 until ranges.size).filterNot(_ == ranges.index)).toStream
+        .map(index => rowContext.offset(JDBCSourceTask.partition(tableName, Some(ranges.copy(index = index))).asJava))
+        .flatMap(offset => Option(offset.get(JDBCSourceTask.DB_TABLE_PARTITION_BOUNDS_KEY)))
+        .headOption
+        .map(bounds => PartitionRanges.parse(bounds.toString))
+      persisted.map(bounds => ranges.copy(bounds = bounds)).getOrElse(ranges)
+    }
   }
 
   /**
@@ -63,36 +90,57 @@ class JDBCSourceTask extends RowSourceTask {
   override protected[source] def _poll(): java.util.List[RowSourceRecord] = try {
     val tableName: String = jdbcSourceConnectorConfig.dbTableName
     val timestampColumnName: String = jdbcSourceConnectorConfig.timestampColumnName
+    val maxRows: Int = jdbcSourceConnectorConfig.maxRowsPerPoll
 
     val resultSet: QueryResultIterator =
-      dbTableDataProvider.executeQuery(tableName, timestampColumnName, new Timestamp(offsets.readInMemoryOffset()))
-
-    try resultSet
-    //Create Ohara Schema
-      .map(
-        columns =>
-          (if (schema.isEmpty)
-             columns.map(c => Column.builder().name(c.columnName).dataType(DataType.OBJECT).order(0).build())
-           else schema,
-           columns))
-      .flatMap {
-        case (newSchema, columns) =>
-          val offsetTimestampValue = dbTimestampColumnValue(columns, timestampColumnName)
-          offsets.updateInMemOffset(offsetTimestampValue)
-          topics.map(
-            RowSourceRecord
-              .builder()
-              .sourcePartition(JDBCSourceTask.partition(tableName).asJava)
-              //Writer Offset
-              .sourceOffset(JDBCSourceTask.offset(offsetTimestampValue).asJava)
-              //Create Ohara Row
-              .row(row(newSchema, columns))
-              .topicName(_)
-              .build())
+      dbTableDataProvider.executeQuery(
+        tableName,
+        timestampColumnName,
+        keyColumnNames,
+        new Timestamp(offsets.readInMemoryOffset()),
+        offsets.readInMemoryKeys(),
+        jdbcSourceConnectorConfig.fetchSize,
+        // the rows having the same timestamp can't be split without keys so the limit is applied by ourselves
+        if (keyColumnNames.isEmpty) 0 else maxRows,
+        for {
+          columnName <- jdbcSourceConnectorConfig.partitionColumnName
+          ranges <- partitionRanges
+        } yield (columnName, ranges.range)
+      )
+
+    try {
+      val reader = resultSet.rowReader(schema, timestampColumnName, keyColumnNames)
+      val records = new java.util.ArrayList[RowSourceRecord]()
+      val rangesOffset = partitionRanges.map(JDBCSourceTask.offset).getOrElse(Map.empty)
+      var count = 0
+      var lastTimestamp: Long = -1
+      var full = false
+      while (!full && reader.next()) {
+        val offsetTimestampValue = reader.timestamp()
+        if (count >= maxRows && (keyColumnNames.nonEmpty || offsetTimestampValue != lastTimestamp)) full = true
+        else {
+          val keys = reader.keys()
+          offsets.updateInMemOffset(offsetTimestampValue, keys)
+          val newRow = reader.row()
+          topics.foreach(
+            topic =>
+              records.add(
+                RowSourceRecord
+                  .builder()
+                  .sourcePartition(sourcePartition.asJava)
+                  //Writer Offset
+                  .sourceOffset(
+                    (JDBCSourceTask.offset(offsetTimestampValue, keyColumnNames, keys) ++ rangesOffset).asJava)
+                  //Create Ohara Row
+                  .row(newRow)
+                  .topicName(topic)
+                  .build()))
+          count += 1
+          lastTimestamp = offsetTimestampValue
+        }
       }
-      .toList
-      .asJava
-    finally resultSet.close()
+      records
+    } finally resultSet.close()
   } catch {
     case e: Throwable =>
       logger.error(e.getMessage, e)
@@ -113,65 +161,65 @@ class JDBCSourceTask extends RowSourceTask {
     */
   override protected def _version: String = VersionUtils.VERSION
 
-  private[source] def row(schema: Seq[Column], columns: Seq[ColumnInfo[_]]): Row = {
-    Row.of(
-      schema
-        .sortBy(_.order)
-        .map(s => (s, values(s.name, columns)))
-        .map {
-          case (schema, value) =>
-            Cell.of(
-              schema.newName,
-              schema.dataType match {
-                case DataType.BOOLEAN                 => value.asInstanceOf[Boolean]
-                case DataType.SHORT                   => value.asInstanceOf[Short]
-                case DataType.INT                     => value.asInstanceOf[Int]
-                case DataType.LONG                    => value.asInstanceOf[Long]
-                case DataType.FLOAT                   => value.asInstanceOf[Float]
-                case DataType.DOUBLE                  => value.asInstanceOf[Double]
-                case DataType.BYTE                    => value.asInstanceOf[Byte]
-                case DataType.STRING                  => value.asInstanceOf[String]
-                case DataType.BYTES | DataType.OBJECT => value
-                case _                                => throw new IllegalArgumentException("Unsupported type...")
-              }
-            )
-        }: _*)
-  }
-
-  private[this] def values(schemaColumnName: String, dbColumnInfos: Seq[ColumnInfo[_]]): Any = {
-    dbColumnInfos.foreach(dbColumn => {
-      if (dbColumn.columnName == schemaColumnName) {
-        return dbColumn.value
-      }
-    })
-    throw new RuntimeException(s"Database Table not have the $schemaColumnName column")
-  }
-
-  private[source] def dbTimestampColumnValue(dbColumnInfo: Seq[ColumnInfo[_]], timestampColumnName: String): Long =
-    dbColumnInfo
-      .find(_.columnName == timestampColumnName)
-      .map(_.value.asInstanceOf[Timestamp].getTime)
-      .getOrElse(
-        throw new RuntimeException(s"$timestampColumnName not in ${jdbcSourceConnectorConfig.dbTableName} table."))
-
-  private class Offsets(context: RowSourceContext, tableName: String) {
-    private[this] val offsets: Map[String, _] = context.offset(JDBCSourceTask.partition(tableName).asJava).asScala.toMap
+  private class Offsets(context: RowSourceContext,
+                        tableName: String,
+                        sourcePartition: Map[String, _],
+                        keyColumnNames: Seq[String]) {
+    private[this] val offsets: Map[String, _] = context.offset(sourcePartition.asJava).asScala.toMap
     private[this] var cache: Map[String, Long] =
       if (offsets.isEmpty) Map(tableName -> 0)
       else Map(tableName -> offsets(JDBCSourceTask.DB_TABLE_OFFSET_KEY).asInstanceOf[Long])
 
-    private[source] def updateInMemOffset(timestamp: Long): Unit = {
+    /**
+      * the key values of last row. The offsets written by older version, or by different keys, have no key values so
+      * the query is restarted from the timestamp.
+      */
+    private[this] var keys: Seq[Any] =
+      if (keyColumnNames.nonEmpty && keyColumnNames.forall(n => offsets.contains(JDBCSourceTask.keyOffsetKey(n))))
+        keyColumnNames.map(n => offsets(JDBCSourceTask.keyOffsetKey(n)))
+      else Seq.empty
+
+    private[source] def updateInMemOffset(timestamp: Long, keys: Seq[Any]): Unit = {
       this.cache = Map(tableName -> timestamp)
+      this.keys = keys
     }
 
     private[source] def readInMemoryOffset(): Long = this.cache(tableName)
+
+    private[source] def readInMemoryKeys(): Seq[Any] = this.keys
   }
 }
 
 object JDBCSourceTask {
   private[source] val DB_TABLE_NAME_KEY = "db.table.name"
   private[source] val DB_TABLE_OFFSET_KEY = "db.table.offset"
+  private[source] val DB_TABLE_KEY_OFFSET_PREFIX = "db.table.key."
+  private[source] val DB_TABLE_PARTITION_INDEX_KEY = "db.table.partition.index"
+  private[source] val DB_TABLE_PARTITION_COUNT_KEY = "db.table.partition.count"
+  private[source] val DB_TABLE_PARTITION_BOUNDS_KEY = "db.table.partition.bounds"
 
   def partition(tableName: String): Map[String, _] = Map(DB_TABLE_NAME_KEY -> tableName)
+
+  /**
+    * the partition of a range has its own offsets. The partition having no range is same to the partition of table.
+    * Noted: the partition is identified by the index rather than the bounds since the bounds computed by connector are
+    * changed by the new rows.
+    */
+  def partition(tableName: String, ranges: Option[PartitionRanges]): Map[String, _] =
+    partition(tableName) ++ ranges
+      .map(r => Map(DB_TABLE_PARTITION_INDEX_KEY -> r.index, DB_TABLE_PARTITION_COUNT_KEY -> r.size))
+      .getOrElse(Map.empty)
+
   def offset(timestamp: Long): Map[String, _] = Map(DB_TABLE_OFFSET_KEY -> timestamp)
+
+  def offset(timestamp: Long, keyColumnNames: Seq[String], keys: Seq[Any]): Map[String, _] =
+    offset(timestamp) ++ keyColumnNames.zip(keys).map { case (name, value) => keyOffsetKey(name) -> value }
+
+  /**
+    * the ranges are carried by the offset so the restarted tasks can keep reading the same ranges.
+    */
+  def offset(ranges: PartitionRanges): Map[String, _] =
+    Map(DB_TABLE_PARTITION_BOUNDS_KEY -> PartitionRanges.toString(ranges.bounds))
+
+  private[source] def keyOffsetKey(keyColumnName: String): String = s"$DB_TABLE_KEY_OFFSET_PREFIX$keyColumnName"
 }
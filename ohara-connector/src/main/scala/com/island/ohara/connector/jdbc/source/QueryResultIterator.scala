@@ -19,22 +19,43 @@ package com.island.ohara.connector.jdbc.source
 import java.sql.{PreparedStatement, ResultSet}
 
 import com.island.ohara.client.configurator.v0.QueryApi.RdbColumn
+import com.island.ohara.common.data.Column
 import com.island.ohara.common.util.{Releasable, ReleaseOnce}
+import com.island.ohara.connector.jdbc.datatype.RDBDataTypeConverterFactory
 import com.island.ohara.connector.jdbc.util.ColumnInfo
 
-class QueryResultIterator(preparedStatement: PreparedStatement, columns: Seq[RdbColumn])
+/**
+  * Iterate the rows of query.
+  * @param preparedStatement statement to execute
+  * @param columns columns to read
+  * @param closeStatement true if the statement is closed with this iterator. The cached statement should not be closed.
+  */
+class QueryResultIterator(preparedStatement: PreparedStatement, columns: Seq[RdbColumn], closeStatement: Boolean)
     extends ReleaseOnce
     with Iterator[Seq[ColumnInfo[_]]] {
+  def this(preparedStatement: PreparedStatement, columns: Seq[RdbColumn]) = this(preparedStatement, columns, true)
+
   private[this] val resultSet: ResultSet = preparedStatement.executeQuery()
   private[this] var cache: Seq[ColumnInfo[_]] = _
 
+  /**
+    * the getters are resolved once rather than for each row.
+    */
+  private[this] lazy val readers = {
+    val converter = RDBDataTypeConverterFactory.dataTypeConverter()
+    columns.map(column => (column, resultSet.findColumn(column.name), converter.valueReader(column)))
+  }
+
   /**
     * this method bring side effect the first time since we have to "touch" remote db to retrieve the "data information"
     * to check the existence from data...
     * @return true if there are some data. otherwise false
     */
   override def hasNext: Boolean = {
-    if (cache == null && resultSet.next()) cache = ResultSetDataConverter.converterRecord(resultSet, columns)
+    if (cache == null && resultSet.next())
+      cache = readers.map {
+        case (column, index, reader) => ColumnInfo(column.name, column.dataType, reader(resultSet, index))
+      }
     cache != null
   }
 
@@ -45,11 +66,24 @@ class QueryResultIterator(preparedStatement: PreparedStatement, columns: Seq[Rdb
       finally cache = null
   }
 
+  /**
+    * create a reader converting the rows to ohara rows directly. The reader and this iterator share the same cursor so
+    * they should not be used together.
+    * @param schema the schema of row
+    * @param timestampColumnName timestamp column
+    * @param keyColumnNames key columns
+    * @return row reader
+    */
+  def rowReader(schema: Seq[Column], timestampColumnName: String, keyColumnNames: Seq[String]): RowReader = {
+    if (cache != null) throw new IllegalStateException("the iterator has been used")
+    new RowReader(resultSet, columns, schema, timestampColumnName, keyColumnNames)
+  }
+
   /**
     * Do what you want to do when calling closing.
     */
   override protected def doClose(): Unit = {
     Releasable.close(resultSet)
-    Releasable.close(preparedStatement)
+    if (closeStatement) Releasable.close(preparedStatement)
   }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc.source
+
+import java.sql.{ResultSet, Timestamp}
+
+import com.island.ohara.client.configurator.v0.QueryApi.RdbColumn
+import com.island.ohara.common.data.{Cell, Column, DataType, Row}
+import com.island.ohara.connector.jdbc.datatype.{RDBDataTypeConverter, RDBDataTypeConverterFactory}
+
+/**
+  * Read the rows of query result. The column indexes, the getters and the cell types are resolved once when this
+  * reader is created so reading a row is just the array indexing and the ResultSet.getXxx calls.
+  * @param resultSet result set
+  * @param columns the columns of table
+  * @param schema the schema of row. If it is empty, all columns are read as OBJECT type
+  * @param timestampColumnName timestamp column
+  * @param keyColumnNames key columns
+  */
+class RowReader(resultSet: ResultSet,
+                columns: Seq[RdbColumn],
+                schema: Seq[Column],
+                timestampColumnName: String,
+                keyColumnNames: Seq[String]) {
+  private[this] val converter: RDBDataTypeConverter = RDBDataTypeConverterFactory.dataTypeConverter()
+
+  private[this] def column(name: String): RdbColumn =
+    columns.find(_.name == name).getOrElse(throw new RuntimeException(s"Database Table not have the $name column"))
+
+  private[this] def valueReader(name: String): ResultSet => Object = {
+    val rdbColumn = column(name)
+    val index = resultSet.findColumn(rdbColumn.name)
+    val getter = converter.valueReader(rdbColumn)
+    (rs: ResultSet) =>
+      getter(rs, index)
+  }
+
+  private[this] val timestampReader: ResultSet => Object = valueReader(timestampColumnName)
+
+  private[this] val keyReaders: Array[ResultSet => Object] = keyColumnNames.map(valueReader).toArray
+
+  private[this] val cellReaders: Array[ResultSet => Cell[_]] = {
+    val newSchema =
+      if (schema.isEmpty) columns.map(c => Column.builder().name(c.name).dataType(DataType.OBJECT).order(0).build())
+      else schema
+    newSchema.sortBy(_.order).map(cellReader).toArray
+  }
+
+  /**
+    * the primitive values are passed to the primitive variants of Cell.of if the type of column matches the type of
+    * schema. Otherwise, the value is converted by the converter.
+    */
+  private[this] def cellReader(schema: Column): ResultSet => Cell[_] = {
+    import RDBDataTypeConverter._
+    val name = schema.newName
+    val rdbColumn = column(schema.name)
+    val index = resultSet.findColumn(rdbColumn.name)
+    val value = valueReader(schema.name)
+    (schema.dataType, rdbColumn.dataType.toUpperCase) match {
+      case (DataType.BOOLEAN, RDB_TYPE_BOOLEAN) =>
+        rs =>
+          Cell.of(name, rs.getBoolean(index))
+      case (DataType.INT, RDB_TYPE_INTEGER | RDB_TYPE_INTEGER_2) =>
+        rs =>
+          Cell.of(name, rs.getInt(index))
+      case (DataType.LONG, RDB_TYPE_BIGINT) =>
+        rs =>
+          Cell.of(name, rs.getLong(index))
+      case (DataType.FLOAT, RDB_TYPE_FLOAT) =>
+        rs =>
+          Cell.of(name, rs.getFloat(index))
+      case (DataType.DOUBLE, RDB_TYPE_DOUBLE) =>
+        rs =>
+          Cell.of(name, rs.getDouble(index))
+      case (DataType.BYTE, RDB_TYPE_BIT) =>
+        rs =>
+          Cell.of(name, rs.getByte(index))
+      case (DataType.BOOLEAN, _) =>
+        rs =>
+          Cell.of(name, value(rs).asInstanceOf[Boolean])
+      case (DataType.SHORT, _) =>
+        rs =>
+          Cell.of(name, value(rs).asInstanceOf[Short])
+      case (DataType.INT, _) =>
+        rs =>
+          Cell.of(name, value(rs).asInstanceOf[Int])
+      case (DataType.LONG, _) =>
+        rs =>
+          Cell.of(name, value(rs).asInstanceOf[Long])
+      case (DataType.FLOAT, _) =>
+        rs =>
+          Cell.of(name, value(rs).asInstanceOf[Float])
+      case (DataType.DOUBLE, _) =>
+        rs =>
+          Cell.of(name, value(rs).asInstanceOf[Double])
+      case (DataType.BYTE, _) =>
+        rs =>
+          Cell.of(name, value(rs).asInstanceOf[Byte])
+      case (DataType.STRING, _) =>
+        rs =>
+          Cell.of(name, value(rs).asInstanceOf[String])
+      case (DataType.BYTES | DataType.OBJECT, _) =>
+        rs =>
+          Cell.of(name, value(rs))
+      case _ =>
+        throw new IllegalArgumentException("Unsupported type...")
+    }
+  }
+
+  /**
+    * move to next row.
+    * @return true if there is a row. otherwise false
+    */
+  def next(): Boolean = resultSet.next()
+
+  /**
+    * @return the value of timestamp column of current row
+    */
+  def timestamp(): Long = timestampReader(resultSet).asInstanceOf[Timestamp].getTime
+
+  /**
+    * @return the values of key columns of current row
+    */
+  def keys(): Seq[Any] = keyReaders.map(_(resultSet)).toSeq
+
+  /**
+    * @return current row
+    */
+  def row(): Row = {
+    val cells = new Array[Cell[_]](cellReaders.length)
+    var index = 0
+    while (index < cells.length) {
+      cells(index) = cellReaders(index)(resultSet)
+      index += 1
+    }
+    Row.of(cells: _*)
+  }
+}
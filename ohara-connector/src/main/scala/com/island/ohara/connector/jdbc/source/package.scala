@@ -26,4 +26,12 @@ package object source {
   val MODE: String = "mode"
   val MODE_DEFAULT = "timestamp"
   val TIMESTAMP_COLUMN_NAME: String = "source.timestamp.column.name"
+  val FETCH_SIZE: String = "source.fetch.size"
+  val FETCH_SIZE_DEFAULT: Int = 1000
+  val MAX_ROWS_PER_POLL: String = "source.poll.max.rows"
+  val MAX_ROWS_PER_POLL_DEFAULT: Int = 10000
+  val PARTITION_COLUMN_NAME: String = "source.partition.column.name"
+  // the ranges and the index of range assigned to task. They are generated by connector
+  val PARTITION_BOUNDS: String = "source.partition.bounds"
+  val PARTITION_INDEX: String = "source.partition.index"
 }
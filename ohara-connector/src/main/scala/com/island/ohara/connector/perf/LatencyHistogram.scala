@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+
+/**
+  * A log-linear histogram of latencies. The values smaller than 2 ^ SUB_BUCKET_BITS are counted exactly, and the
+  * larger values are counted in buckets whose width doubles for each power of two, so the relative error of reported
+  * value is less than 2 ^ (1 - SUB_BUCKET_BITS) (about 1.6%). Recording a value is a couple of bit operations and no
+  * allocation. This class is not thread-safe.
+  */
+private[perf] class LatencyHistogram {
+  private[this] val counts = new Array[Long](LatencyHistogram.BUCKET_COUNT)
+  private[this] var total: Long = 0
+  private[this] var max: Long = 0
+
+  /**
+    * @param value latency. The negative value, which is caused by clock skew, is counted as zero
+    */
+  def record(value: Long): Unit = {
+    val v = math.max(0, value)
+    counts(LatencyHistogram.index(v)) += 1
+    total += 1
+    max = math.max(max, v)
+  }
+
+  /**
+    * @return the number of recorded values
+    */
+  def count: Long = total
+
+  /**
+    * @param percentile the percentile. It must be in (0, 100]
+    * @return the highest value equivalent to the value at the percentile. Zero is returned if nothing is recorded
+    */
+  def valueAt(percentile: Double): Long = {
+    if (percentile <= 0 || percentile > 100)
+      throw new IllegalArgumentException(s"percentile:$percentile should be in (0, 100]")
+    if (total == 0) 0
+    else {
+      val target = math.max(1, math.ceil(percentile / 100 * total).toLong)
+      var sum = 0L
+      var index = 0
+      while (sum + counts(index) < target) {
+        sum += counts(index)
+        index += 1
+      }
+      // the max is more accurate than the upper bound of the last bucket
+      math.min(LatencyHistogram.highestEquivalentValue(index), max)
+    }
+  }
+
+  def reset(): Unit = {
+    java.util.Arrays.fill(counts, 0)
+    total = 0
+    max = 0
+  }
+}
+
+private[perf] object LatencyHistogram {
+  private val SUB_BUCKET_BITS: Int = 7
+  private val SUB_BUCKET_COUNT: Int = 1 << SUB_BUCKET_BITS
+  private val HALF_SUB_BUCKET_COUNT: Int = SUB_BUCKET_COUNT / 2
+  private val BUCKET_COUNT: Int = (64 - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT + SUB_BUCKET_COUNT
+
+  /**
+    * the bits beyond the sub-bucket are shifted out, and each shift adds half sub-buckets since the lower half are
+    * covered by the previous shift.
+    */
+  private[perf] def index(value: Long): Int = {
+    val shift = math.max(0, 64 - java.lang.Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS)
+    shift * HALF_SUB_BUCKET_COUNT + (value >>> shift).toInt
+  }
+
+  private[perf] def highestEquivalentValue(index: Int): Long =
+    if (index < SUB_BUCKET_COUNT) index
+    else {
+      val shift = index / HALF_SUB_BUCKET_COUNT - 1
+      val subBucket = index - shift * HALF_SUB_BUCKET_COUNT
+      ((subBucket.toLong + 1) << shift) - 1
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+
+import com.island.ohara.common.data.{Column, DataType, Row, RowSchema}
+import com.island.ohara.common.util.ByteUtils
+
+import scala.collection.JavaConverters._
+import scala.util.Random
+
+/**
+  * Generate the rows used by perf source. The value of each column is derived from a key, and the keys are drawn
+  * from [0, cardinality) by the distribution of column so the rows have realistic cardinality and skew.
+  */
+private[perf] object PerfRowGenerator {
+
+  /**
+    * generate the rows. The rows are built by the columnar builder so the primitive values are not boxed.
+    * @param schema schema
+    * @param props perf props
+    * @param random random
+    * @return rows
+    */
+  def generate(schema: Seq[Column], props: PerfSourceProps, random: Random): Array[Row] = {
+    val sortedSchema = schema.sortBy(_.order)
+    val builder = RowSchema
+      .of(
+        sortedSchema.map(_.name).asJava,
+        // the unsupported types are filled by the key (a long) so they are stored as object
+        sortedSchema
+          .map(_.dataType)
+          .map {
+            case DataType.ROW => DataType.OBJECT
+            case t            => t
+          }
+          .asJava
+      )
+      .rowBuilder()
+    val keys = sortedSchema.map(c => keyGenerator(props.distribution(c.name), props.cardinality, random)).toArray
+    (0 until props.ringSize).map { _ =>
+      sortedSchema.zipWithIndex.foreach {
+        case (c, index) =>
+          val key = keys(index)()
+          c.dataType match {
+            case DataType.BOOLEAN => builder.setBoolean(index, key % 2 == 1)
+            case DataType.BYTE    => builder.setByte(index, key.toByte)
+            case DataType.BYTES   => builder.set(index, bytes(key, props.payloadSize))
+            case DataType.SHORT   => builder.setShort(index, key.toShort)
+            case DataType.INT     => builder.setInt(index, key.toInt)
+            case DataType.LONG    => builder.setLong(index, key)
+            case DataType.FLOAT   => builder.setFloat(index, key.toFloat)
+            case DataType.DOUBLE  => builder.setDouble(index, key.toDouble)
+            case DataType.STRING  => builder.set(index, string(key, props.payloadSize))
+            case _                => builder.set(index, key)
+          }
+      }
+      builder.build(): Row
+    }.toArray
+  }
+
+  /**
+    * @return the key padded to payload size by zero
+    */
+  private[perf] def string(key: Long, payloadSize: Int): String = {
+    val s = key.toString
+    if (s.length >= payloadSize) s else "0" * (payloadSize - s.length) + s
+  }
+
+  /**
+    * @return the payload ended with the bytes of key
+    */
+  private[perf] def bytes(key: Long, payloadSize: Int): Array[Byte] = {
+    val keyBytes = ByteUtils.toBytes(key)
+    val payload = new Array[Byte](payloadSize)
+    val length = math.min(keyBytes.length, payloadSize)
+    System.arraycopy(keyBytes, keyBytes.length - length, payload, payloadSize - length, length)
+    payload
+  }
+
+  /**
+    * @param distribution distribution
+    * @param cardinality the number of distinct keys
+    * @param random random
+    * @return a generator of keys in [0, cardinality)
+    */
+  private[perf] def keyGenerator(distribution: String, cardinality: Int, random: Random): () => Long =
+    distribution match {
+      case DISTRIBUTION_SEQUENTIAL =>
+        var current = -1L
+        def next(): Long = {
+          current = (current + 1) % cardinality
+          current
+        }
+        next _
+      case DISTRIBUTION_RANDOM =>
+        () =>
+          random.nextInt(cardinality).toLong
+      case DISTRIBUTION_ZIPF =>
+        // the key k is drawn by the probability proportional to 1 / (k + 1)
+        val cdf = new Array[Double](cardinality)
+        var sum = 0D
+        (0 until cardinality).foreach { k =>
+          sum += 1D / (k + 1)
+          cdf(k) = sum
+        }
+        def next(): Long = {
+          val index = java.util.Arrays.binarySearch(cdf, random.nextDouble() * sum)
+          // the insertion point is the first element bigger than the value
+          (if (index >= 0) index else -index - 1).toLong
+        }
+        next _
+      case _ => throw new IllegalArgumentException(s"unsupported distribution:$distribution")
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+import com.island.ohara.common.annotations.VisibleForTesting
+import com.island.ohara.kafka.connector.json.SettingDefinition
+import com.island.ohara.kafka.connector.{ConnectorVersion, RowSinkConnector, RowSinkTask, TaskSetting}
+
+import scala.collection.JavaConverters._
+
+/**
+  * The counterpart of PerfSource. It drops the rows and measures the end-to-end latency and throughput.
+  */
+class PerfSink extends RowSinkConnector {
+  @VisibleForTesting
+  private[perf] var settings: TaskSetting = _
+
+  override protected def _taskClass(): Class[_ <: RowSinkTask] = classOf[PerfSinkTask]
+
+  override protected def _taskSettings(maxTasks: Int): java.util.List[TaskSetting] = Seq.fill(maxTasks)(settings).asJava
+
+  override protected def _start(settings: TaskSetting): Unit = {
+    if (settings.topicNames().isEmpty) throw new IllegalArgumentException("topics can't be empty")
+    val interval = PerfSinkTask.reportInterval(settings)
+    if (interval.toMillis <= 0) throw new IllegalArgumentException(s"report interval:$interval should be positive")
+    this.settings = settings
+  }
+
+  override protected def _stop(): Unit = {}
+
+  override protected def _definitions(): java.util.List[SettingDefinition] = Seq(
+    SettingDefinition
+      .builder()
+      .displayName("Report interval")
+      .documentation("The interval of updating the latency and throughput metrics")
+      .valueType(SettingDefinition.Type.DURATION)
+      .key(PERF_REPORT_INTERVAL)
+      .optional(toJavaDuration(DEFAULT_REPORT_INTERVAL).toString)
+      .build()
+  ).asJava
+
+  override protected def _version: ConnectorVersion = ConnectorVersion.DEFAULT
+}
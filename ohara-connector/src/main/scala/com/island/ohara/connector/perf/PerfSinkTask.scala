@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+
+import com.island.ohara.common.annotations.VisibleForTesting
+import com.island.ohara.common.data.{Row, Serializer}
+import com.island.ohara.common.util.{CommonUtils, Releasable}
+import com.island.ohara.kafka.connector.{RowSinkRecord, RowSinkTask, TaskSetting}
+import com.island.ohara.metrics.basic.Counter
+
+import scala.collection.JavaConverters._
+import scala.concurrent.duration.Duration
+
+/**
+  * Measure the end-to-end latency of the rows. PerfSourceTask leaves the timestamp of records empty so kafka stamps
+  * them by the create time when they are sent, and the latency is the elapsed time from the create time to the
+  * arrival at this task. The rows are not decoded. The latency percentiles are accumulated since the task is
+  * started, and the throughput is computed in each report interval. All of them are exposed by counters so they are
+  * shown with the connector metrics.
+  */
+class PerfSinkTask extends RowSinkTask {
+  private[this] val histogram = new LatencyHistogram
+  private[this] var reportInterval: Long = _
+  private[this] var lastReport: Long = _
+  private[this] var rows: Long = 0
+  private[this] var bytes: Long = 0
+
+  @VisibleForTesting
+  private[perf] var p50: Counter = _
+  @VisibleForTesting
+  private[perf] var p99: Counter = _
+  @VisibleForTesting
+  private[perf] var p999: Counter = _
+  @VisibleForTesting
+  private[perf] var rowThroughput: Counter = _
+  @VisibleForTesting
+  private[perf] var byteThroughput: Counter = _
+
+  override protected def _start(settings: TaskSetting): Unit = {
+    reportInterval = PerfSinkTask.reportInterval(settings).toMillis
+    lastReport = CommonUtils.current()
+    p50 = counter("latency.p50", "milliseconds", "the median of end-to-end latency")
+    p99 = counter("latency.p99", "milliseconds", "the 99th percentile of end-to-end latency")
+    p999 = counter("latency.p999", "milliseconds", "the 99.9th percentile of end-to-end latency")
+    rowThroughput = counter("row.throughput", "rows/second", "the number of received rows per second")
+    byteThroughput = counter("byte.throughput", "bytes/second", "the size (in bytes) of received rows per second")
+  }
+
+  private[this] def counter(name: String, unit: String, document: String): Counter =
+    counterBuilder().name(name).unit(unit).document(document).build()
+
+  override protected def _stop(): Unit = Seq(p50, p99, p999, rowThroughput, byteThroughput).foreach(Releasable.close)
+
+  /**
+    * the cells are never read so the rows are lazy views, and the size of lazy row is known without serialization.
+    */
+  override protected def _rowSerializer(): Serializer[Row] = Serializer.LAZY_ROW
+
+  override protected def _put(records: java.util.List[RowSinkRecord]): Unit = {
+    val now = CommonUtils.current()
+    records.asScala.foreach { record =>
+      // the record without timestamp is counted by throughput only
+      if (record.timestamp() > 0) histogram.record(now - record.timestamp())
+      bytes += Serializer.ROW.sizeOf(record.row())
+    }
+    rows += records.size()
+    // kafka calls put even if there is no data so the throughput drops to zero when the source is idle
+    if (now - lastReport >= reportInterval) report(now)
+  }
+
+  private[this] def report(now: Long): Unit = {
+    val elapsed = now - lastReport
+    p50.setAndGet(histogram.valueAt(50))
+    p99.setAndGet(histogram.valueAt(99))
+    p999.setAndGet(histogram.valueAt(99.9))
+    rowThroughput.setAndGet(rows * 1000 / elapsed)
+    byteThroughput.setAndGet(bytes * 1000 / elapsed)
+    rows = 0
+    bytes = 0
+    lastReport = now
+  }
+}
+
+object PerfSinkTask {
+  def reportInterval(settings: TaskSetting): Duration =
+    Option(settings.durationOption(PERF_REPORT_INTERVAL).orElse(null))
+      .map(toScalaDuration)
+      .getOrElse(DEFAULT_REPORT_INTERVAL)
+}
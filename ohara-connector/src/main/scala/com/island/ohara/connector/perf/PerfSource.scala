@@ -16,6 +16,7 @@
 
 package com.island.ohara.connector.perf
 import com.island.ohara.common.annotations.VisibleForTesting
+import com.island.ohara.common.util.CommonUtils
 import com.island.ohara.kafka.connector.json.SettingDefinition
 import com.island.ohara.kafka.connector.{ConnectorVersion, RowSourceConnector, RowSourceTask, TaskSetting}
 
@@ -36,6 +37,14 @@ class PerfSource extends RowSourceConnector {
     if (settings.topicNames().isEmpty) throw new IllegalArgumentException("topics can't be empty")
     val props = PerfSourceProps(settings)
     if (props.batch < 0) throw new IllegalArgumentException(s"batch:${props.batch} can't be negative")
+    props.rowsPerSecond.foreach(CommonUtils.requirePositiveLong)
+    props.bytesPerSecond.foreach(CommonUtils.requirePositiveLong)
+    if (props.rateControl && props.batch == 0)
+      throw new IllegalArgumentException("batch can't be zero since it is the burst of rate control")
+    if (props.payloadSize < 0)
+      throw new IllegalArgumentException(s"payload size:${props.payloadSize} can't be negative")
+    CommonUtils.requirePositiveInt(props.cardinality)
+    CommonUtils.requirePositiveInt(props.ringSize)
     this.settings = settings
   }
 
@@ -58,6 +67,66 @@ class PerfSource extends RowSourceConnector {
       .key(PERF_FREQUENCE)
       .optional(toJavaDuration(DEFAULT_FREQUENCE).toString)
       .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Rows per second")
+      .documentation(
+        "The target records/sec of perf. The records sent to all topics are counted. The frequence is ignored if " +
+          "it is defined")
+      .valueType(SettingDefinition.Type.LONG)
+      .key(PERF_ROWS_PER_SECOND)
+      .optional()
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Bytes per second")
+      .documentation(
+        "The target bytes/sec of perf. The records sent to all topics are counted. The frequence is ignored if " +
+          "it is defined")
+      .valueType(SettingDefinition.Type.LONG)
+      .key(PERF_BYTES_PER_SECOND)
+      .optional()
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Payload size")
+      .documentation("The size of string and bytes values")
+      .valueType(SettingDefinition.Type.INT)
+      .key(PERF_PAYLOAD_SIZE)
+      .optional(DEFAULT_PAYLOAD_SIZE.toString)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Cardinality")
+      .documentation("The number of distinct values of each column")
+      .valueType(SettingDefinition.Type.INT)
+      .key(PERF_CARDINALITY)
+      .optional(DEFAULT_CARDINALITY.toString)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Distribution")
+      .documentation(s"The distribution of column values. Use one of ${DISTRIBUTIONS.mkString(",")}")
+      .valueType(SettingDefinition.Type.STRING)
+      .key(PERF_DISTRIBUTION)
+      .optional(DEFAULT_DISTRIBUTION)
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Column distributions")
+      .documentation("The distributions of specific columns. for example, a:zipf,b:sequential")
+      .valueType(SettingDefinition.Type.STRING)
+      .key(PERF_COLUMN_DISTRIBUTIONS)
+      .optional()
+      .build(),
+    SettingDefinition
+      .builder()
+      .displayName("Ring size")
+      .documentation("The number of pre-generated rows. The rows are pre-generated only if the target rate is defined")
+      .valueType(SettingDefinition.Type.INT)
+      .key(PERF_RING_SIZE)
+      .optional(DEFAULT_RING_SIZE.toString)
+      .build()
   ).asJava
 
   override protected def _version: ConnectorVersion = ConnectorVersion.DEFAULT
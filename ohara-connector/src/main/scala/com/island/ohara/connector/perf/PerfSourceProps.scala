@@ -19,17 +19,82 @@ import com.island.ohara.kafka.connector.TaskSetting
 
 import scala.concurrent.duration.Duration
 
-case class PerfSourceProps(batch: Int, freq: Duration) {
+/**
+  * @param batch the number of rows generated in one poll. It is also the burst of rate control
+  * @param freq the interval between polls. It is ignored if rowsPerSecond or bytesPerSecond is defined
+  * @param rowsPerSecond target records/sec. The records sent to all topics are counted
+  * @param bytesPerSecond target bytes/sec. The records sent to all topics are counted and the size of record is the
+  *                       size of serialized row
+  * @param payloadSize the size of string and bytes values
+  * @param cardinality the number of distinct values of each column
+  * @param distribution the distribution of column values
+  * @param columnDistributions the distributions of specific columns
+  * @param ringSize the number of pre-generated rows. The payload size, cardinality and distributions are applied to
+  *                 the pre-generated rows only
+  */
+case class PerfSourceProps(batch: Int,
+                           freq: Duration,
+                           rowsPerSecond: Option[Long] = None,
+                           bytesPerSecond: Option[Long] = None,
+                           payloadSize: Int = DEFAULT_PAYLOAD_SIZE,
+                           cardinality: Int = DEFAULT_CARDINALITY,
+                           distribution: String = DEFAULT_DISTRIBUTION,
+                           columnDistributions: Map[String, String] = Map.empty,
+                           ringSize: Int = DEFAULT_RING_SIZE) {
   def toMap: Map[String, String] = Map(
     PERF_BATCH -> batch.toString,
-    PERF_FREQUENCE -> toJavaDuration(freq).toString
-  )
+    PERF_FREQUENCE -> toJavaDuration(freq).toString,
+    PERF_PAYLOAD_SIZE -> payloadSize.toString,
+    PERF_CARDINALITY -> cardinality.toString,
+    PERF_DISTRIBUTION -> distribution,
+    PERF_RING_SIZE -> ringSize.toString
+  ) ++ rowsPerSecond.map(v => PERF_ROWS_PER_SECOND -> v.toString) ++
+    bytesPerSecond.map(v => PERF_BYTES_PER_SECOND -> v.toString) ++
+    Some(columnDistributions)
+      .filter(_.nonEmpty)
+      .map(_.map { case (name, distribution) => s"$name:$distribution" }.mkString(","))
+      .map(PERF_COLUMN_DISTRIBUTIONS -> _)
+
+  /**
+    * @return true if the rows are generated by target throughput rather than frequence
+    */
+  def rateControl: Boolean = rowsPerSecond.isDefined || bytesPerSecond.isDefined
+
+  /**
+    * @param name column name
+    * @return the distribution of column
+    */
+  def distribution(name: String): String = columnDistributions.getOrElse(name, distribution)
 }
 
 object PerfSourceProps {
   def apply(settings: TaskSetting): PerfSourceProps = PerfSourceProps(
     batch = settings.intOption(PERF_BATCH).orElse(DEFAULT_BATCH),
     freq =
-      Option(settings.durationOption(PERF_FREQUENCE).orElse(null)).map(toScalaDuration).getOrElse(DEFAULT_FREQUENCE)
+      Option(settings.durationOption(PERF_FREQUENCE).orElse(null)).map(toScalaDuration).getOrElse(DEFAULT_FREQUENCE),
+    rowsPerSecond = Option(settings.longOption(PERF_ROWS_PER_SECOND).orElse(null)).map(_.longValue),
+    bytesPerSecond = Option(settings.longOption(PERF_BYTES_PER_SECOND).orElse(null)).map(_.longValue),
+    payloadSize = settings.intOption(PERF_PAYLOAD_SIZE).orElse(DEFAULT_PAYLOAD_SIZE),
+    cardinality = settings.intOption(PERF_CARDINALITY).orElse(DEFAULT_CARDINALITY),
+    distribution = checkDistribution(settings.stringOption(PERF_DISTRIBUTION).orElse(DEFAULT_DISTRIBUTION)),
+    columnDistributions = Option(settings.stringOption(PERF_COLUMN_DISTRIBUTIONS).orElse(null))
+      .map(
+        _.split(",")
+          .filter(_.nonEmpty)
+          .map { s =>
+            val index = s.lastIndexOf(':')
+            if (index <= 0) throw new IllegalArgumentException(s"$s should be name:distribution")
+            s.substring(0, index).trim -> checkDistribution(s.substring(index + 1))
+          }
+          .toMap)
+      .getOrElse(Map.empty),
+    ringSize = settings.intOption(PERF_RING_SIZE).orElse(DEFAULT_RING_SIZE)
   )
+
+  private[this] def checkDistribution(distribution: String): String = {
+    val d = distribution.trim.toLowerCase
+    if (!DISTRIBUTIONS.contains(d))
+      throw new IllegalArgumentException(s"$distribution is not supported. Use one of ${DISTRIBUTIONS.mkString(",")}")
+    d
+  }
 }
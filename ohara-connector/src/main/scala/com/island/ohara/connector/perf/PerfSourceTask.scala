@@ -15,30 +15,70 @@
  */
 
 package com.island.ohara.connector.perf
+import java.util.concurrent.TimeUnit
+
 import com.island.ohara.common.annotations.VisibleForTesting
-import com.island.ohara.common.data.{Cell, Column, DataType, Row}
+import com.island.ohara.common.data.{Cell, Column, DataType, Row, Serializer}
 import com.island.ohara.common.util.{ByteUtils, CommonUtils}
 import com.island.ohara.kafka.connector.{RowSourceRecord, RowSourceTask, TaskSetting}
 
 import scala.collection.JavaConverters._
+import scala.util.Random
 
+/**
+  * Generate the rows to the topics. By default, a row carrying current time is generated by the frequence and it is
+  * sent "batch" times. If the target rows/sec or bytes/sec is defined, the rows are pre-generated into a ring, the
+  * records are reused across polls so generating the load is allocation-light, and the records are paced by token
+  * buckets. Noted: the target rate is counted by the records sent to all topics.
+  */
 class PerfSourceTask extends RowSourceTask {
   private[this] var props: PerfSourceProps = _
   private[this] var topics: Seq[String] = _
   @VisibleForTesting
   private[perf] var schema: Seq[Column] = _
   private[this] var lastPoll: Long = -1
+
+  /**
+    * the records of pre-generated rows. The records of a row are placed together, one record per topic. It is used by
+    * rate control only.
+    */
+  private[this] var records: Array[RowSourceRecord] = _
+
+  /**
+    * the serialized size of pre-generated rows. It is used by the bytes bucket.
+    */
+  private[this] var rowSizes: Array[Int] = _
+
+  /**
+    * the index of next row in the ring.
+    */
+  private[this] var next: Int = 0
+  private[this] var rowBucket: Option[TokenBucket] = None
+  private[this] var byteBucket: Option[TokenBucket] = None
+
   @VisibleForTesting
   override protected def _start(settings: TaskSetting): Unit = {
     this.props = PerfSourceProps(settings)
     this.topics = settings.topicNames().asScala
     this.schema = settings.columns.asScala
     if (schema.isEmpty) schema = DEFAULT_SCHEMA
+    if (props.rateControl) {
+      val rows = PerfRowGenerator.generate(schema, props, new Random())
+      this.records = rows.flatMap(row => topics.map(RowSourceRecord.builder().row(row).topicName(_).build()))
+      // the row is sent to all topics so the cost of row is the size of all records
+      this.rowSizes = rows.map(Serializer.ROW.sizeOf(_) * topics.size)
+      val now = System.nanoTime()
+      this.rowBucket = props.rowsPerSecond.map(new TokenBucket(_, props.batch.toLong * topics.size, now))
+      this.byteBucket = props.bytesPerSecond.map(new TokenBucket(_, props.batch.toLong * rowSizes.max, now))
+    }
   }
 
   override protected def _stop(): Unit = {}
 
-  override protected def _poll(): java.util.List[RowSourceRecord] = {
+  override protected def _poll(): java.util.List[RowSourceRecord] =
+    if (props.rateControl) pollByRate() else pollByFrequence()
+
+  private[this] def pollByFrequence(): java.util.List[RowSourceRecord] = {
     val current = CommonUtils.current()
     if (current - lastPoll > props.freq.toMillis) {
       val row: Row = Row.of(
@@ -63,6 +103,56 @@ class PerfSourceTask extends RowSourceTask {
       val records: Seq[RowSourceRecord] = topics.map(RowSourceRecord.builder().row(row).topicName(_).build())
       lastPoll = current
       (0 until props.batch).flatMap(_ => records).asJava
-    } else Seq.empty.asJava
+    } else {
+      // wait for next tick rather than returning empty list in a busy loop
+      pause(TimeUnit.MILLISECONDS.toNanos(props.freq.toMillis - (current - lastPoll) + 1))
+      java.util.Collections.emptyList()
+    }
   }
+
+  private[this] def pollByRate(): java.util.List[RowSourceRecord] = {
+    val now = System.nanoTime()
+    rowBucket.foreach(_.refill(now))
+    byteBucket.foreach(_.refill(now))
+    var count = 0
+    var index = next
+    def available(index: Int): Boolean =
+      rowBucket.forall(_.available(topics.size)) && byteBucket.forall(_.available(rowSizes(index)))
+    while (count < props.batch && available(index)) {
+      rowBucket.foreach(_.take(topics.size))
+      byteBucket.foreach(_.take(rowSizes(index)))
+      count += 1
+      index = (index + 1) % rowSizes.length
+    }
+    if (count == 0) {
+      pause(
+        math.max(rowBucket.map(_.nanosToWait(topics.size)).getOrElse(0L),
+                 byteBucket.map(_.nanosToWait(rowSizes(next))).getOrElse(0L)))
+      java.util.Collections.emptyList()
+    } else emit(count)
+  }
+
+  /**
+    * @param count the number of rows
+    * @return the records of next rows in the ring
+    */
+  private[this] def emit(count: Int): java.util.List[RowSourceRecord] = {
+    val result = new java.util.ArrayList[RowSourceRecord](count * topics.size)
+    (0 until count).foreach { _ =>
+      val offset = next * topics.size
+      topics.indices.foreach(topicIndex => result.add(records(offset + topicIndex)))
+      next = (next + 1) % rowSizes.length
+    }
+    result
+  }
+
+  /**
+    * the poll should block if there is no data, but it should not block too long since the task may be stopped.
+    */
+  private[this] def pause(nanos: Long): Unit =
+    if (nanos > 0) TimeUnit.NANOSECONDS.sleep(math.min(nanos, PerfSourceTask.MAX_PAUSE_NANOS))
+}
+
+object PerfSourceTask {
+  private val MAX_PAUSE_NANOS: Long = TimeUnit.SECONDS.toNanos(1)
 }
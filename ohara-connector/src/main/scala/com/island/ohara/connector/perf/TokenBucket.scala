@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+
+/**
+  * A token bucket used to pace the generated rows. The tokens are refilled by the elapsed time, and the bucket is
+  * full at beginning so the first poll is not delayed. This class is not thread-safe.
+  * @param ratePerSecond the number of tokens refilled per second
+  * @param capacity the max number of tokens. It is also the max burst
+  * @param now current time in nanoseconds
+  */
+private[perf] class TokenBucket(ratePerSecond: Long, capacity: Long, now: Long) {
+  if (ratePerSecond <= 0) throw new IllegalArgumentException(s"rate:$ratePerSecond should be bigger than zero")
+  if (capacity <= 0) throw new IllegalArgumentException(s"capacity:$capacity should be bigger than zero")
+  private[this] var tokens: Double = capacity
+  private[this] var lastRefill: Long = now
+
+  /**
+    * add the tokens generated since last refill.
+    * @param now current time in nanoseconds
+    */
+  def refill(now: Long): Unit = if (now > lastRefill) {
+    tokens = math.min(capacity.toDouble, tokens + (now - lastRefill) * ratePerSecond / TokenBucket.NANOS_PER_SECOND)
+    lastRefill = now
+  }
+
+  /**
+    * @param amount required tokens
+    * @return true if there are enough tokens
+    */
+  def available(amount: Long): Boolean = tokens >= amount
+
+  def take(amount: Long): Unit = tokens -= amount
+
+  /**
+    * @param amount required tokens
+    * @return the nanoseconds to wait for enough tokens
+    */
+  def nanosToWait(amount: Long): Long =
+    if (available(amount)) 0
+    else math.ceil((math.min(amount, capacity) - tokens) * TokenBucket.NANOS_PER_SECOND / ratePerSecond).toLong
+}
+
+private[perf] object TokenBucket {
+  private val NANOS_PER_SECOND: Double = 1000000000D
+}
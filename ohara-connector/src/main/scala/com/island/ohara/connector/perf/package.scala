@@ -23,9 +23,33 @@ import scala.concurrent.duration.Duration
 package object perf {
   val PERF_BATCH: String = "perf.batch"
   val PERF_FREQUENCE: String = "perf.frequence"
+  // the target throughput. The records sent to all topics are counted. The frequence is ignored if either is defined
+  val PERF_ROWS_PER_SECOND: String = "perf.rows.per.second"
+  val PERF_BYTES_PER_SECOND: String = "perf.bytes.per.second"
+  // the size of string and bytes values
+  val PERF_PAYLOAD_SIZE: String = "perf.payload.size"
+  // the number of distinct values of each column
+  val PERF_CARDINALITY: String = "perf.cardinality"
+  val PERF_DISTRIBUTION: String = "perf.distribution"
+  // the distributions of specific columns. for example, "a:zipf,b:sequential"
+  val PERF_COLUMN_DISTRIBUTIONS: String = "perf.column.distributions"
+  // the number of pre-generated rows. The rows are pre-generated only if the target throughput is defined
+  val PERF_RING_SIZE: String = "perf.ring.size"
+  // the interval of updating the latency and throughput metrics of perf sink
+  val PERF_REPORT_INTERVAL: String = "perf.report.interval"
+
+  val DISTRIBUTION_RANDOM: String = "random"
+  val DISTRIBUTION_SEQUENTIAL: String = "sequential"
+  val DISTRIBUTION_ZIPF: String = "zipf"
+  val DISTRIBUTIONS: Seq[String] = Seq(DISTRIBUTION_RANDOM, DISTRIBUTION_SEQUENTIAL, DISTRIBUTION_ZIPF)
 
   val DEFAULT_BATCH: Int = 10
   val DEFAULT_FREQUENCE: Duration = Duration("1 second")
+  val DEFAULT_PAYLOAD_SIZE: Int = 10
+  val DEFAULT_CARDINALITY: Int = 1000
+  val DEFAULT_DISTRIBUTION: String = DISTRIBUTION_RANDOM
+  val DEFAULT_RING_SIZE: Int = 1000
+  val DEFAULT_REPORT_INTERVAL: Duration = Duration("1 second")
 
   /**
     * this is the default schema used to generate random data in perf source.
@@ -59,6 +59,28 @@ class TestFtpSinkDefinitions extends SmallTest with Matchers {
     definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
   }
 
+  @Test
+  def checkRollSize(): Unit = {
+    val definition = ftpSink.definitions().asScala.find(_.key() == FTP_ROLL_SIZE).get
+    definition.required() shouldBe false
+    definition.defaultValue() shouldBe null
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.LONG.name()
+  }
+
+  @Test
+  def checkRollInterval(): Unit = {
+    val definition = ftpSink.definitions().asScala.find(_.key() == FTP_ROLL_INTERVAL).get
+    definition.required() shouldBe false
+    definition.defaultValue() shouldBe null
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.DURATION.name()
+  }
+
   @Test
   def checkHostname(): Unit = {
     val definition = ftpSink.definitions().asScala.find(_.key() == FTP_HOSTNAME).get
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.ftp
+
+import com.island.ohara.client.ftp.FtpClient
+import com.island.ohara.common.data.{Cell, Column, DataType, Row, Serializer}
+import com.island.ohara.common.rule.SmallTest
+import com.island.ohara.common.util.{CommonUtils, Releasable}
+import com.island.ohara.kafka.connector.json.ConnectorFormatter
+import com.island.ohara.testing.service.FtpServer
+import org.apache.kafka.clients.consumer.OffsetAndMetadata
+import org.apache.kafka.common.TopicPartition
+import org.apache.kafka.connect.sink.SinkRecord
+import org.junit.{After, Before, Test}
+import org.scalatest.Matchers
+
+import scala.collection.JavaConverters._
+
+class TestFtpSinkTask extends SmallTest with Matchers {
+
+  private[this] val ftpServer = FtpServer.local()
+
+  private[this] val outputFolder = "/output"
+
+  private[this] val props = FtpSinkTaskProps(
+    outputFolder = CommonUtils.path(outputFolder, "task"),
+    needHeader = true,
+    user = ftpServer.user,
+    password = ftpServer.password,
+    hostname = ftpServer.hostname,
+    port = ftpServer.port,
+    encode = "UTF-8"
+  )
+
+  private[this] val schema: Seq[Column] = Seq(
+    Column.builder().name("a").dataType(DataType.STRING).order(2).build(),
+    Column.builder().name("b").dataType(DataType.INT).order(1).build()
+  )
+
+  private[this] val ftpClient =
+    FtpClient.builder().hostname(props.hostname).password(props.password).port(props.port).user(props.user).build()
+
+  private[this] val partition = new TopicPartition("topic", 0)
+
+  private[this] var offset = 0L
+
+  @Before
+  def setup(): Unit = ftpClient.reMkdir(outputFolder)
+
+  private[this] def createTask(settings: Map[String, String] = Map.empty): FtpSinkTask = {
+    val task = new FtpSinkTask()
+    task.start(
+      ConnectorFormatter
+        .of()
+        .name(methodName())
+        .topicName(partition.topic())
+        .columns(schema.asJava)
+        .settings((props.toMap ++ settings).asJava)
+        .raw())
+    task
+  }
+
+  private[this] def put(task: FtpSinkTask, rows: Row*): Unit = task.put(rows.map { row =>
+    offset += 1
+    new SinkRecord(partition.topic(), partition.partition(), null, Serializer.ROW.to(row), null, null, offset)
+  }.asJava)
+
+  private[this] def preCommit(task: FtpSinkTask): Unit =
+    task.preCommit(Map(partition -> new OffsetAndMetadata(offset)).asJava).get(partition).offset() shouldBe offset
+
+  private[this] def outputFiles(): Seq[String] =
+    ftpClient.listFileNames(outputFolder).map(CommonUtils.path(outputFolder, _)).sorted
+
+  @Test
+  def testKeepWritingAcrossBatches(): Unit = {
+    val task = createTask()
+    try {
+      put(task, Row.of(Cell.of("a", "a0"), Cell.of("b", 0)))
+      put(task, Row.of(Cell.of("b", 1), Cell.of("a", "a1"), Cell.of("c", true)))
+      preCommit(task)
+      outputFiles() shouldBe Seq(props.outputFolder)
+      ftpClient.readLines(props.outputFolder) shouldBe Array("b,a", "0,a0", "1,a1")
+
+      // the file is appended after commit
+      put(task, Row.of(Cell.of("a", "a2"), Cell.of("b", 2)))
+      preCommit(task)
+      ftpClient.readLines(props.outputFolder) shouldBe Array("b,a", "0,a0", "1,a1", "2,a2")
+    } finally task.stop()
+  }
+
+  @Test
+  def testSkipRowLackingColumns(): Unit = {
+    val task = createTask()
+    try {
+      put(task, Row.of(Cell.of("a", "a0")), Row.of(Cell.of("a", "a1"), Cell.of("b", 1)))
+      preCommit(task)
+      ftpClient.readLines(props.outputFolder) shouldBe Array("b,a", "1,a1")
+    } finally task.stop()
+  }
+
+  @Test
+  def testAppendAfterRestart(): Unit = {
+    val task = createTask()
+    try {
+      put(task, Row.of(Cell.of("a", "a0"), Cell.of("b", 0)))
+      preCommit(task)
+    } finally task.stop()
+    val task2 = createTask()
+    try {
+      put(task2, Row.of(Cell.of("a", "a1"), Cell.of("b", 1)))
+      preCommit(task2)
+    } finally task2.stop()
+    // the header is written only once
+    ftpClient.readLines(props.outputFolder) shouldBe Array("b,a", "0,a0", "1,a1")
+  }
+
+  @Test
+  def testRollBySize(): Unit = {
+    val task = createTask(Map(FTP_ROLL_SIZE -> "1"))
+    try {
+      (0 until 3).foreach(index => {
+        put(task, Row.of(Cell.of("a", s"a$index"), Cell.of("b", index)))
+        // flush the buffered data so the file size is updated
+        preCommit(task)
+      })
+      put(task, Row.of(Cell.of("a", "a3"), Cell.of("b", 3)))
+      preCommit(task)
+      val files = outputFiles()
+      files.size shouldBe 4
+      files.foreach(file => ftpClient.readLines(file).head shouldBe "b,a")
+      files.flatMap(ftpClient.readLines(_).tail).sorted shouldBe (0 until 4).map(index => s"$index,a$index")
+    } finally task.stop()
+  }
+
+  @Test
+  def testRollByInterval(): Unit = {
+    val task = createTask(Map(FTP_ROLL_INTERVAL -> "1 seconds"))
+    try {
+      put(task, Row.of(Cell.of("a", "a0"), Cell.of("b", 0)))
+      preCommit(task)
+      put(task, Row.of(Cell.of("a", "a1"), Cell.of("b", 1)))
+      preCommit(task)
+      outputFiles().size shouldBe 1
+      CommonUtils.await(() => {
+        put(task, Row.of(Cell.of("a", "a2"), Cell.of("b", 2)))
+        preCommit(task)
+        outputFiles().size == 2
+      }, java.time.Duration.ofSeconds(10))
+    } finally task.stop()
+  }
+
+  @Test
+  def testOutputWithoutParent(): Unit = {
+    val output = CommonUtils.randomString(10)
+    val task = createTask(Map(FTP_OUTPUT -> output))
+    try {
+      put(task, Row.of(Cell.of("a", "a0"), Cell.of("b", 0)))
+      preCommit(task)
+    } finally task.stop()
+    try ftpClient.readLines(output) shouldBe Array("b,a", "0,a0")
+    finally ftpClient.delete(output)
+  }
+
+  @After
+  def tearDown(): Unit = {
+    Releasable.close(ftpClient)
+    Releasable.close(ftpServer)
+  }
+}
@@ -18,6 +18,8 @@ package com.island.ohara.connector.ftp
 
 import com.island.ohara.common.rule.SmallTest
 import com.island.ohara.kafka.connector.json.SettingDefinition
+import com.island.ohara.kafka.connector.text.TextSourceTask
+import com.island.ohara.kafka.connector.text.csv.CsvSourceConverter
 import org.junit.Test
 import org.scalatest.Matchers
 
@@ -69,6 +71,39 @@ class TestFtpSourceDefinitions extends SmallTest with Matchers {
     definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
   }
 
+  @Test
+  def checkBatchSize(): Unit = {
+    val definition = ftpSource.definitions().asScala.find(_.key() == CsvSourceConverter.CSV_BATCH_SIZE_KEY).get
+    definition.required() shouldBe false
+    definition.defaultValue() shouldBe CsvSourceConverter.CSV_BATCH_SIZE_DEFAULT.toString
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.INT.name()
+  }
+
+  @Test
+  def checkReaderCount(): Unit = {
+    val definition = ftpSource.definitions().asScala.find(_.key() == TextSourceTask.TEXT_READER_COUNT_KEY).get
+    definition.required() shouldBe false
+    definition.defaultValue() shouldBe TextSourceTask.TEXT_READER_COUNT_DEFAULT.toString
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.INT.name()
+  }
+
+  @Test
+  def checkListInterval(): Unit = {
+    val definition = ftpSource.definitions().asScala.find(_.key() == FTP_LIST_INTERVAL).get
+    definition.required() shouldBe false
+    definition.defaultValue() shouldBe FTP_LIST_INTERVAL_DEFAULT.toString
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.DURATION.name()
+  }
+
   @Test
   def checkHostname(): Unit = {
     val definition = ftpSource.definitions().asScala.find(_.key() == FTP_HOSTNAME).get
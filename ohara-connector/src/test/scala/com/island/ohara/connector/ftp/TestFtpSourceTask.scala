@@ -16,14 +16,16 @@
 
 package com.island.ohara.connector.ftp
 
+import java.nio.charset.StandardCharsets
 import java.util.Collections
+import java.util.concurrent.{Callable, Executors, TimeUnit}
 
 import com.island.ohara.client.ftp.FtpClient
 import com.island.ohara.common.data.Cell
 import com.island.ohara.common.rule.SmallTest
 import com.island.ohara.common.util.{CommonUtils, Releasable}
 import com.island.ohara.kafka.connector.TaskSetting
-import com.island.ohara.kafka.connector.json.ConnectorFormatter
+import com.island.ohara.kafka.connector.json.{ConnectorFormatter, SettingDefinition}
 import com.island.ohara.kafka.connector.text.TextFileSystem
 import com.island.ohara.kafka.connector.text.csv.CsvSourceConverterFactory
 import com.island.ohara.testing.service.FtpServer
@@ -99,9 +101,12 @@ class TestFtpSourceTask extends SmallTest with Matchers {
     task
   }
 
+  /**
+    * list the input folder on each call so the files are stable after the second listing.
+    */
   private[this] def createFileSystem(): TextFileSystem = {
     val task = createTask();
-    val config = TaskSetting.of(props.toMap.asJava)
+    val config = TaskSetting.of((props.toMap + (FTP_LIST_INTERVAL -> "0 seconds")).asJava)
     task.getFileSystem(config)
   }
 
@@ -166,9 +171,55 @@ class TestFtpSourceTask extends SmallTest with Matchers {
     } finally ftpClient.close()
 
     val fileSystem = createFileSystem()
+    // the files are not stable until they are listed twice
+    fileSystem.listInputFiles().size() shouldBe 0
     fileSystem.listInputFiles().size() shouldBe 3
   }
 
+  @Test
+  def testSkipGrowingFile(): Unit = {
+    val path = CommonUtils.path(props.inputFolder, methodName)
+    setupInputData(path)
+    val fileSystem = createFileSystem()
+    try {
+      fileSystem.listInputFiles().size() shouldBe 0
+      val ftpClient = createFtpClient()
+      try {
+        val output = ftpClient.append(path)
+        try output.write("more data\n".getBytes(StandardCharsets.UTF_8))
+        finally output.close()
+      } finally ftpClient.close()
+      // the size is changed so the file is still being uploaded
+      fileSystem.listInputFiles().size() shouldBe 0
+      fileSystem.listInputFiles().asScala.toSeq shouldBe Seq(path)
+    } finally fileSystem.close()
+  }
+
+  @Test
+  def testHandledFileIsRemovedFromCache(): Unit = {
+    val path = CommonUtils.path(props.inputFolder, methodName)
+    setupInputData(path)
+    val fileSystem = createFileSystem()
+    try {
+      fileSystem.listInputFiles().size() shouldBe 0
+      fileSystem.listInputFiles().asScala.toSeq shouldBe Seq(path)
+      fileSystem.handleCompletedFile(path)
+      fileSystem.listInputFiles().size() shouldBe 0
+    } finally fileSystem.close()
+  }
+
+  @Test
+  def testListIntervalCachesFiles(): Unit = {
+    val path = CommonUtils.path(props.inputFolder, methodName)
+    setupInputData(path)
+    val fileSystem = createTask().getFileSystem(TaskSetting.of((props.toMap + (FTP_LIST_INTERVAL -> "1 hours")).asJava))
+    try {
+      // the first listing snapshots the files, and the cache is not refreshed again within the interval
+      fileSystem.listInputFiles().size() shouldBe 0
+      fileSystem.listInputFiles().size() shouldBe 0
+    } finally fileSystem.close()
+  }
+
   @Test
   def testHandleCompletedFile(): Unit = {
     val path = CommonUtils.path(props.inputFolder, methodName)
@@ -187,6 +238,119 @@ class TestFtpSourceTask extends SmallTest with Matchers {
     assertNumberOfFiles(0, 0, 1)
   }
 
+  private[this] def createFileSystem(hash: Int,
+                                     total: Int = props.total,
+                                     listInterval: String = "0 seconds"): TextFileSystem = {
+    val task = createTask()
+    val settings = props.copy(hash = hash, total = total).toMap +
+      (SettingDefinition.CONNECTOR_NAME_DEFINITION.key() -> methodName()) + (FTP_LIST_INTERVAL -> listInterval)
+    task.getFileSystem(TaskSetting.of(settings.asJava))
+  }
+
+  @Test
+  def testClaimAndRelease(): Unit = {
+    val path = CommonUtils.path(props.inputFolder, methodName)
+    setupInputData(path)
+    val fs0 = createFileSystem(0)
+    val fs1 = createFileSystem(1)
+    try {
+      fs0.claim(path) shouldBe true
+      // the claim is still valid after restarting
+      createFileSystem(0).claim(path) shouldBe true
+      fs1.claim(path) shouldBe false
+      // the lock is not an input file
+      fs0.listInputFiles()
+      fs0.listInputFiles().asScala.toSeq shouldBe Seq(path)
+      // only the owner can release the claim
+      fs1.release(path)
+      fs1.claim(path) shouldBe false
+      fs0.release(path)
+      fs1.claim(path) shouldBe true
+    } finally {
+      fs0.close()
+      fs1.close()
+    }
+  }
+
+  @Test
+  def testClaimIsAtomic(): Unit = {
+    val path = CommonUtils.path(props.inputFolder, methodName)
+    setupInputData(path)
+    val fileSystems = (0 until 5).map(createFileSystem(_, total = 5))
+    try {
+      val service = Executors.newFixedThreadPool(fileSystems.size)
+      try {
+        val results = fileSystems
+          .map(fs =>
+            service.submit(new Callable[Boolean] {
+              override def call(): Boolean = fs.claim(path)
+            }))
+          .map(_.get(30, TimeUnit.SECONDS))
+        results.count(_ == true) shouldBe 1
+      } finally service.shutdownNow()
+      // the temporary locks are removed
+      val ftpClient = createFtpClient()
+      try ftpClient.listFileNames(props.inputFolder).size shouldBe 2
+      finally ftpClient.close()
+    } finally fileSystems.foreach(_.close())
+  }
+
+  @Test
+  def testTakeOverLockOfRemovedTask(): Unit = {
+    val path = CommonUtils.path(props.inputFolder, methodName)
+    setupInputData(path)
+    // the task 1 is removed after the number of tasks is reduced to 1
+    val removed = createFileSystem(1, total = 2)
+    val fs0 = createFileSystem(0, total = 1)
+    val fs2 = createFileSystem(2, total = 3)
+    try {
+      removed.claim(path) shouldBe true
+      fs0.claim(path) shouldBe true
+      // the removed task has lost the lock so it can't release the lock
+      removed.release(path)
+      fs2.claim(path) shouldBe false
+      fs0.release(path)
+      fs2.claim(path) shouldBe true
+    } finally {
+      removed.close()
+      fs0.close()
+      fs2.close()
+    }
+  }
+
+  @Test
+  def testSkipFileClaimedByOthersInListInterval(): Unit = {
+    val path = CommonUtils.path(props.inputFolder, methodName)
+    setupInputData(path)
+    val fs0 = createFileSystem(0, total = 2)
+    val fs1 = createFileSystem(1, total = 2, listInterval = "1 hours")
+    try {
+      fs0.claim(path) shouldBe true
+      fs1.claim(path) shouldBe false
+      fs0.release(path)
+      // the failed claim is cached
+      fs1.claim(path) shouldBe false
+    } finally {
+      fs0.close()
+      fs1.close()
+    }
+  }
+
+  @Test
+  def testReadFilesConcurrently(): Unit = {
+    val paths = (0 until 3).map(index => CommonUtils.path(props.inputFolder, index.toString))
+    paths.foreach(setupInputData)
+    val fileSystem = createFileSystem()
+    try {
+      val inputs = paths.map(fileSystem.createInputStream)
+      try inputs.foreach(_.read() should not be -1)
+      finally inputs.foreach(_.close())
+      // the connection of file system is not blocked by the opened files
+      fileSystem.listInputFiles()
+      fileSystem.listInputFiles().size() shouldBe paths.size
+    } finally fileSystem.close()
+  }
+
   @After
   def tearDown(): Unit = Releasable.close(ftpServer)
 }
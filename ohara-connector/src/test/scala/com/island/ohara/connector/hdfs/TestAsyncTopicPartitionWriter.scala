@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.hdfs
+
+import java.time.Duration
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+
+import com.island.ohara.common.data.{Cell, Row}
+import com.island.ohara.common.util.CommonUtils
+import com.island.ohara.connector.hdfs.storage.HDFSStorage
+import com.island.ohara.kafka.TimestampType
+import com.island.ohara.kafka.connector.{RowSinkContext, RowSinkRecord, TaskSetting, TopicPartition}
+import com.island.ohara.testing.WithTestUtils
+import org.junit.Test
+import org.mockito.Matchers._
+import org.mockito.Mockito._
+import org.scalatest.Matchers
+import org.scalatest.mockito.MockitoSugar
+
+import scala.collection.JavaConverters._
+
+class TestAsyncTopicPartitionWriter extends WithTestUtils with Matchers with MockitoSugar {
+  private[this] val topicPartition = new TopicPartition("topic", 0)
+  private[this] val storage = new HDFSStorage(testUtil.hdfs.fileSystem())
+
+  private[this] def record(offset: Long): RowSinkRecord = RowSinkRecord
+    .builder()
+    .topicName(topicPartition.topicName)
+    .partition(topicPartition.partition)
+    .offset(offset)
+    .timestamp(CommonUtils.current())
+    .timestampType(TimestampType.CREATE_TIME)
+    .row(Row.of(Cell.of("c", offset)))
+    .build()
+
+  private[this] def createWriter(settings: Map[String, String]): TopicPartitionWriter = {
+    val rootDir = s"${testUtil.hdfs.tmpDirectory}/${CommonUtils.randomString(10)}"
+    val config = HDFSSinkConnectorConfig(
+      TaskSetting.of(
+        (Map(HDFS_URL -> "file://tmp", TMP_DIR -> s"$rootDir/tmp", DATA_DIR -> s"$rootDir/data") ++ settings).asJava))
+    val writer = new TopicPartitionWriter(config, mock[RowSinkContext], topicPartition, storage)
+    writer.open()
+    writer
+  }
+
+  @Test
+  def testCommitByCount(): Unit = {
+    val writer = createWriter(Map(FLUSH_LINE_COUNT -> "2"))
+    val asyncWriter = new AsyncTopicPartitionWriter(writer, Seq.empty, 10)
+    try {
+      asyncWriter.offset() shouldBe None
+      (0 until 5).foreach(i => asyncWriter.put(record(i)))
+      CommonUtils.await(() => asyncWriter.offset().contains(4), Duration.ofSeconds(10))
+      storage.list(writer.dataDir).map(FileUtils.fileName).toSet shouldBe Set("part-000000000-000000002.csv",
+                                                                              "part-000000002-000000004.csv")
+    } finally asyncWriter.close()
+  }
+
+  @Test
+  def testCommitByTime(): Unit = {
+    val writer = createWriter(Map(ROTATE_INTERVAL_MS -> "100"))
+    val asyncWriter = new AsyncTopicPartitionWriter(writer, Seq.empty, 10)
+    try {
+      (0 until 3).foreach(i => asyncWriter.put(record(i)))
+      CommonUtils.await(() => asyncWriter.offset().contains(3), Duration.ofSeconds(10))
+      storage.list(writer.dataDir).map(FileUtils.fileName).toSeq shouldBe Seq("part-000000000-000000003.csv")
+    } finally asyncWriter.close()
+  }
+
+  @Test
+  def testCommitByTimeWithSteadyRecords(): Unit = {
+    val writer = createWriter(Map(ROTATE_INTERVAL_MS -> "300"))
+    val asyncWriter = new AsyncTopicPartitionWriter(writer, Seq.empty, 10)
+    try {
+      // the interval between records is smaller than the poll timeout so the poll never times out
+      val end = CommonUtils.current() + 10 * 1000
+      var offset = 0
+      while (asyncWriter.offset().isEmpty && CommonUtils.current() < end) {
+        asyncWriter.put(record(offset))
+        offset = offset + 1
+        TimeUnit.MILLISECONDS.sleep(50)
+      }
+      asyncWriter.offset() should not be None
+      storage.list(writer.dataDir).size should not be 0
+    } finally asyncWriter.close()
+  }
+
+  @Test
+  def testCloseDropsUncommittedData(): Unit = {
+    val writer = createWriter(Map.empty)
+    val asyncWriter = new AsyncTopicPartitionWriter(writer, Seq.empty, 10)
+    (0 until 3).foreach(i => asyncWriter.put(record(i)))
+    asyncWriter.close()
+    storage.list(writer.dataDir).size shouldBe 0
+    storage.exist(writer.tmpDir) shouldBe false
+    an[IllegalStateException] should be thrownBy asyncWriter.put(record(3))
+  }
+
+  @Test
+  def testFailure(): Unit = {
+    val writer = mock[TopicPartitionWriter]
+    when(writer.write(any(), any())).thenThrow(new IllegalArgumentException("unexpected"))
+    val asyncWriter = new AsyncTopicPartitionWriter(writer, Seq.empty, 10)
+    try {
+      asyncWriter.put(record(0))
+      CommonUtils.await(() =>
+                          try {
+                            asyncWriter.offset()
+                            false
+                          } catch {
+                            case _: IllegalStateException => true
+                        },
+                        Duration.ofSeconds(10))
+      an[IllegalStateException] should be thrownBy asyncWriter.put(record(1))
+    } finally asyncWriter.close()
+  }
+
+  @Test
+  def testFullBufferBlocksPut(): Unit = {
+    val writer = mock[TopicPartitionWriter]
+    // the writer is stuck so the buffer is never drained
+    val latch = new CountDownLatch(1)
+    when(writer.write(any(), any())).thenAnswer(_ => latch.await())
+    val asyncWriter = new AsyncTopicPartitionWriter(writer, Seq.empty, 1)
+    try {
+      asyncWriter.put(record(0))
+      asyncWriter.put(record(1))
+      val thread = new Thread(
+        () =>
+          try asyncWriter.put(record(2))
+          catch {
+            case _: InterruptedException => ()
+        })
+      thread.start()
+      thread.join(1000)
+      thread.isAlive shouldBe true
+      thread.interrupt()
+    } finally asyncWriter.close()
+  }
+
+  @Test
+  def testZeroBuffer(): Unit =
+    an[IllegalArgumentException] should be thrownBy new AsyncTopicPartitionWriter(mock[TopicPartitionWriter],
+                                                                                  Seq.empty,
+                                                                                  0)
+}
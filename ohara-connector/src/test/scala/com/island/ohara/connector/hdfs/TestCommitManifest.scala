@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.hdfs
+
+import com.island.ohara.common.util.CommonUtils
+import com.island.ohara.connector.hdfs.storage.{HDFSStorage, Storage}
+import com.island.ohara.testing.WithTestUtils
+import org.junit.Test
+import org.scalatest.Matchers
+
+class TestCommitManifest extends WithTestUtils with Matchers {
+  private[this] val storage: Storage = new HDFSStorage(testUtil.hdfs.fileSystem)
+  private[this] val topicDir: String = s"${testUtil.hdfs.tmpDirectory}/${CommonUtils.randomString(10)}"
+  private[this] val dataDir: String = s"$topicDir/partition0"
+  private[this] val manifest = new CommitManifest(storage, s"$topicDir/${CommitManifest.DIR_NAME}/partition0", dataDir)
+
+  private[this] def createDataFile(fileName: String): Unit = storage.open(s"$dataDir/$fileName", false).close()
+
+  @Test
+  def testEmpty(): Unit = manifest.recover() shouldBe 0
+
+  @Test
+  def testRecordedFileExists(): Unit = {
+    createDataFile("part-000000000-000000010.csv")
+    manifest.write("part-000000000-000000010.csv")
+    createDataFile("part-000000010-000000020.csv")
+    manifest.write("part-000000010-000000020.csv")
+    manifest.recover() shouldBe 20
+  }
+
+  @Test
+  def testRecordedFileNotRenamed(): Unit = {
+    createDataFile("part-000000000-000000010.csv")
+    manifest.write("part-000000000-000000010.csv")
+    manifest.write("part-000000010-000000020.csv")
+    manifest.recover() shouldBe 10
+  }
+
+  @Test
+  def testManifestIsNotInDataDir(): Unit = {
+    manifest.write("part-000000000-000000010.csv")
+    storage.list(dataDir).size shouldBe 0
+  }
+
+  @Test
+  def testFallbackToList(): Unit = {
+    createDataFile("part-000000000-000000010.csv")
+    createDataFile("part-000000010-000000020.csv")
+    manifest.recover() shouldBe 20
+  }
+
+  @Test
+  def testBrokenManifest(): Unit = {
+    createDataFile("part-000000000-000000010.csv")
+    val output = storage.open(manifest.path, true)
+    try output.write("part-0000".getBytes)
+    finally output.close()
+    manifest.recover() shouldBe 10
+  }
+}
@@ -43,6 +43,22 @@ class TestFileUtils extends MediumTest with Matchers with MockitoSugar {
     FileUtils.getStopOffset(fileNames) shouldBe 1001
   }
 
+  @Test
+  def testGetStopOffsetWithParquet(): Unit = {
+    val fileNames = Iterator(
+      FileUtils.offsetFileName("prefix", 1, 11, FileUtils.PARQUET_FILENAME_ENDSWITH),
+      FileUtils.offsetFileName("prefix", 11, 21)
+    )
+
+    FileUtils.getStopOffset(fileNames) shouldBe 21
+  }
+
+  @Test
+  def testGetStartOffset(): Unit = {
+    FileUtils.getStartOffset("prefix-000000011-000000021.csv") shouldBe 11
+    an[IllegalArgumentException] should be thrownBy FileUtils.getStartOffset("prefix-11-21.csv")
+  }
+
   @Test
   def testGetStopZero(): Unit = {
     val fileNames = Iterator()
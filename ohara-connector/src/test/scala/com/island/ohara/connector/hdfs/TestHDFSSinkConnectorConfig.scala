@@ -137,4 +137,60 @@ class TestHDFSSinkConnectorConfig extends SmallTest with Matchers {
       hdfsConfig(Map(TMP_DIR -> "/tmp", DATA_DIR -> "/tmp"))
     }
   }
+
+  @Test
+  def testGetDataFileFormatDefaultValue(): Unit = {
+    val hdfsSinkConnectorConfig: HDFSSinkConnectorConfig = hdfsConfig(Map(HDFS_URL -> HDFS_URL_VALUE))
+
+    hdfsSinkConnectorConfig.dataFileFormat shouldBe "csv"
+    hdfsSinkConnectorConfig.parquetCompression shouldBe "snappy"
+  }
+
+  @Test
+  def testGetDataFileFormat(): Unit = {
+    val hdfsSinkConnectorConfig: HDFSSinkConnectorConfig = hdfsConfig(
+      Map(HDFS_URL -> HDFS_URL_VALUE, DATAFILE_FORMAT -> "PARQUET"))
+
+    hdfsSinkConnectorConfig.dataFileFormat shouldBe "parquet"
+  }
+
+  @Test
+  def testUnknownDataFileFormat(): Unit = {
+    intercept[IllegalArgumentException] {
+      hdfsConfig(Map(HDFS_URL -> HDFS_URL_VALUE, DATAFILE_FORMAT -> "json"))
+    }
+  }
+
+  @Test
+  def testGetParquetSettings(): Unit = {
+    val hdfsSinkConnectorConfig: HDFSSinkConnectorConfig = hdfsConfig(
+      Map(HDFS_URL -> HDFS_URL_VALUE,
+          PARQUET_COMPRESSION -> "GZIP",
+          PARQUET_ROW_GROUP_SIZE -> "1024",
+          PARQUET_PAGE_SIZE -> "512"))
+
+    hdfsSinkConnectorConfig.parquetCompression shouldBe "gzip"
+    hdfsSinkConnectorConfig.parquetRowGroupSize shouldBe 1024
+    hdfsSinkConnectorConfig.parquetPageSize shouldBe 512
+  }
+
+  @Test
+  def testUnknownParquetCompression(): Unit = {
+    intercept[IllegalArgumentException] {
+      hdfsConfig(Map(HDFS_URL -> HDFS_URL_VALUE, PARQUET_COMPRESSION -> "abc"))
+    }
+  }
+
+  @Test
+  def testNegativeParquetRowGroupSize(): Unit = {
+    intercept[IllegalArgumentException] {
+      hdfsConfig(Map(HDFS_URL -> HDFS_URL_VALUE, PARQUET_ROW_GROUP_SIZE -> "-1"))
+    }
+  }
+
+  @Test
+  def testParallelWrite(): Unit = {
+    hdfsConfig(Map(HDFS_URL -> HDFS_URL_VALUE)).parallelWrite shouldBe false
+    hdfsConfig(Map(HDFS_URL -> HDFS_URL_VALUE, PARALLEL_WRITE -> "true")).parallelWrite shouldBe true
+  }
 }
@@ -109,6 +109,49 @@ class TestHdfsSinkConnectorDefinition extends WithBrokerWorker with Matchers {
     definition.valueType() shouldBe SettingDefinition.Type.BOOLEAN.name()
   }
 
+  @Test
+  def checkDataFileFormat(): Unit = {
+    val definition = hdfsSinkConnector.definitions().asScala.find(_.key() == DATAFILE_FORMAT).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe HDFSSinkConnectorConfig.DATAFILE_FORMAT_DEFAULT
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
+  }
+
+  @Test
+  def checkParallelWrite(): Unit = {
+    val definition = hdfsSinkConnector.definitions().asScala.find(_.key() == PARALLEL_WRITE).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe HDFSSinkConnectorConfig.PARALLEL_WRITE_DEFAULT.toString
+    definition.valueType() shouldBe SettingDefinition.Type.BOOLEAN.name()
+  }
+
+  @Test
+  def checkParquetCompression(): Unit = {
+    val definition = hdfsSinkConnector.definitions().asScala.find(_.key() == PARQUET_COMPRESSION).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe HDFSSinkConnectorConfig.PARQUET_COMPRESSION_DEFAULT
+    definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
+  }
+
+  @Test
+  def checkParquetRowGroupSize(): Unit = {
+    val definition = hdfsSinkConnector.definitions().asScala.find(_.key() == PARQUET_ROW_GROUP_SIZE).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe HDFSSinkConnectorConfig.PARQUET_ROW_GROUP_SIZE_DEFAULT.toString
+    definition.valueType() shouldBe SettingDefinition.Type.INT.name()
+  }
+
+  @Test
+  def checkParquetPageSize(): Unit = {
+    val definition = hdfsSinkConnector.definitions().asScala.find(_.key() == PARQUET_PAGE_SIZE).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe HDFSSinkConnectorConfig.PARQUET_PAGE_SIZE_DEFAULT.toString
+    definition.valueType() shouldBe SettingDefinition.Type.INT.name()
+  }
+
   @Test
   def testSink1(): Unit = {
     val response = result(
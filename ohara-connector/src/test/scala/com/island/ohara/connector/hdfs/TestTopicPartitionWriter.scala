@@ -20,6 +20,7 @@ import java.io.OutputStream
 
 import com.island.ohara.common.data.{Cell, Column, Row}
 import com.island.ohara.common.util.CommonUtils
+import com.island.ohara.connector.hdfs.parquet.ParquetRecordWriterOutput
 import com.island.ohara.connector.hdfs.storage.{HDFSStorage, Storage}
 import com.island.ohara.connector.hdfs.text.RecordWriterOutput
 import com.island.ohara.kafka.connector.{RowSinkContext, RowSinkRecord, TaskSetting, TopicPartition}
@@ -182,6 +183,24 @@ class TestTopicPartitionWriter extends WithTestUtils with Matchers with MockitoS
     result shouldBe "/data/partition1/part-000000000-000000000.csv"
   }
 
+  @Test
+  def testFlushParquetFilePath(): Unit = {
+    val topicPartition = new TopicPartition("topic1", 0)
+    val sinkTaskContext = mock[RowSinkContext]
+    val hdfsSinkConnectorConfig = hdfsConfig(Map(HDFS_URL -> "file://tmp", DATAFILE_FORMAT -> "parquet"))
+    val storage = mock[Storage]
+
+    val topicPartitionWriter =
+      new TopicPartitionWriter(hdfsSinkConnectorConfig, sinkTaskContext, topicPartition, storage)
+
+    topicPartitionWriter.openTempFile(0)
+    topicPartitionWriter.tmpFilePath should endWith(".parquet")
+    topicPartitionWriter.recordWriterOutput.getClass shouldBe classOf[ParquetRecordWriterOutput]
+    topicPartitionWriter.processLineCount = 10
+    topicPartitionWriter.flushFilePath(Iterator("part-000000000-000000010.csv"), "/data/partition1") shouldBe
+      "/data/partition1/part-000000010-000000020.parquet"
+  }
+
   @Test
   def testFlushFilePath2(): Unit = {
     val topicPartition = new TopicPartition("topic1", 0)
@@ -232,4 +251,39 @@ class TestTopicPartitionWriter extends WithTestUtils with Matchers with MockitoS
     flushFilePath = topicPartitionWriter.flushFilePath(Iterator("part-000001000-000001499.csv"), dataDir)
     flushFilePath shouldBe "/data/partition1/part-000001499-000001721.csv"
   }
+
+  @Test
+  def testRecoverOffsetFromManifest(): Unit = {
+    val topicPartition = new TopicPartition("topic1", 0)
+    val rootDir = s"${testUtil.hdfs.tmpDirectory}/${CommonUtils.randomString(10)}"
+    val hdfsSinkConnectorConfig = hdfsConfig(
+      Map(HDFS_URL -> "file://tmp", TMP_DIR -> s"$rootDir/tmp", DATA_DIR -> s"$rootDir/data", FLUSH_LINE_COUNT -> "2"))
+    val storage = new HDFSStorage(testUtil.hdfs.fileSystem())
+    val rowSinkRecord = mock[RowSinkRecord]
+    when(rowSinkRecord.row).thenReturn(Row.of(Cell.of("column1", "value")))
+
+    val sinkTaskContext = mock[RowSinkContext]
+    val topicPartitionWriter =
+      new TopicPartitionWriter(hdfsSinkConnectorConfig, sinkTaskContext, topicPartition, storage)
+    topicPartitionWriter.open()
+    verify(sinkTaskContext).offset(topicPartition, 0)
+    (0 until 5).foreach(_ => topicPartitionWriter.write(Seq.empty, rowSinkRecord))
+    topicPartitionWriter.committedOffset shouldBe 4
+    storage.list(topicPartitionWriter.dataDir).map(FileUtils.fileName).toSet shouldBe Set(
+      "part-000000000-000000002.csv",
+      "part-000000002-000000004.csv")
+
+    // the uncommitted temp file is dropped by next open
+    val context2 = mock[RowSinkContext]
+    val topicPartitionWriter2 = new TopicPartitionWriter(hdfsSinkConnectorConfig, context2, topicPartition, storage)
+    topicPartitionWriter2.open()
+    verify(context2).offset(topicPartition, 4)
+    storage.list(topicPartitionWriter2.tmpDir).size shouldBe 0
+
+    // crash after recording the file but before the rename
+    topicPartitionWriter2.manifest.write("part-000000004-000000006.csv")
+    val context3 = mock[RowSinkContext]
+    new TopicPartitionWriter(hdfsSinkConnectorConfig, context3, topicPartition, storage).open()
+    verify(context3).offset(topicPartition, 4)
+  }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.hdfs.parquet
+
+import com.island.ohara.common.data.{Cell, Column, DataType, Row}
+import com.island.ohara.common.util.CommonUtils
+import com.island.ohara.connector.hdfs.storage.{HDFSStorage, Storage}
+import com.island.ohara.connector.hdfs.text.RecordWriterOutput
+import com.island.ohara.connector.hdfs.{HDFSSinkConnectorConfig, HDFS_URL, PARQUET_COMPRESSION}
+import com.island.ohara.kafka.connector.TaskSetting
+import com.island.ohara.testing.WithTestUtils
+import org.apache.hadoop.fs.{FileSystem, Path}
+import org.apache.parquet.example.data.Group
+import org.apache.parquet.hadoop.example.GroupReadSupport
+import org.apache.parquet.hadoop.metadata.CompressionCodecName
+import org.apache.parquet.hadoop.{ParquetFileReader, ParquetReader}
+import org.apache.parquet.schema.OriginalType
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName
+import org.junit.Test
+import org.scalatest.Matchers
+
+import scala.collection.JavaConverters._
+
+class TestParquetRecordWriterOutput extends WithTestUtils with Matchers {
+  private[this] val fileSystem: FileSystem = testUtil.hdfs.fileSystem
+  private[this] val storage: Storage = new HDFSStorage(fileSystem)
+
+  private[this] def hdfsConfig(settings: Map[String, String]): HDFSSinkConnectorConfig =
+    HDFSSinkConnectorConfig(TaskSetting.of((settings + (HDFS_URL -> "hdfs://test:9000")).asJava))
+
+  private[this] def tmpPath(): String = s"${testUtil.hdfs.tmpDirectory}/${CommonUtils.randomString(5)}.parquet"
+
+  private[this] def readAll(path: String): Seq[Group] = {
+    val reader = ParquetReader.builder(new GroupReadSupport, new Path(path)).withConf(fileSystem.getConf).build()
+    try Iterator.continually(reader.read()).takeWhile(_ != null).toList
+    finally reader.close()
+  }
+
+  private[this] def write(path: String, schema: Seq[Column], rows: Row*): Unit = {
+    val output: RecordWriterOutput = new ParquetRecordWriterOutput(hdfsConfig(Map.empty), storage, path)
+    try rows.foreach(output.write(true, schema, _))
+    finally output.close()
+  }
+
+  @Test
+  def testNativeTypes(): Unit = {
+    val path = tmpPath()
+    val schema = Seq(
+      Column.builder().name("boolean").dataType(DataType.BOOLEAN).order(0).build(),
+      Column.builder().name("byte").dataType(DataType.BYTE).order(1).build(),
+      Column.builder().name("short").dataType(DataType.SHORT).order(2).build(),
+      Column.builder().name("int").dataType(DataType.INT).order(3).build(),
+      Column.builder().name("long").dataType(DataType.LONG).order(4).build(),
+      Column.builder().name("float").dataType(DataType.FLOAT).order(5).build(),
+      Column.builder().name("double").dataType(DataType.DOUBLE).order(6).build(),
+      Column.builder().name("string").dataType(DataType.STRING).order(7).build(),
+      Column.builder().name("bytes").dataType(DataType.BYTES).order(8).build()
+    )
+    val row = Row.of(
+      Cell.of("boolean", true),
+      Cell.of("byte", 1.toByte),
+      Cell.of("short", 2.toShort),
+      Cell.of("int", 3),
+      Cell.of("long", 4L),
+      Cell.of("float", 5.0f),
+      Cell.of("double", 6.0d),
+      Cell.of("string", "7"),
+      Cell.of("bytes", Array[Byte](8, 9))
+    )
+    write(path, schema, row, row)
+
+    val groups = readAll(path)
+    groups.size shouldBe 2
+    val group = groups.head
+    group.getBoolean("boolean", 0) shouldBe true
+    group.getInteger("byte", 0) shouldBe 1
+    group.getInteger("short", 0) shouldBe 2
+    group.getInteger("int", 0) shouldBe 3
+    group.getLong("long", 0) shouldBe 4L
+    group.getFloat("float", 0) shouldBe 5.0f
+    group.getDouble("double", 0) shouldBe 6.0d
+    group.getString("string", 0) shouldBe "7"
+    group.getBinary("bytes", 0).getBytes shouldBe Array[Byte](8, 9)
+
+    val parquetSchema = group.getType
+    parquetSchema.getType("byte").asPrimitiveType().getOriginalType shouldBe OriginalType.INT_8
+    parquetSchema.getType("short").asPrimitiveType().getOriginalType shouldBe OriginalType.INT_16
+    parquetSchema.getType("string").asPrimitiveType().getOriginalType shouldBe OriginalType.UTF8
+    parquetSchema.getType("bytes").asPrimitiveType().getPrimitiveTypeName shouldBe PrimitiveTypeName.BINARY
+  }
+
+  @Test
+  def testOrderAndNewName(): Unit = {
+    val path = tmpPath()
+    val schema = Seq(
+      Column.builder().name("column1").newName("COL1").dataType(DataType.STRING).order(0).build(),
+      Column.builder().name("column2").newName("COL2").dataType(DataType.STRING).order(2).build(),
+      Column.builder().name("column3").newName("COL3").dataType(DataType.STRING).order(1).build()
+    )
+    write(path,
+          schema,
+          Row.of(Cell.of("column1", "value1"), Cell.of("column2", "value2"), Cell.of("column3", "value3")))
+
+    val group = readAll(path).head
+    group.getType.getFields.asScala.map(_.getName) shouldBe Seq("COL1", "COL3", "COL2")
+    group.getString("COL2", 0) shouldBe "value2"
+  }
+
+  @Test
+  def testSchemaEmpty(): Unit = {
+    val path = tmpPath()
+    write(path, Seq.empty, Row.of(Cell.of("cf0", 123), Cell.of("cf1", "abc")))
+
+    val group = readAll(path).head
+    group.getInteger("cf0", 0) shouldBe 123
+    group.getString("cf1", 0) shouldBe "abc"
+  }
+
+  @Test
+  def testAbsentCellIsNull(): Unit = {
+    val path = tmpPath()
+    val schema = Seq(
+      Column.builder().name("a").dataType(DataType.INT).order(0).build(),
+      Column.builder().name("b").dataType(DataType.INT).order(1).build()
+    )
+    write(path, schema, Row.of(Cell.of("a", 1)), Row.of(Cell.of("b", 2), Cell.of("a", 3)))
+
+    val groups = readAll(path)
+    groups.size shouldBe 2
+    groups.head.getFieldRepetitionCount("b") shouldBe 0
+    groups.head.getInteger("a", 0) shouldBe 1
+    groups(1).getInteger("a", 0) shouldBe 3
+    groups(1).getInteger("b", 0) shouldBe 2
+  }
+
+  @Test
+  def testEmptyRecord(): Unit = {
+    val path = tmpPath()
+    write(path,
+          Seq(Column.builder().name("c").dataType(DataType.DOUBLE).order(0).build()),
+          Row.of(Cell.of("cf0", 123), Cell.of("cf1", false)))
+    storage.exist(path) shouldBe false
+  }
+
+  @Test
+  def testUnsupportedType(): Unit = {
+    an[IllegalArgumentException] should be thrownBy write(
+      tmpPath(),
+      Seq(Column.builder().name("c").dataType(DataType.OBJECT).order(0).build()),
+      Row.of(Cell.of("c", "abc")))
+  }
+
+  @Test
+  def testCompression(): Unit = {
+    val path = tmpPath()
+    val output = new ParquetRecordWriterOutput(hdfsConfig(Map(PARQUET_COMPRESSION -> "gzip")), storage, path)
+    try output.write(false,
+                     Seq(Column.builder().name("c").dataType(DataType.STRING).order(0).build()),
+                     Row.of(Cell.of("c", "abc")))
+    finally output.close()
+
+    val footer = ParquetFileReader.readFooter(fileSystem.getConf, new Path(path))
+    footer.getBlocks.get(0).getColumns.get(0).getCodec shouldBe CompressionCodecName.GZIP
+    readAll(path).head.getString("c", 0) shouldBe "abc"
+  }
+}
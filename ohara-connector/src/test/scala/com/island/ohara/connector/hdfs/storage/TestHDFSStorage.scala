@@ -65,6 +65,21 @@ class TestHDFSStorage extends WithTestUtils with Matchers {
     result.toString shouldBe text
   }
 
+  @Test
+  def testReadFile(): Unit = {
+    val fileName: String = s"${testUtil.hdfs.tmpDirectory}/${CommonUtils.randomString(10)}.txt"
+    val hdfsStorage: Storage = new HDFSStorage(testUtil.hdfs.fileSystem)
+    val outputStream: OutputStream = hdfsStorage.open(fileName, false)
+    outputStream.write("helloworld".getBytes)
+    outputStream.close()
+
+    val inputStream: InputStream = hdfsStorage.read(fileName)
+    try {
+      val bytes = Stream.continually(inputStream.read()).takeWhile(_ != -1).map(_.toByte).toArray
+      new String(bytes) shouldBe "helloworld"
+    } finally inputStream.close()
+  }
+
   @Test
   def testRename(): Unit = {
     val fileSystem: FileSystem = testUtil.hdfs.fileSystem
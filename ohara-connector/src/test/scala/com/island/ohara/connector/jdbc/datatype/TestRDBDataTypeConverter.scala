@@ -32,7 +32,8 @@ class TestRDBDataTypeConverter extends MediumTest with Matchers with MockitoSuga
   @Test
   def testConverterBooleanValue(): Unit = {
     val resultSet: ResultSet = mock[ResultSet]
-    when(resultSet.getBoolean("column1")).thenReturn(true)
+    when(resultSet.findColumn("column1")).thenReturn(1)
+    when(resultSet.getBoolean(1)).thenReturn(true)
     val column = RdbColumn("column1", RDBDataTypeConverter.RDB_TYPE_BOOLEAN, false)
     val rdbDataTypeConverter: RDBDataTypeConverter = new RDBDataTypeConverter()
     val result: Object = rdbDataTypeConverter.converterValue(resultSet, column)
@@ -42,8 +43,9 @@ class TestRDBDataTypeConverter extends MediumTest with Matchers with MockitoSuga
   @Test
   def testConverterBitValue(): Unit = {
     val resultSet: ResultSet = mock[ResultSet]
+    when(resultSet.findColumn("column1")).thenReturn(1)
     val value: Byte = 5
-    when(resultSet.getByte("column1")).thenReturn(value)
+    when(resultSet.getByte(1)).thenReturn(value)
     val column = RdbColumn("column1", RDBDataTypeConverter.RDB_TYPE_BIT, false)
     val rDBDataTypeConverter: RDBDataTypeConverter = new RDBDataTypeConverter()
     val result: Object = rDBDataTypeConverter.converterValue(resultSet, column)
@@ -58,7 +60,8 @@ class TestRDBDataTypeConverter extends MediumTest with Matchers with MockitoSuga
   @Test
   def testConverterIntegerValue(): Unit = {
     val resultSet: ResultSet = mock[ResultSet]
-    when(resultSet.getInt("column1")).thenReturn(100)
+    when(resultSet.findColumn("column1")).thenReturn(1)
+    when(resultSet.getInt(1)).thenReturn(100)
     val column = RdbColumn("column1", RDBDataTypeConverter.RDB_TYPE_INTEGER, false)
     val rdbDataTypeConverter: RDBDataTypeConverter = new RDBDataTypeConverter()
     val result: Object = rdbDataTypeConverter.converterValue(resultSet, column)
@@ -68,7 +71,8 @@ class TestRDBDataTypeConverter extends MediumTest with Matchers with MockitoSuga
   @Test
   def testConverterChar(): Unit = {
     val resultSet: ResultSet = mock[ResultSet]
-    when(resultSet.getString("column1")).thenReturn("h")
+    when(resultSet.findColumn("column1")).thenReturn(1)
+    when(resultSet.getString(1)).thenReturn("h")
     val column = RdbColumn("column1", RDBDataTypeConverter.RDB_TYPE_CHAR, false)
     val rdbDataTypeConverter: RDBDataTypeConverter = new RDBDataTypeConverter()
     val result: Object = rdbDataTypeConverter.converterValue(resultSet, column)
@@ -78,7 +82,8 @@ class TestRDBDataTypeConverter extends MediumTest with Matchers with MockitoSuga
   @Test
   def testConveterTimestamp(): Unit = {
     val resultSet: ResultSet = mock[ResultSet]
-    when(resultSet.getTimestamp("column1", DateTimeUtils.CALENDAR)).thenReturn(new Timestamp(0L))
+    when(resultSet.findColumn("column1")).thenReturn(1)
+    when(resultSet.getTimestamp(1, DateTimeUtils.CALENDAR)).thenReturn(new Timestamp(0L))
     val column = RdbColumn("column1", RDBDataTypeConverter.RDB_TYPE_TIMESTAMP, false)
     val rdbDataTypeConverter: RDBDataTypeConverter = new RDBDataTypeConverter()
     val result: Object = rdbDataTypeConverter.converterValue(resultSet, column)
@@ -90,10 +95,25 @@ class TestRDBDataTypeConverter extends MediumTest with Matchers with MockitoSuga
   @Test
   def testConverterVarchar(): Unit = {
     val resultSet: ResultSet = mock[ResultSet]
-    when(resultSet.getString("column1")).thenReturn("hello")
+    when(resultSet.findColumn("column1")).thenReturn(1)
+    when(resultSet.getString(1)).thenReturn("hello")
     val column = RdbColumn("column1", RDBDataTypeConverter.RDB_TYPE_VARCHAR, false)
     val rdbDataTypeConverter: RDBDataTypeConverter = new RDBDataTypeConverter()
     val result: Object = rdbDataTypeConverter.converterValue(resultSet, column)
     result shouldBe "hello"
   }
+
+  @Test
+  def testValueReader(): Unit = {
+    val resultSet: ResultSet = mock[ResultSet]
+    when(resultSet.getLong(2)).thenReturn(100L)
+    when(resultSet.getTimestamp(3, DateTimeUtils.CALENDAR)).thenReturn(new Timestamp(0L))
+    val rdbDataTypeConverter: RDBDataTypeConverter = new RDBDataTypeConverter()
+    val bigint = RdbColumn("column1", RDBDataTypeConverter.RDB_TYPE_BIGINT, false)
+    rdbDataTypeConverter.valueReader(bigint)(resultSet, 2) shouldBe 100L
+    rdbDataTypeConverter
+      .valueReader(RdbColumn("column1", RDBDataTypeConverter.RDB_TYPE_TIMESTAMP, false))(resultSet, 3)
+      .toString shouldBe "1970-01-01 08:00:00.0"
+    an[RuntimeException] should be thrownBy rdbDataTypeConverter.valueReader(RdbColumn("column1", "abc", false))
+  }
 }
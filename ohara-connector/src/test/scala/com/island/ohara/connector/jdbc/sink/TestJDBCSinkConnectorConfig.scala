@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc.sink
+
+import com.island.ohara.common.rule.SmallTest
+import com.island.ohara.kafka.connector.TaskSetting
+import org.junit.Test
+import org.scalatest.Matchers
+
+import scala.collection.JavaConverters._
+
+class TestJDBCSinkConnectorConfig extends SmallTest with Matchers {
+
+  private[this] val settings = Map(DB_URL -> "aa", DB_USERNAME -> "aa", DB_PASSWORD -> "aa", DB_TABLENAME -> "aa")
+
+  private[this] def jdbcConfig(settings: Map[String, String]): JDBCSinkConnectorConfig =
+    JDBCSinkConnectorConfig(TaskSetting.of(settings.asJava))
+
+  @Test
+  def testDefault(): Unit = {
+    val config = jdbcConfig(settings)
+    config.dbURL shouldBe "aa"
+    config.dbUserName shouldBe "aa"
+    config.dbPassword shouldBe "aa"
+    config.dbTableName shouldBe "aa"
+    config.writeMode shouldBe WRITE_MODE_DEFAULT
+    config.batchSize shouldBe BATCH_SIZE_DEFAULT
+    config.postgresqlCopy shouldBe POSTGRESQL_COPY_DEFAULT
+    config shouldBe jdbcConfig(config.toMap)
+  }
+
+  @Test
+  def testSetting(): Unit = {
+    val config =
+      jdbcConfig(settings ++ Map(WRITE_MODE -> "UPSERT", BATCH_SIZE -> "10", POSTGRESQL_COPY -> "true"))
+    config.writeMode shouldBe WRITE_MODE_UPSERT
+    config.batchSize shouldBe 10
+    config.postgresqlCopy shouldBe true
+    config shouldBe jdbcConfig(config.toMap)
+  }
+
+  @Test
+  def testException(): Unit = {
+    intercept[NoSuchElementException] {
+      jdbcConfig(Map())
+    }.getMessage shouldBe s"$DB_URL doesn't exist"
+    an[IllegalArgumentException] should be thrownBy jdbcConfig(settings + (WRITE_MODE -> "abc"))
+    an[IllegalArgumentException] should be thrownBy jdbcConfig(settings + (BATCH_SIZE -> "0"))
+  }
+}
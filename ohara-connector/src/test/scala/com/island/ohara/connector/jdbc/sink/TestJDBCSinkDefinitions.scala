@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc.sink
+
+import com.island.ohara.common.rule.SmallTest
+import com.island.ohara.kafka.connector.json.SettingDefinition
+import org.junit.Test
+import org.scalatest.Matchers
+
+import scala.collection.JavaConverters._
+
+class TestJDBCSinkDefinitions extends SmallTest with Matchers {
+
+  private[this] val jdbcSink = new JDBCSinkConnector
+
+  @Test
+  def checkDbURL(): Unit = {
+    val definition = jdbcSink.definitions().asScala.find(_.key() == DB_URL).get
+    definition.required() shouldBe true
+    definition.defaultValue() shouldBe null
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
+  }
+
+  @Test
+  def checkTableName(): Unit = {
+    val definition = jdbcSink.definitions().asScala.find(_.key() == DB_TABLENAME).get
+    definition.required() shouldBe true
+    definition.defaultValue() shouldBe null
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.JDBC_TABLE.name()
+  }
+
+  @Test
+  def checkWriteMode(): Unit = {
+    val definition = jdbcSink.definitions().asScala.find(_.key() == WRITE_MODE).get
+    definition.required() shouldBe false
+    definition.defaultValue() shouldBe WRITE_MODE_DEFAULT
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
+  }
+
+  @Test
+  def checkBatchSize(): Unit = {
+    val definition = jdbcSink.definitions().asScala.find(_.key() == BATCH_SIZE).get
+    definition.required() shouldBe false
+    definition.defaultValue() shouldBe BATCH_SIZE_DEFAULT.toString
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.INT.name()
+  }
+
+  @Test
+  def checkPostgresqlCopy(): Unit = {
+    val definition = jdbcSink.definitions().asScala.find(_.key() == POSTGRESQL_COPY).get
+    definition.required() shouldBe false
+    definition.defaultValue() shouldBe POSTGRESQL_COPY_DEFAULT.toString
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.BOOLEAN.name()
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc.sink
+
+import com.island.ohara.client.configurator.v0.QueryApi.RdbColumn
+import com.island.ohara.client.database.DatabaseClient
+import com.island.ohara.common.data.{Cell, Column, DataType, Row, Serializer}
+import com.island.ohara.common.rule.MediumTest
+import com.island.ohara.common.util.Releasable
+import com.island.ohara.kafka.connector.json.ConnectorFormatter
+import com.island.ohara.testing.service.Database
+import org.apache.kafka.clients.consumer.OffsetAndMetadata
+import org.apache.kafka.common.TopicPartition
+import org.apache.kafka.connect.sink.SinkRecord
+import org.junit.{After, Before, Test}
+import org.scalatest.Matchers
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
+
+class TestJDBCSinkTask extends MediumTest with Matchers {
+
+  private[this] val db = Database.local()
+  private[this] val client = DatabaseClient.builder.url(db.url()).user(db.user()).password(db.password()).build
+  private[this] val tableName = "table1"
+
+  private[this] val partition = new TopicPartition("topic", 0)
+
+  private[this] var offset = 0L
+
+  @Before
+  def setup(): Unit =
+    client.createTable(tableName, Seq(RdbColumn("id", "integer", true), RdbColumn("name", "VARCHAR(45)", false)))
+
+  private[this] def createTask(settings: Map[String, String] = Map.empty,
+                               schema: Seq[Column] = Seq.empty): JDBCSinkTask = {
+    val task = new JDBCSinkTask()
+    val formatter = ConnectorFormatter
+      .of()
+      .name(methodName())
+      .topicName(partition.topic())
+      .settings((Map(DB_URL -> db.url, DB_USERNAME -> db.user, DB_PASSWORD -> db.password, DB_TABLENAME -> tableName)
+        ++ settings).asJava)
+    // the empty schema means all cells are written
+    task.start((if (schema.isEmpty) formatter else formatter.columns(schema.asJava)).raw())
+    task
+  }
+
+  private[this] def put(task: JDBCSinkTask, rows: Row*): Unit = task.put(rows.map { row =>
+    offset += 1
+    new SinkRecord(partition.topic(), partition.partition(), null, Serializer.ROW.to(row), null, null, offset)
+  }.asJava)
+
+  private[this] def preCommit(task: JDBCSinkTask): Unit =
+    task.preCommit(Map(partition -> new OffsetAndMetadata(offset)).asJava).get(partition).offset() shouldBe offset
+
+  private[this] def rows(): Seq[(Int, String)] = {
+    val statement = db.connection.createStatement()
+    try {
+      val resultSet = statement.executeQuery(s"""SELECT * FROM \"$tableName\" ORDER BY \"id\"""")
+      try {
+        val buf = new ArrayBuffer[(Int, String)]()
+        while (resultSet.next()) buf += ((resultSet.getInt("id"), resultSet.getString("name")))
+        buf
+      } finally resultSet.close()
+    } finally statement.close()
+  }
+
+  @Test
+  def testInsert(): Unit = {
+    val task = createTask(Map(BATCH_SIZE -> "2"))
+    try {
+      put(task, (0 until 5).map(i => Row.of(Cell.of("id", i), Cell.of("name", s"n$i"))): _*)
+      // the rows are invisible before commit
+      rows() shouldBe Seq.empty
+      preCommit(task)
+      rows() shouldBe (0 until 5).map(i => (i, s"n$i"))
+    } finally task.stop()
+  }
+
+  @Test
+  def testSchema(): Unit = {
+    val schema = Seq(
+      Column.builder().name("b").newName("name").dataType(DataType.STRING).order(1).build(),
+      Column.builder().name("a").newName("id").dataType(DataType.INT).order(0).build()
+    )
+    val task = createTask(schema = schema)
+    try {
+      // the row lacking columns is skipped
+      put(task, Row.of(Cell.of("a", 0), Cell.of("b", "n0"), Cell.of("c", true)), Row.of(Cell.of("a", 1)))
+      preCommit(task)
+      rows() shouldBe Seq((0, "n0"))
+    } finally task.stop()
+  }
+
+  @Test
+  def testUpsert(): Unit = {
+    val task = createTask(Map(WRITE_MODE -> WRITE_MODE_UPSERT))
+    try {
+      put(task, Row.of(Cell.of("id", 0), Cell.of("name", "n0")), Row.of(Cell.of("id", 1), Cell.of("name", "n1")))
+      preCommit(task)
+      put(task, Row.of(Cell.of("id", 1), Cell.of("name", "n2")))
+      preCommit(task)
+      rows() shouldBe Seq((0, "n0"), (1, "n2"))
+    } finally task.stop()
+  }
+
+  @Test
+  def testRollback(): Unit = {
+    val task = createTask()
+    try {
+      put(task, Row.of(Cell.of("id", 0), Cell.of("name", "n0")))
+      preCommit(task)
+      // the duplicate key fails the batch so the uncommitted rows are discarded
+      put(task, Row.of(Cell.of("id", 1), Cell.of("name", "n1")), Row.of(Cell.of("id", 0), Cell.of("name", "n0")))
+      an[IllegalStateException] should be thrownBy
+        task.preCommit(Map(partition -> new OffsetAndMetadata(offset)).asJava)
+      rows() shouldBe Seq((0, "n0"))
+      // the task is able to write data again
+      put(task, Row.of(Cell.of("id", 1), Cell.of("name", "n1")))
+      preCommit(task)
+      rows() shouldBe Seq((0, "n0"), (1, "n1"))
+    } finally task.stop()
+  }
+
+  @Test
+  def testUpsertSql(): Unit = {
+    JDBCSinkTask.insertSql("t", Seq("k", "v")) shouldBe "INSERT INTO \"t\" (\"k\", \"v\") VALUES (?, ?)"
+    JDBCSinkTask.upsertSql(JDBCSinkTask.MYSQL, "t", Seq("k", "v"), Seq("k")) shouldBe
+      "INSERT INTO \"t\" (\"k\", \"v\") VALUES (?, ?) ON DUPLICATE KEY UPDATE \"v\" = VALUES(\"v\")"
+    JDBCSinkTask.upsertSql(JDBCSinkTask.POSTGRESQL, "t", Seq("k", "v"), Seq("k")) shouldBe
+      "INSERT INTO \"t\" (\"k\", \"v\") VALUES (?, ?) ON CONFLICT (\"k\") DO UPDATE SET \"v\" = EXCLUDED.\"v\""
+    // the keys are updated if there is no other column
+    JDBCSinkTask.upsertSql(JDBCSinkTask.MYSQL, "t", Seq("k"), Seq("k")) shouldBe
+      "INSERT INTO \"t\" (\"k\") VALUES (?) ON DUPLICATE KEY UPDATE \"k\" = VALUES(\"k\")"
+    an[IllegalArgumentException] should be thrownBy JDBCSinkTask.upsertSql("abc", "t", Seq("k"), Seq("k"))
+  }
+
+  @Test
+  def testCopyCsv(): Unit = {
+    JDBCSinkTask.copySql("t", Seq("k", "v")) shouldBe "COPY \"t\" (\"k\", \"v\") FROM STDIN WITH CSV"
+    val builder = new StringBuilder
+    JDBCSinkTask.appendCsv(builder, "a\"b,c")
+    builder.append(',')
+    JDBCSinkTask.appendCsv(builder, null)
+    builder.append(',')
+    JDBCSinkTask.appendCsv(builder, 10)
+    builder.toString shouldBe "\"a\"\"b,c\",,\"10\""
+  }
+
+  @Test
+  def testCopyCsvBytes(): Unit = {
+    val builder = new StringBuilder
+    JDBCSinkTask.appendCsv(builder, Array[Byte](0, 15, 16, -1))
+    builder.append(',')
+    JDBCSinkTask.appendCsv(builder, Array.emptyByteArray)
+    // the hex format of bytea
+    builder.toString shouldBe "\"\\x000f10ff\",\"\\x\""
+  }
+
+  @After
+  def tearDown(): Unit = {
+    Releasable.close(client)
+    Releasable.close(db)
+  }
+}
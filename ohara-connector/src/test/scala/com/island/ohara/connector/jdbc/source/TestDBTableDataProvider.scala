@@ -20,9 +20,10 @@ import java.sql.{Statement, Timestamp}
 
 import com.island.ohara.client.configurator.v0.QueryApi.RdbColumn
 import com.island.ohara.client.database.DatabaseClient
+import com.island.ohara.common.data.Row
 import com.island.ohara.common.rule.MediumTest
 import com.island.ohara.common.util.{CommonUtils, Releasable}
-import com.island.ohara.connector.jdbc.util.{ColumnInfo, DateTimeUtils}
+import com.island.ohara.connector.jdbc.util.DateTimeUtils
 import com.island.ohara.testing.service.Database
 import org.junit.{After, Before, Test}
 import org.scalatest.Matchers
@@ -60,19 +61,16 @@ class TestDBTableDataProvider extends MediumTest with Matchers {
   @Test
   def testRowListResultSet(): Unit = {
     val dbTableDataProvider = new DBTableDataProvider(db.url, db.user, db.password)
-    val results: QueryResultIterator = dbTableDataProvider.executeQuery(tableName, "column1", new Timestamp(0)) //0 is 1970-01-01 00:00:00
-
-    var count = 0
-    val resultList: ListBuffer[Seq[ColumnInfo[_]]] = new ListBuffer[Seq[ColumnInfo[_]]]
-    while (results.hasNext) {
-      val listBuffer: Seq[ColumnInfo[_]] = results.next()
-      resultList += listBuffer
-      count = count + 1
-    }
-    count shouldBe 3
-    resultList.head(3).columnName shouldBe "column4"
-    resultList.head(3).columnType shouldBe "INT"
-    resultList.head(3).value shouldBe 1
+    //0 is 1970-01-01 00:00:00
+    val results = dbTableDataProvider.executeQuery(tableName, "column1", Seq.empty, new Timestamp(0), Seq.empty, 10, 0)
+    try {
+      val reader = results.rowReader(Seq.empty, "column1", Seq.empty)
+      val rows = new ListBuffer[Row]
+      while (reader.next()) rows += reader.row()
+      rows.size shouldBe 3
+      rows.head.cell(3).name shouldBe "column4"
+      rows.head.cell(3).value shouldBe 1
+    } finally results.close()
   }
 
   @Test
@@ -105,6 +103,90 @@ class TestDBTableDataProvider extends MediumTest with Matchers {
     val dbTableDataProvider = new DBTableDataProvider(db.url, db.user, db.password)
     dbTableDataProvider.isTableExists(tableName) shouldBe true
   }
+
+  @Test
+  def testQuerySql(): Unit = {
+    DBTableDataProvider.querySql("t", "ts", Seq.empty, hasKeyOffsets = false) shouldBe
+      "SELECT * FROM \"t\" WHERE \"ts\" > ? AND \"ts\" < ? ORDER BY \"ts\""
+    DBTableDataProvider.querySql("t", "ts", Seq("k"), hasKeyOffsets = false) shouldBe
+      "SELECT * FROM \"t\" WHERE \"ts\" > ? AND \"ts\" < ? ORDER BY \"ts\", \"k\""
+    DBTableDataProvider.querySql("t", "ts", Seq("k0", "k1"), hasKeyOffsets = true) shouldBe
+      "SELECT * FROM \"t\" WHERE (\"ts\" > ? OR (\"ts\" = ? AND (\"k0\" > ? OR (\"k0\" = ? AND \"k1\" > ?))))" +
+        " AND \"ts\" < ? ORDER BY \"ts\", \"k0\", \"k1\""
+    DBTableDataProvider.querySql("t", "ts", Seq.empty, false, Some(("p", PartitionRange(Some(1), Some(2))))) shouldBe
+      "SELECT * FROM \"t\" WHERE \"ts\" > ? AND \"ts\" < ? AND \"p\" >= ? AND \"p\" < ? ORDER BY \"ts\""
+    DBTableDataProvider.querySql("t", "ts", Seq.empty, false, Some(("p", PartitionRange(None, Some(2))))) shouldBe
+      "SELECT * FROM \"t\" WHERE \"ts\" > ? AND \"ts\" < ? AND \"p\" < ? ORDER BY \"ts\""
+  }
+
+  @Test
+  def testColumnRange(): Unit = {
+    val dbTableDataProvider = new DBTableDataProvider(db.url, db.user, db.password)
+    try {
+      dbTableDataProvider.columnRange(tableName, "column4") shouldBe Some((1L, 5L))
+      dbTableDataProvider.columnRange(tableName, "column1").get._1 shouldBe
+        Timestamp.valueOf("2018-09-01 00:00:00").getTime
+      an[IllegalArgumentException] should be thrownBy dbTableDataProvider.columnRange(tableName, "column2")
+      an[NoSuchElementException] should be thrownBy dbTableDataProvider.columnRange(tableName, "column5")
+      client.createTable("table4", Seq(RdbColumn("ts", "TIMESTAMP", true)))
+      dbTableDataProvider.columnRange("table4", "ts") shouldBe None
+    } finally dbTableDataProvider.close()
+  }
+
+  @Test
+  def testRangeQuery(): Unit = {
+    val dbTableDataProvider = new DBTableDataProvider(db.url, db.user, db.password)
+    def values(range: PartitionRange): Seq[Int] = {
+      val results = dbTableDataProvider
+        .executeQuery(tableName, "column1", Seq.empty, new Timestamp(0), Seq.empty, 10, 0, Some(("column4", range)))
+      try results.map(_.find(_.columnName == "column4").get.value.asInstanceOf[Int]).toList
+      finally results.close()
+    }
+    try {
+      // the rows in the future are excluded
+      values(PartitionRange(None, None)) shouldBe Seq(1, 2, 3)
+      values(PartitionRange(None, Some(2))) shouldBe Seq(1)
+      values(PartitionRange(Some(2), Some(3))) shouldBe Seq(2)
+      values(PartitionRange(Some(2), None)) shouldBe Seq(2, 3)
+    } finally dbTableDataProvider.close()
+  }
+
+  @Test
+  def testKeyColumns(): Unit = {
+    val dbTableDataProvider = new DBTableDataProvider(db.url, db.user, db.password)
+    try {
+      // the pk is the timestamp column
+      dbTableDataProvider.keyColumns(tableName, "column1") shouldBe Seq.empty
+      client.createTable(
+        "table2",
+        Seq(RdbColumn("ts", "TIMESTAMP", false), RdbColumn("id", "integer", true), RdbColumn("v", "integer", false)))
+      dbTableDataProvider.keyColumns("table2", "ts").map(_.name) shouldBe Seq("id")
+    } finally dbTableDataProvider.close()
+  }
+
+  @Test
+  def testKeysetQuery(): Unit = {
+    client.createTable("table3", Seq(RdbColumn("ts", "TIMESTAMP", false), RdbColumn("id", "integer", true)))
+    val statement: Statement = db.connection.createStatement()
+    (0 until 5).foreach(i => statement.executeUpdate(s"INSERT INTO table3(ts,id) VALUES('2018-09-01 00:00:00', $i)"))
+
+    val dbTableDataProvider = new DBTableDataProvider(db.url, db.user, db.password)
+    def ids(keys: Seq[Any], maxRows: Int): Seq[Int] = {
+      val results = dbTableDataProvider.executeQuery("table3", "ts", Seq("id"), new Timestamp(0), keys, 10, maxRows)
+      try results.map(_.find(_.columnName == "id").get.value.asInstanceOf[Int]).toList
+      finally results.close()
+    }
+    try {
+      ids(Seq.empty, 2) shouldBe Seq(0, 1, 2, 3, 4).take(2)
+      // the rows having the same timestamp are paged by key
+      val offset = Timestamp.valueOf("2018-09-01 00:00:00")
+      val results = dbTableDataProvider.executeQuery("table3", "ts", Seq("id"), offset, Seq(1), 10, 2)
+      try results.map(_.find(_.columnName == "id").get.value).toList shouldBe Seq(2, 3)
+      finally results.close()
+      ids(Seq.empty, 0) shouldBe Seq(0, 1, 2, 3, 4)
+    } finally dbTableDataProvider.close()
+  }
+
   @After
   def tearDown(): Unit = {
     Releasable.close(client)
@@ -73,7 +73,11 @@ class TestJDBCSourceConnectorConfig extends SmallTest with Matchers {
       dbCatalogPattern = None,
       dbSchemaPattern = None,
       mode = "123",
-      timestampColumnName = "123"
+      timestampColumnName = "123",
+      fetchSize = 10,
+      maxRowsPerPoll = 100,
+      partitionColumnName = None,
+      partitionRanges = None
     )
 
     config.toMap.contains(DB_CATALOG_PATTERN) shouldBe false
@@ -108,4 +112,61 @@ class TestJDBCSourceConnectorConfig extends SmallTest with Matchers {
     jdbcConfig(configMap2) shouldBe jdbcConfig(configMap2)
     jdbcConfig(configMap2) shouldBe jdbcConfig(jdbcConfig(configMap2).toMap)
   }
+
+  @Test
+  def testFetchSizeAndMaxRows(): Unit = {
+    val settings =
+      Map(DB_URL -> "aa", DB_USERNAME -> "aa", DB_PASSWORD -> "aa", DB_TABLENAME -> "aa", TIMESTAMP_COLUMN_NAME -> "aa")
+    jdbcConfig(settings).fetchSize shouldBe FETCH_SIZE_DEFAULT
+    jdbcConfig(settings).maxRowsPerPoll shouldBe MAX_ROWS_PER_POLL_DEFAULT
+
+    val config = jdbcConfig(settings ++ Map(FETCH_SIZE -> "10", MAX_ROWS_PER_POLL -> "20"))
+    config.fetchSize shouldBe 10
+    config.maxRowsPerPoll shouldBe 20
+    config shouldBe jdbcConfig(config.toMap)
+
+    an[IllegalArgumentException] should be thrownBy jdbcConfig(settings + (FETCH_SIZE -> "0"))
+    an[IllegalArgumentException] should be thrownBy jdbcConfig(settings + (MAX_ROWS_PER_POLL -> "-1"))
+  }
+
+  @Test
+  def testPartition(): Unit = {
+    val settings =
+      Map(DB_URL -> "aa", DB_USERNAME -> "aa", DB_PASSWORD -> "aa", DB_TABLENAME -> "aa", TIMESTAMP_COLUMN_NAME -> "aa")
+    jdbcConfig(settings).partitionColumnName shouldBe None
+    jdbcConfig(settings).partitionRange shouldBe None
+
+    val config =
+      jdbcConfig(settings ++ Map(PARTITION_COLUMN_NAME -> "id", PARTITION_BOUNDS -> "10,20", PARTITION_INDEX -> "1"))
+    config.partitionColumnName shouldBe Some("id")
+    config.partitionRanges shouldBe Some(PartitionRanges(Seq(10, 20), 1))
+    config.partitionRange shouldBe Some(PartitionRange(Some(10), Some(20)))
+    config shouldBe jdbcConfig(config.toMap)
+
+    jdbcConfig(settings ++ Map(PARTITION_BOUNDS -> "10,20", PARTITION_INDEX -> "0")).partitionRange shouldBe
+      Some(PartitionRange(None, Some(10)))
+    jdbcConfig(settings ++ Map(PARTITION_BOUNDS -> "10,20", PARTITION_INDEX -> "2")).partitionRange shouldBe
+      Some(PartitionRange(Some(20), None))
+    // single range has no bounds
+    jdbcConfig(settings + (PARTITION_INDEX -> "0")).partitionRange shouldBe Some(PartitionRange(None, None))
+    an[IllegalArgumentException] should be thrownBy jdbcConfig(
+      settings ++ Map(PARTITION_BOUNDS -> "10,20", PARTITION_INDEX -> "3"))
+  }
+
+  @Test
+  def testSplitRange(): Unit = {
+    PartitionRange.split(0, 100, 1) shouldBe Seq(PartitionRange(None, None))
+    PartitionRange.split(0, 100, 4) shouldBe Seq(
+      PartitionRange(None, Some(25)),
+      PartitionRange(Some(25), Some(50)),
+      PartitionRange(Some(50), Some(75)),
+      PartitionRange(Some(75), None)
+    )
+    // the bounds are distinct so a narrow range generates fewer ranges
+    PartitionRange.split(0, 1, 4) shouldBe Seq(PartitionRange(None, Some(1)), PartitionRange(Some(1), None))
+    PartitionRange.split(5, 5, 3) shouldBe Seq(PartitionRange(None, None))
+    // no overflow
+    PartitionRange.split(Long.MinValue, Long.MaxValue, 2) shouldBe Seq(PartitionRange(None, Some(0)),
+                                                                       PartitionRange(Some(0), None))
+  }
 }
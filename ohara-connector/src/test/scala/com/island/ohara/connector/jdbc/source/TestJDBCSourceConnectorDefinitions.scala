@@ -121,6 +121,39 @@ class TestJDBCSourceConnectorDefinitions extends WithBrokerWorker with Matchers
     definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
   }
 
+  @Test
+  def checkFetchSize(): Unit = {
+    val definition = jdbcSource.definitions().asScala.find(_.key() == FETCH_SIZE).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe FETCH_SIZE_DEFAULT.toString
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.INT.name()
+  }
+
+  @Test
+  def checkMaxRowsPerPoll(): Unit = {
+    val definition = jdbcSource.definitions().asScala.find(_.key() == MAX_ROWS_PER_POLL).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe MAX_ROWS_PER_POLL_DEFAULT.toString
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.INT.name()
+  }
+
+  @Test
+  def checkPartitionColumnName(): Unit = {
+    val definition = jdbcSource.definitions().asScala.find(_.key() == PARTITION_COLUMN_NAME).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe null
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
+  }
+
   @Test
   def testSource(): Unit = {
     val url: String = "jdbc:postgresql://localhost:5432/postgres"
@@ -20,9 +20,8 @@ import java.sql.{Statement, Timestamp}
 
 import com.island.ohara.client.configurator.v0.QueryApi.RdbColumn
 import com.island.ohara.client.database.DatabaseClient
-import com.island.ohara.common.data.{Column, DataType, Row}
+import com.island.ohara.common.data.{Column, DataType}
 import com.island.ohara.common.rule.MediumTest
-import com.island.ohara.connector.jdbc.util.ColumnInfo
 import com.island.ohara.kafka.connector.{RowSourceRecord, TaskSetting}
 import com.island.ohara.testing.service.Database
 import org.apache.kafka.connect.source.SourceTaskContext
@@ -79,6 +78,10 @@ class TestJDBCSourceTask extends MediumTest with Matchers with MockitoSugar {
     when(taskSetting.stringOption(DB_CATALOG_PATTERN)).thenReturn(java.util.Optional.empty[String]())
     when(taskSetting.stringOption(MODE)).thenReturn(java.util.Optional.empty[String]())
     when(taskSetting.stringValue(TIMESTAMP_COLUMN_NAME)).thenReturn(timestampColumnName)
+    when(taskSetting.intOption(FETCH_SIZE)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.intOption(MAX_ROWS_PER_POLL)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.stringOption(PARTITION_COLUMN_NAME)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.intOption(PARTITION_INDEX)).thenReturn(java.util.Optional.empty[Integer]())
 
     val columns: Seq[Column] = Seq(
       Column.builder().name("COLUMN1").dataType(DataType.OBJECT).order(0).build(),
@@ -112,45 +115,132 @@ class TestJDBCSourceTask extends MediumTest with Matchers with MockitoSugar {
   }
 
   @Test
-  def testRowTimestamp(): Unit = {
-    val jdbcSourceTask: JDBCSourceTask = new JDBCSourceTask()
-    val schema: Seq[Column] = Seq(Column.builder().name("COLUMN1").dataType(DataType.OBJECT).order(0).build())
-    val columnInfo: Seq[ColumnInfo[Timestamp]] = Seq(ColumnInfo("COLUMN1", "timestamp", new Timestamp(0)))
-    val row0: Row = jdbcSourceTask.row(schema, columnInfo)
-    row0.cell("COLUMN1").value.toString shouldBe "1970-01-01 08:00:00.0"
-  }
+  def testPollByKeyset(): Unit = {
+    val table = "TABLE2"
+    client.createTable(
+      table,
+      Seq(RdbColumn("TS", "TIMESTAMP", false), RdbColumn("ID", "integer", true), RdbColumn("V", "integer", false)))
+    val statement: Statement = db.connection.createStatement()
+    // all rows have the same timestamp so they must be paged by the primary key
+    (0 until 5).foreach(i =>
+      statement.executeUpdate(s"INSERT INTO $table(TS,ID,V) VALUES('2018-09-01 00:00:00', $i, $i)"))
 
-  @Test
-  def testRowInt(): Unit = {
     val jdbcSourceTask: JDBCSourceTask = new JDBCSourceTask()
-    val schema: Seq[Column] = Seq(Column.builder().name("COLUMN1").dataType(DataType.INT).order(0).build())
-    val columnInfo: Seq[ColumnInfo[Int]] = Seq(ColumnInfo("COLUMN1", "int", new Integer(100)))
-    val row0: Row = jdbcSourceTask.row(schema, columnInfo)
-    row0.cell("COLUMN1").value shouldBe 100
+    val taskContext: SourceTaskContext = mock[SourceTaskContext]
+    val offsetStorageReader: OffsetStorageReader = mock[OffsetStorageReader]
+    when(taskContext.offsetStorageReader()).thenReturn(offsetStorageReader)
+    jdbcSourceTask.initialize(taskContext.asInstanceOf[SourceTaskContext])
+
+    val taskSetting: TaskSetting = mock[TaskSetting]
+    when(taskSetting.stringValue(DB_URL)).thenReturn(db.url)
+    when(taskSetting.stringValue(DB_USERNAME)).thenReturn(db.user)
+    when(taskSetting.stringValue(DB_PASSWORD)).thenReturn(db.password)
+    when(taskSetting.stringValue(DB_TABLENAME)).thenReturn(table)
+    when(taskSetting.stringOption(DB_SCHEMA_PATTERN)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringOption(DB_CATALOG_PATTERN)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringOption(MODE)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringValue(TIMESTAMP_COLUMN_NAME)).thenReturn("TS")
+    when(taskSetting.intOption(FETCH_SIZE)).thenReturn(java.util.Optional.of[Integer](1))
+    when(taskSetting.intOption(MAX_ROWS_PER_POLL)).thenReturn(java.util.Optional.of[Integer](2))
+    when(taskSetting.stringOption(PARTITION_COLUMN_NAME)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.intOption(PARTITION_INDEX)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.columns).thenReturn(Seq(Column.builder().name("V").dataType(DataType.INT).order(0).build()).asJava)
+    when(taskSetting.topicNames()).thenReturn(Seq("topic1").asJava)
+    jdbcSourceTask._start(taskSetting)
+
+    def poll(): Seq[Int] = jdbcSourceTask._poll().asScala.map(_.row.cell(0).value.asInstanceOf[Int])
+    poll() shouldBe Seq(0, 1)
+    poll() shouldBe Seq(2, 3)
+    val rows = jdbcSourceTask._poll().asScala
+    rows.map(_.row.cell(0).value) shouldBe Seq(4)
+    rows.head.sourceOffset.get(JDBCSourceTask.keyOffsetKey("ID")) shouldBe 4
+    poll() shouldBe Seq.empty
   }
 
   @Test
-  def testCellOrder(): Unit = {
+  def testPollByRange(): Unit = {
+    val table = "TABLE3"
+    client.createTable(
+      table,
+      Seq(RdbColumn("TS", "TIMESTAMP", false), RdbColumn("ID", "integer", true), RdbColumn("V", "integer", false)))
+    val statement: Statement = db.connection.createStatement()
+    (0 until 5).foreach(i =>
+      statement.executeUpdate(s"INSERT INTO $table(TS,ID,V) VALUES('2018-09-01 00:00:0$i', $i, $i)"))
+
     val jdbcSourceTask: JDBCSourceTask = new JDBCSourceTask()
-    val schema: Seq[Column] = Seq(Column.builder().name("c1").dataType(DataType.INT).order(1).build(),
-                                  Column.builder().name("c0").dataType(DataType.INT).order(0).build())
-    val columnInfo: Seq[ColumnInfo[Int]] =
-      Seq(ColumnInfo("c1", "int", new Integer(100)), ColumnInfo("c0", "int", new Integer(50)))
-    val cells = jdbcSourceTask.row(schema, columnInfo).cells().asScala
-    cells.head.name shouldBe "c0"
-    cells.head.value shouldBe 50
-    cells(1).name shouldBe "c1"
-    cells(1).value shouldBe 100
+    val taskContext: SourceTaskContext = mock[SourceTaskContext]
+    val offsetStorageReader: OffsetStorageReader = mock[OffsetStorageReader]
+    when(taskContext.offsetStorageReader()).thenReturn(offsetStorageReader)
+    jdbcSourceTask.initialize(taskContext.asInstanceOf[SourceTaskContext])
+
+    val taskSetting: TaskSetting = mock[TaskSetting]
+    when(taskSetting.stringValue(DB_URL)).thenReturn(db.url)
+    when(taskSetting.stringValue(DB_USERNAME)).thenReturn(db.user)
+    when(taskSetting.stringValue(DB_PASSWORD)).thenReturn(db.password)
+    when(taskSetting.stringValue(DB_TABLENAME)).thenReturn(table)
+    when(taskSetting.stringOption(DB_SCHEMA_PATTERN)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringOption(DB_CATALOG_PATTERN)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringOption(MODE)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringValue(TIMESTAMP_COLUMN_NAME)).thenReturn("TS")
+    when(taskSetting.intOption(FETCH_SIZE)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.intOption(MAX_ROWS_PER_POLL)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.stringOption(PARTITION_COLUMN_NAME)).thenReturn(java.util.Optional.of("ID"))
+    when(taskSetting.stringOption(PARTITION_BOUNDS)).thenReturn(java.util.Optional.of("1,3"))
+    when(taskSetting.intOption(PARTITION_INDEX)).thenReturn(java.util.Optional.of[Integer](1))
+    when(taskSetting.columns).thenReturn(Seq(Column.builder().name("V").dataType(DataType.INT).order(0).build()).asJava)
+    when(taskSetting.topicNames()).thenReturn(Seq("topic1").asJava)
+    jdbcSourceTask._start(taskSetting)
+
+    val rows = jdbcSourceTask._poll().asScala
+    rows.map(_.row.cell(0).value) shouldBe Seq(1, 2)
+    // the range has its own offsets and the ranges are carried by the offset
+    rows.head.sourcePartition.asScala shouldBe JDBCSourceTask.partition(table, Some(PartitionRanges(Seq(1, 3), 1)))
+    rows.head.sourceOffset.get(JDBCSourceTask.DB_TABLE_PARTITION_BOUNDS_KEY) shouldBe "1,3"
+    jdbcSourceTask._poll().asScala shouldBe Seq.empty
   }
 
   @Test
-  def testRowNewName(): Unit = {
+  def testPollByPersistedRange(): Unit = {
+    val table = "TABLE4"
+    client.createTable(
+      table,
+      Seq(RdbColumn("TS", "TIMESTAMP", false), RdbColumn("ID", "integer", true), RdbColumn("V", "integer", false)))
+    val statement: Statement = db.connection.createStatement()
+    (0 until 5).foreach(i =>
+      statement.executeUpdate(s"INSERT INTO $table(TS,ID,V) VALUES('2018-09-01 00:00:0$i', $i, $i)"))
+
     val jdbcSourceTask: JDBCSourceTask = new JDBCSourceTask()
-    val schema: Seq[Column] = Seq(
-      Column.builder().name("COLUMN1").newName("COLUMN100").dataType(DataType.INT).order(0).build())
-    val columnInfo: Seq[ColumnInfo[Int]] = Seq(ColumnInfo("COLUMN1", "int", new Integer(100)))
-    val row0: Row = jdbcSourceTask.row(schema, columnInfo)
-    row0.cell("COLUMN100").value shouldBe 100
+    val taskContext: SourceTaskContext = mock[SourceTaskContext]
+    val offsetStorageReader: OffsetStorageReader = mock[OffsetStorageReader]
+    // the table grew so the connector computes the new ranges. The partition is same since it is keyed by index.
+    when(offsetStorageReader.offset(JDBCSourceTask.partition(table, Some(PartitionRanges(Seq(2, 6), 1))).asJava))
+      .thenReturn((JDBCSourceTask.offset(Timestamp.valueOf("2018-09-01 00:00:01").getTime, Seq("ID"), Seq(1)) ++
+        JDBCSourceTask.offset(PartitionRanges(Seq(1, 3), 1))).asJava.asInstanceOf[java.util.Map[String, Object]])
+    when(taskContext.offsetStorageReader()).thenReturn(offsetStorageReader)
+    jdbcSourceTask.initialize(taskContext.asInstanceOf[SourceTaskContext])
+
+    val taskSetting: TaskSetting = mock[TaskSetting]
+    when(taskSetting.stringValue(DB_URL)).thenReturn(db.url)
+    when(taskSetting.stringValue(DB_USERNAME)).thenReturn(db.user)
+    when(taskSetting.stringValue(DB_PASSWORD)).thenReturn(db.password)
+    when(taskSetting.stringValue(DB_TABLENAME)).thenReturn(table)
+    when(taskSetting.stringOption(DB_SCHEMA_PATTERN)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringOption(DB_CATALOG_PATTERN)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringOption(MODE)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.stringValue(TIMESTAMP_COLUMN_NAME)).thenReturn("TS")
+    when(taskSetting.intOption(FETCH_SIZE)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.intOption(MAX_ROWS_PER_POLL)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.stringOption(PARTITION_COLUMN_NAME)).thenReturn(java.util.Optional.of("ID"))
+    when(taskSetting.stringOption(PARTITION_BOUNDS)).thenReturn(java.util.Optional.of("2,6"))
+    when(taskSetting.intOption(PARTITION_INDEX)).thenReturn(java.util.Optional.of[Integer](1))
+    when(taskSetting.columns).thenReturn(Seq(Column.builder().name("V").dataType(DataType.INT).order(0).build()).asJava)
+    when(taskSetting.topicNames()).thenReturn(Seq("topic1").asJava)
+    jdbcSourceTask._start(taskSetting)
+
+    // the persisted range [1, 3) is used rather than the new range [2, 6)
+    val rows = jdbcSourceTask._poll().asScala
+    rows.map(_.row.cell(0).value) shouldBe Seq(2)
+    rows.head.sourceOffset.get(JDBCSourceTask.DB_TABLE_PARTITION_BOUNDS_KEY) shouldBe "1,3"
   }
 
   @Test
@@ -170,6 +260,10 @@ class TestJDBCSourceTask extends MediumTest with Matchers with MockitoSugar {
     when(taskSetting.stringOption(DB_CATALOG_PATTERN)).thenReturn(java.util.Optional.empty[String]())
     when(taskSetting.stringOption(MODE)).thenReturn(java.util.Optional.empty[String]())
     when(taskSetting.stringValue(TIMESTAMP_COLUMN_NAME)).thenReturn(timestampColumnName)
+    when(taskSetting.intOption(FETCH_SIZE)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.intOption(MAX_ROWS_PER_POLL)).thenReturn(java.util.Optional.empty[Integer]())
+    when(taskSetting.stringOption(PARTITION_COLUMN_NAME)).thenReturn(java.util.Optional.empty[String]())
+    when(taskSetting.intOption(PARTITION_INDEX)).thenReturn(java.util.Optional.empty[Integer]())
 
     val columns: Seq[Column] = Seq(
       Column.builder().name("COLUMN1").newName("COLUMN100").dataType(DataType.OBJECT).order(0).build(),
@@ -191,14 +285,4 @@ class TestJDBCSourceTask extends MediumTest with Matchers with MockitoSugar {
     rows(1).row.cell(1).name shouldBe "COLUMN200"
     rows(2).row.cell(2).name shouldBe "COLUMN400"
   }
-
-  @Test
-  def testDbTimestampColumnValue(): Unit = {
-    val jdbcSourceTask: JDBCSourceTask = new JDBCSourceTask()
-    val dbColumnInfo: Seq[ColumnInfo[_]] = Seq(ColumnInfo("column1", "string", "value1"),
-                                               ColumnInfo("column2", "timestamp", new Timestamp(1537510900000L)),
-                                               ColumnInfo("column3", "string", "value3"))
-    val timestamp: Long = jdbcSourceTask.dbTimestampColumnValue(dbColumnInfo, "column2")
-    timestamp shouldBe 1537510900000L
-  }
 }
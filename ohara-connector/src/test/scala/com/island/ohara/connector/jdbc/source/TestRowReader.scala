@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.jdbc.source
+
+import java.sql.{ResultSet, Timestamp}
+
+import com.island.ohara.client.configurator.v0.QueryApi.RdbColumn
+import com.island.ohara.common.data.{Column, DataType}
+import com.island.ohara.common.rule.SmallTest
+import com.island.ohara.connector.jdbc.datatype.RDBDataTypeConverter
+import com.island.ohara.connector.jdbc.util.DateTimeUtils
+import org.junit.Test
+import org.mockito.Mockito._
+import org.scalatest.Matchers
+import org.scalatest.mockito.MockitoSugar
+
+import scala.collection.JavaConverters._
+
+class TestRowReader extends SmallTest with Matchers with MockitoSugar {
+
+  private[this] val columns = Seq(
+    RdbColumn("ts", RDBDataTypeConverter.RDB_TYPE_TIMESTAMP, false),
+    RdbColumn("id", RDBDataTypeConverter.RDB_TYPE_INTEGER, true),
+    RdbColumn("name", RDBDataTypeConverter.RDB_TYPE_VARCHAR, false)
+  )
+
+  private[this] def resultSet(): ResultSet = {
+    val resultSet = mock[ResultSet]
+    when(resultSet.findColumn("ts")).thenReturn(1)
+    when(resultSet.findColumn("id")).thenReturn(2)
+    when(resultSet.findColumn("name")).thenReturn(3)
+    when(resultSet.next()).thenReturn(true, false)
+    when(resultSet.getTimestamp(1, DateTimeUtils.CALENDAR)).thenReturn(new Timestamp(100))
+    when(resultSet.getInt(2)).thenReturn(10)
+    when(resultSet.getString(3)).thenReturn("aaa")
+    resultSet
+  }
+
+  @Test
+  def testReadRow(): Unit = {
+    val schema = Seq(
+      Column.builder().name("name").newName("newName").dataType(DataType.STRING).order(1).build(),
+      Column.builder().name("id").dataType(DataType.INT).order(0).build()
+    )
+    val rs = resultSet()
+    val reader = new RowReader(rs, columns, schema, "ts", Seq("id"))
+    reader.next() shouldBe true
+    reader.timestamp() shouldBe 100
+    reader.keys() shouldBe Seq(10)
+    val row = reader.row()
+    row.cells().asScala.map(_.name) shouldBe Seq("id", "newName")
+    row.cell("id").value shouldBe 10
+    row.cell("newName").value shouldBe "aaa"
+    reader.next() shouldBe false
+    // the column indexes are resolved only once
+    verify(rs, times(1)).findColumn("ts")
+  }
+
+  @Test
+  def testEmptySchema(): Unit = {
+    val reader = new RowReader(resultSet(), columns, Seq.empty, "ts", Seq.empty)
+    reader.next() shouldBe true
+    reader.keys() shouldBe Seq.empty
+    val row = reader.row()
+    row.cells().asScala.map(_.name) shouldBe Seq("ts", "id", "name")
+    row.cell("ts").value shouldBe new Timestamp(100)
+    row.cell("id").value shouldBe 10
+  }
+
+  @Test
+  def testConvertedType(): Unit = {
+    // the integer column is converted to OBJECT cell
+    val schema = Seq(Column.builder().name("id").dataType(DataType.OBJECT).order(0).build())
+    val reader = new RowReader(resultSet(), columns, schema, "ts", Seq.empty)
+    reader.next() shouldBe true
+    reader.row().cell("id").value shouldBe 10
+  }
+
+  @Test
+  def testRowTimestamp(): Unit = {
+    val schema = Seq(Column.builder().name("ts").dataType(DataType.OBJECT).order(0).build())
+    val reader = new RowReader(resultSet(), columns, schema, "ts", Seq.empty)
+    reader.next() shouldBe true
+    reader.row().cell("ts").value shouldBe new Timestamp(100)
+  }
+
+  @Test
+  def testCellOrder(): Unit = {
+    val schema = Seq(
+      Column.builder().name("id").dataType(DataType.INT).order(1).build(),
+      Column.builder().name("ts").dataType(DataType.OBJECT).order(0).build(),
+      Column.builder().name("name").dataType(DataType.STRING).order(2).build()
+    )
+    val reader = new RowReader(resultSet(), columns, schema, "ts", Seq.empty)
+    reader.next() shouldBe true
+    val cells = reader.row().cells().asScala
+    cells.map(_.name) shouldBe Seq("ts", "id", "name")
+    cells(1).value shouldBe 10
+    cells(2).value shouldBe "aaa"
+  }
+
+  @Test
+  def testRowNewName(): Unit = {
+    val schema = Seq(Column.builder().name("id").newName("id100").dataType(DataType.INT).order(0).build())
+    val reader = new RowReader(resultSet(), columns, schema, "ts", Seq.empty)
+    reader.next() shouldBe true
+    reader.row().cell("id100").value shouldBe 10
+  }
+
+  @Test
+  def testTimestamp(): Unit = {
+    val rs = resultSet()
+    when(rs.getTimestamp(1, DateTimeUtils.CALENDAR)).thenReturn(new Timestamp(1537510900000L))
+    val reader = new RowReader(rs, columns, Seq.empty, "ts", Seq.empty)
+    reader.next() shouldBe true
+    reader.timestamp() shouldBe 1537510900000L
+  }
+
+  @Test
+  def testMissedColumn(): Unit = {
+    val schema = Seq(Column.builder().name("abc").dataType(DataType.INT).order(0).build())
+    an[RuntimeException] should be thrownBy new RowReader(resultSet(), columns, schema, "ts", Seq.empty)
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+
+import com.island.ohara.common.rule.SmallTest
+import org.junit.Test
+import org.scalatest.Matchers
+
+class TestLatencyHistogram extends SmallTest with Matchers {
+
+  @Test
+  def testEmpty(): Unit = {
+    val histogram = new LatencyHistogram
+    histogram.count shouldBe 0
+    histogram.valueAt(50) shouldBe 0
+  }
+
+  @Test
+  def testSmallValuesAreExact(): Unit = {
+    val histogram = new LatencyHistogram
+    (1 to 100).foreach(v => histogram.record(v))
+    histogram.count shouldBe 100
+    histogram.valueAt(50) shouldBe 50
+    histogram.valueAt(99) shouldBe 99
+    histogram.valueAt(99.9) shouldBe 100
+    histogram.valueAt(100) shouldBe 100
+  }
+
+  @Test
+  def testLargeValuesAreApproximate(): Unit = {
+    val histogram = new LatencyHistogram
+    (1 to 100000).foreach(v => histogram.record(v))
+    histogram.valueAt(50) shouldBe 50000L +- 50000L / 60
+    histogram.valueAt(99) shouldBe 99000L +- 99000L / 60
+    histogram.valueAt(99.9) shouldBe 99900L +- 99900L / 60
+    // the max is reported exactly
+    histogram.valueAt(100) shouldBe 100000
+  }
+
+  @Test
+  def testNegativeIsZero(): Unit = {
+    val histogram = new LatencyHistogram
+    histogram.record(-10)
+    histogram.valueAt(100) shouldBe 0
+  }
+
+  @Test
+  def testIndex(): Unit = {
+    // the upper bound of bucket must be in the same bucket, and the next value must be in next bucket
+    Seq(0L, 1L, 127L, 128L, 129L, 1000L, 123456789L, Long.MaxValue / 2).foreach { value =>
+      val index = LatencyHistogram.index(value)
+      val upper = LatencyHistogram.highestEquivalentValue(index)
+      upper should be >= value
+      LatencyHistogram.index(upper) shouldBe index
+      LatencyHistogram.index(upper + 1) shouldBe index + 1
+    }
+    LatencyHistogram.highestEquivalentValue(LatencyHistogram.index(Long.MaxValue)) shouldBe Long.MaxValue
+  }
+
+  @Test
+  def testReset(): Unit = {
+    val histogram = new LatencyHistogram
+    histogram.record(10)
+    histogram.reset()
+    histogram.count shouldBe 0
+    histogram.valueAt(100) shouldBe 0
+  }
+
+  @Test
+  def testInvalidPercentile(): Unit = {
+    val histogram = new LatencyHistogram
+    an[IllegalArgumentException] should be thrownBy histogram.valueAt(0)
+    an[IllegalArgumentException] should be thrownBy histogram.valueAt(101)
+  }
+}
@@ -29,6 +29,7 @@ import scala.concurrent.duration._
 import scala.concurrent.{Await, Future}
 class TestPerfDefinition extends WithBrokerWorker with Matchers {
   private[this] val perfSource = new PerfSource
+  private[this] val perfSink = new PerfSink
   private[this] val workerClient = WorkerClient(testUtil().workersConnProps())
   private[this] def result[T](f: Future[T]): T = Await.result(f, 10 seconds)
 
@@ -54,6 +55,39 @@ class TestPerfDefinition extends WithBrokerWorker with Matchers {
     definition.valueType() shouldBe SettingDefinition.Type.DURATION.name()
   }
 
+  @Test
+  def checkRowsPerSecond(): Unit = {
+    val definition = perfSource.definitions().asScala.find(_.key() == PERF_ROWS_PER_SECOND).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe null
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.LONG.name()
+  }
+
+  @Test
+  def checkDistribution(): Unit = {
+    val definition = perfSource.definitions().asScala.find(_.key() == PERF_DISTRIBUTION).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe DISTRIBUTION_RANDOM
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.STRING.name()
+  }
+
+  @Test
+  def checkReportInterval(): Unit = {
+    val definition = perfSink.definitions().asScala.find(_.key() == PERF_REPORT_INTERVAL).get
+    definition.required shouldBe false
+    definition.defaultValue shouldBe "PT1S"
+    definition.editable() shouldBe true
+    definition.internal() shouldBe false
+    definition.reference() shouldBe "NONE"
+    definition.valueType() shouldBe SettingDefinition.Type.DURATION.name()
+  }
+
   @Test
   def testSource(): Unit = {
     val response = result(
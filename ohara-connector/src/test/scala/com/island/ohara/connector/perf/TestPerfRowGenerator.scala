@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+
+import com.island.ohara.common.data.{Column, DataType}
+import com.island.ohara.common.rule.SmallTest
+import org.junit.Test
+import org.scalatest.Matchers
+
+import scala.concurrent.duration._
+import scala.util.Random
+
+class TestPerfRowGenerator extends SmallTest with Matchers {
+
+  private[this] val schema = Seq(
+    Column.builder().name("s").dataType(DataType.STRING).order(1).build(),
+    Column.builder().name("i").dataType(DataType.INT).order(0).build(),
+    Column.builder().name("b").dataType(DataType.BYTES).order(2).build()
+  )
+
+  @Test
+  def testGenerate(): Unit = {
+    val props = PerfSourceProps(batch = 10,
+                                freq = 1 second,
+                                payloadSize = 20,
+                                cardinality = 5,
+                                distribution = DISTRIBUTION_SEQUENTIAL,
+                                ringSize = 7)
+    val rows = PerfRowGenerator.generate(schema, props, new Random(0))
+    rows.length shouldBe 7
+    rows.head.names().toArray shouldBe Array("i", "s", "b")
+    rows.map(_.cell("i").value) shouldBe Array(0, 1, 2, 3, 4, 0, 1)
+    rows.foreach(_.cell("s").value.asInstanceOf[String].length shouldBe 20)
+    rows.foreach(_.cell("b").value.asInstanceOf[Array[Byte]].length shouldBe 20)
+    rows(1).cell("s").value shouldBe "0" * 19 + "1"
+  }
+
+  @Test
+  def testColumnDistribution(): Unit = {
+    val props = PerfSourceProps(batch = 10,
+                                freq = 1 second,
+                                cardinality = 3,
+                                columnDistributions = Map("i" -> DISTRIBUTION_SEQUENTIAL),
+                                ringSize = 100)
+    val rows = PerfRowGenerator.generate(schema, props, new Random(0))
+    rows.take(3).map(_.cell("i").value) shouldBe Array(0, 1, 2)
+    rows.map(_.cell("s").value.asInstanceOf[String].toLong).foreach(v => v should (be >= 0L and be < 3L))
+  }
+
+  @Test
+  def testPayload(): Unit = {
+    PerfRowGenerator.string(123, 2) shouldBe "123"
+    PerfRowGenerator.string(123, 5) shouldBe "00123"
+    PerfRowGenerator.bytes(258, 3) shouldBe Array[Byte](0, 1, 2)
+    PerfRowGenerator.bytes(258, 0) shouldBe Array.empty[Byte]
+  }
+
+  @Test
+  def testZipf(): Unit = {
+    val generator = PerfRowGenerator.keyGenerator(DISTRIBUTION_ZIPF, 100, new Random(0))
+    val counts = (0 until 10000).map(_ => generator()).groupBy(identity).mapValues(_.size)
+    counts.keys.foreach(k => k should (be >= 0L and be < 100L))
+    // the first key is about twice as frequent as the second key
+    counts(0L) should be > counts(1L)
+    counts(0L) should be > counts.getOrElse(50L, 0) * 10
+  }
+
+  @Test
+  def testRandom(): Unit = {
+    val generator = PerfRowGenerator.keyGenerator(DISTRIBUTION_RANDOM, 10, new Random(0))
+    (0 until 1000).map(_ => generator()).toSet shouldBe (0L until 10L).toSet
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+
+import java.util.concurrent.TimeUnit
+
+import com.island.ohara.common.data.{Cell, Row, Serializer}
+import com.island.ohara.common.rule.SmallTest
+import com.island.ohara.common.util.CommonUtils
+import com.island.ohara.kafka.connector.json.ConnectorFormatter
+import org.apache.kafka.common.record.TimestampType
+import org.apache.kafka.connect.sink.SinkRecord
+import org.junit.Test
+import org.scalatest.Matchers
+
+import scala.collection.JavaConverters._
+
+class TestPerfSinkTask extends SmallTest with Matchers {
+  private[this] val row = Row.of(Cell.of("a", CommonUtils.randomString(10)))
+
+  private[this] def createTask(interval: String): PerfSinkTask = {
+    val task = new PerfSinkTask
+    task.start(
+      ConnectorFormatter
+        .of()
+        .name(methodName())
+        .topicName(methodName())
+        .settings(Map(PERF_REPORT_INTERVAL -> interval).asJava)
+        .raw())
+    task
+  }
+
+  private[this] def record(timestamp: Long): SinkRecord =
+    new SinkRecord(methodName(), 0, null, Serializer.ROW.to(row), null, null, 0, timestamp, TimestampType.CREATE_TIME)
+
+  @Test
+  def testReport(): Unit = {
+    val task = createTask("PT0.1S")
+    try {
+      val now = CommonUtils.current()
+      task.put((Seq.fill(99)(record(now - 10)) :+ record(now - 2000)).asJava)
+      TimeUnit.MILLISECONDS.sleep(200)
+      task.put(java.util.Collections.emptyList())
+      task.p50.getValue should be >= 10L
+      task.p50.getValue should be < 2000L
+      task.p999.getValue should be >= 2000L
+      task.rowThroughput.getValue should be > 0L
+      task.byteThroughput.getValue should be > task.rowThroughput.getValue
+    } finally task.stop()
+    Seq(task.p50, task.p99, task.p999, task.rowThroughput, task.byteThroughput).foreach(_.isClosed shouldBe true)
+  }
+
+  @Test
+  def testNotReportBeforeInterval(): Unit = {
+    val task = createTask("PT1H")
+    try {
+      task.put(Seq(record(CommonUtils.current() - 10)).asJava)
+      task.p50.getValue shouldBe 0
+      task.rowThroughput.getValue shouldBe 0
+    } finally task.stop()
+  }
+
+  @Test
+  def testRecordWithoutTimestamp(): Unit = {
+    val task = createTask("PT0.1S")
+    try {
+      task.put(Seq(new SinkRecord(methodName(), 0, null, Serializer.ROW.to(row), null, null, 0)).asJava)
+      TimeUnit.MILLISECONDS.sleep(200)
+      task.put(java.util.Collections.emptyList())
+      task.p999.getValue shouldBe 0
+      task.rowThroughput.getValue should be > 0L
+    } finally task.stop()
+  }
+}
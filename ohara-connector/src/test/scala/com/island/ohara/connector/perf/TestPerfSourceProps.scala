@@ -92,4 +92,98 @@ class TestPerfSourceProps extends SmallTest with Matchers {
         .settings(props.copy(batch = -1).toMap.asJava)
         .raw())
   }
+
+  @Test
+  def testRateControlProps(): Unit = {
+    val props = PerfSourceProps(
+      batch = 10,
+      freq = 10 seconds,
+      rowsPerSecond = Some(100),
+      bytesPerSecond = Some(1000),
+      payloadSize = 20,
+      cardinality = 30,
+      distribution = DISTRIBUTION_ZIPF,
+      columnDistributions = Map("a" -> DISTRIBUTION_SEQUENTIAL, "b" -> DISTRIBUTION_RANDOM),
+      ringSize = 40
+    )
+    PerfSourceProps(TaskSetting.of(props.toMap.asJava)) shouldBe props
+    props.rateControl shouldBe true
+    props.distribution("a") shouldBe DISTRIBUTION_SEQUENTIAL
+    props.distribution("c") shouldBe DISTRIBUTION_ZIPF
+    PerfSourceProps(TaskSetting.of(Collections.emptyMap())).rateControl shouldBe false
+  }
+
+  @Test
+  def testInvalidDistribution(): Unit = {
+    an[IllegalArgumentException] should be thrownBy PerfSourceProps(
+      TaskSetting.of(Map(PERF_DISTRIBUTION -> "abc").asJava))
+    an[IllegalArgumentException] should be thrownBy PerfSourceProps(
+      TaskSetting.of(Map(PERF_COLUMN_DISTRIBUTIONS -> "a").asJava))
+  }
+
+  @Test
+  def testInvalidRate(): Unit = {
+    val source = new PerfSource
+    an[IllegalArgumentException] should be thrownBy source.start(
+      ConnectorFormatter
+        .of()
+        .name(methodName())
+        .topicNames(topics.asJava)
+        .settings(props.copy(rowsPerSecond = Some(0)).toMap.asJava)
+        .raw())
+  }
+
+  @Test
+  def testPollByRate(): Unit = {
+    val task = new PerfSourceTask
+    task.start(
+      ConnectorFormatter
+        .of()
+        .name(methodName())
+        .topicNames(topics.asJava)
+        .settings(props.copy(batch = 5, rowsPerSecond = Some(10), ringSize = 3).toMap.asJava)
+        .raw())
+    // the first poll is the burst
+    task.poll().size() shouldBe 5
+    // the rows are paced by the rate (10 rows/sec)
+    val start = System.currentTimeMillis()
+    var count = 0
+    while (count < 10) Option(task.poll()).foreach(records => count += records.size())
+    System.currentTimeMillis() - start should be >= 800L
+  }
+
+  @Test
+  def testPollByFrequence(): Unit = {
+    val task = new PerfSourceTask
+    task.start(
+      ConnectorFormatter
+        .of()
+        .name(methodName())
+        .topicNames(topics.asJava)
+        .settings(props.copy(batch = 3, freq = 100 millis).toMap.asJava)
+        .raw())
+    val records = task.poll()
+    records.size() shouldBe 3
+    // the row carrying current time is sent "batch" times
+    records.asScala.map(_.key().asInstanceOf[Array[Byte]].toSeq).distinct.size shouldBe 1
+  }
+
+  @Test
+  def testPollByRateWithMultiTopics(): Unit = {
+    val task = new PerfSourceTask
+    task.start(
+      ConnectorFormatter
+        .of()
+        .name(methodName())
+        .topicNames(Seq("t0", "t1").asJava)
+        .settings(props.copy(batch = 5, rowsPerSecond = Some(10), ringSize = 3).toMap.asJava)
+        .raw())
+    // the burst is 5 rows and each row is sent to both topics
+    task.poll().size() shouldBe 10
+    // the rate (10 records/sec) is counted by the records sent to all topics
+    val start = System.currentTimeMillis()
+    var count = 0
+    while (count < 10) Option(task.poll()).foreach(records => count += records.size())
+    System.currentTimeMillis() - start should be >= 800L
+  }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.connector.perf
+
+import java.util.concurrent.TimeUnit
+
+import com.island.ohara.common.rule.SmallTest
+import org.junit.Test
+import org.scalatest.Matchers
+
+class TestTokenBucket extends SmallTest with Matchers {
+
+  @Test
+  def testTakeAndRefill(): Unit = {
+    val bucket = new TokenBucket(10, 5, 0)
+    // the bucket is full at beginning
+    bucket.available(5) shouldBe true
+    bucket.take(5)
+    bucket.available(1) shouldBe false
+    bucket.nanosToWait(1) shouldBe TimeUnit.MILLISECONDS.toNanos(100)
+
+    bucket.refill(TimeUnit.MILLISECONDS.toNanos(200))
+    bucket.available(2) shouldBe true
+    bucket.available(3) shouldBe false
+
+    // the tokens are limited by capacity
+    bucket.refill(TimeUnit.SECONDS.toNanos(10))
+    bucket.available(5) shouldBe true
+    bucket.available(6) shouldBe false
+  }
+
+  @Test
+  def testWaitLargerThanCapacity(): Unit = {
+    val bucket = new TokenBucket(10, 5, 0)
+    bucket.take(5)
+    // the wait is bounded by the capacity
+    bucket.nanosToWait(100) shouldBe TimeUnit.MILLISECONDS.toNanos(500)
+  }
+
+  @Test
+  def testInvalidArguments(): Unit = {
+    an[IllegalArgumentException] should be thrownBy new TokenBucket(0, 5, 0)
+    an[IllegalArgumentException] should be thrownBy new TokenBucket(10, 0, 0)
+  }
+}
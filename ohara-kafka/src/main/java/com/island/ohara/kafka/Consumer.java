@@ -22,24 +22,26 @@ import com.island.ohara.common.util.Releasable;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
-import java.util.Spliterator;
-import java.util.Spliterators;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.Deserializer;
 
 /**
@@ -51,12 +53,24 @@ import org.apache.kafka.common.serialization.Deserializer;
 public interface Consumer<K, V> extends Releasable {
 
   /**
-   * poll the data from subscribed topics
+   * poll the data from subscribed topics. The records are copied to a list. The high-rate reader
+   * should use {@link #pollBatch(Duration)} instead.
    *
    * @param timeout waiting time
    * @return records
    */
-  List<Record<K, V>> poll(Duration timeout);
+  default List<Record<K, V>> poll(Duration timeout) {
+    return pollBatch(timeout).toList();
+  }
+
+  /**
+   * poll the data from subscribed topics. Nothing is copied. The returned batch is a view over the
+   * records fetched by kafka consumer, and each record is converted only when it is iterated.
+   *
+   * @param timeout waiting time
+   * @return a view of fetched records
+   */
+  Batch<K, V> pollBatch(Duration timeout);
 
   /**
    * Overloading poll method
@@ -114,6 +128,31 @@ public interface Consumer<K, V> extends Releasable {
   /** break the poll right now. */
   void wakeup();
 
+  /**
+   * commit the offsets returned by the last poll. This method blocks until the commit succeeds or
+   * fails. It is useful if the auto commit is disabled by the options.
+   */
+  void commitSync();
+
+  /**
+   * commit the offsets returned by the last poll. This method doesn't block, and the failure is
+   * logged only.
+   */
+  void commitAsync();
+
+  /**
+   * override the offset used by the next poll. It is used to replay the records without creating
+   * another consumer group. Noted: the partition must be assigned to this consumer.
+   *
+   * @param topicName topic name
+   * @param partition partition
+   * @param offset the offset of next record
+   */
+  void seek(String topicName, int partition, long offset);
+
+  /** move the offsets of all assigned partitions to the beginning. */
+  void seekToBeginning();
+
   static <Key, Value> Builder<Key, Value> builder() {
     return new Builder<>();
   }
@@ -187,6 +226,12 @@ public interface Consumer<K, V> extends Releasable {
       return this;
     }
 
+    /**
+     * @param keySerializer used to convert the bytes to key. For row, {@link Serializer#LAZY_ROW}
+     *     produces the row which decodes the cell only when it is requested. Noted: the row batch
+     *     record (see {@link RowBatch}) is unpacked before the key serializer is applied
+     * @return this builder
+     */
     public Builder<Key, Value> keySerializer(Serializer<Key> keySerializer) {
       this.keySerializer = Objects.requireNonNull(keySerializer);
       return this;
@@ -245,13 +290,15 @@ public interface Consumer<K, V> extends Releasable {
       // kafka demand us to pass lowe case words...
       props.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, fromBegin.name().toLowerCase());
 
-      KafkaConsumer<Key, Value> kafkaConsumer =
-          new KafkaConsumer<>(props, wrap(keySerializer), wrap(valueSerializer));
+      // the key is deserialized by ohara consumer since the row batch record must be unpacked first
+      KafkaConsumer<byte[], Value> kafkaConsumer =
+          new KafkaConsumer<>(props, new ByteArrayDeserializer(), wrap(valueSerializer));
+      Serializer<Key> keySerializer = this.keySerializer;
 
       kafkaConsumer.subscribe(topicNames);
 
       return new Consumer<Key, Value>() {
-        private ConsumerRecords<Key, Value> firstPoll = kafkaConsumer.poll(Duration.ofMillis(0));
+        private ConsumerRecords<byte[], Value> firstPoll = kafkaConsumer.poll(Duration.ofMillis(0));
 
         @Override
         public void close() {
@@ -259,35 +306,14 @@ public interface Consumer<K, V> extends Releasable {
         }
 
         @Override
-        public List<Record<Key, Value>> poll(Duration timeout) {
-
-          ConsumerRecords<Key, Value> r;
+        public Batch<Key, Value> pollBatch(Duration timeout) {
+          ConsumerRecords<byte[], Value> r;
           if (firstPoll == null || firstPoll.isEmpty()) r = kafkaConsumer.poll(timeout);
           else {
             r = firstPoll;
             firstPoll = null;
           }
-
-          if (r == null || r.isEmpty()) return Collections.emptyList();
-          else
-            return StreamSupport.stream(
-                    Spliterators.spliteratorUnknownSize(r.iterator(), Spliterator.ORDERED), false)
-                .map(
-                    cr ->
-                        new Record<>(
-                            cr.topic(),
-                            cr.timestamp(),
-                            TimestampType.of(cr.timestampType()),
-                            Optional.ofNullable(cr.headers())
-                                .map(
-                                    headers ->
-                                        StreamSupport.stream(headers.spliterator(), false)
-                                            .map(header -> new Header(header.key(), header.value()))
-                                            .collect(Collectors.toList()))
-                                .orElse(Collections.emptyList()),
-                            cr.key(),
-                            cr.value()))
-                .collect(Collectors.toList());
+          return new Batch<>(r == null ? ConsumerRecords.empty() : r, keySerializer);
         }
 
         @Override
@@ -299,10 +325,130 @@ public interface Consumer<K, V> extends Releasable {
         public void wakeup() {
           kafkaConsumer.wakeup();
         }
+
+        @Override
+        public void commitSync() {
+          kafkaConsumer.commitSync();
+        }
+
+        @Override
+        public void commitAsync() {
+          kafkaConsumer.commitAsync();
+        }
+
+        @Override
+        public void seek(String topicName, int partition, long offset) {
+          // the records fetched before seeking are out of date
+          firstPoll = null;
+          kafkaConsumer.seek(new TopicPartition(topicName, partition), offset);
+        }
+
+        @Override
+        public void seekToBeginning() {
+          firstPoll = null;
+          kafkaConsumer.seekToBeginning(kafkaConsumer.assignment());
+        }
       };
     }
   }
 
+  /**
+   * A view over the records returned by a single poll. The records are converted when they are
+   * iterated, so iterating the batch many times converts the records many times. The row batch
+   * record (see {@link RowBatch}) is unpacked to many records which have the same partition and
+   * offset.
+   *
+   * @param <K> K key type
+   * @param <V> V value type
+   */
+  final class Batch<K, V> implements Iterable<Record<K, V>> {
+    private final ConsumerRecords<byte[], V> records;
+    private final Serializer<K> keySerializer;
+
+    Batch(ConsumerRecords<byte[], V> records, Serializer<K> keySerializer) {
+      this.records = Objects.requireNonNull(records);
+      this.keySerializer = Objects.requireNonNull(keySerializer);
+    }
+
+    /** @return true if there is no fetched record */
+    public boolean isEmpty() {
+      return records.count() == 0;
+    }
+
+    /** @return the number of kafka records. Noted: a row batch record is counted as one record */
+    public int count() {
+      return records.count();
+    }
+
+    /** @return a copy of all records */
+    public List<Record<K, V>> toList() {
+      List<Record<K, V>> list = new ArrayList<>(records.count());
+      for (Record<K, V> record : this) list.add(record);
+      return list;
+    }
+
+    @Override
+    public Iterator<Record<K, V>> iterator() {
+      return new RecordIterator<>(records.iterator(), keySerializer);
+    }
+
+    /** convert the kafka records to ohara records one by one. The row batch record is unpacked. */
+    private static final class RecordIterator<K, V> implements Iterator<Record<K, V>> {
+      private final Iterator<ConsumerRecord<byte[], V>> records;
+      private final Serializer<K> keySerializer;
+      private ConsumerRecord<byte[], V> current = null;
+      /** the rows of current row batch record. It is null if current record is not a row batch */
+      private List<byte[]> rows = null;
+
+      private int rowIndex = 0;
+      private Record<K, V> next = null;
+
+      private RecordIterator(
+          Iterator<ConsumerRecord<byte[], V>> records, Serializer<K> keySerializer) {
+        this.records = records;
+        this.keySerializer = keySerializer;
+      }
+
+      @Override
+      public boolean hasNext() {
+        if (next == null) next = advance();
+        return next != null;
+      }
+
+      @Override
+      public Record<K, V> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Record<K, V> record = next;
+        next = null;
+        return record;
+      }
+
+      private Record<K, V> advance() {
+        while (true) {
+          if (rows != null && rowIndex < rows.size()) {
+            byte[] bytes = rows.get(rowIndex++);
+            return new Record<>(current, keySerializer.from(bytes), bytes.length, true);
+          }
+          rows = null;
+          if (!records.hasNext()) return null;
+          current = records.next();
+          org.apache.kafka.common.header.Header header =
+              current.key() == null || current.headers() == null
+                  ? null
+                  : current.headers().lastHeader(RowBatch.HEADER_KEY);
+          if (header == null)
+            return new Record<>(
+                current,
+                current.key() == null ? null : keySerializer.from(current.key()),
+                current.serializedKeySize(),
+                false);
+          rows = RowBatch.unpack(RowBatch.Compression.of(header.value()), current.key());
+          rowIndex = 0;
+        }
+      }
+    }
+  }
+
   /**
    * a scala wrap from kafka's consumer record.
    *
@@ -311,37 +457,55 @@ public interface Consumer<K, V> extends Releasable {
    */
   class Record<K, V> {
     private final String topicName;
+    private final int partition;
+    private final long offset;
     private final long timestamp;
     private final TimestampType timestampType;
-    private final List<Header> headers;
+    private final Headers kafkaHeaders;
+    private final boolean inRowBatch;
     private final K key;
     private final V value;
+    private final int serializedKeySize;
+    private final int serializedValueSize;
+
+    /** the headers are converted on first access. The racy initialization is safe. */
+    private List<Header> headers = null;
 
     /**
-     * @param topicName topic name
-     * @param timestamp time to create this record or time to append this record.
+     * @param record kafka record
      * @param key key (nullable)
-     * @param value value
+     * @param serializedKeySize the size of serialized key. For the row in row batch record, it is
+     *     the size of serialized row
+     * @param inRowBatch true if the record is unpacked from row batch record
      */
     private Record(
-        String topicName,
-        long timestamp,
-        TimestampType timestampType,
-        List<Header> headers,
-        K key,
-        V value) {
-      this.topicName = topicName;
-      this.timestamp = timestamp;
-      this.timestampType = timestampType;
-      this.headers = Collections.unmodifiableList(headers);
+        ConsumerRecord<byte[], V> record, K key, int serializedKeySize, boolean inRowBatch) {
+      this.topicName = record.topic();
+      this.partition = record.partition();
+      this.offset = record.offset();
+      this.timestamp = record.timestamp();
+      this.timestampType = TimestampType.of(record.timestampType());
+      this.kafkaHeaders = record.headers();
+      this.inRowBatch = inRowBatch;
       this.key = key;
-      this.value = value;
+      this.value = record.value();
+      this.serializedKeySize = serializedKeySize;
+      this.serializedValueSize = record.serializedValueSize();
     }
 
     public String topicName() {
       return topicName;
     }
 
+    public int partition() {
+      return partition;
+    }
+
+    /** @return the offset of record. The rows unpacked from the same row batch have same offset */
+    public long offset() {
+      return offset;
+    }
+
     public long timestamp() {
       return timestamp;
     }
@@ -351,7 +515,19 @@ public interface Consumer<K, V> extends Releasable {
     }
 
     public List<Header> headers() {
-      return headers;
+      List<Header> current = headers;
+      if (current == null) {
+        List<Header> list = new ArrayList<>(0);
+        if (kafkaHeaders != null)
+          for (org.apache.kafka.common.header.Header header : kafkaHeaders) {
+            // the batch header is hidden from users
+            if (inRowBatch && header.key().equals(RowBatch.HEADER_KEY)) continue;
+            list.add(new Header(header.key(), header.value()));
+          }
+        current = Collections.unmodifiableList(list);
+        headers = current;
+      }
+      return current;
     }
 
     public Optional<K> key() {
@@ -362,6 +538,16 @@ public interface Consumer<K, V> extends Releasable {
       return Optional.ofNullable(value);
     }
 
+    /** @return the size of serialized key or -1 if the key is null */
+    public int serializedKeySize() {
+      return serializedKeySize;
+    }
+
+    /** @return the size of serialized value or -1 if the value is null */
+    public int serializedValueSize() {
+      return serializedValueSize;
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) return true;
@@ -370,22 +556,24 @@ public interface Consumer<K, V> extends Releasable {
       return Objects.equals(topicName, that.topicName)
           && Objects.equals(timestamp, that.timestamp)
           && Objects.equals(timestampType, that.timestampType)
-          && CommonUtils.equals(headers, that.headers)
+          && CommonUtils.equals(headers(), that.headers())
           && Objects.equals(key, that.key)
           && Objects.equals(value, that.value);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(topicName, headers, key, value);
+      return Objects.hash(topicName, headers(), key, value);
     }
 
     @Override
     public String toString() {
       return new ToStringBuilder(this)
           .append("topicName", topicName)
+          .append("partition", partition)
+          .append("offset", offset)
           .append("timestamp", timestamp)
-          .append("headers", headers)
+          .append("headers", headers())
           .append("key", key)
           .append("value", value)
           .toString();
@@ -21,14 +21,25 @@ import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.common.util.Releasable;
-import java.util.*;
+import com.island.ohara.kafka.exception.OharaInterruptedException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 
 /**
  * a simple wrap from kafka producer.
@@ -45,6 +56,40 @@ public interface Producer<Key, Value> extends Releasable {
    */
   Sender<Key, Value> sender();
 
+  /**
+   * send the keys to the topic. The values of records are null since ohara puts the row in the key.
+   * Unlike {@link #sender()}, no future or metadata is created for each record. The completion is
+   * reported once for all records.
+   *
+   * @param topicName topic name
+   * @param keys keys
+   * @return a future which is completed with the number of sent records after all records are
+   *     acknowledged, or completed exceptionally by the first failure
+   */
+  default CompletableFuture<Long> sendAll(String topicName, Iterable<Key> keys) {
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    sendAll(
+        topicName,
+        keys,
+        (count, exception) -> {
+          if (exception == null) future.complete(count);
+          else future.completeExceptionally(exception);
+        });
+    return future;
+  }
+
+  /**
+   * the callback-only version of {@link #sendAll(String, Iterable)}. The callback is invoked once,
+   * either with the number of sent records or with the first failure. Noted: the callback is
+   * executed by the I/O thread of kafka producer so it should be fast.
+   *
+   * @param topicName topic name
+   * @param keys keys
+   * @param callback the number of sent records and the exception. The exception is null if all
+   *     records are sent successfully
+   */
+  void sendAll(String topicName, Iterable<Key> keys, BiConsumer<Long, Exception> callback);
+
   /** flush all on-the-flight data. */
   void flush();
 
@@ -59,6 +104,8 @@ public interface Producer<Key, Value> extends Releasable {
     private short numberOfAcks = 0;
     private Serializer<Key> keySerializer = null;
     private Serializer<Value> valueSerializer = null;
+    private int maxInFlightBytes = Integer.MAX_VALUE;
+    private boolean blockOnFull = true;
 
     private Builder() {
       // no nothing
@@ -98,33 +145,27 @@ public interface Producer<Key, Value> extends Releasable {
     }
 
     /**
-     * Used to convert ohara row to byte array. It is a private class since ohara producer will
-     * instantiate one and pass it to kafka producer. Hence, no dynamical call will happen in kafka
-     * producer. The access exception won't be caused.
+     * limit the bytes (serialized key and value) which are sent but not acknowledged yet. It
+     * prevents the fast writer from filling the memory.
      *
-     * @param serializer ohara serializer
-     * @param <T> object type
-     * @return a wrapper from kafka serializer
+     * @param maxInFlightBytes max in-flight bytes
+     * @return this builder
      */
-    private static <T> org.apache.kafka.common.serialization.Serializer<T> wrap(
-        Serializer<T> serializer) {
-      return new org.apache.kafka.common.serialization.Serializer<T>() {
-
-        @Override
-        public void configure(Map<String, ?> configs, boolean isKey) {
-          // do nothing
-        }
-
-        @Override
-        public byte[] serialize(String topic, T data) {
-          return data == null ? null : serializer.to(data);
-        }
+    @Optional("default is unlimited")
+    public Builder<Key, Value> maxInFlightBytes(int maxInFlightBytes) {
+      this.maxInFlightBytes = CommonUtils.requirePositiveInt(maxInFlightBytes);
+      return this;
+    }
 
-        @Override
-        public void close() {
-          // do nothing
-        }
-      };
+    /**
+     * @param blockOnFull true if the sender should wait for the in-flight bytes to be released.
+     *     Otherwise, the record is failed by {@link IllegalStateException} immediately
+     * @return this builder
+     */
+    @Optional("default is true")
+    public Builder<Key, Value> blockOnFull(boolean blockOnFull) {
+      this.blockOnFull = blockOnFull;
+      return this;
     }
 
     private void checkArguments() {
@@ -146,8 +187,53 @@ public interface Producer<Key, Value> extends Releasable {
           return props;
         }
 
-        private final KafkaProducer<Key, Value> producer =
-            new KafkaProducer<>(getProducerConfig(), wrap(keySerializer), wrap(valueSerializer));
+        /**
+         * the key and value are serialized by ohara producer so the size of record is known before
+         * sending. It is required by the in-flight limit.
+         */
+        private final KafkaProducer<byte[], byte[]> producer =
+            new KafkaProducer<>(
+                getProducerConfig(), new ByteArraySerializer(), new ByteArraySerializer());
+
+        private final Semaphore inFlightBytes = new Semaphore(maxInFlightBytes);
+
+        /**
+         * send a record to kafka producer. The in-flight bytes are acquired before sending and
+         * released after the record is acknowledged.
+         *
+         * @return false if the in-flight bytes are full and the producer is in fail-fast mode
+         */
+        private boolean sendRecord(ProducerRecord<byte[], byte[]> record, Callback callback) {
+          int size =
+              Math.min(
+                  maxInFlightBytes,
+                  (record.key() == null ? 0 : record.key().length)
+                      + (record.value() == null ? 0 : record.value().length));
+          if (blockOnFull) {
+            try {
+              inFlightBytes.acquire(size);
+            } catch (InterruptedException e) {
+              throw new OharaInterruptedException(e);
+            }
+          } else if (!inFlightBytes.tryAcquire(size)) return false;
+          try {
+            producer.send(
+                record,
+                (metadata, exception) -> {
+                  inFlightBytes.release(size);
+                  callback.onCompletion(metadata, exception);
+                });
+          } catch (RuntimeException e) {
+            inFlightBytes.release(size);
+            throw e;
+          }
+          return true;
+        }
+
+        private IllegalStateException full() {
+          return new IllegalStateException(
+              "the in-flight bytes exceed the limit:" + maxInFlightBytes);
+        }
 
         @Override
         public final Sender<Key, Value> sender() {
@@ -155,44 +241,74 @@ public interface Producer<Key, Value> extends Releasable {
             @Override
             public Future<RecordMetadata> doSend() {
               CompletableFuture<RecordMetadata> completableFuture = new CompletableFuture<>();
-              ProducerRecord<Key, Value> record =
+              List<org.apache.kafka.common.header.Header> kafkaHeaders =
+                  new ArrayList<>(headers.size());
+              for (Header header : headers) kafkaHeaders.add(toKafkaHeader(header));
+              ProducerRecord<byte[], byte[]> record =
                   new ProducerRecord<>(
                       topicName,
                       partition,
                       timestamp,
-                      key,
-                      value,
-                      headers.stream()
-                          .map(Builder.this::toKafkaHeader)
-                          .collect(Collectors.toList()));
-
-              producer.send(
-                  record,
-                  (metadata, exception) -> {
-                    if (metadata == null && exception == null)
-                      completableFuture.completeExceptionally(
-                          new IllegalStateException(
-                              "no meta and exception from kafka producer...It should be impossible"));
-                    if (metadata != null && exception != null)
-                      completableFuture.completeExceptionally(
-                          new IllegalStateException(
-                              "Both meta and exception from kafka producer...It should be impossible"));
-                    if (metadata != null)
-                      completableFuture.complete(
-                          new RecordMetadata(
-                              metadata.topic(),
-                              metadata.partition(),
-                              metadata.offset(),
-                              metadata.timestamp(),
-                              metadata.serializedKeySize(),
-                              metadata.serializedValueSize()));
-                    if (exception != null) completableFuture.completeExceptionally(exception);
-                  });
+                      key == null ? null : keySerializer.to(key),
+                      value == null ? null : valueSerializer.to(value),
+                      kafkaHeaders);
+
+              boolean sent =
+                  sendRecord(
+                      record,
+                      (metadata, exception) -> {
+                        if (metadata == null && exception == null)
+                          completableFuture.completeExceptionally(
+                              new IllegalStateException(
+                                  "no meta and exception from kafka producer...It should be impossible"));
+                        if (metadata != null && exception != null)
+                          completableFuture.completeExceptionally(
+                              new IllegalStateException(
+                                  "Both meta and exception from kafka producer...It should be impossible"));
+                        if (metadata != null)
+                          completableFuture.complete(
+                              new RecordMetadata(
+                                  metadata.topic(),
+                                  metadata.partition(),
+                                  metadata.offset(),
+                                  metadata.timestamp(),
+                                  metadata.serializedKeySize(),
+                                  metadata.serializedValueSize()));
+                        if (exception != null) completableFuture.completeExceptionally(exception);
+                      });
+              if (!sent) completableFuture.completeExceptionally(full());
               return completableFuture;
             }
           };
         }
 
+        @Override
+        public void sendAll(
+            String topicName, Iterable<Key> keys, BiConsumer<Long, Exception> callback) {
+          CommonUtils.requireNonEmpty(topicName);
+          Objects.requireNonNull(callback);
+          BatchCallback batchCallback = new BatchCallback(callback);
+          try {
+            for (Key key : keys) {
+              if (batchCallback.failed()) break;
+              ProducerRecord<byte[], byte[]> record =
+                  new ProducerRecord<>(topicName, keySerializer.to(key), null);
+              batchCallback.increment();
+              try {
+                if (!sendRecord(record, batchCallback)) batchCallback.onCompletion(null, full());
+              } catch (RuntimeException e) {
+                // the callback is not invoked by kafka producer if the exception is thrown
+                batchCallback.onCompletion(null, e);
+              }
+            }
+          } catch (RuntimeException e) {
+            // the failure happens before sending the record
+            batchCallback.fail(e);
+          } finally {
+            batchCallback.seal();
+          }
+        }
+
         @Override
         public void flush() {
           producer.flush();
@@ -205,6 +321,54 @@ public interface Producer<Key, Value> extends Releasable {
       };
     }
 
+    /**
+     * The shared callback of all records sent by {@link Producer#sendAll(String, Iterable,
+     * BiConsumer)}. It counts the pending records and invokes the user callback once. The counter
+     * starts from one so the callback can't be triggered before all records are sent (see {@link
+     * #seal()}).
+     */
+    private static final class BatchCallback implements Callback {
+      private final BiConsumer<Long, Exception> callback;
+      private final AtomicLong pending = new AtomicLong(1);
+      private final AtomicBoolean done = new AtomicBoolean(false);
+      private volatile Exception exception = null;
+      private long count = 0;
+
+      private BatchCallback(BiConsumer<Long, Exception> callback) {
+        this.callback = callback;
+      }
+
+      private boolean failed() {
+        return exception != null;
+      }
+
+      private void increment() {
+        ++count;
+        pending.incrementAndGet();
+      }
+
+      /** all records have been sent. */
+      private void seal() {
+        complete();
+      }
+
+      private void complete() {
+        if (pending.decrementAndGet() == 0 && done.compareAndSet(false, true))
+          callback.accept(count, exception);
+      }
+
+      private void fail(Exception e) {
+        if (exception == null) exception = e;
+      }
+
+      @Override
+      public void onCompletion(
+          org.apache.kafka.clients.producer.RecordMetadata metadata, Exception e) {
+        if (e != null) fail(e);
+        complete();
+      }
+    }
+
     private org.apache.kafka.common.header.Header toKafkaHeader(Header header) {
       return new org.apache.kafka.common.header.Header() {
         @Override
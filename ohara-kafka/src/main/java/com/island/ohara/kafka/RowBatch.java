@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.util.ByteUtils;
+import com.island.ohara.common.util.CommonUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.apache.kafka.common.record.BufferSupplier;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.utils.ByteBufferOutputStream;
+
+/**
+ * The "row batch" record packs many serialized rows into a single kafka record. It reduces the
+ * overhead of record (header, offset, timestamp, etc) and the rows are compressed together.
+ *
+ * <p>The record is marked by the header {@link #HEADER_KEY} whose value is the name of compression.
+ * The key of record is uncompressed size (4 bytes) | compressed frame. The frame is row count (4
+ * bytes) | end offset of each row (4 bytes) | ... | row bytes | ... The value of record is null.
+ *
+ * <p>The batch is unpacked by RowSinkTask and {@link Consumer} automatically, so the task authors
+ * see only the rows.
+ */
+public final class RowBatch {
+  /** the header used to mark the row batch record. The value is the name of compression */
+  public static final String HEADER_KEY = "ohara.row.batch";
+
+  public enum Compression {
+    NONE(CompressionType.NONE),
+    LZ4(CompressionType.LZ4),
+    ZSTD(CompressionType.ZSTD);
+
+    private final CompressionType type;
+
+    Compression(CompressionType type) {
+      this.type = type;
+    }
+
+    /** @return the value of header {@link #HEADER_KEY} */
+    public byte[] header() {
+      return name().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * parse the value of header {@link #HEADER_KEY}
+     *
+     * @param header the value of header. It can be string (connect header) or bytes (kafka header)
+     * @return compression
+     */
+    public static Compression of(Object header) {
+      String name =
+          header instanceof byte[]
+              ? new String((byte[]) header, StandardCharsets.UTF_8)
+              : String.valueOf(header);
+      return Arrays.stream(values())
+          .filter(c -> c.name().equals(name))
+          .findFirst()
+          .orElseThrow(() -> new IllegalArgumentException("unknown compression:" + name));
+    }
+  }
+
+  /**
+   * split the row batch to serialized rows.
+   *
+   * @param compression compression
+   * @param bytes the key of row batch record
+   * @return serialized rows
+   */
+  public static List<byte[]> unpack(Compression compression, byte[] bytes) {
+    int size = ByteUtils.toInt(bytes, 0);
+    byte[] frame = new byte[size];
+    try (InputStream input =
+        compression.type.wrapForInput(
+            ByteBuffer.wrap(bytes, ByteUtils.SIZE_OF_INT, bytes.length - ByteUtils.SIZE_OF_INT),
+            RecordBatch.CURRENT_MAGIC_VALUE,
+            BufferSupplier.NO_CACHING)) {
+      int offset = 0;
+      while (offset < size) {
+        int read = input.read(frame, offset, size - offset);
+        if (read < 0) throw new IllegalArgumentException("the row batch is broken");
+        offset += read;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    int count = ByteUtils.toInt(frame, 0);
+    if (count < 0) throw new IllegalArgumentException("the number of rows can't be negative");
+    List<byte[]> rows = new ArrayList<>(count);
+    int start = ByteUtils.SIZE_OF_INT + count * ByteUtils.SIZE_OF_INT;
+    for (int index = 0; index != count; ++index) {
+      int end = ByteUtils.toInt(frame, ByteUtils.SIZE_OF_INT + index * ByteUtils.SIZE_OF_INT);
+      if (end < start || end > frame.length)
+        throw new IllegalArgumentException("the offset of row is out of range");
+      rows.add(Arrays.copyOfRange(frame, start, end));
+      start = end;
+    }
+    return rows;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final Compression compression;
+  private final int maxRows;
+
+  private RowBatch(Compression compression, int maxRows) {
+    this.compression = compression;
+    this.maxRows = maxRows;
+  }
+
+  public Compression compression() {
+    return compression;
+  }
+
+  /** @return the max number of rows in a batch record */
+  public int maxRows() {
+    return maxRows;
+  }
+
+  /**
+   * pack the serialized rows to the key of row batch record.
+   *
+   * @param rows serialized rows
+   * @return the key of row batch record
+   */
+  public byte[] pack(List<byte[]> rows) {
+    int size = ByteUtils.SIZE_OF_INT + rows.size() * ByteUtils.SIZE_OF_INT;
+    for (byte[] row : rows) size += row.length;
+    byte[] frame = new byte[size];
+    int offset = ByteUtils.putInt(frame, 0, rows.size());
+    int end = offset + rows.size() * ByteUtils.SIZE_OF_INT;
+    for (byte[] row : rows) {
+      end += row.length;
+      offset = ByteUtils.putInt(frame, offset, end);
+    }
+    for (byte[] row : rows) {
+      System.arraycopy(row, 0, frame, offset, row.length);
+      offset += row.length;
+    }
+    ByteBufferOutputStream buffer = new ByteBufferOutputStream(frame.length / 2 + 64);
+    // the uncompressed size
+    buffer.write(ByteUtils.toBytes(frame.length), 0, ByteUtils.SIZE_OF_INT);
+    try (OutputStream output =
+        compression.type.wrapForOutput(buffer, RecordBatch.CURRENT_MAGIC_VALUE)) {
+      output.write(frame);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    ByteBuffer result = buffer.buffer();
+    return Arrays.copyOf(result.array(), result.position());
+  }
+
+  public static class Builder implements com.island.ohara.common.Builder<RowBatch> {
+    private Compression compression = Compression.LZ4;
+    private int maxRows = 1000;
+
+    private Builder() {
+      // do nothing
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is LZ4")
+    public Builder compression(Compression compression) {
+      this.compression = Objects.requireNonNull(compression);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is 1000")
+    public Builder maxRows(int maxRows) {
+      this.maxRows = CommonUtils.requirePositiveInt(maxRows);
+      return this;
+    }
+
+    @Override
+    public RowBatch build() {
+      return new RowBatch(compression, maxRows);
+    }
+  }
+}
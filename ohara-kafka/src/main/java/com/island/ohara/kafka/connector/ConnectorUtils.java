@@ -107,7 +107,7 @@ final class ConnectorUtils {
   @VisibleForTesting
   static long sizeOf(Object obj) {
     if (obj instanceof byte[]) return ((byte[]) obj).length;
-    else if (obj instanceof Row) return Serializer.ROW.to((Row) obj).length;
+    else if (obj instanceof Row) return Serializer.ROW.sizeOf((Row) obj);
     else if (obj instanceof Boolean) return ByteUtils.SIZE_OF_BOOLEAN;
     else if (obj instanceof Short) return ByteUtils.SIZE_OF_SHORT;
     else if (obj instanceof Integer) return ByteUtils.SIZE_OF_INT;
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector;
+
+import com.island.ohara.common.data.Column;
+import com.island.ohara.common.data.Row;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Map the columns of schema to the cells of row. It is used by the sink tasks to pick up the cells
+ * to write. If the schema is empty, all cells of row are picked up in the order of row.
+ *
+ * <p>The indexes are cached by the names of row. The rows having same names share the same names
+ * list so the indexes are rebuilt only if the names are changed. This class is not thread-safe.
+ */
+public final class RowProjection {
+
+  /**
+   * @param schema the columns to pick up. The order of columns is the order of indexes
+   * @return a projection of schema
+   */
+  public static RowProjection of(List<Column> schema) {
+    return new RowProjection(schema);
+  }
+
+  private final String[] names;
+  private List<String> projectedNames;
+  private int[] indexes;
+  private boolean complete;
+
+  private RowProjection(List<Column> schema) {
+    this.names = Objects.requireNonNull(schema).stream().map(Column::name).toArray(String[]::new);
+  }
+
+  /**
+   * @param row row
+   * @return the index of cell for each column. -1 means the cell is absent. Noted: the array is
+   *     shared by the rows having same names so it must not be changed
+   */
+  public int[] indexes(Row row) {
+    project(row);
+    return indexes;
+  }
+
+  /**
+   * @param row row
+   * @return false if the row lacks some columns. The sink tasks skip such rows
+   */
+  public boolean complete(Row row) {
+    project(row);
+    return complete;
+  }
+
+  private void project(Row row) {
+    List<String> rowNames = row.names();
+    // the names which are not interned are compared by value
+    if (rowNames == projectedNames || rowNames.equals(projectedNames)) return;
+    if (names.length == 0) {
+      indexes = new int[rowNames.size()];
+      for (int index = 0; index != indexes.length; ++index) indexes[index] = index;
+      complete = true;
+    } else {
+      indexes = new int[names.length];
+      complete = true;
+      for (int index = 0; index != names.length; ++index) {
+        indexes[index] = rowNames.indexOf(names[index]);
+        if (indexes[index] < 0) complete = false;
+      }
+    }
+    projectedNames = rowNames;
+  }
+}
@@ -19,8 +19,13 @@ package com.island.ohara.kafka.connector;
 import com.island.ohara.common.data.Row;
 import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.RowBatch;
 import com.island.ohara.kafka.TimestampType;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.header.Header;
 import org.apache.kafka.connect.sink.SinkRecord;
 
 /**
@@ -80,13 +85,23 @@ public class RowSinkRecord {
    * @return ohara's sink record
    */
   static RowSinkRecord of(SinkRecord record) {
+    return of(record, Serializer.ROW);
+  }
+
+  /**
+   * @param record kafka's sink record
+   * @param serializer used to convert the bytes to row. {@link Serializer#LAZY_ROW} makes a row
+   *     which decodes the cell on demand
+   * @return ohara's sink record
+   */
+  static RowSinkRecord of(SinkRecord record, Serializer<Row> serializer) {
     return builder()
         .topicName(record.topic())
         // add a room to accept the row in kafka
         .row(
             (record.key() instanceof Row)
                 ? ((Row) record.key())
-                : Serializer.ROW.from((byte[]) record.key()))
+                : serializer.from((byte[]) record.key()))
         .partition(record.kafkaPartition())
         .offset(record.kafkaOffset())
         // constructing a record without timeout is legal in kafka ...
@@ -95,6 +110,31 @@ public class RowSinkRecord {
         .build();
   }
 
+  /**
+   * convert the kafka's sink record to ohara's sink records. The row batch record is unpacked to
+   * many records, and all of them have the same partition, offset and timestamp.
+   *
+   * @param record kafka's sink record
+   * @param serializer used to convert the bytes to row
+   * @return ohara's sink records
+   */
+  static List<RowSinkRecord> unpack(SinkRecord record, Serializer<Row> serializer) {
+    Header header = record.headers().lastWithName(RowBatch.HEADER_KEY);
+    if (header == null) return Collections.singletonList(of(record, serializer));
+    return RowBatch.unpack(RowBatch.Compression.of(header.value()), (byte[]) record.key()).stream()
+        .map(
+            bytes ->
+                builder()
+                    .topicName(record.topic())
+                    .row(serializer.from(bytes))
+                    .partition(record.kafkaPartition())
+                    .offset(record.kafkaOffset())
+                    .timestamp(record.timestamp() == null ? 0 : record.timestamp())
+                    .timestampType(TimestampType.of(record.timestampType()))
+                    .build())
+        .collect(Collectors.toList());
+  }
+
   public static Builder builder() {
     return new Builder();
   }
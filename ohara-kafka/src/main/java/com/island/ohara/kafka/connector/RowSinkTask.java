@@ -18,6 +18,8 @@ package com.island.ohara.kafka.connector;
 
 import com.google.common.collect.ImmutableMap;
 import com.island.ohara.common.annotations.VisibleForTesting;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.util.Releasable;
 import com.island.ohara.common.util.VersionUtils;
 import com.island.ohara.metrics.basic.Counter;
@@ -113,6 +115,17 @@ public abstract class RowSinkTask extends SinkTask {
     return offsets;
   }
 
+  /**
+   * The serializer used to convert the kafka data to the row passed to _put. The default
+   * implementation decodes all cells of row. The sink which reads only a few cells can return
+   * {@link Serializer#LAZY_ROW} to decode the cell only when it is requested.
+   *
+   * @return row serializer
+   */
+  protected Serializer<Row> _rowSerializer() {
+    return Serializer.ROW;
+  }
+
   protected RowSinkContext rowContext;
   // -------------------------------------------------[WRAPPED]-------------------------------------------------//
   @VisibleForTesting Counter rowCounter = null;
@@ -121,11 +134,18 @@ public abstract class RowSinkTask extends SinkTask {
   @Override
   public final void put(Collection<SinkRecord> records) {
     if (records == null) records = Collections.emptyList();
+    List<RowSinkRecord> rowRecords = Collections.emptyList();
     try {
-      _put(records.stream().map(RowSinkRecord::of).collect(Collectors.toList()));
+      Serializer<Row> serializer = _rowSerializer();
+      // the row batch records are unpacked here so the task authors see only the rows
+      rowRecords =
+          records.stream()
+              .flatMap(record -> RowSinkRecord.unpack(record, serializer).stream())
+              .collect(Collectors.toList());
+      _put(rowRecords);
     } finally {
       // rowCounter should not be null ....
-      if (rowCounter != null) rowCounter.addAndGet(records.size());
+      if (rowCounter != null) rowCounter.addAndGet(rowRecords.size());
       if (sizeCounter != null)
         sizeCounter.addAndGet(records.stream().mapToLong(ConnectorUtils::sizeOf).sum());
     }
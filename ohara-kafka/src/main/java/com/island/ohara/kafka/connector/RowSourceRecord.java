@@ -20,11 +20,16 @@ import com.island.ohara.common.annotations.Nullable;
 import com.island.ohara.common.data.Row;
 import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.RowBatch;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.header.ConnectHeaders;
+import org.apache.kafka.connect.header.Header;
 import org.apache.kafka.connect.source.SourceRecord;
 
 /** A wrap to SourceRecord. Currently, only value columns and value are changed. */
@@ -85,7 +90,8 @@ public class RowSourceRecord {
   }
 
   /**
-   * a helper method used to handle the fucking null produced by kafka...
+   * a helper method used to handle the fucking null produced by kafka... The row is a lazy view
+   * (see {@link Serializer#LAZY_ROW}) so nothing is decoded if the row is never accessed.
    *
    * @param record kafka's source
    * @return ohara's source
@@ -98,29 +104,94 @@ public class RowSourceRecord {
     if (record.sourcePartition() != null) builder.sourcePartition(record.sourcePartition());
     if (record.kafkaPartition() != null) builder.partition(record.kafkaPartition());
     if (record.timestamp() != null) builder.timestamp(record.timestamp());
-    builder.row(Serializer.ROW.from((byte[]) record.key()));
+    builder.row(Serializer.LAZY_ROW.from((byte[]) record.key()));
     return builder.build();
   }
 
+  /**
+   * convert the kafka's source to ohara's sources. The row batch record is unpacked to many
+   * sources, and all of them have the same offset and timestamp. The rows are lazy views.
+   *
+   * @param record kafka's source
+   * @return ohara's sources
+   */
+  static List<RowSourceRecord> unpack(SourceRecord record) {
+    Header header = record.headers().lastWithName(RowBatch.HEADER_KEY);
+    if (header == null) return Collections.singletonList(of(record));
+    return RowBatch.unpack(RowBatch.Compression.of(header.value()), (byte[]) record.key()).stream()
+        .map(
+            bytes -> {
+              Builder builder = new Builder();
+              builder.topicName(record.topic());
+              if (record.sourceOffset() != null) builder.sourceOffset(record.sourceOffset());
+              if (record.sourcePartition() != null)
+                builder.sourcePartition(record.sourcePartition());
+              if (record.kafkaPartition() != null) builder.partition(record.kafkaPartition());
+              if (record.timestamp() != null) builder.timestamp(record.timestamp());
+              return builder.row(Serializer.LAZY_ROW.from(bytes)).build();
+            })
+        .collect(Collectors.toList());
+  }
+
   /**
    * a helper method used to handle the fucking null produced by kafka...
    *
    * @return kafka's source
    */
   SourceRecord toSourceRecord() {
+    return toSourceRecord(Serializer.ROW.to(row()));
+  }
+
+  /**
+   * @param key the serialized row. It is used to reuse the bytes of same row.
+   * @return kafka's source
+   */
+  SourceRecord toSourceRecord(byte[] key) {
     return new SourceRecord(
         sourcePartition(),
         sourceOffset(),
         topicName(),
         partition,
         Schema.BYTES_SCHEMA,
-        Serializer.ROW.to(row()),
+        key,
         // TODO: we keep empty value in order to reduce data size in transmission
         Schema.BYTES_SCHEMA,
         null,
         timestamp);
   }
 
+  /**
+   * pack the rows to a row batch record. The offset, partition and timestamp of this source are
+   * used by the row batch record.
+   *
+   * @param rowBatch row batch setting
+   * @param rows serialized rows
+   * @return kafka's source
+   */
+  SourceRecord toBatchRecord(RowBatch rowBatch, List<byte[]> rows) {
+    return new SourceRecord(
+        sourcePartition(),
+        sourceOffset(),
+        topicName(),
+        partition,
+        Schema.BYTES_SCHEMA,
+        rowBatch.pack(rows),
+        Schema.BYTES_SCHEMA,
+        null,
+        timestamp,
+        new ConnectHeaders().addString(RowBatch.HEADER_KEY, rowBatch.compression().name()));
+  }
+
+  /**
+   * @param other another source
+   * @return true if both sources are sent to the same topic/partition with same source partition
+   */
+  boolean sameTarget(RowSourceRecord other) {
+    return topicName.equals(other.topicName)
+        && Objects.equals(partition, other.partition)
+        && sourcePartition.equals(other.sourcePartition);
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -18,11 +18,18 @@ package com.island.ohara.kafka.connector;
 
 import com.google.common.collect.ImmutableMap;
 import com.island.ohara.common.annotations.VisibleForTesting;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.util.Releasable;
 import com.island.ohara.common.util.VersionUtils;
+import com.island.ohara.kafka.RowBatch;
 import com.island.ohara.metrics.basic.Counter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.source.SourceTask;
@@ -59,6 +66,9 @@ public abstract class RowSourceTask extends SourceTask {
    * functionality; Kafka Connect will record offsets automatically. This hook is provided for
    * systems that also need to store offsets internally in their own system.
    *
+   * <p>The row of record is decoded from the sent bytes only when it is accessed. The sent records
+   * are not unpacked at all if this method is not overridden.
+   *
    * @param record RowSourceRecord that was successfully sent via the producer.
    */
   protected void _commitRecord(RowSourceRecord record) {
@@ -87,6 +97,19 @@ public abstract class RowSourceTask extends SourceTask {
     return VersionUtils.VERSION;
   }
 
+  /**
+   * The row batch mode packs the rows returned by _poll() into a few kafka records (see {@link
+   * RowBatch}). The consecutive rows sent to the same topic/partition with the same source
+   * partition are packed together, and the batch record uses the source offset and timestamp of the
+   * last row. The rows are unpacked by RowSinkTask and Consumer automatically. This method is
+   * called after _start. The default implementation disables the row batch mode.
+   *
+   * @return row batch setting or empty if the row batch mode is disabled
+   */
+  protected Optional<RowBatch> _rowBatch() {
+    return Optional.empty();
+  }
+
   /**
    * RowSourceContext is provided to RowSourceTask to allow them to interact with the underlying
    * runtime.
@@ -95,6 +118,21 @@ public abstract class RowSourceTask extends SourceTask {
   // -------------------------------------------------[WRAPPED]-------------------------------------------------//
   @VisibleForTesting Counter rowCounter = null;
   @VisibleForTesting Counter sizeCounter = null;
+  @VisibleForTesting RowBatch rowBatch = null;
+
+  /** false if _commitRecord is not overridden. The sent records are not unpacked in that case. */
+  @VisibleForTesting final boolean needCommitRecord = overridesCommitRecord(getClass());
+
+  private static boolean overridesCommitRecord(Class<?> clz) {
+    for (Class<?> current = clz; current != RowSourceTask.class; current = current.getSuperclass())
+      try {
+        current.getDeclaredMethod("_commitRecord", RowSourceRecord.class);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // keep searching the super class
+      }
+    return false;
+  }
 
   @Override
   public final List<SourceRecord> poll() {
@@ -103,18 +141,43 @@ public abstract class RowSourceTask extends SourceTask {
     // https://github.com/apache/kafka/pull/4958
     if (value == null || value.isEmpty()) return null;
     else {
+      // the same row may be sent to many topics so the serialized row is reused
+      Map<Row, byte[]> serializedRows = new IdentityHashMap<>();
+      Function<Row, byte[]> serializer =
+          row -> serializedRows.computeIfAbsent(row, Serializer.ROW::to);
       List<SourceRecord> records =
-          value.stream().map(RowSourceRecord::toSourceRecord).collect(Collectors.toList());
+          rowBatch == null
+              ? value.stream()
+                  .map(record -> record.toSourceRecord(serializer.apply(record.row())))
+                  .collect(Collectors.toList())
+              : toBatchRecords(value, serializer);
       try {
         return records;
       } finally {
-        if (rowCounter != null) rowCounter.addAndGet(records.size());
+        if (rowCounter != null) rowCounter.addAndGet(value.size());
         if (sizeCounter != null)
           sizeCounter.addAndGet(records.stream().mapToLong(ConnectorUtils::sizeOf).sum());
       }
     }
   }
 
+  private List<SourceRecord> toBatchRecords(
+      List<RowSourceRecord> records, Function<Row, byte[]> serializer) {
+    List<SourceRecord> batchRecords = new ArrayList<>();
+    List<byte[]> rows = new ArrayList<>();
+    RowSourceRecord last = null;
+    for (RowSourceRecord record : records) {
+      if (last != null && (rows.size() >= rowBatch.maxRows() || !last.sameTarget(record))) {
+        batchRecords.add(last.toBatchRecord(rowBatch, rows));
+        rows = new ArrayList<>();
+      }
+      rows.add(serializer.apply(record.row()));
+      last = record;
+    }
+    if (last != null) batchRecords.add(last.toBatchRecord(rowBatch, rows));
+    return batchRecords;
+  }
+
   /**
    * create counter builder. This is a helper method for custom connector which want to expose some
    * number via ohara's metrics. NOTED: THIS METHOD MUST BE USED AFTER STARTING THIS CONNECTOR.
@@ -136,6 +199,7 @@ public abstract class RowSourceTask extends SourceTask {
     rowCounter = ConnectorUtils.rowCounter(taskSetting.name());
     sizeCounter = ConnectorUtils.sizeCounter(taskSetting.name());
     _start(taskSetting);
+    rowBatch = _rowBatch().orElse(null);
   }
 
   @Override
@@ -153,10 +217,11 @@ public abstract class RowSourceTask extends SourceTask {
     _commit();
   }
 
-  // TODO: We do a extra conversion here (bytes => Row)... by chia
+  // the row is a lazy view of the key, and the record is not unpacked if _commitRecord is not
+  // overridden, so the task which ignores the row pays nothing for decoding
   @Override
   public final void commitRecord(SourceRecord record) {
-    _commitRecord(RowSourceRecord.of(record));
+    if (needCommitRecord) RowSourceRecord.unpack(record).forEach(this::_commitRecord);
   }
 
   @Override
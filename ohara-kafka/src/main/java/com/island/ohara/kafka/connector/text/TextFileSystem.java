@@ -17,12 +17,18 @@
 package com.island.ohara.kafka.connector.text;
 
 import java.io.Closeable;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 
 /**
  * The close method will be invoked by the {@link TextSourceTask#_stop()} to release resources that
  * the object is holding (such as open ftpClient).
+ *
+ * <p>The {@link #createInputStream(String)} is called by the reader threads of {@link
+ * TextSourceTask} so it must be thread-safe, and the returned streams must be independent. Other
+ * methods are called by the poll thread only.
  */
 public interface TextFileSystem extends Closeable {
   /**
@@ -33,15 +39,46 @@ public interface TextFileSystem extends Closeable {
   Collection<String> listInputFiles();
 
   /**
-   * create a inputStreamReader for input file. NOTE: this resource will be automatically closed by
-   * the {@link TextSourceTask#_poll()}
+   * create a inputStream for input file. The converter reads the raw bytes so the byte position of
+   * lines can be used as offset. NOTE: this resource will be automatically closed by the {@link
+   * TextSourceTask#_poll()} after the file is drained or failed.
    *
    * @param path a full path form input file
-   * @return a inputStreamReader from input file
+   * @return a inputStream from input file
    */
-  InputStreamReader createReader(String path);
+  InputStream createInputStream(String path);
+
+  /** @return the charset used to decode the input files. Default is UTF-8 */
+  default Charset charset() {
+    return StandardCharsets.UTF_8;
+  }
 
   void handleErrorFile(String path);
 
   void handleCompletedFile(String path);
+
+  /**
+   * claim the file before reading it. The tasks sharing the same input folder use the claim to
+   * balance the files dynamically. The claim must be atomic so a file is never claimed by two
+   * tasks. The claim which is not released (for example, the task is crashed) is still valid after
+   * the task is restarted so the restarted task can resume the claimed files. The default
+   * implementation always succeeds, which means there is no coordination between tasks.
+   *
+   * @param path a full path form input file
+   * @return true if the file is claimed by this task. otherwise, false
+   */
+  default boolean claim(String path) {
+    return true;
+  }
+
+  /**
+   * release the claim of file. It is called after the file is handled by {@link
+   * #handleCompletedFile(String)} or {@link #handleErrorFile(String)}, and it is also called for
+   * the files which are still being read when the task is stopped.
+   *
+   * @param path a full path form input file
+   */
+  default void release(String path) {
+    // do nothing
+  }
 }
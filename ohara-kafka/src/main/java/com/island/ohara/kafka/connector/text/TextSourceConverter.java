@@ -16,26 +16,26 @@
 
 package com.island.ohara.kafka.connector.text;
 
+import com.island.ohara.common.util.Releasable;
 import com.island.ohara.kafka.connector.RowSourceRecord;
-import java.io.InputStreamReader;
 import java.util.List;
-import java.util.function.Supplier;
 
 /**
- * A converter to be used to read data from a reader, and convert to records of Kafka Connect format
+ * A converter to be used to read data from a file, and convert to records of Kafka Connect format.
+ * Each converter processes only one file, and the input is kept open between calls so the file is
+ * read only once. The {@link TextSourceTask} closes the converter after the file is drained or
+ * failed.
  */
-@FunctionalInterface
-public interface TextSourceConverter {
+public interface TextSourceConverter extends Releasable {
 
   /**
-   * Read lines from text file and convert to records. Note: remember to release resources after
-   * using InputStreamReader.
+   * Read next batch of lines from text file and convert them to records. The size of batch is
+   * bounded so the memory usage doesn't depend on the file size.
    *
    * <p>Depending on the situation, you can choose to handle IOException or throw an unchecked
    * exception.
    *
-   * @param supplier a supplier of InputStreamReader
-   * @return a array from RowSourceRecord
+   * @return a array from RowSourceRecord, or empty if there is no more data in the file
    */
-  List<RowSourceRecord> convert(Supplier<InputStreamReader> supplier);
+  List<RowSourceRecord> poll();
 }
@@ -42,11 +42,15 @@ public interface TextSourceConverterFactory {
 
   /**
    * Create a converter, we expect each converter to process only one file, so before the
-   * conversion, we can use path to get the previous offset from the RowSourceContext.
+   * conversion, we can use path to get the previous offset from the RowSourceContext. NOTED: it is
+   * called by the reader threads of {@link TextSourceTask} so the implementation must be
+   * thread-safe.
    *
    * @param context a wrap to kafka SourceTaskContext
+   * @param fileSystem used to open the input file
    * @param path the name of input file
    * @return converter a text source converter
    */
-  TextSourceConverter newConverter(RowSourceContext context, String path);
+  TextSourceConverter newConverter(
+      RowSourceContext context, TextFileSystem fileSystem, String path);
 }
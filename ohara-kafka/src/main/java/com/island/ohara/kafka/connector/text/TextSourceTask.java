@@ -16,26 +16,88 @@
 
 package com.island.ohara.kafka.connector.text;
 
+import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.common.util.Releasable;
 import com.island.ohara.kafka.connector.RowSourceRecord;
 import com.island.ohara.kafka.connector.RowSourceTask;
 import com.island.ohara.kafka.connector.TaskSetting;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * TextSourceTask is a Kafka Connect SourceTask implementation that reads from Text files (ex: CVS,
  * JSON, XML) and generates Kafka Connect records.
+ *
+ * <p>The files are read by a pool of reader threads. Each reader claims a file (see {@link
+ * TextFileSystem#claim(String)}), converts it batch by batch and puts the batches into a bounded
+ * queue which is drained by _poll(). After a file is drained, the task waits for all sent records
+ * of the file to be acknowledged by kafka and then it calls {@link
+ * TextFileSystem#handleCompletedFile(String)}.
  */
 public abstract class TextSourceTask extends RowSourceTask {
   private static final Logger log = LoggerFactory.getLogger(TextSourceTask.class);
+  public static final String TEXT_READER_COUNT_KEY = "text.reader.count";
+  public static final int TEXT_READER_COUNT_DEFAULT = 1;
+  private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
 
   private TextSourceConverterFactory converterFactory;
   private TextFileSystem fileSystem;
+  private int readerCount;
+  private ExecutorService readers;
+  private BlockingQueue<Batch> queue;
+  private volatile boolean closed = false;
+
+  /**
+   * guards the claimed files and the file system. _stop() is called by another thread so it must
+   * not release the files or close the file system while _poll() is using them. Noted: the lock is
+   * not held by _poll() while it is waiting for the readers.
+   */
+  private final Object lock = new Object();
+
+  /** the claimed files. It is guarded by the lock */
+  private final Map<String, FileState> files = new HashMap<>();
+
+  /**
+   * the number of records which are returned by _poll() but are not committed yet. The key is the
+   * source partition of records.
+   */
+  private final Map<Map<String, ?>, AtomicLong> inFlight = new ConcurrentHashMap<>();
+
+  private static final class FileState {
+    private final Set<Map<String, ?>> partitions = new HashSet<>();
+    private boolean drained = false;
+  }
+
+  /** the output of reader. A drained file is represented by empty records. */
+  private static final class Batch {
+    private final String path;
+    private final List<RowSourceRecord> records;
+    private final Exception exception;
+
+    private Batch(String path, List<RowSourceRecord> records, Exception exception) {
+      this.path = path;
+      this.records = records;
+      this.exception = exception;
+    }
+  }
 
   /**
    * Return the TextSourceConverterFactory for this connector
@@ -57,31 +119,147 @@ public abstract class TextSourceTask extends RowSourceTask {
   protected void _start(TaskSetting config) {
     converterFactory = Objects.requireNonNull(getConverterFactory(config));
     fileSystem = Objects.requireNonNull(getFileSystem(config));
+    readerCount =
+        CommonUtils.requirePositiveInt(
+            config.intOption(TEXT_READER_COUNT_KEY).orElse(TEXT_READER_COUNT_DEFAULT));
+    // each reader can put two batches before it is blocked
+    queue = new ArrayBlockingQueue<>(readerCount * 2);
+    readers = Executors.newFixedThreadPool(readerCount);
   }
 
   @Override
   protected List<RowSourceRecord> _poll() {
-    Optional<String> inputFile = fileSystem.listInputFiles().stream().findFirst();
+    synchronized (lock) {
+      if (closed) return Collections.emptyList();
+      completeFiles();
+      claimFiles();
+    }
+    List<Batch> batches = new ArrayList<>();
+    try {
+      Batch first = queue.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+      if (first == null) return Collections.emptyList();
+      batches.add(first);
+      queue.drainTo(batches);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Collections.emptyList();
+    }
+    synchronized (lock) {
+      // the files are released by _stop() so the polled records are dropped
+      if (closed) return Collections.emptyList();
+      List<RowSourceRecord> records = new ArrayList<>();
+      for (Batch batch : batches) {
+        FileState state = files.get(batch.path);
+        if (batch.exception != null) {
+          log.error("failed to handle " + batch.path, batch.exception);
+          files.remove(batch.path);
+          state.partitions.forEach(inFlight::remove);
+          fileSystem.handleErrorFile(batch.path);
+          fileSystem.release(batch.path);
+        } else if (batch.records.isEmpty()) state.drained = true;
+        else {
+          AtomicLong count = null;
+          Map<String, ?> partition = null;
+          for (RowSourceRecord record : batch.records) {
+            // the records of a file usually have the same partition
+            if (count == null || !record.sourcePartition().equals(partition)) {
+              partition = record.sourcePartition();
+              state.partitions.add(partition);
+              count = inFlight.computeIfAbsent(partition, p -> new AtomicLong(0));
+            }
+            count.incrementAndGet();
+          }
+          records.addAll(batch.records);
+        }
+      }
+      // the empty file can be completed now
+      completeFiles();
+      return records;
+    }
+  }
+
+  /** start the readers for new files until all readers are busy. */
+  private void claimFiles() {
+    long active = files.values().stream().filter(state -> !state.drained).count();
+    if (active >= readerCount) return;
+    for (String path : fileSystem.listInputFiles()) {
+      if (active >= readerCount) break;
+      if (files.containsKey(path) || !fileSystem.claim(path)) continue;
+      files.put(path, new FileState());
+      readers.execute(() -> read(path));
+      ++active;
+    }
+  }
 
-    if (inputFile.isPresent()) {
-      String path = inputFile.get();
+  /** handle the drained files whose records are committed. */
+  private void completeFiles() {
+    Iterator<Map.Entry<String, FileState>> iterator = files.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, FileState> entry = iterator.next();
+      FileState state = entry.getValue();
+      if (state.drained
+          && state.partitions.stream().allMatch(partition -> inFlight.get(partition).get() <= 0)) {
+        iterator.remove();
+        state.partitions.forEach(inFlight::remove);
+        fileSystem.handleCompletedFile(entry.getKey());
+        fileSystem.release(entry.getKey());
+      }
+    }
+  }
+
+  /** read the file batch by batch. It is run by reader thread. */
+  private void read(String path) {
+    TextSourceConverter converter = null;
+    try {
+      converter = converterFactory.newConverter(rowContext, fileSystem, path);
+      List<RowSourceRecord> records;
+      while (!closed && !(records = converter.poll()).isEmpty())
+        queue.put(new Batch(path, records, null));
+      // close the input before handling the file
+      converter.close();
+      converter = null;
+      if (!closed) queue.put(new Batch(path, Collections.emptyList(), null));
+    } catch (InterruptedException e) {
+      // the task is stopping
+    } catch (Exception e) {
+      Releasable.close(converter);
+      converter = null;
       try {
-        TextSourceConverter converter = converterFactory.newConverter(rowContext, path);
-        List<RowSourceRecord> records = converter.convert(() -> fileSystem.createReader(path));
-        if (records.isEmpty()) fileSystem.handleCompletedFile(path);
-        return records;
-      } catch (Exception e) {
-        log.error("failed to handle " + path, e);
-        fileSystem.handleErrorFile(path);
-        return Collections.emptyList();
+        if (!closed) queue.put(new Batch(path, null, e));
+      } catch (InterruptedException ie) {
+        // the task is stopping
       }
+    } finally {
+      Releasable.close(converter);
     }
+  }
 
-    return Collections.emptyList();
+  @Override
+  protected void _commitRecord(RowSourceRecord record) {
+    AtomicLong count = inFlight.get(record.sourcePartition());
+    if (count != null) count.decrementAndGet();
   }
 
   @Override
   protected void _stop() {
-    Releasable.close(fileSystem);
+    // the readers don't take the lock so it is safe to wait for them while holding the lock
+    synchronized (lock) {
+      closed = true;
+      if (readers != null) {
+        readers.shutdownNow();
+        try {
+          if (!readers.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS))
+            log.error("failed to stop the readers in " + CLOSE_TIMEOUT);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (fileSystem != null) {
+        // the claimed files can be read by other tasks from the committed offsets
+        files.keySet().forEach(fileSystem::release);
+        files.clear();
+      }
+      Releasable.close(fileSystem);
+    }
   }
 }
@@ -16,27 +16,54 @@
 
 package com.island.ohara.kafka.connector.text.csv;
 
+import com.island.ohara.common.data.Pair;
 import com.island.ohara.kafka.connector.RowSourceContext;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The cache is shared by the converters running on different reader threads. Each path is updated
+ * by only one converter at the same time.
+ */
 public class CsvOffsetCache implements OffsetCache {
   private final String partitionKey = CsvSourceConverter.CSV_PARTITION_KEY;
   private final String offsetKey = CsvSourceConverter.CSV_OFFSET_KEY;
-  private final Map<String, Integer> cache = new HashMap<>();
+  private final String positionKey = CsvSourceConverter.CSV_POSITION_KEY;
+  private final Map<String, Integer> cache = new ConcurrentHashMap<>();
+  private final Map<String, Long> positions = new ConcurrentHashMap<>();
 
   public void update(RowSourceContext context, String path) {
     Map<String, Object> offset = context.offset(Collections.singletonMap(partitionKey, path));
-    if (!offset.isEmpty()) update(path, getOffsetValue(offset));
+    if (!offset.isEmpty()) {
+      int index = (int) toLong(offset.get(offsetKey));
+      // the offset written by older version has no position
+      if (offset.containsKey(positionKey)) update(path, index, toLong(offset.get(positionKey)));
+      else update(path, index);
+    }
   }
 
   public void update(String path, int index) {
-    if (!cache.containsKey(path)) {
+    if (predicate(path, index)) {
       cache.put(path, index);
+      // the position of new index is unknown
+      positions.remove(path);
     }
-    int previous = cache.get(path);
-    if (index > previous) cache.put(path, index);
+  }
+
+  @Override
+  public void update(String path, int index, long position) {
+    if (predicate(path, index)) {
+      cache.put(path, index);
+      positions.put(path, position);
+    }
+  }
+
+  @Override
+  public Optional<Pair<Integer, Long>> offset(String path) {
+    Long position = positions.get(path);
+    return position == null ? Optional.empty() : Optional.of(Pair.of(cache.get(path), position));
   }
 
   public boolean predicate(String path, int index) {
@@ -47,19 +74,8 @@ public class CsvOffsetCache implements OffsetCache {
     return true;
   }
 
-  private int getOffsetValue(Map<String, Object> offset) {
-    Object value = offset.get(offsetKey);
-    if (value instanceof Short) {
-      return ((Short) value).intValue();
-    } else if (value instanceof Integer) {
-      return (Integer) value;
-    } else if (value instanceof Long) {
-      return ((Long) value).intValue();
-    } else if (value instanceof Float) {
-      return ((Float) value).intValue();
-    } else if (value instanceof Double) {
-      return ((Double) value).intValue();
-    }
-    return Integer.parseInt((String) value);
+  private static long toLong(Object value) {
+    if (value instanceof Number) return ((Number) value).longValue();
+    return Long.parseLong((String) value);
   }
 }
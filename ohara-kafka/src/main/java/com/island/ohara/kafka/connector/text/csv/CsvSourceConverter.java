@@ -21,162 +21,213 @@ import com.island.ohara.common.data.*;
 import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.kafka.connector.RowSourceRecord;
 import com.island.ohara.kafka.connector.text.TextSourceConverter;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * A converter to be used to read data from a csv file, and convert to records of Kafka Connect
- * format
+ * format. The file is opened on first poll and it is read forward only. The lines are split by
+ * {@link CsvTokenizer} and the fields are parsed to typed cells directly. Each poll converts at
+ * most {@link Builder#batchSize(int)} lines. The offset of record is (line index, byte position
+ * next to the line) so a restarted converter skips to the position directly.
  */
 public class CsvSourceConverter implements TextSourceConverter {
-  @VisibleForTesting static final String CSV_REGEX = ",(?=([^\"]*\"[^\"]*\")*[^\"]*$)";
   public static final String CSV_PARTITION_KEY = "csv.file.path";
   public static final String CSV_OFFSET_KEY = "csv.file.line";
+  public static final String CSV_POSITION_KEY = "csv.file.position";
+  public static final String CSV_BATCH_SIZE_KEY = "csv.batch.size";
+  public static final int CSV_BATCH_SIZE_DEFAULT = 1000;
+
+  /** convert the string to a cell of specific type. */
+  @FunctionalInterface
+  interface CellParser {
+    Cell<?> parse(String name, String value);
+  }
 
   private final String path;
   private final List<String> topics;
   private final List<Column> schema;
   private final Map<String, String> partition;
   private final OffsetCache cache;
+  private final Supplier<InputStream> input;
+  private final Charset charset;
+  private final int batchSize;
+
+  /** it is null before first poll */
+  private LineReader reader = null;
+
+  private CsvTokenizer tokenizer = null;
+
+  /** the names from header. it is null if the file is empty */
+  private String[] header = null;
+
+  // the plan of converting fields to cells. They are built from header and schema.
+  private String[] names;
+  private int[] fieldIndexes;
+  private CellParser[] parsers;
+
+  private int index = 0;
 
   @Override
-  public List<RowSourceRecord> convert(Supplier<InputStreamReader> supplier) {
-    try (InputStreamReader reader = supplier.get()) {
-      Map<Integer, List<Cell<String>>> cellsAndIndex = toCells(reader);
-      Map<Integer, Row> rowsAndIndex = transform(cellsAndIndex);
-      List<RowSourceRecord> records = toRecords(rowsAndIndex);
+  public List<RowSourceRecord> poll() {
+    try {
+      if (reader == null) open();
+      // the file has no header
+      if (header == null) return Collections.emptyList();
+      List<RowSourceRecord> records = new ArrayList<>();
+      int count = 0;
+      long position = 0;
+      while (count < batchSize && tokenizer.next()) {
+        ++index;
+        if (cache.predicate(path, index)) {
+          position = reader.position();
+          records.addAll(toRecords(toRow(), index, position));
+          ++count;
+        }
+      }
       // ok. all data are prepared. let's update the cache
-      rowsAndIndex.keySet().forEach(index -> cache.update(path, index));
+      if (count > 0) cache.update(path, index, position);
       return records;
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
-  /** read all lines from a reader, and then convert them to cells. */
-  @VisibleForTesting
-  Map<Integer, List<Cell<String>>> toCells(InputStreamReader input) {
-    Stream<String> lines = new BufferedReader(input).lines();
-    Map<Integer, String> lineAndIndex =
-        StreamUtils.zipWithIndex(lines)
-            .filter(
-                pair -> {
-                  int index = pair.left();
-                  if (index == 0) return true;
-                  return cache.predicate(path, index);
-                })
-            .collect(Collectors.toMap(Pair::left, Pair::right));
-
-    if (lineAndIndex.size() > 1) {
-      String[] header =
-          Arrays.stream(lineAndIndex.get(0).split(CSV_REGEX))
-              .map(String::trim)
-              .toArray(String[]::new);
-
-      return lineAndIndex.entrySet().stream()
-          .filter(e -> e.getKey() > 0)
-          .collect(
-              Collectors.toMap(
-                  Map.Entry::getKey,
-                  e -> {
-                    String line = e.getValue();
-                    String[] items = line.split(CSV_REGEX);
-                    return IntStream.range(0, items.length)
-                        .mapToObj(i -> Cell.of(header[i], items[i].trim()))
-                        .collect(Collectors.toList());
-                  }));
+  /** open the input, read the header, build the plan and then skip the processed lines. */
+  private void open() throws IOException {
+    reader = new LineReader(input.get(), charset);
+    tokenizer = new CsvTokenizer(reader);
+    if (!tokenizer.next()) return;
+    header = tokenizer.fields();
+    plan();
+    Optional<Pair<Integer, Long>> offset = cache.offset(path);
+    if (offset.isPresent() && offset.get().right() > reader.position()) {
+      reader.seek(offset.get().right());
+      index = offset.get().left();
     }
-
-    return Collections.emptyMap();
   }
 
   /**
-   * transform the input cells to rows as stated by the columns. This method does the following
-   * works. 1) filter out the unused cell 2) replace the name by new one 3) convert the string to
-   * specified type
+   * build the plan of converting fields to cells. This method does the following works. 1) filter
+   * out the unused field 2) replace the name by new one 3) choose the parser of specified type. The
+   * unused fields are not decoded by tokenizer.
    */
-  @VisibleForTesting
-  Map<Integer, Row> transform(Map<Integer, List<Cell<String>>> indexAndCells) {
-    return indexAndCells.entrySet().stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> transform(e.getValue())));
+  private void plan() {
+    if (schema.isEmpty()) {
+      names = header;
+      fieldIndexes = new int[header.length];
+      parsers = new CellParser[header.length];
+      for (int i = 0; i != header.length; ++i) {
+        fieldIndexes[i] = i;
+        parsers[i] = parser(DataType.STRING);
+      }
+      return;
+    }
+    List<Column> columns = new ArrayList<>(schema);
+    columns.sort(Comparator.comparing(Column::order));
+    List<String> headerNames = Arrays.asList(header);
+    boolean[] wanted = new boolean[header.length];
+    names = new String[columns.size()];
+    fieldIndexes = new int[columns.size()];
+    parsers = new CellParser[columns.size()];
+    for (int i = 0; i != columns.size(); ++i) {
+      Column column = columns.get(i);
+      int fieldIndex = headerNames.indexOf(column.name());
+      if (fieldIndex < 0)
+        throw new NoSuchElementException(
+            "the column:" + column.name() + " doesn't exist in the header of " + path);
+      names[i] = column.newName();
+      fieldIndexes[i] = fieldIndex;
+      parsers[i] = parser(column.dataType());
+      wanted[fieldIndex] = true;
+    }
+    tokenizer.wanted(wanted);
   }
 
-  private Row transform(List<Cell<String>> cells) {
-    if (schema.isEmpty()) {
-      return Row.of(cells.stream().toArray(Cell[]::new));
+  /** convert the fields of current record to a row as stated by the plan. */
+  private Row toRow() {
+    int count = tokenizer.count();
+    if (count > header.length)
+      throw new IllegalArgumentException(
+          "the line:" + index + " has " + count + " fields but header has " + header.length);
+    // the missing fields are ignored if there is no schema
+    int size = schema.isEmpty() ? count : names.length;
+    Cell<?>[] cells = new Cell<?>[size];
+    for (int i = 0; i != size; ++i) {
+      int fieldIndex = fieldIndexes[i];
+      if (fieldIndex >= count)
+        throw new IllegalArgumentException(
+            "the line:" + index + " has no field for column:" + header[fieldIndex]);
+      cells[i] = parsers[i].parse(names[i], tokenizer.field(fieldIndex));
     }
+    return Row.of(cells);
+  }
 
-    return Row.of(
-        schema.stream()
-            .sorted(Comparator.comparing(Column::order))
-            .map(
-                column -> {
-                  String value = findCellByName(cells, column.name()).value();
-                  Object newValue = convertByType(value, column.dataType());
-                  return Cell.of(column.newName(), newValue);
-                })
-            .toArray(Cell[]::new));
+  @Override
+  public void close() {
+    if (reader != null) {
+      try {
+        reader.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
   }
 
+  /**
+   * convert the string to a cell of specified type. The primitive values are parsed to primitive
+   * cells so they are not boxed.
+   */
   @VisibleForTesting
-  Cell<String> findCellByName(List<Cell<String>> cells, String name) {
-    return cells.stream().filter(cell -> cell.name().equals(name)).findFirst().get();
+  Cell<?> convertByType(String name, String value, DataType type) {
+    return parser(type).parse(name, value);
   }
 
+  /**
+   * choose the parser of specified type. It is called once for each column rather than each cell.
+   */
   @VisibleForTesting
-  Object convertByType(String value, DataType type) {
+  static CellParser parser(DataType type) {
     switch (type) {
       case BOOLEAN:
-        return Boolean.valueOf(value);
+        return (name, value) -> Cell.of(name, Boolean.parseBoolean(value));
       case BYTE:
-        return Byte.valueOf(value);
+        return (name, value) -> Cell.of(name, Byte.parseByte(value));
       case SHORT:
-        return Short.valueOf(value);
+        return (name, value) -> Cell.of(name, Short.parseShort(value));
       case INT:
-        return Integer.valueOf(value);
+        return (name, value) -> Cell.of(name, Integer.parseInt(value));
       case LONG:
-        return Long.valueOf(value);
+        return (name, value) -> Cell.of(name, Long.parseLong(value));
       case FLOAT:
-        return Float.valueOf(value);
+        return (name, value) -> Cell.of(name, Float.parseFloat(value));
       case DOUBLE:
-        return Double.valueOf(value);
+        return (name, value) -> Cell.of(name, Double.parseDouble(value));
       case STRING:
-        return value;
       case OBJECT:
-        return value;
+        return Cell::of;
       default:
         throw new IllegalArgumentException("Unsupported type " + type);
     }
   }
 
   @VisibleForTesting
-  List<RowSourceRecord> toRecords(Map<Integer, Row> rows) {
-    return rows.entrySet().stream()
-        .map(
-            e -> {
-              int index = e.getKey();
-              Row row = e.getValue();
-              return toRecords(row, index);
-            })
-        .flatMap(List::stream)
-        .collect(Collectors.toList());
-  }
-
-  @VisibleForTesting
-  List<RowSourceRecord> toRecords(Row row, int index) {
+  List<RowSourceRecord> toRecords(Row row, int index, long position) {
+    Map<String, Object> offset = new HashMap<>();
+    offset.put(CSV_OFFSET_KEY, index);
+    offset.put(CSV_POSITION_KEY, position);
     return this.topics.stream()
         .map(
             t ->
                 RowSourceRecord.builder()
                     .sourcePartition(partition)
-                    .sourceOffset(Collections.singletonMap(CSV_OFFSET_KEY, index))
+                    .sourceOffset(offset)
                     .row(row)
                     .topicName(t)
                     .build())
@@ -188,9 +239,12 @@ public class CsvSourceConverter implements TextSourceConverter {
     private String path;
     private List<String> topics;
     private OffsetCache offsetCache;
+    private Supplier<InputStream> input;
 
     // Optional parameters - initialized to default values
     private List<Column> schema = Collections.emptyList();
+    private Charset charset = StandardCharsets.UTF_8;
+    private int batchSize = CSV_BATCH_SIZE_DEFAULT;
 
     public Builder path(String val) {
       path = val;
@@ -207,17 +261,39 @@ public class CsvSourceConverter implements TextSourceConverter {
       return this;
     }
 
+    /**
+     * @param val supplier of the input file. It is called on first poll.
+     * @return this builder
+     */
+    public Builder input(Supplier<InputStream> val) {
+      input = val;
+      return this;
+    }
+
     @com.island.ohara.common.annotations.Optional("default is empty")
     public Builder schema(List<Column> val) {
       schema = Objects.requireNonNull(val);
       return this;
     }
 
+    @com.island.ohara.common.annotations.Optional("default is UTF-8")
+    public Builder charset(Charset val) {
+      charset = Objects.requireNonNull(val);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is " + CSV_BATCH_SIZE_DEFAULT)
+    public Builder batchSize(int val) {
+      batchSize = CommonUtils.requirePositiveInt(val);
+      return this;
+    }
+
     @Override
     public CsvSourceConverter build() {
       Objects.requireNonNull(path);
       CommonUtils.requireNonEmpty(topics);
       Objects.requireNonNull(offsetCache);
+      Objects.requireNonNull(input);
       return new CsvSourceConverter(this);
     }
   }
@@ -227,6 +303,9 @@ public class CsvSourceConverter implements TextSourceConverter {
     topics = builder.topics;
     schema = builder.schema;
     cache = builder.offsetCache;
+    input = builder.input;
+    charset = builder.charset;
+    batchSize = builder.batchSize;
     partition = Collections.singletonMap(CSV_PARTITION_KEY, builder.path);
   }
 }
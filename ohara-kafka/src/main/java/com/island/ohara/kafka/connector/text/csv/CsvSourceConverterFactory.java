@@ -20,6 +20,7 @@ import com.island.ohara.common.data.Column;
 import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.kafka.connector.RowSourceContext;
 import com.island.ohara.kafka.connector.TaskSetting;
+import com.island.ohara.kafka.connector.text.TextFileSystem;
 import com.island.ohara.kafka.connector.text.TextSourceConverter;
 import com.island.ohara.kafka.connector.text.TextSourceConverterFactory;
 import java.util.List;
@@ -30,16 +31,23 @@ public class CsvSourceConverterFactory implements TextSourceConverterFactory {
   private final List<String> topics;
   private final List<Column> schema;
   private final CsvOffsetCache offsetCache;
+  private final int batchSize;
 
   public CsvSourceConverterFactory(TaskSetting config) {
     Objects.requireNonNull(config);
     this.topics = CommonUtils.requireNonEmpty(config.topicNames());
     this.schema = config.columns();
     this.offsetCache = new CsvOffsetCache();
+    this.batchSize =
+        CommonUtils.requirePositiveInt(
+            config
+                .intOption(CsvSourceConverter.CSV_BATCH_SIZE_KEY)
+                .orElse(CsvSourceConverter.CSV_BATCH_SIZE_DEFAULT));
   }
 
   @Override
-  public TextSourceConverter newConverter(RowSourceContext context, String path) {
+  public TextSourceConverter newConverter(
+      RowSourceContext context, TextFileSystem fileSystem, String path) {
     // update cache
     offsetCache.update(context, path);
 
@@ -47,7 +55,10 @@ public class CsvSourceConverterFactory implements TextSourceConverterFactory {
         .path(path)
         .topics(topics)
         .offsetCache(offsetCache)
+        .input(() -> fileSystem.createInputStream(path))
+        .charset(fileSystem.charset())
         .schema(schema)
+        .batchSize(batchSize)
         .build();
   }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.text.csv;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A single-pass csv tokenizer following RFC-4180. The field enclosed in double quotes can contain
+ * commas, escaped double quotes ("") and line breaks. The unquoted fields are trimmed, and the
+ * characters between the closing quote and next comma are ignored.
+ *
+ * <p>The tokenizer reuses the array of fields so the caller must copy the fields if it needs to
+ * keep them after calling {@link #next()}.
+ */
+final class CsvTokenizer {
+  private static final char DELIMITER = ',';
+  private static final char QUOTE = '"';
+  private final LineReader reader;
+  private final StringBuilder buffer = new StringBuilder();
+  private String[] fields = new String[16];
+  private int count = 0;
+  private boolean[] wanted = null;
+
+  CsvTokenizer(LineReader reader) {
+    this.reader = Objects.requireNonNull(reader);
+  }
+
+  /**
+   * set the fields which should be decoded. The unwanted fields are skipped and their values are
+   * null. The fields having index bigger than the mask are skipped also.
+   *
+   * @param wanted mask of fields. null means all fields are wanted
+   */
+  void wanted(boolean[] wanted) {
+    this.wanted = wanted;
+  }
+
+  /** @return the number of fields of current record */
+  int count() {
+    return count;
+  }
+
+  /**
+   * @param index index of field
+   * @return the value of field or null if the field is unwanted
+   */
+  String field(int index) {
+    if (index < 0 || index >= count)
+      throw new IndexOutOfBoundsException("index:" + index + " count:" + count);
+    return fields[index];
+  }
+
+  /** @return a copy of fields of current record */
+  String[] fields() {
+    return Arrays.copyOf(fields, count);
+  }
+
+  private boolean isWanted(int index) {
+    return wanted == null || (index < wanted.length && wanted[index]);
+  }
+
+  private void add(String field) {
+    if (count == fields.length) fields = Arrays.copyOf(fields, count * 2);
+    fields[count++] = field;
+  }
+
+  /**
+   * read next record. A record spans many lines if the line breaks are in quoted field.
+   *
+   * @return false if there is no more record
+   * @throws IOException if failed to read the input
+   */
+  boolean next() throws IOException {
+    String line = reader.readLine();
+    if (line == null) return false;
+    count = 0;
+    int length = line.length();
+    int position = 0;
+    while (true) {
+      while (position < length && line.charAt(position) <= ' ') ++position;
+      boolean wanted = isWanted(count);
+      if (position < length && line.charAt(position) == QUOTE) {
+        ++position;
+        buffer.setLength(0);
+        while (true) {
+          int quote = line.indexOf(QUOTE, position);
+          if (quote < 0) {
+            // the line break is a part of quoted field
+            if (wanted) buffer.append(line, position, length).append('\n');
+            line = reader.readLine();
+            if (line == null)
+              throw new IllegalArgumentException(
+                  "the quoted field is not closed before the end of input");
+            length = line.length();
+            position = 0;
+            continue;
+          }
+          if (wanted) buffer.append(line, position, quote);
+          position = quote + 1;
+          if (position < length && line.charAt(position) == QUOTE) {
+            // escaped quote
+            if (wanted) buffer.append(QUOTE);
+            ++position;
+          } else break;
+        }
+        add(wanted ? buffer.toString() : null);
+        while (position < length && line.charAt(position) != DELIMITER) ++position;
+      } else {
+        int end = line.indexOf(DELIMITER, position);
+        if (end < 0) end = length;
+        int last = end;
+        while (last > position && line.charAt(last - 1) <= ' ') --last;
+        add(wanted ? line.substring(position, last) : null);
+        position = end;
+      }
+      if (position >= length) return true;
+      // skip the delimiter
+      ++position;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.text.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Read lines from the raw bytes of a text file and track the byte position of them. The position is
+ * used as the offset of csv source so a restarted task can skip the processed lines without parsing
+ * them again. The line terminator is "\n" or "\r\n". NOTED: the charset must be ASCII compatible
+ * (for example, UTF-8 and Big5) since the line terminator is found on the raw bytes.
+ */
+final class LineReader implements Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private final InputStream input;
+  private final Charset charset;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int start = 0;
+  private int end = 0;
+  private byte[] line = new byte[256];
+  private long position = 0;
+
+  LineReader(InputStream input, Charset charset) {
+    this.input = Objects.requireNonNull(input);
+    this.charset = Objects.requireNonNull(charset);
+  }
+
+  /** @return the byte position next to the latest line */
+  long position() {
+    return position;
+  }
+
+  /** @return false if there is no more bytes */
+  private boolean fill() throws IOException {
+    if (start < end) return true;
+    int count = input.read(buffer);
+    while (count == 0) count = input.read(buffer);
+    start = 0;
+    end = Math.max(count, 0);
+    return count > 0;
+  }
+
+  /**
+   * read next line.
+   *
+   * @return the line without line terminator, or null if the end of input has been reached
+   * @throws IOException if failed to read input
+   */
+  String readLine() throws IOException {
+    int length = 0;
+    boolean terminated = false;
+    while (!terminated && fill()) {
+      int index = start;
+      while (index < end && buffer[index] != '\n') ++index;
+      terminated = index < end;
+      int size = index - start;
+      if (length + size > line.length)
+        line = Arrays.copyOf(line, Math.max(line.length * 2, length + size));
+      System.arraycopy(buffer, start, line, length, size);
+      length += size;
+      position += size;
+      start = index;
+      if (terminated) {
+        ++start;
+        ++position;
+      }
+    }
+    if (!terminated && length == 0) return null;
+    if (length > 0 && line[length - 1] == '\r') --length;
+    return new String(line, 0, length, charset);
+  }
+
+  /**
+   * skip the bytes until the position is equal to the specified position.
+   *
+   * @param target the byte position to move to
+   * @throws IOException if failed to read input or the input is shorter than target
+   */
+  void seek(long target) throws IOException {
+    if (target < position)
+      throw new IllegalArgumentException(
+          "can't move backward. current:" + position + " target:" + target);
+    while (position < target) {
+      if (!fill()) throw new IOException("the input is ended at " + position + " < " + target);
+      int size = (int) Math.min(end - start, target - position);
+      start += size;
+      position += size;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+}
@@ -16,7 +16,9 @@
 
 package com.island.ohara.kafka.connector.text.csv;
 
+import com.island.ohara.common.data.Pair;
 import com.island.ohara.kafka.connector.RowSourceContext;
+import java.util.Optional;
 
 /** Used to manage the offset from files */
 public interface OffsetCache {
@@ -37,6 +39,29 @@ public interface OffsetCache {
    */
   void update(String path, int index);
 
+  /**
+   * add (index, position) to the cache. The default implementation ignores the position.
+   *
+   * @param path file path
+   * @param index index from line
+   * @param position the byte position next to the line
+   */
+  default void update(String path, int index, long position) {
+    update(path, index);
+  }
+
+  /**
+   * get the latest processed line and the byte position next to it. The converter can skip to the
+   * position directly rather than reading the file from the beginning. The default implementation
+   * returns empty so the lines are filtered by {@link #predicate(String, int)} only.
+   *
+   * @param path file path
+   * @return (index, position) or empty if the position is unknown
+   */
+  default Optional<Pair<Integer, Long>> offset(String path) {
+    return Optional.empty();
+  }
+
   /**
    * check whether the index from path is processed.
    *
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
+import com.island.ohara.common.rule.SmallTest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestConsumerBatch extends SmallTest {
+
+  private static ConsumerRecord<byte[], byte[]> record(
+      long offset, byte[] key, byte[] value, RecordHeaders headers) {
+    return new ConsumerRecord<>(
+        "topic",
+        1,
+        offset,
+        100L,
+        TimestampType.CREATE_TIME,
+        0L,
+        key == null ? -1 : key.length,
+        value == null ? -1 : value.length,
+        key,
+        value,
+        headers);
+  }
+
+  private static Consumer.Batch<Row, byte[]> batch(List<ConsumerRecord<byte[], byte[]>> records) {
+    return new Consumer.Batch<>(
+        new ConsumerRecords<>(Collections.singletonMap(new TopicPartition("topic", 1), records)),
+        Serializer.ROW);
+  }
+
+  @Test
+  public void testEmpty() {
+    Consumer.Batch<Row, byte[]> batch = batch(Collections.emptyList());
+    Assert.assertTrue(batch.isEmpty());
+    Assert.assertEquals(0, batch.count());
+    Assert.assertTrue(batch.toList().isEmpty());
+    Assert.assertFalse(batch.iterator().hasNext());
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNoMoreRecords() {
+    batch(Collections.emptyList()).iterator().next();
+  }
+
+  @Test
+  public void testRecords() {
+    Row row0 = Row.of(Cell.of("a", 1));
+    Row row1 = Row.of(Cell.of("a", 2));
+    RecordHeaders headers = new RecordHeaders();
+    headers.add("h", new byte[] {1});
+    Consumer.Batch<Row, byte[]> batch =
+        batch(
+            Arrays.asList(
+                record(10, Serializer.ROW.to(row0), new byte[3], headers),
+                record(11, Serializer.ROW.to(row1), null, new RecordHeaders()),
+                record(12, null, null, new RecordHeaders())));
+    Assert.assertEquals(3, batch.count());
+    List<Consumer.Record<Row, byte[]>> records = batch.toList();
+    Assert.assertEquals(3, records.size());
+    // the batch is reusable
+    Assert.assertEquals(records, batch.toList());
+
+    Consumer.Record<Row, byte[]> first = records.get(0);
+    Assert.assertEquals("topic", first.topicName());
+    Assert.assertEquals(1, first.partition());
+    Assert.assertEquals(10, first.offset());
+    Assert.assertEquals(100L, first.timestamp());
+    Assert.assertEquals(row0, first.key().get());
+    Assert.assertEquals(3, first.value().get().length);
+    Assert.assertEquals(Serializer.ROW.to(row0).length, first.serializedKeySize());
+    Assert.assertEquals(3, first.serializedValueSize());
+    Assert.assertEquals(
+        Collections.singletonList(new Header("h", new byte[] {1})), first.headers());
+
+    Assert.assertEquals(11, records.get(1).offset());
+    Assert.assertEquals(row1, records.get(1).key().get());
+    Assert.assertFalse(records.get(1).value().isPresent());
+    Assert.assertEquals(-1, records.get(1).serializedValueSize());
+
+    Assert.assertFalse(records.get(2).key().isPresent());
+    Assert.assertEquals(-1, records.get(2).serializedKeySize());
+  }
+
+  @Test
+  public void testRowBatchRecord() {
+    List<Row> rows =
+        Arrays.asList(Row.of(Cell.of("a", 1)), Row.of(Cell.of("a", 2)), Row.of(Cell.of("a", 3)));
+    RowBatch rowBatch = RowBatch.builder().compression(RowBatch.Compression.LZ4).build();
+    RecordHeaders headers = new RecordHeaders();
+    headers.add(RowBatch.HEADER_KEY, rowBatch.compression().header());
+    headers.add("h", new byte[] {1});
+    byte[] key =
+        rowBatch.pack(
+            Arrays.asList(
+                Serializer.ROW.to(rows.get(0)),
+                Serializer.ROW.to(rows.get(1)),
+                Serializer.ROW.to(rows.get(2))));
+    Consumer.Batch<Row, byte[]> batch =
+        batch(
+            Arrays.asList(
+                record(5, key, null, headers),
+                // the empty batch produces nothing
+                record(6, rowBatch.pack(Collections.emptyList()), null, headers),
+                record(7, Serializer.ROW.to(rows.get(0)), null, new RecordHeaders())));
+    Assert.assertEquals(3, batch.count());
+    List<Consumer.Record<Row, byte[]>> records = batch.toList();
+    Assert.assertEquals(4, records.size());
+    for (int index = 0; index != rows.size(); ++index) {
+      Consumer.Record<Row, byte[]> record = records.get(index);
+      Assert.assertEquals(rows.get(index), record.key().get());
+      Assert.assertEquals(5, record.offset());
+      Assert.assertEquals(Serializer.ROW.to(rows.get(index)).length, record.serializedKeySize());
+      // the batch header is hidden
+      Assert.assertEquals(
+          Collections.singletonList(new Header("h", new byte[] {1})), record.headers());
+    }
+    Assert.assertEquals(7, records.get(3).offset());
+  }
+
+  @Test
+  public void testHasNextIsIdempotent() {
+    Iterator<Consumer.Record<Row, byte[]>> iterator =
+        batch(
+                Collections.singletonList(
+                    record(
+                        0, Serializer.ROW.to(Row.of(Cell.of("a", 1))), null, new RecordHeaders())))
+            .iterator();
+    Assert.assertTrue(iterator.hasNext());
+    Assert.assertTrue(iterator.hasNext());
+    Assert.assertEquals(0, iterator.next().offset());
+    Assert.assertFalse(iterator.hasNext());
+  }
+}
@@ -40,4 +40,14 @@ public class TestProducerBuilder extends SmallTest {
   public void nullValueSerializer() {
     Producer.builder().valueSerializer(null);
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaxInFlightBytes() {
+    Producer.builder().maxInFlightBytes(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeMaxInFlightBytes() {
+    Producer.builder().maxInFlightBytes(-1);
+  }
 }
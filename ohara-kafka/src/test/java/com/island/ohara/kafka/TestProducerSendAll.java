@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.data.Serializer;
+import com.island.ohara.common.rule.SmallTest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** the broker is unreachable so the records are failed after max.block.ms. */
+public class TestProducerSendAll extends SmallTest {
+
+  private static Producer<String, byte[]> producer() {
+    return Producer.<String, byte[]>builder()
+        .connectionProps("localhost:1")
+        .options(Collections.singletonMap(ProducerConfig.MAX_BLOCK_MS_CONFIG, "10"))
+        .keySerializer(Serializer.STRING)
+        .valueSerializer(Serializer.BYTES)
+        .build();
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    try (Producer<String, byte[]> producer = producer()) {
+      Assert.assertEquals(
+          0L, (long) producer.sendAll("topic", Collections.emptyList()).get(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    try (Producer<String, byte[]> producer = producer()) {
+      CompletableFuture<Long> future = producer.sendAll("topic", Arrays.asList("a", "b", "c"));
+      try {
+        future.get(10, TimeUnit.SECONDS);
+        Assert.fail("the broker is unreachable");
+      } catch (ExecutionException e) {
+        Assert.assertNotNull(e.getCause());
+      }
+    }
+  }
+
+  @Test
+  public void testCallbackIsInvokedOnce() throws Exception {
+    AtomicInteger count = new AtomicInteger(0);
+    AtomicReference<Exception> exception = new AtomicReference<>();
+    try (Producer<String, byte[]> producer = producer()) {
+      producer.sendAll(
+          "topic",
+          Arrays.asList("a", "b", "c"),
+          (c, e) -> {
+            count.incrementAndGet();
+            exception.set(e);
+          });
+      producer.flush();
+    }
+    Assert.assertEquals(1, count.get());
+    Assert.assertNotNull(exception.get());
+  }
+
+  @Test
+  public void testSerializationFailure() throws Exception {
+    try (Producer<String, byte[]> producer = producer()) {
+      CompletableFuture<Long> future = producer.sendAll("topic", Arrays.asList("a", null));
+      try {
+        future.get(10, TimeUnit.SECONDS);
+        Assert.fail("null key can't be serialized");
+      } catch (ExecutionException e) {
+        Assert.assertNotNull(e.getCause());
+      }
+    }
+  }
+
+  @Test
+  public void testFailFast() throws Exception {
+    try (Producer<String, byte[]> producer =
+        Producer.<String, byte[]>builder()
+            .connectionProps("localhost:1")
+            .options(Collections.singletonMap(ProducerConfig.MAX_BLOCK_MS_CONFIG, "10"))
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.BYTES)
+            .maxInFlightBytes(1)
+            .blockOnFull(false)
+            .build()) {
+      // the record is failed either by the limit or by the unreachable broker
+      try {
+        producer.sender().key("abc").topicName("topic").send().get(10, TimeUnit.SECONDS);
+        Assert.fail("the broker is unreachable");
+      } catch (ExecutionException e) {
+        Assert.assertNotNull(e.getCause());
+      }
+    }
+  }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -142,6 +143,58 @@ public class TestProducerToConsumer extends WithBroker {
     }
   }
 
+  @Test
+  public void testSeekAndCommit() throws ExecutionException, InterruptedException {
+    String groupId = CommonUtils.randomString();
+    try (Producer<String, String> producer =
+        Producer.<String, String>builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      for (int index = 0; index != 3; ++index)
+        producer.sender().key(String.valueOf(index)).value("v").topicName(topicName).send().get();
+    }
+    try (Consumer<String, String> consumer =
+        Consumer.<String, String>builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .offsetFromBegin()
+            .groupId(groupId)
+            .topicName(topicName)
+            .connectionProps(testUtil().brokersConnProps())
+            .options(Collections.singletonMap(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false"))
+            .build()) {
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 3);
+      Assert.assertEquals(3, records.size());
+      for (int index = 0; index != records.size(); ++index) {
+        Assert.assertEquals(0, records.get(index).partition());
+        Assert.assertEquals(index, records.get(index).offset());
+      }
+      // replay the last record
+      consumer.seek(topicName, 0, 2);
+      List<Consumer.Record<String, String>> replay = consumer.poll(Duration.ofSeconds(30), 1);
+      Assert.assertEquals(1, replay.size());
+      Assert.assertEquals("2", replay.get(0).key().get());
+      // replay all records
+      consumer.seekToBeginning();
+      Assert.assertEquals(3, consumer.poll(Duration.ofSeconds(30), 3).size());
+      consumer.commitSync();
+    }
+    // the committed offsets are used by the same group
+    try (Consumer<String, String> consumer =
+        Consumer.<String, String>builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .offsetFromBegin()
+            .groupId(groupId)
+            .topicName(topicName)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      Assert.assertTrue(consumer.pollBatch(Duration.ofSeconds(3)).isEmpty());
+    }
+  }
+
   @After
   public void tearDown() {
     try (BrokerClient client = BrokerClient.of(testUtil().brokersConnProps())) {
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
+import com.island.ohara.common.rule.SmallTest;
+import com.island.ohara.common.util.CommonUtils;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestRowBatch extends SmallTest {
+
+  private static List<byte[]> rows(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(
+            i -> Row.of(Cell.of("a", i), Cell.of("b", CommonUtils.randomString()), Cell.of("c", i)))
+        .map(Serializer.ROW::to)
+        .collect(Collectors.toList());
+  }
+
+  private static void check(RowBatch.Compression compression, List<byte[]> rows) {
+    RowBatch batch = RowBatch.builder().compression(compression).build();
+    List<byte[]> result = RowBatch.unpack(compression, batch.pack(rows));
+    Assert.assertEquals(rows.size(), result.size());
+    for (int index = 0; index != rows.size(); ++index)
+      Assert.assertArrayEquals(rows.get(index), result.get(index));
+  }
+
+  @Test
+  public void testNone() {
+    check(RowBatch.Compression.NONE, rows(100));
+  }
+
+  @Test
+  public void testLz4() {
+    check(RowBatch.Compression.LZ4, rows(100));
+  }
+
+  @Test
+  public void testZstd() {
+    check(RowBatch.Compression.ZSTD, rows(100));
+  }
+
+  @Test
+  public void testEmpty() {
+    Arrays.stream(RowBatch.Compression.values()).forEach(c -> check(c, Collections.emptyList()));
+  }
+
+  @Test
+  public void testCompressionIsSmaller() {
+    List<byte[]> rows = rows(1000);
+    byte[] none = RowBatch.builder().compression(RowBatch.Compression.NONE).build().pack(rows);
+    byte[] lz4 = RowBatch.builder().compression(RowBatch.Compression.LZ4).build().pack(rows);
+    Assert.assertTrue(lz4.length < none.length);
+  }
+
+  @Test
+  public void testCompressionFromString() {
+    Arrays.stream(RowBatch.Compression.values())
+        .forEach(c -> Assert.assertEquals(c, RowBatch.Compression.of(c.name())));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownCompression() {
+    RowBatch.Compression.of("snappy");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeMaxRows() {
+    RowBatch.builder().maxRows(-1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullCompression() {
+    RowBatch.builder().compression(null);
+  }
+}
@@ -20,10 +20,16 @@ import com.island.ohara.common.data.Cell;
 import com.island.ohara.common.data.Row;
 import com.island.ohara.common.rule.SmallTest;
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.RowBatch;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.kafka.connect.sink.SinkRecord;
+import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -110,6 +116,63 @@ public class TestConnectorProps extends SmallTest {
     }
   }
 
+  @Test
+  public void testSerializedRowIsReusedInSource() {
+    Row row = Row.of(Cell.of(CommonUtils.randomString(), CommonUtils.randomString()));
+    RowSourceTask task =
+        new DumbSourceTask() {
+          @Override
+          protected List<RowSourceRecord> _poll() {
+            return Arrays.asList(
+                RowSourceRecord.builder().row(row).topicName("a").build(),
+                RowSourceRecord.builder().row(row).topicName("b").build());
+          }
+        };
+    task.start(Collections.singletonMap("name", CommonUtils.randomString()));
+    try {
+      List<SourceRecord> records = task.poll();
+      Assert.assertEquals(2, records.size());
+      Assert.assertSame(records.get(0).key(), records.get(1).key());
+    } finally {
+      task.stop();
+    }
+  }
+
+  @Test
+  public void testRowBatchInSource() {
+    List<Row> rows =
+        IntStream.range(0, 10).mapToObj(i -> Row.of(Cell.of("a", i))).collect(Collectors.toList());
+    RowSourceTask task =
+        new DumbSourceTask() {
+          @Override
+          protected List<RowSourceRecord> _poll() {
+            return rows.stream()
+                .map(row -> RowSourceRecord.builder().row(row).topicName("a").build())
+                .collect(Collectors.toList());
+          }
+
+          @Override
+          protected Optional<RowBatch> _rowBatch() {
+            return Optional.of(RowBatch.builder().maxRows(4).build());
+          }
+        };
+    task.start(Collections.singletonMap("name", CommonUtils.randomString()));
+    try {
+      List<SourceRecord> records = task.poll();
+      // 4 + 4 + 2
+      Assert.assertEquals(3, records.size());
+      Assert.assertEquals(rows.size(), task.rowCounter.getValue());
+      Assert.assertEquals(
+          rows,
+          records.stream()
+              .flatMap(record -> RowSourceRecord.unpack(record).stream())
+              .map(RowSourceRecord::row)
+              .collect(Collectors.toList()));
+    } finally {
+      task.stop();
+    }
+  }
+
   @Test
   public void testStop() {
     RowSourceTask task = new DumbSourceTask();
@@ -18,6 +18,7 @@ package com.island.ohara.kafka.connector;
 
 import com.island.ohara.common.data.Cell;
 import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.rule.SmallTest;
 import com.island.ohara.common.util.ByteUtils;
 import org.apache.kafka.connect.connector.ConnectRecord;
@@ -33,7 +34,9 @@ public class TestConnectorUtils extends SmallTest {
 
   @Test
   public void testSizeOfRow() {
-    Assert.assertNotEquals(ConnectorUtils.sizeOf(Row.of(Cell.of("a", "v"))), 0);
+    Row row = Row.of(Cell.of("a", "v"));
+    Assert.assertNotEquals(ConnectorUtils.sizeOf(row), 0);
+    Assert.assertEquals(ConnectorUtils.sizeOf(row), Serializer.ROW.to(row).length);
   }
 
   @Test
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector;
+
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Column;
+import com.island.ohara.common.data.DataType;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.rule.SmallTest;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestRowProjection extends SmallTest {
+
+  private static Column column(String name) {
+    return Column.builder().name(name).dataType(DataType.STRING).build();
+  }
+
+  @Test
+  public void testProject() {
+    RowProjection projection = RowProjection.of(Arrays.asList(column("b"), column("a")));
+    Row row = Row.of(Cell.of("a", "a0"), Cell.of("c", "c0"), Cell.of("b", "b0"));
+    Assert.assertTrue(projection.complete(row));
+    Assert.assertArrayEquals(new int[] {2, 0}, projection.indexes(row));
+  }
+
+  @Test
+  public void testMissingColumn() {
+    RowProjection projection = RowProjection.of(Arrays.asList(column("b"), column("a")));
+    Row row = Row.of(Cell.of("a", "a0"));
+    Assert.assertFalse(projection.complete(row));
+    Assert.assertArrayEquals(new int[] {-1, 0}, projection.indexes(row));
+  }
+
+  @Test
+  public void testEmptySchema() {
+    RowProjection projection = RowProjection.of(Collections.emptyList());
+    Row row = Row.of(Cell.of("a", "a0"), Cell.of("b", "b0"));
+    Assert.assertTrue(projection.complete(row));
+    Assert.assertArrayEquals(new int[] {0, 1}, projection.indexes(row));
+  }
+
+  @Test
+  public void testCacheByNames() {
+    RowProjection projection = RowProjection.of(Collections.singletonList(column("a")));
+    int[] indexes = projection.indexes(Row.of(Cell.of("a", "a0"), Cell.of("b", "b0")));
+    // the rows having same names share the indexes
+    Assert.assertSame(indexes, projection.indexes(Row.of(Cell.of("a", "a1"), Cell.of("b", "b1"))));
+    Assert.assertArrayEquals(
+        new int[] {1}, projection.indexes(Row.of(Cell.of("b", "b2"), Cell.of("a", "a2"))));
+    Assert.assertFalse(projection.complete(Row.of(Cell.of("b", "b3"))));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testNullSchema() {
+    RowProjection.of(null);
+  }
+}
@@ -20,9 +20,16 @@ import static org.junit.Assert.assertEquals;
 
 import com.island.ohara.common.data.Cell;
 import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.rule.SmallTest;
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.RowBatch;
 import com.island.ohara.kafka.TimestampType;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.header.ConnectHeaders;
+import org.apache.kafka.connect.sink.SinkRecord;
 import org.junit.Test;
 
 public class TestRowSinkRecord extends SmallTest {
@@ -133,4 +140,58 @@ public class TestRowSinkRecord extends SmallTest {
     assertEquals(tsType, r.timestampType());
     assertEquals(offset, r.offset());
   }
+
+  @Test
+  public void testLazyRow() {
+    Row row = Row.of(Cell.of(methodName(), 123), Cell.of("b", "c"));
+    SinkRecord sinkRecord =
+        new SinkRecord(
+            methodName(),
+            1,
+            Schema.BYTES_SCHEMA,
+            Serializer.ROW.to(row),
+            Schema.BYTES_SCHEMA,
+            null,
+            100,
+            CommonUtils.current(),
+            org.apache.kafka.common.record.TimestampType.CREATE_TIME);
+    RowSinkRecord eager = RowSinkRecord.of(sinkRecord);
+    RowSinkRecord lazy = RowSinkRecord.of(sinkRecord, Serializer.LAZY_ROW);
+    assertEquals(row, eager.row());
+    assertEquals(row, lazy.row());
+    assertEquals(Cell.of("b", "c"), lazy.row().cell("b"));
+    assertEquals(eager.offset(), lazy.offset());
+    assertEquals(eager.partition(), lazy.partition());
+  }
+
+  @Test
+  public void testUnpackBatchRecord() {
+    Row row0 = Row.of(Cell.of("a", 1));
+    Row row1 = Row.of(Cell.of("a", 2));
+    RowBatch batch = RowBatch.builder().compression(RowBatch.Compression.ZSTD).build();
+    long ts = CommonUtils.current();
+    SinkRecord sinkRecord =
+        new SinkRecord(
+            methodName(),
+            1,
+            Schema.BYTES_SCHEMA,
+            batch.pack(Arrays.asList(Serializer.ROW.to(row0), Serializer.ROW.to(row1))),
+            Schema.BYTES_SCHEMA,
+            null,
+            100,
+            ts,
+            org.apache.kafka.common.record.TimestampType.CREATE_TIME,
+            new ConnectHeaders().addString(RowBatch.HEADER_KEY, batch.compression().name()));
+    List<RowSinkRecord> records = RowSinkRecord.unpack(sinkRecord, Serializer.ROW);
+    assertEquals(2, records.size());
+    assertEquals(row0, records.get(0).row());
+    assertEquals(row1, records.get(1).row());
+    records.forEach(
+        r -> {
+          assertEquals(methodName(), r.topicName());
+          assertEquals(1, r.partition());
+          assertEquals(100, r.offset());
+          assertEquals(ts, r.timestamp());
+        });
+  }
 }
@@ -18,14 +18,20 @@ package com.island.ohara.kafka.connector;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import com.island.ohara.common.data.Cell;
 import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.rule.SmallTest;
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.RowBatch;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.Test;
 
 public class TestRowSourceRecord extends SmallTest {
@@ -119,4 +125,71 @@ public class TestRowSourceRecord extends SmallTest {
         .sourceOffset()
         .remove("a");
   }
+
+  @Test
+  public void testBatchRecord() {
+    Row row0 = Row.of(Cell.of("a", 1));
+    Row row1 = Row.of(Cell.of("a", 2));
+    RowSourceRecord first =
+        RowSourceRecord.builder()
+            .topicName(methodName())
+            .row(row0)
+            .partition(1)
+            .sourcePartition(Collections.singletonMap("p", "0"))
+            .sourceOffset(Collections.singletonMap("o", "0"))
+            .build();
+    RowSourceRecord second =
+        RowSourceRecord.builder()
+            .topicName(methodName())
+            .row(row1)
+            .partition(1)
+            .timestamp(100)
+            .sourcePartition(Collections.singletonMap("p", "0"))
+            .sourceOffset(Collections.singletonMap("o", "1"))
+            .build();
+    assertTrue(first.sameTarget(second));
+    SourceRecord batch =
+        second.toBatchRecord(
+            RowBatch.builder().build(),
+            Arrays.asList(Serializer.ROW.to(row0), Serializer.ROW.to(row1)));
+    assertNull(batch.value());
+    List<RowSourceRecord> records = RowSourceRecord.unpack(batch);
+    assertEquals(2, records.size());
+    assertEquals(row0, records.get(0).row());
+    assertEquals(row1, records.get(1).row());
+    records.forEach(
+        r -> {
+          assertEquals(second.topicName(), r.topicName());
+          assertEquals(second.sourceOffset(), r.sourceOffset());
+          assertEquals(second.sourcePartition(), r.sourcePartition());
+          assertEquals(second.partition(), r.partition());
+          assertEquals(second.timestamp(), r.timestamp());
+        });
+  }
+
+  @Test
+  public void testUnpackNormalRecord() {
+    Row row = Row.of(Cell.of("a", 1));
+    RowSourceRecord record = RowSourceRecord.builder().topicName(methodName()).row(row).build();
+    List<RowSourceRecord> records = RowSourceRecord.unpack(record.toSourceRecord());
+    assertEquals(1, records.size());
+    assertEquals(row, records.get(0).row());
+  }
+
+  @Test
+  public void testSameTarget() {
+    Row row = Row.of(Cell.of("a", 1));
+    RowSourceRecord record = RowSourceRecord.builder().topicName("a").row(row).build();
+    assertTrue(record.sameTarget(RowSourceRecord.builder().topicName("a").row(row).build()));
+    assertFalse(record.sameTarget(RowSourceRecord.builder().topicName("b").row(row).build()));
+    assertFalse(
+        record.sameTarget(RowSourceRecord.builder().topicName("a").row(row).partition(1).build()));
+    assertFalse(
+        record.sameTarget(
+            RowSourceRecord.builder()
+                .topicName("a")
+                .row(row)
+                .sourcePartition(Collections.singletonMap("p", "0"))
+                .build()));
+  }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector;
+
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
+import com.island.ohara.common.rule.SmallTest;
+import com.island.ohara.kafka.RowBatch;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestRowSourceTask extends SmallTest {
+
+  private static SourceRecord batchRecord(byte[]... rows) {
+    return RowSourceRecord.builder()
+        .topicName("topic")
+        .row(Row.EMPTY)
+        .build()
+        .toBatchRecord(RowBatch.builder().build(), Arrays.asList(rows));
+  }
+
+  @Test
+  public void testCommitRecordIsNotUnpacked() {
+    DumbSourceTask task = new DumbSourceTask();
+    Assert.assertFalse(task.needCommitRecord);
+    // the broken row is never decoded
+    task.commitRecord(batchRecord(new byte[] {100}));
+  }
+
+  @Test
+  public void testCommitRecord() {
+    List<Row> rows = new ArrayList<>();
+    DumbSourceTask task =
+        new DumbSourceTask() {
+          @Override
+          protected void _commitRecord(RowSourceRecord record) {
+            rows.add(record.row());
+          }
+        };
+    Assert.assertTrue(task.needCommitRecord);
+    Row row0 = Row.of(Cell.of("a", 1));
+    Row row1 = Row.of(Cell.of("a", 2));
+    task.commitRecord(batchRecord(Serializer.ROW.to(row0), Serializer.ROW.to(row1)));
+    Assert.assertEquals(Arrays.asList(row0, row1), rows);
+  }
+}
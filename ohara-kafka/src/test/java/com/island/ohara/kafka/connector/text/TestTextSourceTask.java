@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.text;
+
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.rule.SmallTest;
+import com.island.ohara.kafka.connector.RowSourceRecord;
+import com.island.ohara.kafka.connector.TaskSetting;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestTextSourceTask extends SmallTest {
+  private final List<String> inputs = new ArrayList<>(Arrays.asList("a", "b"));
+  private final List<String> completed = new ArrayList<>();
+  private final List<String> errors = new ArrayList<>();
+  private final List<String> claimed = new ArrayList<>();
+  private final List<String> released = new ArrayList<>();
+  private final Set<String> unclaimable = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger openedConverters = new AtomicInteger(0);
+  private final AtomicInteger closedConverters = new AtomicInteger(0);
+
+  private static RowSourceRecord record(String path) {
+    return RowSourceRecord.builder()
+        .sourcePartition(Collections.singletonMap("path", path))
+        .row(Row.of(Cell.of("c", 1)))
+        .topicName("topic")
+        .build();
+  }
+
+  /** each file has two batches. the file "bad" throws exception. */
+  private TextSourceTask task(int readerCount) {
+    TextSourceTask task =
+        new TextSourceTask() {
+          @Override
+          public TextSourceConverterFactory getConverterFactory(TaskSetting config) {
+            return (context, fileSystem, path) -> {
+              openedConverters.incrementAndGet();
+              LinkedList<List<RowSourceRecord>> batches =
+                  new LinkedList<>(
+                      Arrays.asList(
+                          Arrays.asList(record(path), record(path)),
+                          Collections.singletonList(record(path))));
+              return new TextSourceConverter() {
+                @Override
+                public List<RowSourceRecord> poll() {
+                  if (path.equals("bad")) throw new IllegalStateException("bad file");
+                  return batches.isEmpty() ? Collections.emptyList() : batches.poll();
+                }
+
+                @Override
+                public void close() {
+                  closedConverters.incrementAndGet();
+                }
+              };
+            };
+          }
+
+          @Override
+          public TextFileSystem getFileSystem(TaskSetting config) {
+            return new TextFileSystem() {
+              @Override
+              public Collection<String> listInputFiles() {
+                return new ArrayList<>(inputs);
+              }
+
+              @Override
+              public InputStream createInputStream(String path) {
+                return new ByteArrayInputStream(new byte[0]);
+              }
+
+              @Override
+              public void handleErrorFile(String path) {
+                inputs.remove(path);
+                errors.add(path);
+              }
+
+              @Override
+              public void handleCompletedFile(String path) {
+                inputs.remove(path);
+                completed.add(path);
+              }
+
+              @Override
+              public boolean claim(String path) {
+                if (unclaimable.contains(path)) return false;
+                claimed.add(path);
+                return true;
+              }
+
+              @Override
+              public void release(String path) {
+                released.add(path);
+              }
+
+              @Override
+              public void close() {}
+            };
+          }
+        };
+    task._start(
+        TaskSetting.of(
+            Collections.singletonMap(
+                TextSourceTask.TEXT_READER_COUNT_KEY, String.valueOf(readerCount))));
+    return task;
+  }
+
+  /** poll the task until the number of records reaches the expected number */
+  private static List<RowSourceRecord> poll(TextSourceTask task, int expected) {
+    List<RowSourceRecord> records = new ArrayList<>();
+    for (int i = 0; i != 20 && records.size() < expected; ++i) records.addAll(task._poll());
+    Assert.assertEquals(expected, records.size());
+    return records;
+  }
+
+  @Test
+  public void testFileIsCompletedAfterCommit() {
+    TextSourceTask task = task(1);
+    try {
+      // the reader moves to next file after the first file is drained
+      List<RowSourceRecord> records = poll(task, 6);
+      List<RowSourceRecord> recordsOfA = new ArrayList<>();
+      records.forEach(
+          record -> {
+            if (record.sourcePartition().get("path").equals("a")) recordsOfA.add(record);
+          });
+      Assert.assertEquals(3, recordsOfA.size());
+      Assert.assertEquals(0, task._poll().size());
+      Assert.assertEquals(2, closedConverters.get());
+      // the files are drained but the records are not committed
+      Assert.assertTrue(completed.isEmpty());
+
+      recordsOfA.forEach(task::_commitRecord);
+      Assert.assertEquals(0, task._poll().size());
+      Assert.assertEquals(Collections.singletonList("a"), completed);
+      Assert.assertEquals(Collections.singletonList("a"), released);
+
+      records.forEach(task::_commitRecord);
+      Assert.assertEquals(0, task._poll().size());
+      Assert.assertEquals(Arrays.asList("a", "b"), completed);
+    } finally {
+      task._stop();
+    }
+  }
+
+  @Test
+  public void testConcurrentReaders() {
+    TextSourceTask task = task(2);
+    try {
+      List<RowSourceRecord> records = poll(task, 6);
+      Assert.assertEquals(Arrays.asList("a", "b"), claimed);
+      Assert.assertEquals(2, openedConverters.get());
+      records.forEach(task::_commitRecord);
+      for (int i = 0; i != 20 && completed.size() < 2; ++i) task._poll();
+      Assert.assertEquals(2, completed.size());
+      Assert.assertTrue(inputs.isEmpty());
+    } finally {
+      task._stop();
+    }
+  }
+
+  @Test
+  public void testFileClaimedByOthers() {
+    unclaimable.add("a");
+    TextSourceTask task = task(2);
+    try {
+      poll(task, 3)
+          .forEach(record -> Assert.assertEquals("b", record.sourcePartition().get("path")));
+      Assert.assertEquals(Collections.singletonList("b"), claimed);
+    } finally {
+      task._stop();
+    }
+  }
+
+  @Test
+  public void testErrorFile() {
+    inputs.add(0, "bad");
+    TextSourceTask task = task(1);
+    try {
+      poll(task, 3);
+      Assert.assertEquals(Collections.singletonList("bad"), errors);
+      Assert.assertEquals(Collections.singletonList("bad"), released);
+    } finally {
+      task._stop();
+    }
+    Assert.assertEquals(2, closedConverters.get());
+  }
+
+  @Test
+  public void testStopClosesConverter() {
+    TextSourceTask task = task(1);
+    for (int i = 0; i != 20; ++i) if (!task._poll().isEmpty()) break;
+    task._stop();
+    Assert.assertNotEquals(0, openedConverters.get());
+    Assert.assertEquals(openedConverters.get(), closedConverters.get());
+  }
+
+  @Test
+  public void testStopReleasesClaimedFiles() {
+    TextSourceTask task = task(1);
+    for (int i = 0; i != 20; ++i) if (!task._poll().isEmpty()) break;
+    Assert.assertTrue(released.isEmpty());
+    task._stop();
+    // the files which are not completed are released so other tasks can read them
+    Assert.assertFalse(claimed.isEmpty());
+    Assert.assertEquals(claimed, released);
+  }
+
+  @Test
+  public void testPollAfterStop() {
+    TextSourceTask task = task(1);
+    task._stop();
+    Assert.assertTrue(task._poll().isEmpty());
+    // the stopped task must not claim the files which are never released
+    Assert.assertTrue(claimed.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidReaderCount() {
+    task(0);
+  }
+}
@@ -30,4 +30,20 @@ public class TestCsvOffsetCache extends SmallTest {
     Assert.assertTrue(cache.predicate(path, 2));
     Assert.assertFalse(cache.predicate(path, 1));
   }
+
+  @Test
+  public void testUpdatePosition() {
+    CsvOffsetCache cache = new CsvOffsetCache();
+    Assert.assertFalse(cache.offset(path).isPresent());
+    cache.update(path, 2, 100);
+    Assert.assertEquals(2, (int) cache.offset(path).get().left());
+    Assert.assertEquals(100, (long) cache.offset(path).get().right());
+    // the older index is ignored
+    cache.update(path, 1, 50);
+    Assert.assertEquals(100, (long) cache.offset(path).get().right());
+    // the position of new index is unknown
+    cache.update(path, 3);
+    Assert.assertFalse(cache.offset(path).isPresent());
+    Assert.assertFalse(cache.predicate(path, 3));
+  }
 }
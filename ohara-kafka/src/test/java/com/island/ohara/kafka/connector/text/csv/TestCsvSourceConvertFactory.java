@@ -23,6 +23,9 @@ import com.island.ohara.kafka.connector.RowSourceContext;
 import com.island.ohara.kafka.connector.TaskSetting;
 import com.island.ohara.kafka.connector.json.PropGroups;
 import com.island.ohara.kafka.connector.json.SettingDefinition;
+import com.island.ohara.kafka.connector.text.TextFileSystem;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.*;
 import org.junit.Assert;
 import org.junit.Test;
@@ -57,10 +60,42 @@ public class TestCsvSourceConvertFactory extends SmallTest {
     };
   }
 
+  private TextFileSystem createFileSystem() {
+    return new TextFileSystem() {
+      @Override
+      public Collection<String> listInputFiles() {
+        return Collections.singletonList(path);
+      }
+
+      @Override
+      public InputStream createInputStream(String path) {
+        return new ByteArrayInputStream(new byte[0]);
+      }
+
+      @Override
+      public void handleErrorFile(String path) {}
+
+      @Override
+      public void handleCompletedFile(String path) {}
+
+      @Override
+      public void close() {}
+    };
+  }
+
   @Test
   public void testGetConverter() {
     CsvSourceConverterFactory factory = new CsvSourceConverterFactory(createConfig());
-    Assert.assertTrue(factory.newConverter(createContext(), path) instanceof CsvSourceConverter);
+    Assert.assertTrue(
+        factory.newConverter(createContext(), createFileSystem(), path)
+            instanceof CsvSourceConverter);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetConverter_WithNegativeBatchSize() {
+    new CsvSourceConverterFactory(
+        createConfig()
+            .append(Collections.singletonMap(CsvSourceConverter.CSV_BATCH_SIZE_KEY, "-1")));
   }
 
   @Test(expected = NoSuchElementException.class)
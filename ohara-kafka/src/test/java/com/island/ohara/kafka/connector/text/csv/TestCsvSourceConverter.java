@@ -16,10 +16,17 @@
 
 package com.island.ohara.kafka.connector.text.csv;
 
+import com.island.ohara.common.data.BooleanCell;
+import com.island.ohara.common.data.ByteCell;
 import com.island.ohara.common.data.Cell;
 import com.island.ohara.common.data.Column;
 import com.island.ohara.common.data.DataType;
+import com.island.ohara.common.data.DoubleCell;
+import com.island.ohara.common.data.FloatCell;
+import com.island.ohara.common.data.IntCell;
+import com.island.ohara.common.data.LongCell;
 import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.ShortCell;
 import com.island.ohara.common.rule.SmallTest;
 import com.island.ohara.kafka.connector.RowSourceContext;
 import com.island.ohara.kafka.connector.RowSourceRecord;
@@ -57,6 +64,7 @@ public class TestCsvSourceConverter extends SmallTest {
         .path(path)
         .topics(topicNames)
         .offsetCache(new FakeOffsetCache())
+        .input(createInputSupplier)
         .build();
   }
 
@@ -65,14 +73,15 @@ public class TestCsvSourceConverter extends SmallTest {
         .path(path)
         .topics(topicNames)
         .offsetCache(new FakeOffsetCache())
+        .input(createInputSupplier)
         .schema(schema)
         .build();
   }
 
-  private Supplier<InputStreamReader> createReaderSupplier =
+  private Supplier<InputStream> createInputSupplier =
       () -> {
         try {
-          return new InputStreamReader(new FileInputStream(tempFile));
+          return new FileInputStream(tempFile);
         } catch (IOException e) {
           throw new UncheckedIOException(e);
         }
@@ -115,21 +124,34 @@ public class TestCsvSourceConverter extends SmallTest {
     return data;
   }
 
+  /** poll all records and then map the line index to row */
+  private static Map<Integer, Row> pollRows(CsvSourceConverter converter) {
+    Map<Integer, Row> rows = new HashMap<>();
+    List<RowSourceRecord> records = converter.poll();
+    while (!records.isEmpty()) {
+      records.forEach(
+          record ->
+              rows.put(
+                  (int) record.sourceOffset().get(CsvSourceConverter.CSV_OFFSET_KEY),
+                  record.row()));
+      records = converter.poll();
+    }
+    converter.close();
+    return rows;
+  }
+
   @Test
   public void testTransform() {
     converter = createConverter();
     data = setupInputData();
-    System.out.println(data);
-    Map<Integer, Row> transformedData = converter.transform(data);
-    System.out.println(transformedData);
-    Assert.assertEquals(mapToRow(data), converter.transform(data));
+    Assert.assertEquals(mapToRow(data), pollRows(converter));
   }
 
   @Test
   public void testTransform_WithFullSchema() {
     converter = createConverter(schema);
     data = setupInputData();
-    Map<Integer, Row> transformedData = converter.transform(data);
+    Map<Integer, Row> transformedData = pollRows(converter);
     Assert.assertEquals(data.size(), transformedData.size());
     Assert.assertEquals(mapToRow(data), transformedData);
   }
@@ -139,7 +161,7 @@ public class TestCsvSourceConverter extends SmallTest {
     Column column = Column.builder().name("cf1").dataType(DataType.STRING).order(0).build();
     converter = createConverter(Arrays.asList(column));
     data = setupInputData();
-    Map<Integer, Row> transformedData = converter.transform(data);
+    Map<Integer, Row> transformedData = pollRows(converter);
     Assert.assertEquals(data.size(), transformedData.size());
     transformedData
         .values()
@@ -150,6 +172,28 @@ public class TestCsvSourceConverter extends SmallTest {
             });
   }
 
+  @Test
+  public void testTransform_WithTypedColumns() throws IOException {
+    try (FileWriter writer = new FileWriter(tempFile)) {
+      writer.write("name,age,\"note\"\n");
+      writer.write("\"chia, \"\"7\"\"\",18,\"multi\nline\"\n");
+    }
+    converter =
+        createConverter(
+            Arrays.asList(
+                Column.builder().name("age").newName("a").dataType(DataType.INT).order(2).build(),
+                Column.builder().name("note").dataType(DataType.STRING).order(3).build(),
+                Column.builder().name("name").dataType(DataType.STRING).order(1).build()));
+    Map<Integer, Row> rows = pollRows(converter);
+    Assert.assertEquals(1, rows.size());
+    Row row = rows.get(1);
+    Assert.assertEquals(Arrays.asList("name", "a", "note"), row.names());
+    Assert.assertEquals("chia, \"7\"", row.cell("name").value());
+    Assert.assertTrue(row.cell("a") instanceof IntCell);
+    Assert.assertEquals(18, row.cell("a").value());
+    Assert.assertEquals("multi\nline", row.cell("note").value());
+  }
+
   private Map<Integer, Row> mapToRow(Map<Integer, List<Cell<String>>> data) {
     return data.entrySet().stream()
         .collect(
@@ -157,40 +201,68 @@ public class TestCsvSourceConverter extends SmallTest {
                 e -> e.getKey(), e -> Row.of(e.getValue().stream().toArray(Cell[]::new))));
   }
 
-  @Test
-  public void testFindCellByName() {
-    converter = createConverter();
-    data = setupInputData();
-    List<Cell<String>> cells = data.get(3);
-    Cell<String> cell = converter.findCellByName(cells, "cf3");
-    Assert.assertEquals("cf3", cell.name());
-    Assert.assertEquals("c", cell.value());
+  @Test(expected = NoSuchElementException.class)
+  public void testMissingColumn() {
+    converter =
+        createConverter(
+            Collections.singletonList(
+                Column.builder().name("cf4").dataType(DataType.STRING).order(0).build()));
+    setupInputData();
+    converter.poll();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyFields() throws IOException {
+    try (FileWriter writer = new FileWriter(tempFile)) {
+      writer.write("cf1,cf2\na,b,c\n");
+    }
+    createConverter().poll();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingField() throws IOException {
+    try (FileWriter writer = new FileWriter(tempFile)) {
+      writer.write("cf1,cf2,cf3\na,b\n");
+    }
+    createConverter(schema).poll();
   }
 
   @Test
   public void testConvertByType() {
     converter = createConverter();
-    Assert.assertTrue(converter.convertByType("true", DataType.BOOLEAN) instanceof Boolean);
-    Assert.assertTrue(converter.convertByType("127", DataType.BYTE) instanceof Byte);
-    Assert.assertTrue(converter.convertByType("1", DataType.SHORT) instanceof Short);
-    Assert.assertTrue(converter.convertByType("2", DataType.INT) instanceof Integer);
-    Assert.assertTrue(converter.convertByType("3", DataType.LONG) instanceof Long);
-    Assert.assertTrue(converter.convertByType("4", DataType.FLOAT) instanceof Float);
-    Assert.assertTrue(converter.convertByType("5", DataType.DOUBLE) instanceof Double);
-    Assert.assertTrue(converter.convertByType("str", DataType.STRING) instanceof String);
-    Assert.assertTrue(converter.convertByType("obj", DataType.OBJECT) instanceof Object);
+    Assert.assertTrue(
+        converter.convertByType("cf", "true", DataType.BOOLEAN).value() instanceof Boolean);
+    Assert.assertTrue(
+        converter.convertByType("cf", "true", DataType.BOOLEAN) instanceof BooleanCell);
+    Assert.assertTrue(converter.convertByType("cf", "127", DataType.BYTE).value() instanceof Byte);
+    Assert.assertTrue(converter.convertByType("cf", "127", DataType.BYTE) instanceof ByteCell);
+    Assert.assertTrue(converter.convertByType("cf", "1", DataType.SHORT).value() instanceof Short);
+    Assert.assertTrue(converter.convertByType("cf", "1", DataType.SHORT) instanceof ShortCell);
+    Assert.assertTrue(converter.convertByType("cf", "2", DataType.INT).value() instanceof Integer);
+    Assert.assertTrue(converter.convertByType("cf", "2", DataType.INT) instanceof IntCell);
+    Assert.assertTrue(converter.convertByType("cf", "3", DataType.LONG).value() instanceof Long);
+    Assert.assertTrue(converter.convertByType("cf", "3", DataType.LONG) instanceof LongCell);
+    Assert.assertTrue(converter.convertByType("cf", "4", DataType.FLOAT).value() instanceof Float);
+    Assert.assertTrue(converter.convertByType("cf", "4", DataType.FLOAT) instanceof FloatCell);
+    Assert.assertTrue(
+        converter.convertByType("cf", "5", DataType.DOUBLE).value() instanceof Double);
+    Assert.assertTrue(converter.convertByType("cf", "5", DataType.DOUBLE) instanceof DoubleCell);
+    Assert.assertTrue(
+        converter.convertByType("cf", "str", DataType.STRING).value() instanceof String);
+    Assert.assertTrue(
+        converter.convertByType("cf", "obj", DataType.OBJECT).value() instanceof Object);
   }
 
   @Test(expected = NumberFormatException.class)
   public void testConvertByType_ThrowNumberFormatException() {
     converter = createConverter();
-    converter.convertByType("128", DataType.BYTE);
+    converter.convertByType("cf", "128", DataType.BYTE);
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void testConvertByType_ThrowIllegalArgumentException() {
     converter = createConverter();
-    converter.convertByType("row", DataType.ROW);
+    converter.convertByType("cf", "row", DataType.ROW);
   }
 
   @Test
@@ -201,16 +273,15 @@ public class TestCsvSourceConverter extends SmallTest {
 
     int index = 1;
     Row row = rows.get(index);
-    List<RowSourceRecord> records = converter.toRecords(row, index);
+    List<RowSourceRecord> records = converter.toRecords(row, index, 100);
     Assert.assertEquals(records.size(), topicNames.size());
     for (RowSourceRecord record : records) {
       Assert.assertTrue(topicNames.contains(record.topicName()));
       Assert.assertEquals(
           Collections.singletonMap(CsvSourceConverter.CSV_PARTITION_KEY, path),
           record.sourcePartition());
-      Assert.assertEquals(
-          Collections.singletonMap(CsvSourceConverter.CSV_OFFSET_KEY, index),
-          record.sourceOffset());
+      Assert.assertEquals(index, record.sourceOffset().get(CsvSourceConverter.CSV_OFFSET_KEY));
+      Assert.assertEquals(100L, record.sourceOffset().get(CsvSourceConverter.CSV_POSITION_KEY));
       Assert.assertEquals(row, record.row());
     }
   }
@@ -221,25 +292,89 @@ public class TestCsvSourceConverter extends SmallTest {
     data = setupInputData();
     Map<Integer, Row> rows = mapToRow(data);
 
-    List<RowSourceRecord> records = converter.toRecords(rows);
+    List<RowSourceRecord> records = new ArrayList<>();
+    rows.forEach((index, row) -> records.addAll(converter.toRecords(row, index, index * 10)));
     Assert.assertEquals(topicNames.size() * rows.size(), records.size());
   }
 
   @Test
-  public void testToCells() throws IOException {
+  public void testPoll() {
     converter = createConverter();
     data = setupInputData();
-    InputStreamReader reader = createReaderSupplier.get();
-    Assert.assertEquals(data, converter.toCells(reader));
+    List<RowSourceRecord> records = converter.poll();
+    Assert.assertEquals(topicNames.size() * data.size(), records.size());
+    records.forEach(
+        record -> {
+          int index = (int) record.sourceOffset().get(CsvSourceConverter.CSV_OFFSET_KEY);
+          Assert.assertEquals(Row.of(data.get(index).toArray(new Cell<?>[0])), record.row());
+        });
+    // the file is drained
+    Assert.assertEquals(0, converter.poll().size());
+    converter.close();
+  }
+
+  @Test
+  public void testPollByBatch() {
+    converter =
+        new CsvSourceConverter.Builder()
+            .path(path)
+            .topics(topicNames)
+            .offsetCache(new FakeOffsetCache())
+            .input(createInputSupplier)
+            .batchSize(2)
+            .build();
+    data = setupInputData();
+    Assert.assertEquals(topicNames.size() * 2, converter.poll().size());
+    Assert.assertEquals(topicNames.size(), converter.poll().size());
+    Assert.assertEquals(0, converter.poll().size());
+    converter.close();
   }
 
   @Test
-  public void testConvert() {
-    converter = createConverter();
+  public void testResumeFromPosition() {
     data = setupInputData();
-    List<RowSourceRecord> records = converter.convert(createReaderSupplier);
+    CsvOffsetCache cache = new CsvOffsetCache();
+    CsvSourceConverter first =
+        new CsvSourceConverter.Builder()
+            .path(path)
+            .topics(topicNames)
+            .offsetCache(cache)
+            .input(createInputSupplier)
+            .batchSize(1)
+            .build();
+    List<RowSourceRecord> records = first.poll();
+    first.close();
+    Assert.assertEquals(
+        1, (int) records.get(0).sourceOffset().get(CsvSourceConverter.CSV_OFFSET_KEY));
+    long position = (long) records.get(0).sourceOffset().get(CsvSourceConverter.CSV_POSITION_KEY);
+    Assert.assertEquals(position, (long) cache.offset(path).get().right());
+
+    // the header and first line are skipped by the position
+    CsvSourceConverter second =
+        new CsvSourceConverter.Builder()
+            .path(path)
+            .topics(topicNames)
+            .offsetCache(cache)
+            .input(createInputSupplier)
+            .build();
+    records = second.poll();
+    second.close();
+    Assert.assertEquals(topicNames.size() * 2, records.size());
+    Assert.assertEquals(
+        Arrays.asList(2, 3),
+        records.stream()
+            .map(record -> (int) record.sourceOffset().get(CsvSourceConverter.CSV_OFFSET_KEY))
+            .distinct()
+            .sorted()
+            .collect(Collectors.toList()));
+    Assert.assertEquals(Row.of(data.get(2).toArray(new Cell<?>[0])), records.get(0).row());
+  }
 
-    Assert.assertEquals(topicNames.size() * data.size(), records.size());
+  @Test
+  public void testPollEmptyFile() {
+    converter = createConverter();
+    Assert.assertEquals(0, converter.poll().size());
+    converter.close();
   }
 
   @Test
@@ -261,29 +396,15 @@ public class TestCsvSourceConverter extends SmallTest {
                     return false;
                   }
                 })
+            .input(createInputSupplier)
             .schema(schema)
             .build();
     setupInputData();
-    List<RowSourceRecord> records = converter.convert(createReaderSupplier);
+    List<RowSourceRecord> records = converter.poll();
 
     Assert.assertEquals(0, records.size());
   }
 
-  @Test
-  public void testRegex() {
-    String[] splits = "1,\"2,3,4\",5".split(CsvSourceConverter.CSV_REGEX);
-    Assert.assertEquals(3, splits.length);
-    Assert.assertEquals("1", splits[0]);
-    Assert.assertEquals("\"2,3,4\"", splits[1]);
-    Assert.assertEquals("5", splits[2]);
-
-    String[] splits2 = "1,3,5".split(CsvSourceConverter.CSV_REGEX);
-    Assert.assertEquals(3, splits.length);
-    Assert.assertEquals("1", splits2[0]);
-    Assert.assertEquals("3", splits2[1]);
-    Assert.assertEquals("5", splits2[2]);
-  }
-
   class FakeOffsetCache implements OffsetCache {
     @Override
     public void update(RowSourceContext context, String path) {
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.text.csv;
+
+import com.island.ohara.common.rule.SmallTest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCsvTokenizer extends SmallTest {
+
+  private static CsvTokenizer tokenizer(String content) {
+    return new CsvTokenizer(
+        new LineReader(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+            StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testQuotedComma() throws IOException {
+    CsvTokenizer tokenizer = tokenizer("1,\"2,3,4\",5\n1,3,5");
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {"1", "2,3,4", "5"}, tokenizer.fields());
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {"1", "3", "5"}, tokenizer.fields());
+    Assert.assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void testEscapedQuote() throws IOException {
+    CsvTokenizer tokenizer = tokenizer("\"a\"\"b\",\"\"\"\",\"\"");
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {"a\"b", "\"", ""}, tokenizer.fields());
+  }
+
+  @Test
+  public void testLineBreakInQuotedField() throws IOException {
+    CsvTokenizer tokenizer = tokenizer("a,\"b\r\nc\n\",d\ne,f,g");
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {"a", "b\nc\n", "d"}, tokenizer.fields());
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {"e", "f", "g"}, tokenizer.fields());
+    Assert.assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void testTrim() throws IOException {
+    CsvTokenizer tokenizer = tokenizer(" a , \" b \" ,c ");
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {"a", " b ", "c"}, tokenizer.fields());
+  }
+
+  @Test
+  public void testEmptyFields() throws IOException {
+    CsvTokenizer tokenizer = tokenizer(",a,\n\n");
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {"", "a", ""}, tokenizer.fields());
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {""}, tokenizer.fields());
+    Assert.assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void testManyFields() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i != 100; ++i) builder.append(i == 0 ? "" : ",").append(i);
+    CsvTokenizer tokenizer = tokenizer(builder.toString());
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertEquals(100, tokenizer.count());
+    Assert.assertEquals("99", tokenizer.field(99));
+  }
+
+  @Test
+  public void testWanted() throws IOException {
+    CsvTokenizer tokenizer = tokenizer("a,\"b\",c,d");
+    tokenizer.wanted(new boolean[] {false, true, true});
+    Assert.assertTrue(tokenizer.next());
+    Assert.assertArrayEquals(new String[] {null, "b", "c", null}, tokenizer.fields());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnclosedQuote() throws IOException {
+    tokenizer("a,\"b\nc").next();
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.text.csv;
+
+import com.island.ohara.common.rule.SmallTest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestLineReader extends SmallTest {
+
+  private static LineReader reader(String content) {
+    return new LineReader(
+        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testReadLines() throws IOException {
+    try (LineReader reader = reader("a,b\r\n中文\n\nc")) {
+      Assert.assertEquals("a,b", reader.readLine());
+      Assert.assertEquals(5, reader.position());
+      Assert.assertEquals("中文", reader.readLine());
+      Assert.assertEquals(12, reader.position());
+      Assert.assertEquals("", reader.readLine());
+      Assert.assertEquals(13, reader.position());
+      Assert.assertEquals("c", reader.readLine());
+      Assert.assertEquals(14, reader.position());
+      Assert.assertNull(reader.readLine());
+    }
+  }
+
+  @Test
+  public void testLongLine() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i != 100000; ++i) builder.append(i % 10);
+    String line = builder.toString();
+    try (LineReader reader = reader(line + "\n" + line)) {
+      Assert.assertEquals(line, reader.readLine());
+      Assert.assertEquals(line, reader.readLine());
+      Assert.assertNull(reader.readLine());
+    }
+  }
+
+  @Test
+  public void testSeek() throws IOException {
+    try (LineReader reader = reader("header\nline0\nline1\n")) {
+      Assert.assertEquals("header", reader.readLine());
+      reader.seek(13);
+      Assert.assertEquals("line1", reader.readLine());
+      Assert.assertNull(reader.readLine());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSeekBackward() throws IOException {
+    try (LineReader reader = reader("header\nline0\n")) {
+      reader.readLine();
+      reader.seek(1);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testSeekOutOfRange() throws IOException {
+    try (LineReader reader = reader("header\n")) {
+      reader.seek(100);
+    }
+  }
+}
@@ -30,6 +30,7 @@ export const TABLE_HEADERS = ['connector name', 'version', 'revision'];
 export const CONNECTOR_FILTERS = [
   'com.island.ohara.connector.validation.Validator',
   'com.island.ohara.connector.perf.PerfSource',
+  'com.island.ohara.connector.perf.PerfSink',
   'org.apache.kafka.connect.file.FileStreamSourceConnector',
   'org.apache.kafka.connect.file.FileStreamSinkConnector',
 ];
@@ -40,6 +40,7 @@ public final class OStreamBuilder<K, V> {
   private Class<? extends TimestampExtractor> extractor = null;
   private boolean cleanStart = false;
   private boolean exactlyOnce = false;
+  private boolean lazyRow = false;
 
   // for inner use
   private Serde<K> builderKeySerde;
@@ -62,6 +63,7 @@ public final class OStreamBuilder<K, V> {
     this.builderKeySerde = builder.builderKeySerde;
     this.builderValueSerde = builder.builderValueSerde;
     this.exactlyOnce = builder.exactlyOnce;
+    this.lazyRow = builder.lazyRow;
   }
 
   /**
@@ -148,6 +150,17 @@ public final class OStreamBuilder<K, V> {
     return this;
   }
 
+  /**
+   * decode the cells of consumed rows on demand. It is useful to the stream which reads only a few
+   * cells of row, such as filter.
+   *
+   * @return this builder
+   */
+  public OStreamBuilder<K, V> lazyRow() {
+    this.lazyRow = true;
+    return this;
+  }
+
   /**
    * control this stream application should clean all state data before start.
    *
@@ -190,7 +203,7 @@ public final class OStreamBuilder<K, V> {
     this.appId = CommonUtils.requireNonEmpty(envs.get(StreamsConfig.STREAMAPP_APPID));
     this.fromTopicWith(
         CommonUtils.requireNonEmpty(envs.get(StreamsConfig.STREAMAPP_FROM_TOPICS)),
-        Serdes.ROW,
+        lazyRow ? Serdes.LAZY_ROW : Serdes.ROW,
         Serdes.BYTES);
     this.toTopicWith(
         CommonUtils.requireNonEmpty(envs.get(StreamsConfig.STREAMAPP_TO_TOPICS)),
@@ -23,13 +23,27 @@ import java.util.Map;
 // Kafka use it's own serializer to initial Serdes object, we need to implement that
 public class RowDeserializer implements org.apache.kafka.common.serialization.Deserializer<Row> {
 
+  private final Serializer<Row> serializer;
+
+  public RowDeserializer() {
+    this(Serializer.ROW);
+  }
+
+  /**
+   * @param serializer used to convert the bytes to row. {@link Serializer#LAZY_ROW} makes a row
+   *     which decodes the cell on demand
+   */
+  RowDeserializer(Serializer<Row> serializer) {
+    this.serializer = serializer;
+  }
+
   @Override
   public void configure(Map<String, ?> configs, boolean isKey) {}
 
   @Override
   public Row deserialize(String topic, byte[] data) {
     if (data == null) return null;
-    else return Serializer.ROW.from(data);
+    else return serializer.from(data);
   }
 
   @Override
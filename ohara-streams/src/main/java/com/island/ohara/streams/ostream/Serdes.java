@@ -17,12 +17,16 @@
 package com.island.ohara.streams.ostream;
 
 import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
 import java.util.Map;
 
 public class Serdes {
 
   public static Serde<String> STRING = StringSerde.get();
   public static Serde<Row> ROW = RowSerde.get();
+  /** the deserialized row is a view of bytes and its cells are decoded on demand */
+  public static Serde<Row> LAZY_ROW = LazyRowSerde.get();
+
   public static Serde<Double> DOUBLE = DoubleSerde.get();
   public static Serde<byte[]> BYTES = BytesSerde.get();
 
@@ -77,6 +81,16 @@ public class Serdes {
     }
   }
 
+  public static final class LazyRowSerde extends WrapperSerde<Row> {
+    public LazyRowSerde() {
+      super(new RowSerializer(), new RowDeserializer(Serializer.LAZY_ROW));
+    }
+
+    static Serde<Row> get() {
+      return new WrapperSerde<>(new RowSerializer(), new RowDeserializer(Serializer.LAZY_ROW));
+    }
+  }
+
   public static final class DoubleSerde extends WrapperSerde<Double> {
     public DoubleSerde() {
       super(new DoubleSerializer(), new DoubleDeserializer());